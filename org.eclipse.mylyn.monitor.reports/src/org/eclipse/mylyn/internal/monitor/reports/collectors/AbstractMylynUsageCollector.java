@@ -11,7 +11,9 @@
 
 package org.eclipse.mylyn.internal.monitor.reports.collectors;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.eclipse.mylyn.internal.monitor.core.collection.CommandUsageCollector;
@@ -31,6 +33,11 @@ public abstract class AbstractMylynUsageCollector extends DelegatingUsageCollect
 
 	protected CommandUsageCollector commandUsageCollector = new CommandUsageCollector();
 
+	/**
+	 * The commands consumed by a partial collector, null otherwise.
+	 */
+	private List<ConsumedCommand> consumedCommands;
+
 	public AbstractMylynUsageCollector() {
 		super.getDelegates().add(commandUsageCollector);
 	}
@@ -49,6 +56,50 @@ public abstract class AbstractMylynUsageCollector extends DelegatingUsageCollect
 		if (FocusedUiUsageDetector.isAMylynDeactivateCommand(event)) {
 			mylynInactiveUserIds.add(userId);
 		}
+		if (consumedCommands != null && event.getKind().equals(InteractionEvent.Kind.COMMAND)) {
+			consumedCommands.add(new ConsumedCommand(event, userId));
+		}
+	}
+
+	/**
+	 * Makes this collector keep the commands it consumes so that they can be replayed into the command collector of
+	 * the collector it is merged into. To be invoked by subclasses for partial collectors.
+	 */
+	protected void recordCommands() {
+		consumedCommands = new ArrayList<ConsumedCommand>();
+	}
+
+	/**
+	 * Merges the users, their task activation state and the commands of <code>partial</code>, which must have recorded
+	 * its commands.
+	 */
+	protected void mergeUsersAndCommands(AbstractMylynUsageCollector partial) {
+		for (Integer userId : partial.userIds) {
+			if (partial.mylynInactiveUserIds.contains(userId)) {
+				mylynInactiveUserIds.add(userId);
+			} else if (partial.mylynUserIds.contains(userId)) {
+				// activated after the last deactivation
+				mylynInactiveUserIds.remove(userId);
+			}
+		}
+		userIds.addAll(partial.userIds);
+		mylynUserIds.addAll(partial.mylynUserIds);
+		for (ConsumedCommand command : partial.consumedCommands) {
+			commandUsageCollector.consumeEvent(command.event, command.userId);
+		}
+	}
+
+	private static class ConsumedCommand {
+
+		private final InteractionEvent event;
+
+		private final int userId;
+
+		private ConsumedCommand(InteractionEvent event, int userId) {
+			this.event = event;
+			this.userId = userId;
+		}
+
 	}
 
 }
@@ -16,7 +16,6 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -26,6 +25,7 @@ import org.eclipse.mylyn.commons.core.DateUtil;
 import org.eclipse.mylyn.commons.core.StatusHandler;
 import org.eclipse.mylyn.internal.monitor.reports.MonitorReportsPlugin;
 import org.eclipse.mylyn.internal.monitor.usage.ReportGenerator;
+import org.eclipse.mylyn.internal.monitor.usage.collectors.MergeableUsageCollector;
 import org.eclipse.mylyn.internal.tasks.ui.actions.TaskActivateAction;
 import org.eclipse.mylyn.internal.tasks.ui.actions.TaskDeactivateAction;
 import org.eclipse.mylyn.monitor.core.InteractionEvent;
@@ -35,7 +35,7 @@ import org.eclipse.mylyn.monitor.core.InteractionEvent;
  * 
  * @author Mik Kersten
  */
-public class FocusedUiUsageAnalysisCollector extends AbstractMylynUsageCollector {
+public class FocusedUiUsageAnalysisCollector extends AbstractMylynUsageCollector implements MergeableUsageCollector {
 
 	public static final int BASELINE_EDITS_THRESHOLD = 1000;
 
@@ -43,49 +43,28 @@ public class FocusedUiUsageAnalysisCollector extends AbstractMylynUsageCollector
 
 	private static final int NUM_VIEWS_REPORTED = 5;
 
+	/**
+	 * Marks an elapsed time that was never accumulated, which is reported as 0 rather than as 0.0 hours.
+	 */
+	private static final long NO_TIME = -1;
+
 	private float summaryEditRatioDelta = 0;
 
 	private final List<Integer> usersImproved = new ArrayList<Integer>();
 
 	private final List<Integer> usersDegraded = new ArrayList<Integer>();
 
-	private final Map<Integer, Date> startDates = new HashMap<Integer, Date>();
-
-	private final Map<Integer, Integer> numMylynActiveJavaEdits = new HashMap<Integer, Integer>();
-
-	private final Map<Integer, Date> endDates = new HashMap<Integer, Date>();
-
-	private final Map<Integer, Integer> baselineSelections = new HashMap<Integer, Integer>();
-
-	private final Map<Integer, Integer> baselineEdits = new HashMap<Integer, Integer>();
-
-	private final Map<Integer, Integer> mylynInactiveSelections = new HashMap<Integer, Integer>();
-
-	private final Map<Integer, Integer> mylynInactiveEdits = new HashMap<Integer, Integer>();
-
-	private final Map<Integer, Integer> mylynSelections = new HashMap<Integer, Integer>();
-
-	private final Map<Integer, Integer> mylynEdits = new HashMap<Integer, Integer>();
-
-	private final Map<Integer, Integer> baselineCurrentNumSelectionsBeforeEdit = new HashMap<Integer, Integer>();
-
-	private final Map<Integer, Integer> baselineTotalSelectionsBeforeEdit = new HashMap<Integer, Integer>();
-
-	private final Map<Integer, Integer> baselineTotalEditsCounted = new HashMap<Integer, Integer>();
-
-	private final Map<Integer, Integer> mylynCurrentNumSelectionsBeforeEdit = new HashMap<Integer, Integer>();
-
-	private final Map<Integer, Integer> mylynTotalSelectionsBeforeEdit = new HashMap<Integer, Integer>();
-
-	private final Map<Integer, Integer> mylynTotalEditsCounted = new HashMap<Integer, Integer>();
-
-	private final Map<Integer, InteractionEvent> lastUserEvent = new HashMap<Integer, InteractionEvent>();
-
-	private final Map<Integer, Long> timeMylynActive = new HashMap<Integer, Long>();
+	/**
+	 * The records of the users, an open addressing table with linear probing that is keyed by user id.
+	 */
+	private UserRecord[] records = new UserRecord[16];
 
-	private final Map<Integer, Long> timeMylynInactive = new HashMap<Integer, Long>();
+	private int recordCount;
 
-	private final Map<Integer, Long> timeBaseline = new HashMap<Integer, Long>();
+	/**
+	 * The record looked up last, the events of a user are typically consumed in sequence.
+	 */
+	private UserRecord lastRecord;
 
 	private final FocusedUiViewUsageCollector viewUsageCollector = new FocusedUiViewUsageCollector();
 
@@ -102,75 +81,150 @@ public class FocusedUiUsageAnalysisCollector extends AbstractMylynUsageCollector
 	@Override
 	public void consumeEvent(InteractionEvent event, int userId) {
 		super.consumeEvent(event, userId);
-		if (!startDates.containsKey(userId)) {
-			startDates.put(userId, event.getDate());
+		UserRecord record = getOrCreateRecord(userId);
+		if (record.startDate == null) {
+			record.startDate = event.getDate();
 		}
-		endDates.put(userId, event.getDate());
+		record.endDate = event.getDate();
 
 		// Mylyn is active
 		if (mylynUserIds.contains(userId) && !mylynInactiveUserIds.contains(userId)) {
-			accumulateDuration(event, userId, timeMylynActive);
+			record.timeMylynActive = accumulateDuration(event, record, record.timeMylynActive);
 			if (isJavaEdit(event)) {
-				incrementCount(userId, numMylynActiveJavaEdits);
+				record.numMylynActiveJavaEdits++;
 			}
 			if (isSelection(event)) {
-				incrementCount(userId, mylynSelections);
-				incrementCount(userId, mylynCurrentNumSelectionsBeforeEdit);
+				record.mylynSelections++;
+				record.mylynCurrentNumSelectionsBeforeEdit++;
 			} else if (isEdit(event)) {
-				incrementCount(userId, mylynEdits);
-
-				if (mylynCurrentNumSelectionsBeforeEdit.containsKey((userId))) {
-					int num = mylynCurrentNumSelectionsBeforeEdit.get(userId);
-					if (num > 0) {
-						incrementCount(userId, mylynTotalEditsCounted);
-						incrementCount(userId, mylynTotalSelectionsBeforeEdit, num);
-						mylynCurrentNumSelectionsBeforeEdit.put(userId, 0);
-					}
+				record.mylynEdits++;
+
+				int num = record.mylynCurrentNumSelectionsBeforeEdit;
+				if (num > 0) {
+					record.mylynTotalEditsCounted++;
+					record.mylynTotalSelectionsBeforeEdit += num;
+					record.mylynCurrentNumSelectionsBeforeEdit = 0;
 				}
 			}
 			// Mylyn is inactive
 		} else if (mylynInactiveUserIds.contains(userId)) {
-			accumulateDuration(event, userId, timeMylynInactive);
+			record.timeMylynInactive = accumulateDuration(event, record, record.timeMylynInactive);
 			if (isSelection(event)) {
-				incrementCount(userId, mylynInactiveSelections);
+				record.mylynInactiveSelections++;
 			} else if (isEdit(event)) {
-				incrementCount(userId, mylynInactiveEdits);
+				record.mylynInactiveEdits++;
 			}
 			// Baseline
 		} else {
-			accumulateDuration(event, userId, timeBaseline);
+			record.timeBaseline = accumulateDuration(event, record, record.timeBaseline);
 			if (isSelection(event)) {
-				incrementCount(userId, baselineSelections);
+				record.baselineSelections++;
 
-				incrementCount(userId, baselineCurrentNumSelectionsBeforeEdit);
+				record.baselineCurrentNumSelectionsBeforeEdit++;
 			} else if (isEdit(event)) {
-				incrementCount(userId, baselineEdits);
-
-				if (baselineCurrentNumSelectionsBeforeEdit.containsKey((userId))) {
-					int num = baselineCurrentNumSelectionsBeforeEdit.get(userId);
-					if (num > 0) {
-						incrementCount(userId, baselineTotalEditsCounted);
-						incrementCount(userId, baselineTotalSelectionsBeforeEdit, num);
-						baselineCurrentNumSelectionsBeforeEdit.put(userId, 0);
-					}
+				record.baselineEdits++;
+
+				int num = record.baselineCurrentNumSelectionsBeforeEdit;
+				if (num > 0) {
+					record.baselineTotalEditsCounted++;
+					record.baselineTotalSelectionsBeforeEdit += num;
+					record.baselineCurrentNumSelectionsBeforeEdit = 0;
 				}
 			}
 		}
 	}
 
-	private void accumulateDuration(InteractionEvent event, int userId, Map<Integer, Long> timeAccumulator) {
+	public MergeableUsageCollector newPartial() {
+		FocusedUiUsageAnalysisCollector partial = new FocusedUiUsageAnalysisCollector();
+		partial.recordCommands();
+		return partial;
+	}
+
+	public void merge(MergeableUsageCollector partial) {
+		FocusedUiUsageAnalysisCollector other = (FocusedUiUsageAnalysisCollector) partial;
+		mergeUsersAndCommands(other);
+		viewUsageCollector.merge(other.viewUsageCollector);
+		for (UserRecord partialRecord : other.records) {
+			if (partialRecord != null) {
+				UserRecord record = getRecord(partialRecord.userId);
+				if (record == null) {
+					addRecord(partialRecord);
+				} else {
+					record.add(partialRecord);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds the time elapsed since the last event of the user to <code>time</code>, unless more than 5 min have
+	 * elapsed.
+	 * 
+	 * @return the accumulated time
+	 */
+	private long accumulateDuration(InteractionEvent event, UserRecord record, long time) {
 		// Restart accumulation if greater than 5 min has elapsed between events
-		if (lastUserEvent.containsKey(userId)) {
-			long elapsed = event.getDate().getTime() - lastUserEvent.get(userId).getDate().getTime();
+		if (record.lastEvent != null) {
+			long elapsed = event.getDate().getTime() - record.lastEvent.getDate().getTime();
 
 			if (elapsed < 5 * 60 * 1000) {
-				if (!timeAccumulator.containsKey(userId)) {
-					timeAccumulator.put(userId, new Long(0));
+				time = (time == NO_TIME) ? elapsed : time + elapsed;
+			}
+		}
+		record.lastEvent = event;
+		return time;
+	}
+
+	private UserRecord getRecord(int userId) {
+		if (lastRecord != null && lastRecord.userId == userId) {
+			return lastRecord;
+		}
+		int mask = records.length - 1;
+		for (int i = getSlot(userId, mask); records[i] != null; i = (i + 1) & mask) {
+			if (records[i].userId == userId) {
+				lastRecord = records[i];
+				return lastRecord;
+			}
+		}
+		return null;
+	}
+
+	private UserRecord getOrCreateRecord(int userId) {
+		UserRecord record = getRecord(userId);
+		if (record == null) {
+			record = new UserRecord(userId);
+			addRecord(record);
+		}
+		return record;
+	}
+
+	private void addRecord(UserRecord record) {
+		if (2 * (recordCount + 1) > records.length) {
+			UserRecord[] oldRecords = records;
+			records = new UserRecord[oldRecords.length * 2];
+			for (UserRecord oldRecord : oldRecords) {
+				if (oldRecord != null) {
+					insert(oldRecord);
 				}
-				timeAccumulator.put(userId, timeAccumulator.get(userId) + elapsed);
 			}
 		}
-		lastUserEvent.put(userId, event);
+		insert(record);
+		recordCount++;
+		lastRecord = record;
+	}
+
+	private void insert(UserRecord record) {
+		int mask = records.length - 1;
+		int i = getSlot(record.userId, mask);
+		while (records[i] != null) {
+			i = (i + 1) & mask;
+		}
+		records[i] = record;
+	}
+
+	private static int getSlot(int userId, int mask) {
+		int hash = userId * 0x9E3779B9;
+		return (hash ^ (hash >>> 16)) & mask;
 	}
 
 	public static boolean isEdit(InteractionEvent event) {
@@ -192,17 +246,6 @@ public class FocusedUiUsageAnalysisCollector extends AbstractMylynUsageCollector
 				&& (event.getOriginId().contains("java") || event.getOriginId().contains("jdt.ui"));
 	}
 
-	private void incrementCount(int userId, Map<Integer, Integer> map, int count) {
-		if (!map.containsKey(userId)) {
-			map.put(userId, 0);
-		}
-		map.put(userId, map.get(userId) + count);
-	}
-
-	private void incrementCount(int userId, Map<Integer, Integer> map) {
-		incrementCount(userId, map, 1);
-	}
-
 	@Override
 	public List<String> getReport() {
 		usersImproved.clear();
@@ -241,8 +284,9 @@ public class FocusedUiUsageAnalysisCollector extends AbstractMylynUsageCollector
 						+ ReportGenerator.formatPercentage(100 * ((editsActive) / (editsInactive + editsActive)))
 						+ "%</b><br>");
 
-				report.add("Elapsed time baseline: " + getTime(id, timeBaseline) + ", active: "
-						+ getTime(id, timeMylynActive) + ", inactive: " + getTime(id, timeMylynInactive) + "<br>");
+				report.add("Elapsed time baseline: " + getTime(getRecord(id).timeBaseline) + ", active: "
+						+ getTime(getRecord(id).timeMylynActive) + ", inactive: "
+						+ getTime(getRecord(id).timeMylynInactive) + "<br>");
 
 				report.add("Selections baseline: " + getNumBaselineSelections(id) + ", Mylyn active: "
 						+ getNumMylynSelections(id) + ", inactive: " + getNumMylynInactiveSelections(id) + "<br>");
@@ -339,9 +383,9 @@ public class FocusedUiUsageAnalysisCollector extends AbstractMylynUsageCollector
 					float editsInactive = getNumInactiveEdits(userId);
 					writer.write(100 * ((editsActive) / (editsInactive + editsActive)) + ", ");
 
-					writer.write(getTime(userId, timeBaseline) + ", ");
-					writer.write(getTime(userId, timeMylynActive) + ", ");
-					writer.write(getTime(userId, timeMylynInactive) + ", ");
+					writer.write(getTime(getRecord(userId).timeBaseline) + ", ");
+					writer.write(getTime(getRecord(userId).timeMylynActive) + ", ");
+					writer.write(getTime(getRecord(userId).timeMylynInactive) + ", ");
 
 					int numTaskActivations = commandUsageCollector.getCommands().getUserCount(userId,
 							TaskActivateAction.ID);
@@ -390,9 +434,9 @@ public class FocusedUiUsageAnalysisCollector extends AbstractMylynUsageCollector
 		}
 	}
 
-	private String getTime(int id, Map<Integer, Long> timeMap) {
-		if (timeMap.containsKey(id)) {
-			long timeInSeconds = timeMap.get(id) / 1000;
+	private String getTime(long time) {
+		if (time != NO_TIME) {
+			long timeInSeconds = time / 1000;
 			long hours, minutes;
 			hours = timeInSeconds / 3600;
 			timeInSeconds = timeInSeconds - (hours * 3600);
@@ -429,7 +473,8 @@ public class FocusedUiUsageAnalysisCollector extends AbstractMylynUsageCollector
 		// if (i == id) return true;
 		// }
 		// return false;
-		if (!numMylynActiveJavaEdits.containsKey(id)) {
+		UserRecord record = getRecord(id);
+		if (record == null || record.numMylynActiveJavaEdits == 0) {
 			return false;
 		} else {
 			return getNumBaselineEdits(id) > BASELINE_EDITS_THRESHOLD && getNumMylynEdits(id) > MYLYN_EDITS_THRESHOLD;
@@ -438,95 +483,167 @@ public class FocusedUiUsageAnalysisCollector extends AbstractMylynUsageCollector
 
 	public String getStartDate(int id) {
 		Calendar start = Calendar.getInstance();
-		start.setTime(startDates.get(id));
+		start.setTime(getRecord(id).startDate);
 		return DateUtil.getIsoFormattedDate(start);
 	}
 
 	public String getEndDate(int id) {
 		Calendar end = Calendar.getInstance();
-		end.setTime(endDates.get(id));
+		end.setTime(getRecord(id).endDate);
 		return DateUtil.getIsoFormattedDate(end);
 	}
 
 	public int getNumBaselineSelections(int id) {
-		if (baselineSelections.containsKey(id)) {
-			return baselineSelections.get(id);
-		} else {
-			return 0;
-		}
+		UserRecord record = getRecord(id);
+		return (record != null) ? record.baselineSelections : 0;
 	}
 
 	public int getNumBaselineEdits(int id) {
-		if (baselineEdits.containsKey(id)) {
-			return baselineEdits.get(id);
-		} else {
-			return 0;
-		}
+		UserRecord record = getRecord(id);
+		return (record != null) ? record.baselineEdits : 0;
 	}
 
 	public int getNumMylynEdits(int id) {
-		if (mylynEdits.containsKey(id)) {
-			return mylynEdits.get(id);
-		} else {
-			return 0;
-		}
+		UserRecord record = getRecord(id);
+		return (record != null) ? record.mylynEdits : 0;
 	}
 
 	public int getNumMylynInactiveEdits(int id) {
-		if (mylynInactiveEdits.containsKey(id)) {
-			return mylynInactiveEdits.get(id);
-		} else {
-			return 0;
-		}
+		UserRecord record = getRecord(id);
+		return (record != null) ? record.mylynInactiveEdits : 0;
 	}
 
 	public int getNumInactiveEdits(int id) {
-		if (mylynInactiveEdits.containsKey(id)) {
-			return mylynInactiveEdits.get(id);
-		} else {
-			return 0;
-		}
+		UserRecord record = getRecord(id);
+		return (record != null) ? record.mylynInactiveEdits : 0;
 	}
 
 	public int getNumMylynInactiveSelections(int id) {
-		if (mylynInactiveSelections.containsKey(id)) {
-			return mylynInactiveSelections.get(id);
-		} else {
-			return 0;
-		}
+		UserRecord record = getRecord(id);
+		return (record != null) ? record.mylynInactiveSelections : 0;
 	}
 
 	public int getNumMylynSelections(int id) {
-		if (mylynSelections.containsKey(id)) {
-			return mylynSelections.get(id);
-		} else {
-			return 0;
-		}
+		UserRecord record = getRecord(id);
+		return (record != null) ? record.mylynSelections : 0;
 	}
 
 	/**
 	 * Public for testing.
 	 */
 	public float getBaselineRatio(int id) {
-		return getEditRatio(id, baselineEdits, baselineSelections);
+		UserRecord record = getRecord(id);
+		return (record != null) ? getEditRatio(record.baselineEdits, record.baselineSelections) : 0f;
 	}
 
 	public float getMylynInactiveRatio(int id) {
-		return getEditRatio(id, mylynInactiveEdits, mylynInactiveSelections);
+		UserRecord record = getRecord(id);
+		return (record != null) ? getEditRatio(record.mylynInactiveEdits, record.mylynInactiveSelections) : 0f;
 	}
 
 	/**
 	 * Public for testing.
 	 */
 	public float getMylynRatio(int id) {
-		return getEditRatio(id, mylynEdits, mylynSelections);
+		UserRecord record = getRecord(id);
+		return (record != null) ? getEditRatio(record.mylynEdits, record.mylynSelections) : 0f;
 	}
 
-	private float getEditRatio(int id, Map<Integer, Integer> edits, Map<Integer, Integer> selections) {
-		if (edits.containsKey(id) && selections.containsKey(id)) {
-			return (float) edits.get(id) / (float) selections.get(id);
+	private float getEditRatio(int edits, int selections) {
+		if (edits > 0 && selections > 0) {
+			return (float) edits / (float) selections;
 		} else {
 			return 0f;
 		}
 	}
+
+	/**
+	 * The counters of a user.
+	 */
+	private static class UserRecord {
+
+		private final int userId;
+
+		private Date startDate;
+
+		private Date endDate;
+
+		private InteractionEvent lastEvent;
+
+		private int numMylynActiveJavaEdits;
+
+		private int baselineSelections;
+
+		private int baselineEdits;
+
+		private int mylynInactiveSelections;
+
+		private int mylynInactiveEdits;
+
+		private int mylynSelections;
+
+		private int mylynEdits;
+
+		private int baselineCurrentNumSelectionsBeforeEdit;
+
+		private int baselineTotalSelectionsBeforeEdit;
+
+		private int baselineTotalEditsCounted;
+
+		private int mylynCurrentNumSelectionsBeforeEdit;
+
+		private int mylynTotalSelectionsBeforeEdit;
+
+		private int mylynTotalEditsCounted;
+
+		private long timeMylynActive = NO_TIME;
+
+		private long timeMylynInactive = NO_TIME;
+
+		private long timeBaseline = NO_TIME;
+
+		private UserRecord(int userId) {
+			this.userId = userId;
+		}
+
+		/**
+		 * Adds the counters of the record of the same user of a partial collector that consumed later events.
+		 */
+		private void add(UserRecord partial) {
+			if (startDate == null) {
+				startDate = partial.startDate;
+			}
+			if (partial.endDate != null) {
+				endDate = partial.endDate;
+			}
+			if (partial.lastEvent != null) {
+				lastEvent = partial.lastEvent;
+			}
+			numMylynActiveJavaEdits += partial.numMylynActiveJavaEdits;
+			baselineSelections += partial.baselineSelections;
+			baselineEdits += partial.baselineEdits;
+			mylynInactiveSelections += partial.mylynInactiveSelections;
+			mylynInactiveEdits += partial.mylynInactiveEdits;
+			mylynSelections += partial.mylynSelections;
+			mylynEdits += partial.mylynEdits;
+			baselineCurrentNumSelectionsBeforeEdit += partial.baselineCurrentNumSelectionsBeforeEdit;
+			baselineTotalSelectionsBeforeEdit += partial.baselineTotalSelectionsBeforeEdit;
+			baselineTotalEditsCounted += partial.baselineTotalEditsCounted;
+			mylynCurrentNumSelectionsBeforeEdit += partial.mylynCurrentNumSelectionsBeforeEdit;
+			mylynTotalSelectionsBeforeEdit += partial.mylynTotalSelectionsBeforeEdit;
+			mylynTotalEditsCounted += partial.mylynTotalEditsCounted;
+			timeMylynActive = addTime(timeMylynActive, partial.timeMylynActive);
+			timeMylynInactive = addTime(timeMylynInactive, partial.timeMylynInactive);
+			timeBaseline = addTime(timeBaseline, partial.timeBaseline);
+		}
+
+		private static long addTime(long time, long partialTime) {
+			if (partialTime == NO_TIME) {
+				return time;
+			}
+			return (time == NO_TIME) ? partialTime : time + partialTime;
+		}
+
+	}
+
 }
@@ -20,6 +20,7 @@ import java.util.Set;
 
 import org.eclipse.mylyn.context.ui.AbstractFocusViewAction;
 import org.eclipse.mylyn.internal.monitor.core.collection.ViewUsageCollector;
+import org.eclipse.mylyn.internal.monitor.usage.collectors.MergeableUsageCollector;
 import org.eclipse.mylyn.internal.tasks.ui.actions.TaskActivateAction;
 import org.eclipse.mylyn.internal.tasks.ui.actions.TaskDeactivateAction;
 import org.eclipse.mylyn.monitor.core.InteractionEvent;
@@ -27,7 +28,7 @@ import org.eclipse.mylyn.monitor.core.InteractionEvent;
 /**
  * @author Mik Kersten
  */
-public class FocusedUiViewUsageCollector extends ViewUsageCollector {
+public class FocusedUiViewUsageCollector extends ViewUsageCollector implements MergeableUsageCollector {
 
 	private final Set<Integer> mylynUserIds = new HashSet<Integer>();
 
@@ -126,6 +127,46 @@ public class FocusedUiViewUsageCollector extends ViewUsageCollector {
 		}
 	}
 
+	public MergeableUsageCollector newPartial() {
+		FocusedUiViewUsageCollector partial = new FocusedUiViewUsageCollector();
+		partial.setMaxViewsToReport(maxViewsToReport);
+		return partial;
+	}
+
+	public void merge(MergeableUsageCollector partial) {
+		FocusedUiViewUsageCollector other = (FocusedUiViewUsageCollector) partial;
+		addCounts(usersNumSelections, other.usersNumSelections);
+		addUserCounts(usersNormalViewSelections, other.usersNormalViewSelections);
+		addUserCounts(usersFilteredViewSelections, other.usersFilteredViewSelections);
+		addCounts(usersNumDecayed, other.usersNumDecayed);
+		addCounts(usersNumDefault, other.usersNumDefault);
+		addCounts(usersNumNew, other.usersNumNew);
+		addCounts(usersNumPredicted, other.usersNumPredicted);
+		addCounts(usersNumUnknown, other.usersNumUnknown);
+		// the views that are filtered at the end of the partial are current
+		usersFilteredViews.putAll(other.usersFilteredViews);
+		mylynUserIds.addAll(other.mylynUserIds);
+	}
+
+	private static void addUserCounts(Map<Integer, Map<String, Integer>> counts,
+			Map<Integer, Map<String, Integer>> partialCounts) {
+		for (Map.Entry<Integer, Map<String, Integer>> entry : partialCounts.entrySet()) {
+			Map<String, Integer> userCounts = counts.get(entry.getKey());
+			if (userCounts == null) {
+				counts.put(entry.getKey(), entry.getValue());
+			} else {
+				addCounts(userCounts, entry.getValue());
+			}
+		}
+	}
+
+	private static <K> void addCounts(Map<K, Integer> counts, Map<K, Integer> partialCounts) {
+		for (Map.Entry<K, Integer> entry : partialCounts.entrySet()) {
+			Integer count = counts.get(entry.getKey());
+			counts.put(entry.getKey(), (count != null) ? count + entry.getValue() : entry.getValue());
+		}
+	}
+
 	public int getFilteredSelections(int userId, String viewId) {
 		Map<String, Integer> filteredViewSelections = usersFilteredViewSelections.get(userId);
 		if (filteredViewSelections.containsKey(viewId)) {
@@ -95,6 +95,7 @@ public class EclipseUsageSummaryAction implements IViewActionDelegate {
 									}
 								}
 							});
+					UiUsageMonitorPlugin.getDefault().configureReportGenerator(generator);
 
 				}
 			});
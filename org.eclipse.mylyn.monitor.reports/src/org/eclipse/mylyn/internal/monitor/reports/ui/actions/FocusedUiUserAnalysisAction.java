@@ -59,6 +59,7 @@ public class FocusedUiUserAnalysisAction implements IViewActionDelegate {
 						collectors.add(new FocusedUiUsageAnalysisCollector());
 						ReportGenerator generator = new ReportGenerator(UiUsageMonitorPlugin.getDefault()
 								.getInteractionLogger(), collectors);
+						UiUsageMonitorPlugin.getDefault().configureReportGenerator(generator);
 
 						IWorkbenchPage page = MonitorReportsPlugin.getDefault()
 								.getWorkbench()
@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.internal.monitor.usage;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Reads the bytes between the position and the limit of a buffer, e.g. a mapped file, advancing its position.
+ */
+class ByteBufferInputStream extends InputStream {
+
+	private final ByteBuffer bytes;
+
+	private int mark;
+
+	ByteBufferInputStream(ByteBuffer bytes) {
+		this.bytes = bytes;
+	}
+
+	@Override
+	public int read() {
+		return bytes.hasRemaining() ? bytes.get() & 0xFF : -1;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) {
+		if (!bytes.hasRemaining()) {
+			return -1;
+		}
+		len = Math.min(len, bytes.remaining());
+		bytes.get(b, off, len);
+		return len;
+	}
+
+	@Override
+	public boolean markSupported() {
+		return true;
+	}
+
+	@Override
+	public synchronized void mark(int readlimit) {
+		mark = bytes.position();
+	}
+
+	@Override
+	public synchronized void reset() {
+		bytes.position(mark);
+	}
+
+}
@@ -0,0 +1,63 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.internal.monitor.usage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Reads a range of a file with positional reads that do not affect other readers of the channel.
+ */
+class FileRangeChannel implements ReadableByteChannel {
+
+	private final FileChannel channel;
+
+	private long position;
+
+	private final long end;
+
+	FileRangeChannel(FileChannel channel, long start, long end) {
+		this.channel = channel;
+		this.position = start;
+		this.end = end;
+	}
+
+	public int read(ByteBuffer dst) throws IOException {
+		if (position >= end) {
+			return -1;
+		}
+		int limit = dst.limit();
+		if (dst.remaining() > end - position) {
+			dst.limit(dst.position() + (int) (end - position));
+		}
+		try {
+			int read = channel.read(dst, position);
+			if (read > 0) {
+				position += read;
+			}
+			return read;
+		} finally {
+			dst.limit(limit);
+		}
+	}
+
+	public boolean isOpen() {
+		return true;
+	}
+
+	public void close() {
+		// the channel is shared by all ranges
+	}
+
+}
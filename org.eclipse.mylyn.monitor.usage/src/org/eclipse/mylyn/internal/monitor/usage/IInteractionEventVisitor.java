@@ -0,0 +1,29 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.internal.monitor.usage;
+
+import org.eclipse.mylyn.monitor.core.InteractionEvent;
+
+/**
+ * Receives the events of a monitor log as they are read from disk.
+ *
+ * @see InteractionEventLogger#visitHistory(java.io.File, IInteractionEventVisitor,
+ *      org.eclipse.core.runtime.IProgressMonitor)
+ */
+public interface IInteractionEventVisitor {
+
+	/**
+	 * @return false, to stop reading the log
+	 */
+	public abstract boolean visit(InteractionEvent event);
+
+}
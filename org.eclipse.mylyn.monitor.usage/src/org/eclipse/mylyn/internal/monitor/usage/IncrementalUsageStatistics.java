@@ -0,0 +1,371 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.internal.monitor.usage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.mylyn.commons.core.StatusHandler;
+import org.eclipse.mylyn.internal.monitor.core.collection.InteractionEventSummary;
+import org.eclipse.mylyn.monitor.core.IInteractionEventListener;
+import org.eclipse.mylyn.monitor.core.InteractionEvent;
+
+/**
+ * Maintains the command usage table of the monitor log as events are logged, so that a usage summary of the log does
+ * not need to read the whole log. The statistics listen to the events written by {@link InteractionEventLogger} and
+ * are saved to a checkpoint file whenever monitoring stops.
+ * <p>
+ * When monitoring starts the checkpoint is compared to the log. If the log was only appended to since the checkpoint
+ * was saved, just the events after the checkpoint are replayed, otherwise, e.g. after a rollover, the log is replayed
+ * from the start. The replay is deferred until the table is requested, or monitoring stops, so that starting the
+ * monitor does not read the log. The events are read like by {@link InteractionEventLogIndex}; for logs in the binary
+ * format the checkpoint is at the start of a segment.
+ * <p>
+ * An event that is equal to an event with the same date counted just before is counted once, like the reports of
+ * {@link ReportGenerator} do. The rows of the table have no user ids.
+ *
+ * @see InteractionEventLogger#addLogListener(IInteractionEventListener)
+ */
+public class IncrementalUsageStatistics implements IInteractionEventListener {
+
+	private static final int MAGIC = 0x4D4C5553;
+
+	private static final int VERSION = 1;
+
+	/**
+	 * Number of bytes before the checkpoint that are compared to detect a rewritten log.
+	 */
+	private static final int TAIL_LENGTH = 64;
+
+	private final File log;
+
+	private final File checkpointFile;
+
+	private final Map<String, InteractionEventSummary> usageTable = new HashMap<String, InteractionEventSummary>();
+
+	/**
+	 * The events counted last that have the same date.
+	 */
+	private final List<InteractionEvent> run = new ArrayList<InteractionEvent>();
+
+	/**
+	 * The offset in the log up to which events were counted when monitoring stopped, or the start of the range that
+	 * needs to be replayed.
+	 */
+	private long offset;
+
+	/**
+	 * The bytes of the log before {@link #offset}.
+	 */
+	private byte[] tail = new byte[0];
+
+	/**
+	 * The end of the range of the log that was written while the statistics were not listening, -1 if there is nothing
+	 * to replay.
+	 */
+	private long replayEnd = -1;
+
+	private boolean loaded;
+
+	private boolean monitoring;
+
+	/**
+	 * Set if the log could not be replayed, the statistics are replayed from the start when monitoring starts again.
+	 */
+	private boolean damaged;
+
+	private int replayCount;
+
+	public IncrementalUsageStatistics(File log, File checkpointFile) {
+		this.log = log;
+		this.checkpointFile = checkpointFile;
+	}
+
+	public File getLog() {
+		return log;
+	}
+
+	public File getCheckpointFile() {
+		return checkpointFile;
+	}
+
+	/**
+	 * Counts an event that was written to the log.
+	 */
+	public synchronized void interactionObserved(InteractionEvent event) {
+		if (!damaged) {
+			count(event);
+		}
+	}
+
+	private void count(InteractionEvent event) {
+		if (!run.isEmpty() && run.get(0).getDate().getTime() != event.getDate().getTime()) {
+			run.clear();
+		}
+		for (InteractionEvent previous : run) {
+			if (InteractionEventMergeCursor.equals(previous, event)) {
+				return;
+			}
+		}
+		run.add(event);
+		ReportGenerator.addToUsageTable(usageTable, event);
+	}
+
+	/**
+	 * Invoked after the log was opened and before events are written to it. Reads the checkpoint when monitoring starts
+	 * for the first time and determines the range of the log that needs to be replayed.
+	 */
+	public synchronized void startMonitoring() {
+		if (!loaded) {
+			loaded = true;
+			load();
+		}
+		try {
+			if (damaged || log.length() < offset || !Arrays.equals(tail, readTail(offset))) {
+				// the log was rewritten or replaced
+				reset();
+			}
+		} catch (IOException e) {
+			reset();
+		}
+		long length = log.length();
+		replayEnd = (length > offset) ? length : -1;
+		run.clear();
+		monitoring = true;
+	}
+
+	/**
+	 * Invoked after all events were written to the log. Saves the checkpoint.
+	 */
+	public synchronized void stopMonitoring() {
+		monitoring = false;
+		replay();
+		if (damaged) {
+			reset();
+			checkpointFile.delete();
+			return;
+		}
+		try {
+			offset = log.length();
+			tail = readTail(offset);
+		} catch (IOException e) {
+			StatusHandler.log(new Status(IStatus.WARNING, UiUsageMonitorPlugin.ID_PLUGIN,
+					"Could not read monitor log", e)); //$NON-NLS-1$
+			reset();
+			checkpointFile.delete();
+			return;
+		}
+		save();
+	}
+
+	/**
+	 * Returns a copy of the command usage table of the log, keyed by kind and origin of the events. Events that were
+	 * logged before the statistics were listening are replayed first.
+	 *
+	 * @return null, if monitoring is stopped or the log could not be read
+	 */
+	public synchronized Map<String, InteractionEventSummary> getUsageTable() {
+		if (!monitoring) {
+			return null;
+		}
+		replay();
+		if (damaged) {
+			return null;
+		}
+		Map<String, InteractionEventSummary> copy = new HashMap<String, InteractionEventSummary>();
+		for (Map.Entry<String, InteractionEventSummary> entry : usageTable.entrySet()) {
+			copy.put(entry.getKey(), new InteractionEventSummary(entry.getValue()));
+		}
+		return copy;
+	}
+
+	/**
+	 * Returns the number of events that were read from the log rather than observed as they were logged.
+	 */
+	public synchronized int getReplayCount() {
+		return replayCount;
+	}
+
+	private void reset() {
+		usageTable.clear();
+		run.clear();
+		offset = 0;
+		tail = new byte[0];
+		damaged = false;
+	}
+
+	/**
+	 * Counts the events in the range of the log that was written while the statistics were not listening. The events
+	 * are counted before the events logged since, which only affects the delta of the rows.
+	 */
+	private void replay() {
+		if (replayEnd == -1 || damaged) {
+			return;
+		}
+		List<InteractionEvent> liveRun = new ArrayList<InteractionEvent>(run);
+		run.clear();
+		try {
+			FileInputStream in = new FileInputStream(log);
+			try {
+				FileChannel channel = in.getChannel();
+				if (InteractionEventBinaryDecoder.isBinary(new BufferedInputStream(in))) {
+					// a checkpoint of a binary log is at its end, where the next start of monitoring begins a segment
+					InteractionEventBinaryDecoder decoder = new InteractionEventBinaryDecoder(new BufferedInputStream(
+							Channels.newInputStream(new FileRangeChannel(channel, offset, replayEnd))), offset == 0);
+					InteractionEvent event;
+					while ((event = decoder.next()) != null) {
+						count(event);
+						replayCount++;
+					}
+				} else {
+					InteractionEventLogReader reader = new InteractionEventLogReader(new FileRangeChannel(channel,
+							offset, replayEnd));
+					// damaged records are reported when the log is read
+					reader.setRecoveryCounters(new LogRecoveryCounters());
+					InteractionEventParser parser = new InteractionEventParser();
+					while (reader.nextRecord()) {
+						InteractionEvent event = parser.parse(reader.array(), reader.getRecordOffset(),
+								reader.getRecordLength());
+						if (event != null) {
+							count(event);
+							replayCount++;
+						}
+					}
+				}
+			} finally {
+				in.close();
+			}
+			offset = replayEnd;
+		} catch (IOException e) {
+			StatusHandler.log(new Status(IStatus.WARNING, UiUsageMonitorPlugin.ID_PLUGIN,
+					"Could not replay monitor log", e)); //$NON-NLS-1$
+			damaged = true;
+		}
+		replayEnd = -1;
+		run.clear();
+		run.addAll(liveRun);
+	}
+
+	private byte[] readTail(long end) throws IOException {
+		if (end == 0) {
+			return new byte[0];
+		}
+		FileInputStream in = new FileInputStream(log);
+		try {
+			FileChannel channel = in.getChannel();
+			ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(TAIL_LENGTH, end));
+			while (buffer.hasRemaining()) {
+				if (channel.read(buffer, end - buffer.capacity() + buffer.position()) == -1) {
+					break;
+				}
+			}
+			return buffer.array();
+		} finally {
+			in.close();
+		}
+	}
+
+	private void load() {
+		if (!checkpointFile.exists()) {
+			return;
+		}
+		try {
+			DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(checkpointFile)));
+			try {
+				if (in.readInt() != MAGIC || in.readInt() != VERSION
+						|| !in.readUTF().equals(log.getAbsolutePath())) {
+					return;
+				}
+				long checkpointOffset = in.readLong();
+				byte[] checkpointTail = new byte[in.readInt()];
+				in.readFully(checkpointTail);
+				int size = in.readInt();
+				Map<String, InteractionEventSummary> rows = new HashMap<String, InteractionEventSummary>();
+				for (int i = 0; i < size; i++) {
+					String key = in.readUTF();
+					InteractionEventSummary summary = new InteractionEventSummary(readString(in), readString(in),
+							in.readInt());
+					summary.setInterestContribution(in.readFloat());
+					summary.setDelta(readString(in));
+					rows.put(key, summary);
+				}
+				usageTable.putAll(rows);
+				offset = checkpointOffset;
+				tail = checkpointTail;
+			} finally {
+				in.close();
+			}
+		} catch (IOException e) {
+			// the log is replayed from the start
+			reset();
+		}
+	}
+
+	private void save() {
+		try {
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(checkpointFile)));
+			try {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeUTF(log.getAbsolutePath());
+				out.writeLong(offset);
+				out.writeInt(tail.length);
+				out.write(tail);
+				out.writeInt(usageTable.size());
+				for (Map.Entry<String, InteractionEventSummary> entry : usageTable.entrySet()) {
+					InteractionEventSummary summary = entry.getValue();
+					out.writeUTF(entry.getKey());
+					writeString(out, summary.getType());
+					writeString(out, summary.getName());
+					out.writeInt(summary.getUsageCount());
+					out.writeFloat(summary.getInterestContribution());
+					writeString(out, summary.getDelta());
+				}
+			} finally {
+				out.close();
+			}
+		} catch (IOException e) {
+			// the log is replayed from the start on the next start
+			checkpointFile.delete();
+			StatusHandler.log(new Status(IStatus.WARNING, UiUsageMonitorPlugin.ID_PLUGIN,
+					"Could not write usage statistics", e)); //$NON-NLS-1$
+		}
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null) {
+			out.writeUTF(value);
+		}
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		return (in.readBoolean()) ? in.readUTF() : null;
+	}
+
+}
@@ -0,0 +1,403 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.internal.monitor.usage;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.mylyn.commons.core.StatusHandler;
+import org.eclipse.mylyn.monitor.core.InteractionEvent;
+
+/**
+ * Caches the events of archived monitor logs on disk so that reports over previously seen archives do not inflate and
+ * parse the archives again. Entries are keyed by the absolute path of the archive and are only used while its size
+ * and modification time match the values recorded when the entry was written.
+ * <p>
+ * An entry holds the events of the archive ordered by date in the binary log format, split into segments of
+ * {@link #SEGMENT_EVENT_COUNT} events that start with an empty dictionary. A header records the offset of each
+ * segment, so that entries are read into memory in one piece and the segments are decoded in parallel. Entries are
+ * written to a temporary file and renamed, readers never see a partially written entry. Entries that cannot be read
+ * are deleted and count as a miss.
+ * <p>
+ * The modification time of an entry is updated whenever it is read and the least recently used entries are deleted
+ * when the total size of the cache exceeds its limit.
+ *
+ * @see InteractionEventLogger#setArchiveCache(InteractionEventArchiveCache)
+ */
+public class InteractionEventArchiveCache {
+
+	public static final long DEFAULT_MAX_SIZE = 256L * 1024 * 1024;
+
+	static final int SEGMENT_EVENT_COUNT = 16 * 1024;
+
+	static final String ENTRY_EXTENSION = ".events"; //$NON-NLS-1$
+
+	private static final int MAGIC = 0x4D594C43;
+
+	private static final int VERSION = 1;
+
+	private static final Comparator<File> LEAST_RECENTLY_USED = new Comparator<File>() {
+		public int compare(File o1, File o2) {
+			long modified1 = o1.lastModified();
+			long modified2 = o2.lastModified();
+			return (modified1 < modified2) ? -1 : ((modified1 == modified2) ? 0 : 1);
+		}
+	};
+
+	private final File directory;
+
+	private final long maxSize;
+
+	private final InteractionEventParallelLoader loader;
+
+	private final ForkJoinPool pool;
+
+	private final AtomicInteger hits = new AtomicInteger();
+
+	private final AtomicInteger misses = new AtomicInteger();
+
+	public InteractionEventArchiveCache(File directory, long maxSize) {
+		this(directory, maxSize, new InteractionEventParallelLoader(), ForkJoinPool.commonPool());
+	}
+
+	public InteractionEventArchiveCache(File directory, long maxSize, InteractionEventParallelLoader loader,
+			ForkJoinPool pool) {
+		this.directory = directory;
+		this.maxSize = maxSize;
+		this.loader = loader;
+		this.pool = pool;
+	}
+
+	/**
+	 * Returns the events of <code>archive</code> ordered by date, reading them from the cache if a current entry
+	 * exists and loading the archive and adding an entry otherwise.
+	 */
+	public List<InteractionEvent> load(File archive) throws IOException {
+		File entry = getEntry(archive);
+		List<InteractionEvent> events;
+		try {
+			events = read(entry, archive);
+		} catch (InterruptedIOException e) {
+			throw e;
+		} catch (IOException e) {
+			StatusHandler.log(new Status(IStatus.WARNING, UiUsageMonitorPlugin.ID_PLUGIN,
+					"Discarding unreadable cache entry for " + archive.getPath(), e)); //$NON-NLS-1$
+			events = null;
+		}
+		if (events != null) {
+			hits.incrementAndGet();
+			entry.setLastModified(System.currentTimeMillis());
+			return events;
+		}
+
+		misses.incrementAndGet();
+		// stale or damaged, the entry is replaced unless the events cannot be cached
+		entry.delete();
+		long size = archive.length();
+		long lastModified = archive.lastModified();
+		events = loader.load(archive);
+		try {
+			if (write(entry, archive, size, lastModified, events)) {
+				evict(entry);
+			}
+		} catch (IOException e) {
+			StatusHandler.log(new Status(IStatus.WARNING, UiUsageMonitorPlugin.ID_PLUGIN,
+					"Could not cache events of " + archive.getPath(), e)); //$NON-NLS-1$
+		}
+		return events;
+	}
+
+	/**
+	 * Deletes all entries.
+	 */
+	public void clear() {
+		for (File file : listEntries()) {
+			file.delete();
+		}
+	}
+
+	/**
+	 * Returns the total size of all entries in bytes.
+	 */
+	public long getSize() {
+		long size = 0;
+		for (File file : listEntries()) {
+			size += file.length();
+		}
+		return size;
+	}
+
+	public File getDirectory() {
+		return directory;
+	}
+
+	public int getHitCount() {
+		return hits.get();
+	}
+
+	public int getMissCount() {
+		return misses.get();
+	}
+
+	File getEntry(File archive) {
+		String path = archive.getAbsolutePath();
+		// FNV-1a, collisions are detected by comparing the path in the header
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < path.length(); i++) {
+			hash ^= path.charAt(i);
+			hash *= 0x100000001b3L;
+		}
+		return new File(directory, Long.toHexString(hash) + ENTRY_EXTENSION);
+	}
+
+	private List<InteractionEvent> read(File entry, File archive) throws IOException {
+		if (!entry.exists()) {
+			return null;
+		}
+		FileInputStream in;
+		try {
+			in = new FileInputStream(entry);
+		} catch (IOException e) {
+			// evicted concurrently
+			return null;
+		}
+		ByteBuffer buffer;
+		try {
+			// read into the heap rather than mapping the file, a mapping would keep the entry from being deleted or
+			// replaced on Windows until it is garbage collected
+			FileChannel channel = in.getChannel();
+			long size = channel.size();
+			if (size > Integer.MAX_VALUE) {
+				return null;
+			}
+			buffer = ByteBuffer.allocate((int) size);
+			while (buffer.hasRemaining()) {
+				if (channel.read(buffer) == -1) {
+					// truncated concurrently
+					return null;
+				}
+			}
+			buffer.flip();
+		} finally {
+			in.close();
+		}
+		return decode(buffer, archive);
+	}
+
+	/**
+	 * Returns null, if <code>buffer</code> is not a complete entry for the current version of <code>archive</code>.
+	 */
+	private List<InteractionEvent> decode(ByteBuffer buffer, File archive) throws IOException {
+		final int[] offsets;
+		final int[] counts;
+		int eventCount;
+		final int bodyStart;
+		try {
+			if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+				return null;
+			}
+			int pathLength = buffer.getInt();
+			if (pathLength < 0 || pathLength > buffer.remaining()) {
+				return null;
+			}
+			byte[] path = new byte[pathLength];
+			buffer.get(path);
+			if (!archive.getAbsolutePath().equals(new String(path, StandardCharsets.UTF_8))
+					|| buffer.getLong() != archive.length() || buffer.getLong() != archive.lastModified()) {
+				return null;
+			}
+			eventCount = buffer.getInt();
+			int segmentCount = buffer.getInt();
+			if (eventCount < 0 || segmentCount < 0 || segmentCount > buffer.remaining() / 8) {
+				return null;
+			}
+			offsets = new int[segmentCount + 1];
+			counts = new int[segmentCount];
+			long totalCount = 0;
+			for (int i = 0; i < segmentCount; i++) {
+				offsets[i] = buffer.getInt();
+				counts[i] = buffer.getInt();
+				totalCount += counts[i];
+			}
+			offsets[segmentCount] = buffer.getInt();
+			bodyStart = buffer.position();
+			if (totalCount != eventCount || (long) bodyStart + offsets[segmentCount] != buffer.limit()) {
+				return null;
+			}
+			// segments follow each other and hold at least one event
+			for (int i = 0; i < segmentCount; i++) {
+				if (offsets[i] < 0 || offsets[i] >= offsets[i + 1] || counts[i] <= 0) {
+					return null;
+				}
+			}
+		} catch (BufferUnderflowException e) {
+			return null;
+		}
+
+		final InteractionEventStringPool strings = new InteractionEventStringPool();
+		List<ForkJoinTask<List<InteractionEvent>>> tasks = new ArrayList<ForkJoinTask<List<InteractionEvent>>>();
+		for (int i = 0; i < counts.length; i++) {
+			final ByteBuffer segment = buffer.duplicate();
+			segment.limit(bodyStart + offsets[i + 1]);
+			segment.position(bodyStart + offsets[i]);
+			final int count = counts[i];
+			tasks.add(pool.submit(new Callable<List<InteractionEvent>>() {
+				public List<InteractionEvent> call() throws IOException {
+					InteractionEventBinaryDecoder decoder = new InteractionEventBinaryDecoder(new ByteBufferInputStream(
+							segment), false);
+					decoder.setStringPool(strings);
+					List<InteractionEvent> events = decoder.readAll();
+					if (events.size() != count) {
+						throw new IOException("Damaged segment"); //$NON-NLS-1$
+					}
+					return events;
+				}
+			}));
+		}
+
+		List<InteractionEvent> events = new ArrayList<InteractionEvent>(eventCount);
+		try {
+			for (ForkJoinTask<List<InteractionEvent>> task : tasks) {
+				events.addAll(task.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		} catch (ExecutionException e) {
+			StatusHandler.log(new Status(IStatus.WARNING, UiUsageMonitorPlugin.ID_PLUGIN,
+					"Discarding damaged cache entry for " + archive.getPath(), e.getCause())); //$NON-NLS-1$
+			return null;
+		}
+		return (events.size() == eventCount) ? events : null;
+	}
+
+	/**
+	 * Returns false, if the events cannot be represented in the binary format and were not cached.
+	 */
+	private boolean write(File entry, File archive, long size, long lastModified, List<InteractionEvent> events)
+			throws IOException {
+		int segmentCount = (events.size() + SEGMENT_EVENT_COUNT - 1) / SEGMENT_EVENT_COUNT;
+		int[] offsets = new int[segmentCount + 1];
+		int[] counts = new int[segmentCount];
+		InteractionEventBinaryEncoder encoder = new InteractionEventBinaryEncoder();
+		for (int i = 0; i < segmentCount; i++) {
+			if (i > 0) {
+				encoder.startSegment();
+			}
+			offsets[i] = encoder.size();
+			int end = Math.min(events.size(), (i + 1) * SEGMENT_EVENT_COUNT);
+			for (int j = i * SEGMENT_EVENT_COUNT; j < end; j++) {
+				if (!encoder.encode(events.get(j))) {
+					return false;
+				}
+			}
+			counts[i] = end - i * SEGMENT_EVENT_COUNT;
+		}
+		offsets[segmentCount] = encoder.size();
+
+		if (!directory.exists() && !directory.mkdirs()) {
+			throw new IOException("Could not create " + directory.getPath()); //$NON-NLS-1$
+		}
+		File temp = File.createTempFile("archive", ".tmp", directory); //$NON-NLS-1$ //$NON-NLS-2$
+		try {
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+			try {
+				byte[] path = archive.getAbsolutePath().getBytes(StandardCharsets.UTF_8);
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeInt(path.length);
+				out.write(path);
+				out.writeLong(size);
+				out.writeLong(lastModified);
+				out.writeInt(events.size());
+				out.writeInt(segmentCount);
+				for (int i = 0; i < segmentCount; i++) {
+					out.writeInt(offsets[i]);
+					out.writeInt(counts[i]);
+				}
+				out.writeInt(offsets[segmentCount]);
+				encoder.writeTo(out);
+			} finally {
+				out.close();
+			}
+			entry.delete();
+			if (!temp.renameTo(entry)) {
+				throw new IOException("Could not rename " + temp.getPath()); //$NON-NLS-1$
+			}
+		} finally {
+			temp.delete();
+		}
+		return true;
+	}
+
+	/**
+	 * Deletes the least recently used entries until the cache fits its limit. <code>current</code> is only deleted if
+	 * it exceeds the limit by itself.
+	 */
+	private synchronized void evict(File current) {
+		File[] entries = listEntries();
+		Arrays.sort(entries, LEAST_RECENTLY_USED);
+		long size = 0;
+		for (File file : entries) {
+			size += file.length();
+		}
+		for (File file : entries) {
+			if (size <= maxSize) {
+				return;
+			}
+			if (!file.equals(current)) {
+				long length = file.length();
+				if (file.delete()) {
+					size -= length;
+				}
+			}
+		}
+		if (size > maxSize) {
+			current.delete();
+		}
+	}
+
+	private File[] listEntries() {
+		File[] files = directory.listFiles();
+		if (files == null) {
+			return new File[0];
+		}
+		List<File> entries = new ArrayList<File>(files.length);
+		for (File file : files) {
+			if (file.getName().endsWith(ENTRY_EXTENSION)) {
+				entries.add(file);
+			}
+		}
+		return entries.toArray(new File[entries.size()]);
+	}
+
+}
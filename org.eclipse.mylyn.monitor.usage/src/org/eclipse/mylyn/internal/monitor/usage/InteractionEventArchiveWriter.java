@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.internal.monitor.usage;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.mylyn.monitor.core.InteractionEvent;
+
+/**
+ * Writes events to monthly zip archives with one entry per week. Archives are named
+ * <code>&lt;year&gt;-&lt;month&gt;-&lt;archiveSuffix&gt;</code> and entries are named after the date of their first
+ * event. If an archive exists, new entries are appended: existing entries are copied without being inflated. Each
+ * entry is stamped with the date of its first event, which {@link InteractionEventCursor} uses to read the entries in
+ * time order.
+ */
+public class InteractionEventArchiveWriter implements Closeable {
+
+	private final File directory;
+
+	private final String archiveSuffix;
+
+	private final String entrySuffix;
+
+	private final Calendar calendar = Calendar.getInstance();
+
+	private final InteractionEventSerializer serializer = new InteractionEventSerializer();
+
+	private File archiveFile;
+
+	private FileSystem archive;
+
+	private Path entry;
+
+	private OutputStream out;
+
+	private long entryWeek = -1;
+
+	private long entryTime;
+
+	private int entryCount;
+
+	/**
+	 * @param archiveSuffix
+	 *            the suffix of archive names, e.g. <code>monitor-log.zip</code>
+	 * @param entrySuffix
+	 *            the suffix of entry names, e.g. <code>monitor-log.xml</code>
+	 */
+	public InteractionEventArchiveWriter(File directory, String archiveSuffix, String entrySuffix) {
+		this.directory = directory;
+		this.archiveSuffix = archiveSuffix;
+		this.entrySuffix = entrySuffix;
+	}
+
+	public void write(InteractionEvent event) throws IOException {
+		calendar.setTime(event.getDate());
+		File file = new File(directory, calendar.get(Calendar.YEAR) + "-" + pad(calendar.get(Calendar.MONTH) + 1) //$NON-NLS-1$
+				+ "-" + archiveSuffix); //$NON-NLS-1$
+		if (!file.equals(archiveFile)) {
+			closeArchive();
+			openArchive(file);
+		}
+		long week = getWeek();
+		if (week != entryWeek) {
+			closeEntry();
+			openEntry(event);
+			entryWeek = week;
+		}
+		serializer.reset();
+		serializer.serialize(event);
+		serializer.writeTo(out);
+	}
+
+	/**
+	 * Returns the start of the week of the date in {@link #calendar}.
+	 */
+	private long getWeek() {
+		calendar.set(Calendar.DAY_OF_WEEK, calendar.getFirstDayOfWeek());
+		calendar.set(Calendar.HOUR_OF_DAY, 0);
+		calendar.set(Calendar.MINUTE, 0);
+		calendar.set(Calendar.SECOND, 0);
+		calendar.set(Calendar.MILLISECOND, 0);
+		return calendar.getTimeInMillis();
+	}
+
+	private void openArchive(File file) throws IOException {
+		if (file.exists() && file.length() == 0) {
+			// earlier versions created empty files before writing the archive
+			file.delete();
+		}
+		Map<String, Object> env = new HashMap<String, Object>();
+		env.put("create", Boolean.toString(!file.exists())); //$NON-NLS-1$
+		// do not hold entries in memory
+		env.put("useTempFile", Boolean.TRUE); //$NON-NLS-1$
+		archive = FileSystems.newFileSystem(URI.create("jar:" + file.toURI()), env); //$NON-NLS-1$
+		archiveFile = file;
+	}
+
+	private void openEntry(InteractionEvent event) throws IOException {
+		calendar.setTime(event.getDate());
+		String date = calendar.get(Calendar.YEAR) + "-" + pad(calendar.get(Calendar.MONTH) + 1) + "-" //$NON-NLS-1$ //$NON-NLS-2$
+				+ pad(calendar.get(Calendar.DAY_OF_MONTH));
+		entry = archive.getPath(date + "-" + entrySuffix); //$NON-NLS-1$
+		for (int i = 1; Files.exists(entry); i++) {
+			// the week was written by an earlier rollover
+			entry = archive.getPath(date + "-" + i + "-" + entrySuffix); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		out = new BufferedOutputStream(Files.newOutputStream(entry, StandardOpenOption.CREATE_NEW));
+		entryTime = event.getDate().getTime();
+		entryCount++;
+	}
+
+	private void closeEntry() throws IOException {
+		if (out != null) {
+			out.close();
+			out = null;
+			Files.setLastModifiedTime(entry, FileTime.fromMillis(entryTime));
+			entry = null;
+		}
+		entryWeek = -1;
+	}
+
+	private void closeArchive() throws IOException {
+		try {
+			closeEntry();
+		} finally {
+			if (archive != null) {
+				// writes the archive
+				archive.close();
+				archive = null;
+				archiveFile = null;
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of entries that have been added.
+	 */
+	public int getEntryCount() {
+		return entryCount;
+	}
+
+	public void close() throws IOException {
+		closeArchive();
+	}
+
+	private static String pad(int value) {
+		return (value < 10) ? "0" + value : String.valueOf(value); //$NON-NLS-1$
+	}
+
+}
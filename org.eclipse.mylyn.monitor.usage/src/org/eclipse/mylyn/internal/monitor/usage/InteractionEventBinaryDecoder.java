@@ -0,0 +1,268 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.internal.monitor.usage;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.eclipse.mylyn.monitor.core.InteractionEvent;
+import org.eclipse.mylyn.monitor.core.InteractionEvent.Kind;
+
+/**
+ * Reads interaction events from a monitor log in the binary format written by {@link InteractionEventBinaryEncoder}.
+ * A record that was cut off at the end of the stream, e.g. after a crash, is ignored.
+ */
+public class InteractionEventBinaryDecoder {
+
+	/**
+	 * Guards against allocating large buffers for corrupt length prefixes.
+	 */
+	private static final int MAX_RECORD_LENGTH = 16 * 1024 * 1024;
+
+	/**
+	 * Returns true, if <code>in</code> starts with the binary log header. The stream must support
+	 * {@link InputStream#mark(int)} and is reset to its current position.
+	 */
+	public static boolean isBinary(InputStream in) throws IOException {
+		byte[] magic = InteractionEventBinaryEncoder.MAGIC;
+		in.mark(magic.length);
+		try {
+			for (byte element : magic) {
+				if (in.read() != (element & 0xFF)) {
+					return false;
+				}
+			}
+			return true;
+		} finally {
+			in.reset();
+		}
+	}
+
+	private final InputStream in;
+
+	private final List<String> dictionary = new ArrayList<String>();
+
+	private long lastDate;
+
+	private byte[] body = new byte[256];
+
+	private int position;
+
+	private int limit;
+
+	private InteractionEventStringPool pool;
+
+	/**
+	 * @param in
+	 *            a buffered stream positioned at the beginning of the binary log
+	 */
+	public InteractionEventBinaryDecoder(InputStream in) throws IOException {
+		this(in, true);
+	}
+
+	/**
+	 * @param in
+	 *            a buffered stream positioned at the beginning of the binary log or, if <code>header</code> is false,
+	 *            at the beginning of a segment
+	 */
+	InteractionEventBinaryDecoder(InputStream in, boolean header) throws IOException {
+		this.in = in;
+		if (header) {
+			byte[] magic = InteractionEventBinaryEncoder.MAGIC;
+			for (byte element : magic) {
+				if (in.read() != (element & 0xFF)) {
+					throw new IOException("Not a binary monitor log"); //$NON-NLS-1$
+				}
+			}
+		}
+	}
+
+	/**
+	 * Sets the pool for the strings of the dictionary, which would otherwise be decoded again for every segment.
+	 */
+	public void setStringPool(InteractionEventStringPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Returns the next event or null, if the end of the stream has been reached.
+	 */
+	public InteractionEvent next() throws IOException {
+		while (readRecord()) {
+			int type = body[position++];
+			switch (type) {
+			case InteractionEventBinaryEncoder.RECORD_SEGMENT:
+				dictionary.clear();
+				lastDate = 0;
+				break;
+			case InteractionEventBinaryEncoder.RECORD_STRING:
+				String value = new String(body, position, limit - position, StandardCharsets.UTF_8);
+				dictionary.add((pool != null) ? pool.intern(value) : value);
+				break;
+			case InteractionEventBinaryEncoder.RECORD_EVENT:
+				return readEvent();
+			default:
+				// written by a newer version, skip
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Reads all remaining events.
+	 */
+	public List<InteractionEvent> readAll() throws IOException {
+		List<InteractionEvent> events = new ArrayList<InteractionEvent>();
+		InteractionEvent event;
+		while ((event = next()) != null) {
+			events.add(event);
+		}
+		return events;
+	}
+
+	private InteractionEvent readEvent() throws IOException {
+		Kind kind = Kind.fromString(lookup(readVarInt()));
+		long date = lastDate + unZigZag(readVarLong());
+		long endDate = date + unZigZag(readVarLong());
+		String originId = lookup(readVarInt());
+		String structureKind = lookup(readVarInt());
+		String structureHandle = readString();
+		String navigation = lookup(readVarInt());
+		String delta = readString();
+		if (position + 4 > limit) {
+			throw new IOException("Truncated event record"); //$NON-NLS-1$
+		}
+		int bits = ((body[position] & 0xFF) << 24) | ((body[position + 1] & 0xFF) << 16)
+				| ((body[position + 2] & 0xFF) << 8) | (body[position + 3] & 0xFF);
+		position += 4;
+		lastDate = date;
+		return new InteractionEvent(kind, emptyIfNull(structureKind), emptyIfNull(structureHandle),
+				emptyIfNull(originId), emptyIfNull(navigation), emptyIfNull(delta), Float.intBitsToFloat(bits),
+				new Date(date), new Date(endDate));
+	}
+
+	/**
+	 * Missing values are read as empty strings from XML logs, do the same for consistency.
+	 */
+	private static String emptyIfNull(String value) {
+		return (value != null) ? value : ""; //$NON-NLS-1$
+	}
+
+	/**
+	 * Reads the next record into {@link #body}.
+	 *
+	 * @return false, if the end of the stream was reached
+	 */
+	private boolean readRecord() throws IOException {
+		int length;
+		try {
+			length = readLength();
+		} catch (EOFException e) {
+			return false;
+		}
+		if (length < 0) {
+			return false;
+		}
+		if (length > MAX_RECORD_LENGTH) {
+			throw new IOException("Record too long: " + length); //$NON-NLS-1$
+		}
+		if (length > body.length) {
+			body = new byte[Math.max(length, body.length * 2)];
+		}
+		int read = 0;
+		while (read < length) {
+			int n = in.read(body, read, length - read);
+			if (n == -1) {
+				// truncated record
+				return false;
+			}
+			read += n;
+		}
+		position = 0;
+		limit = length;
+		return length > 0;
+	}
+
+	/**
+	 * Reads the variable length record prefix from the stream. Returns -1 at the end of the stream.
+	 */
+	private int readLength() throws IOException {
+		int result = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			int b = in.read();
+			if (b == -1) {
+				if (shift == 0) {
+					return -1;
+				}
+				throw new EOFException();
+			}
+			result |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return result;
+			}
+		}
+		throw new IOException("Malformed record length"); //$NON-NLS-1$
+	}
+
+	private String lookup(int id) throws IOException {
+		if (id == 0) {
+			return null;
+		}
+		if (id > dictionary.size()) {
+			throw new IOException("Undefined string " + id); //$NON-NLS-1$
+		}
+		return dictionary.get(id - 1);
+	}
+
+	private String readString() throws IOException {
+		int length = readVarInt();
+		if (length == 0) {
+			return null;
+		}
+		length--;
+		if (position + length > limit) {
+			throw new IOException("Truncated string"); //$NON-NLS-1$
+		}
+		String value = new String(body, position, length, StandardCharsets.UTF_8);
+		position += length;
+		return value;
+	}
+
+	private int readVarInt() throws IOException {
+		return (int) readVarLong();
+	}
+
+	private long readVarLong() throws IOException {
+		long result = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			if (position >= limit) {
+				throw new IOException("Truncated number"); //$NON-NLS-1$
+			}
+			byte b = body[position++];
+			result |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return result;
+			}
+		}
+		throw new IOException("Malformed number"); //$NON-NLS-1$
+	}
+
+	private static long unZigZag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+}
@@ -0,0 +1,252 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.internal.monitor.usage;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.mylyn.commons.core.StatusHandler;
+import org.eclipse.mylyn.monitor.core.InteractionEvent;
+
+/**
+ * Encodes interaction events in the compact binary monitor log format. A binary log starts with {@link #MAGIC}
+ * followed by length-prefixed records:
+ * <ul>
+ * <li>{@link #RECORD_SEGMENT}: starts a new segment which clears the string dictionary and the timestamp base. Written
+ * whenever a logger starts appending to an existing file.</li>
+ * <li>{@link #RECORD_STRING}: adds a UTF-8 string to the dictionary of the segment, ids start at 1.</li>
+ * <li>{@link #RECORD_EVENT}: an event; kind, originId, structureKind and navigation refer to the dictionary, the start
+ * date is stored relative to the previous event and the end date relative to the start date.</li>
+ * </ul>
+ * Numbers are stored as unsigned LEB128 variable length integers, signed numbers are zig-zag encoded first. Readers
+ * skip records of unknown types.
+ * <p>
+ * Instances keep the dictionary of the current segment and are not thread-safe.
+ *
+ * @see InteractionEventBinaryDecoder
+ */
+public class InteractionEventBinaryEncoder {
+
+	static final byte[] MAGIC = new byte[] { 'M', 'Y', 'L', 'B', 1 };
+
+	static final int RECORD_SEGMENT = 0;
+
+	static final int RECORD_STRING = 1;
+
+	static final int RECORD_EVENT = 2;
+
+	/**
+	 * A segment is started when the dictionary reaches this size to bound memory for readers and writers.
+	 */
+	static final int MAX_DICTIONARY_SIZE = 8192;
+
+	/**
+	 * Maximum number of bytes of a variable length encoded int.
+	 */
+	private static final int MAX_VARINT_LENGTH = 5;
+
+	private final Map<String, Integer> dictionary = new HashMap<String, Integer>();
+
+	private long lastDate;
+
+	private byte[] buffer;
+
+	private int count;
+
+	public InteractionEventBinaryEncoder() {
+		buffer = new byte[1024];
+	}
+
+	/**
+	 * Appends the header of a binary log. Only to be used at the beginning of a file.
+	 */
+	public void writeHeader() {
+		write(MAGIC, 0, MAGIC.length);
+		clearSegment();
+	}
+
+	/**
+	 * Starts a new segment, must be invoked before appending to an existing binary log.
+	 */
+	public void startSegment() {
+		int bodyStart = beginRecord(RECORD_SEGMENT);
+		endRecord(bodyStart);
+		clearSegment();
+	}
+
+	private void clearSegment() {
+		dictionary.clear();
+		lastDate = 0;
+	}
+
+	/**
+	 * Discards previously encoded bytes but keeps the dictionary.
+	 */
+	public void reset() {
+		count = 0;
+	}
+
+	public int size() {
+		return count;
+	}
+
+	public void writeTo(OutputStream out) throws IOException {
+		out.write(buffer, 0, count);
+	}
+
+	/**
+	 * Appends <code>event</code> and any strings it adds to the dictionary.
+	 *
+	 * @return true, if the event was appended
+	 */
+	public boolean encode(InteractionEvent event) {
+		if (event == null || event.getKind() == null || event.getDate() == null || event.getEndDate() == null) {
+			return false;
+		}
+		if (dictionary.size() + 4 > MAX_DICTIONARY_SIZE) {
+			startSegment();
+		}
+		int start = count;
+		try {
+			int kind = reference(event.getKind().toString());
+			int originId = reference(event.getOriginId());
+			int structureKind = reference(event.getStructureKind());
+			int navigation = reference(event.getNavigation());
+
+			int bodyStart = beginRecord(RECORD_EVENT);
+			writeVarInt(kind);
+			long date = event.getDate().getTime();
+			writeVarLong(zigZag(date - lastDate));
+			writeVarLong(zigZag(event.getEndDate().getTime() - date));
+			writeVarInt(originId);
+			writeVarInt(structureKind);
+			writeString(event.getStructureHandle());
+			writeVarInt(navigation);
+			writeString(event.getDelta());
+			int bits = Float.floatToIntBits(event.getInterestContribution());
+			ensureCapacity(4);
+			buffer[count++] = (byte) (bits >>> 24);
+			buffer[count++] = (byte) (bits >>> 16);
+			buffer[count++] = (byte) (bits >>> 8);
+			buffer[count++] = (byte) bits;
+			endRecord(bodyStart);
+			lastDate = date;
+			return true;
+		} catch (RuntimeException e) {
+			// the dictionary may refer to strings that were discarded
+			count = start;
+			startSegment();
+			StatusHandler.log(new Status(IStatus.ERROR, UiUsageMonitorPlugin.ID_PLUGIN, "Could not write event", e)); //$NON-NLS-1$
+			return false;
+		}
+	}
+
+	/**
+	 * Returns the dictionary id for <code>value</code>, appending a string record if it is not yet defined in this
+	 * segment. Returns 0 for null.
+	 */
+	private int reference(String value) {
+		if (value == null) {
+			return 0;
+		}
+		Integer id = dictionary.get(value);
+		if (id == null) {
+			int bodyStart = beginRecord(RECORD_STRING);
+			writeUtf8(value);
+			endRecord(bodyStart);
+			id = dictionary.size() + 1;
+			dictionary.put(value, id);
+		}
+		return id;
+	}
+
+	/**
+	 * Reserves space for the length prefix and writes the record type.
+	 *
+	 * @return the offset of the record body
+	 */
+	private int beginRecord(int type) {
+		ensureCapacity(MAX_VARINT_LENGTH + 1);
+		count += MAX_VARINT_LENGTH;
+		int bodyStart = count;
+		buffer[count++] = (byte) type;
+		return bodyStart;
+	}
+
+	/**
+	 * Writes the length prefix in front of the body that starts at <code>bodyStart</code> and moves the body to close
+	 * the unused part of the reserved space.
+	 */
+	private void endRecord(int bodyStart) {
+		int length = count - bodyStart;
+		int prefixStart = bodyStart - MAX_VARINT_LENGTH;
+		count = prefixStart;
+		writeVarInt(length);
+		if (count != bodyStart) {
+			System.arraycopy(buffer, bodyStart, buffer, count, length);
+		}
+		count += length;
+	}
+
+	private void writeString(String value) {
+		if (value == null) {
+			writeVarInt(0);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		writeVarInt(bytes.length + 1);
+		write(bytes, 0, bytes.length);
+	}
+
+	private void writeUtf8(String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		write(bytes, 0, bytes.length);
+	}
+
+	private static long zigZag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	private void writeVarInt(int value) {
+		writeVarLong(value & 0xFFFFFFFFL);
+	}
+
+	private void writeVarLong(long value) {
+		ensureCapacity(10);
+		while ((value & ~0x7FL) != 0) {
+			buffer[count++] = (byte) ((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		buffer[count++] = (byte) value;
+	}
+
+	private void write(byte[] bytes, int offset, int length) {
+		ensureCapacity(length);
+		System.arraycopy(bytes, offset, buffer, count, length);
+		count += length;
+	}
+
+	private void ensureCapacity(int additional) {
+		int required = count + additional;
+		if (required > buffer.length) {
+			byte[] newBuffer = new byte[Math.max(required, buffer.length * 2)];
+			System.arraycopy(buffer, 0, newBuffer, 0, count);
+			buffer = newBuffer;
+		}
+	}
+
+}
@@ -0,0 +1,284 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.internal.monitor.usage;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.mylyn.commons.core.StatusHandler;
+import org.eclipse.mylyn.monitor.core.InteractionEvent;
+
+/**
+ * Streams the events of a monitor log from disk. Only a single event and the read buffer are held in memory, so
+ * histories of any size can be processed in bounded heap. The log may be in the XML or binary format and may be
+ * compressed in a zip file. All entries of a zip file are read in the order of
+ * {@link #getEntriesInTimeOrder(ZipFile)}.
+ * <p>
+ * Errors while reading are logged and end the iteration, like {@link InteractionEventLogger#getHistoryFromFile(File)}
+ * that ignores the remainder of a log it cannot read. Damaged records in the XML format are skipped by resynchronizing
+ * on the next record and a single summary is logged when the cursor is closed, see {@link #getRecoveryCounters()}.
+ * Repeated field values of the events of a cursor share a single string, see {@link InteractionEventStringPool}. The
+ * cursor is closed when the last event has been returned; clients that stop early must invoke {@link #close()}.
+ *
+ * @see InteractionEventLogger#openHistory(File)
+ */
+public class InteractionEventCursor implements Iterator<InteractionEvent>, Closeable {
+
+	private final File file;
+
+	private final LogRecoveryCounters recoveryCounters = new LogRecoveryCounters();
+
+	private final InteractionEventStringPool stringPool = new InteractionEventStringPool();
+
+	private ZipFile zip;
+
+	private List<ZipEntry> entries;
+
+	private int entryIndex;
+
+	private InputStream inputStream;
+
+	private long length;
+
+	private boolean binary;
+
+	private InteractionEventBinaryDecoder decoder;
+
+	private InteractionEventLogReader reader;
+
+	private InteractionEventParser parser;
+
+	private InteractionEvent nextEvent;
+
+	private boolean closed;
+
+	private int count;
+
+	InteractionEventCursor(File file) throws IOException {
+		this.file = file;
+		try {
+			// the file may be a zip file
+			if (file.getName().endsWith(".zip")) { //$NON-NLS-1$
+				zip = new ZipFile(file);
+				entries = getEntriesInTimeOrder(zip);
+				length = 0;
+				for (ZipEntry entry : entries) {
+					length = (entry.getSize() != -1 && length != -1) ? length + entry.getSize() : -1;
+				}
+				if (!openNextEntry()) {
+					close();
+				}
+			} else {
+				FileInputStream fileInputStream = new FileInputStream(file);
+				length = file.length();
+				open(fileInputStream, fileInputStream);
+			}
+		} catch (IOException e) {
+			close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns the entries of an archive ordered by time. Entries are written with the date of their first event,
+	 * entries with the same time keep the order of the archive.
+	 */
+	public static List<ZipEntry> getEntriesInTimeOrder(ZipFile zip) {
+		List<ZipEntry> entries = new ArrayList<ZipEntry>();
+		for (Enumeration<? extends ZipEntry> it = zip.entries(); it.hasMoreElements();) {
+			ZipEntry entry = it.nextElement();
+			if (!entry.isDirectory()) {
+				entries.add(entry);
+			}
+		}
+		Collections.sort(entries, new Comparator<ZipEntry>() {
+			public int compare(ZipEntry o1, ZipEntry o2) {
+				long time1 = o1.getTime();
+				long time2 = o2.getTime();
+				return (time1 < time2) ? -1 : ((time1 == time2) ? 0 : 1);
+			}
+		});
+		return entries;
+	}
+
+	private boolean openNextEntry() throws IOException {
+		closeStream();
+		if (entryIndex == entries.size()) {
+			return false;
+		}
+		open(zip.getInputStream(entries.get(entryIndex++)), null);
+		return true;
+	}
+
+	private void open(InputStream in, FileInputStream fileInputStream) throws IOException {
+		inputStream = new BufferedInputStream(in);
+		binary = InteractionEventBinaryDecoder.isBinary(inputStream);
+		if (binary) {
+			decoder = new InteractionEventBinaryDecoder(inputStream);
+			decoder.setStringPool(stringPool);
+		} else {
+			ReadableByteChannel channel;
+			if (fileInputStream != null) {
+				// read the file directly, bypassing the stream buffer that was used to detect the format
+				channel = fileInputStream.getChannel().position(0);
+			} else {
+				channel = Channels.newChannel(inputStream);
+			}
+			// events are written as UTF-8 by InteractionEventSerializer
+			reader = new InteractionEventLogReader(channel);
+			reader.setRecoveryCounters(recoveryCounters);
+			parser = new InteractionEventParser(stringPool);
+		}
+	}
+
+	public boolean hasNext() {
+		if (nextEvent == null && !closed) {
+			try {
+				nextEvent = read();
+			} catch (IOException e) {
+				StatusHandler.log(new Status(IStatus.ERROR, UiUsageMonitorPlugin.ID_PLUGIN,
+						"Could not read interaction history", e)); //$NON-NLS-1$
+			}
+			if (nextEvent == null) {
+				close();
+			}
+		}
+		return nextEvent != null;
+	}
+
+	public InteractionEvent next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		InteractionEvent event = nextEvent;
+		nextEvent = null;
+		count++;
+		return event;
+	}
+
+	private InteractionEvent read() throws IOException {
+		do {
+			if (decoder != null) {
+				InteractionEvent event = decoder.next();
+				if (event != null) {
+					return event;
+				}
+			} else if (reader != null) {
+				while (reader.nextRecord()) {
+					InteractionEvent event = parser.parse(reader.array(), reader.getRecordOffset(),
+							reader.getRecordLength());
+					if (event != null) {
+						recoveryCounters.recordRead();
+						return event;
+					}
+					recoveryCounters.recordSkipped(reader.getRecordLength());
+				}
+			}
+		} while (zip != null && openNextEntry());
+		return null;
+	}
+
+	/**
+	 * @throws UnsupportedOperationException
+	 *             always, the log is read-only
+	 */
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Returns the uncompressed size of the log or of all entries of an archive in bytes, or -1 if it is not known.
+	 */
+	public long getLength() {
+		return length;
+	}
+
+	/**
+	 * Returns true, if the log is in the binary format. For archives, this refers to the entry that is currently read.
+	 */
+	public boolean isBinary() {
+		return binary;
+	}
+
+	/**
+	 * Returns the number of events returned so far.
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * Returns the counters of the records that were read and skipped so far.
+	 */
+	public LogRecoveryCounters getRecoveryCounters() {
+		return recoveryCounters;
+	}
+
+	public void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		nextEvent = null;
+		closeStream();
+		if (zip != null) {
+			try {
+				zip.close();
+			} catch (IOException e) {
+				// ignore
+			}
+			zip = null;
+		}
+		recoveryCounters.log(file.getPath());
+	}
+
+	private void closeStream() {
+		decoder = null;
+		parser = null;
+		if (reader != null) {
+			try {
+				reader.close();
+			} catch (IOException e) {
+				StatusHandler.log(new Status(IStatus.ERROR, UiUsageMonitorPlugin.ID_PLUGIN,
+						"unable to close input stream", e)); //$NON-NLS-1$
+			}
+			reader = null;
+		}
+		if (inputStream != null) {
+			try {
+				inputStream.close();
+			} catch (IOException e) {
+				StatusHandler.log(new Status(IStatus.ERROR, UiUsageMonitorPlugin.ID_PLUGIN,
+						"unable to close input stream", e)); //$NON-NLS-1$
+			}
+			inputStream = null;
+		}
+	}
+
+}
@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.internal.monitor.usage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.eclipse.mylyn.monitor.core.InteractionEvent;
+
+/**
+ * Converts monitor logs between the legacy XML format and the binary format, e.g. to upload a binary log to a server
+ * that expects XML.
+ */
+public class InteractionEventLogConverter {
+
+	/**
+	 * Number of bytes encoded before they are written to the target file.
+	 */
+	private static final int CHUNK_SIZE = 64 * 1024;
+
+	public static void convertToBinary(File source, File target) throws IOException {
+		convert(source, target, true);
+	}
+
+	public static void convertToXml(File source, File target) throws IOException {
+		convert(source, target, false);
+	}
+
+	/**
+	 * Returns true, if <code>file</code> is a monitor log in the binary format.
+	 */
+	public static boolean isBinary(File file) throws IOException {
+		InputStream in = new BufferedInputStream(new FileInputStream(file));
+		try {
+			return InteractionEventBinaryDecoder.isBinary(in);
+		} finally {
+			in.close();
+		}
+	}
+
+	static void convert(File source, File target, boolean binary) throws IOException {
+		// events are streamed from the source, the size of the log does not matter
+		write(new InteractionEventLogger(null).getHistory(source), target, binary);
+	}
+
+	/**
+	 * Writes <code>events</code> to a new file in the requested format.
+	 */
+	public static void write(Iterable<InteractionEvent> events, File target, boolean binary) throws IOException {
+		LogWriter writer = new LogWriter(target, binary);
+		try {
+			for (InteractionEvent event : events) {
+				writer.write(event);
+			}
+		} finally {
+			writer.close();
+		}
+	}
+
+	/**
+	 * Writes events one at a time to a new file in the requested format, encoding them in chunks.
+	 */
+	static class LogWriter implements Closeable {
+
+		private final OutputStream out;
+
+		private final InteractionEventBinaryEncoder encoder;
+
+		private final InteractionEventSerializer serializer;
+
+		public LogWriter(File target, boolean binary) throws IOException {
+			this.out = new BufferedOutputStream(new FileOutputStream(target));
+			if (binary) {
+				encoder = new InteractionEventBinaryEncoder();
+				encoder.writeHeader();
+				serializer = null;
+			} else {
+				encoder = null;
+				serializer = new InteractionEventSerializer();
+			}
+		}
+
+		public void write(InteractionEvent event) throws IOException {
+			if (encoder != null) {
+				encoder.encode(event);
+				if (encoder.size() > CHUNK_SIZE) {
+					encoder.writeTo(out);
+					encoder.reset();
+				}
+			} else {
+				serializer.serialize(event);
+				if (serializer.size() > CHUNK_SIZE) {
+					serializer.writeTo(out);
+					serializer.reset();
+				}
+			}
+		}
+
+		/**
+		 * Writes the remaining events and closes the file.
+		 */
+		public void close() throws IOException {
+			try {
+				if (encoder != null) {
+					encoder.writeTo(out);
+				} else {
+					serializer.writeTo(out);
+				}
+			} finally {
+				out.close();
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,498 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.internal.monitor.usage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.mylyn.commons.core.StatusHandler;
+import org.eclipse.mylyn.monitor.core.InteractionEvent;
+
+/**
+ * A sidecar index of a monitor log in the XML format that maps hours to byte ranges of the log, so that the events of
+ * a time range can be read without scanning the whole log. The index is stored next to the log with the extension
+ * {@link #INDEX_EXTENSION}.
+ * <p>
+ * The index is a sequence of runs of consecutive records whose dates fall into the same hour, with the offsets of the
+ * first and after the last record and the number of events. Logs are mostly ordered by date, so there is about one
+ * run per hour, but out of order events are indexed correctly. For archives the offsets refer to the uncompressed
+ * entries.
+ * <p>
+ * The index is rebuilt when the log was modified. If a plain log only grew and the indexed bytes are unchanged, which
+ * is the case for the live monitor log, only the new records are indexed. Logs in the binary format are not indexed.
+ */
+public class InteractionEventLogIndex {
+
+	public static final String INDEX_EXTENSION = ".index"; //$NON-NLS-1$
+
+	/**
+	 * The granularity of the index.
+	 */
+	public static final long BUCKET_SIZE = 60 * 60 * 1000;
+
+	private static final int MAGIC = 0x4D4C4958;
+
+	private static final int VERSION = 1;
+
+	/**
+	 * Number of bytes before the end of the indexed records that are compared to detect a rewritten log.
+	 */
+	private static final int TAIL_LENGTH = 64;
+
+	private final File file;
+
+	private long length;
+
+	private long lastModified;
+
+	private long indexedEnd;
+
+	private byte[] tail = new byte[0];
+
+	private int size;
+
+	private int[] runEntry = new int[64];
+
+	private long[] runBucket = new long[64];
+
+	private long[] runStart = new long[64];
+
+	private long[] runEnd = new long[64];
+
+	private int[] runCount = new int[64];
+
+	private InteractionEventLogIndex(File file) {
+		this.file = file;
+	}
+
+	/**
+	 * Returns the index file of <code>file</code>.
+	 */
+	public static File getIndexFile(File file) {
+		return new File(file.getPath() + INDEX_EXTENSION);
+	}
+
+	/**
+	 * Returns the index of <code>file</code>, reading it from disk if it is current and indexing the log otherwise.
+	 *
+	 * @return null, if the log is in the binary format
+	 */
+	public static InteractionEventLogIndex getIndex(File file) throws IOException {
+		InteractionEventLogIndex index = load(file);
+		if (index != null && index.length == file.length() && index.lastModified == file.lastModified()) {
+			return index;
+		}
+		if (index == null || isZip(file) || !index.extend()) {
+			index = new InteractionEventLogIndex(file);
+			if (!index.build()) {
+				return null;
+			}
+		}
+		index.save();
+		return index;
+	}
+
+	private static boolean isZip(File file) {
+		return file.getName().endsWith(".zip"); //$NON-NLS-1$
+	}
+
+	/**
+	 * Indexes the log from the start.
+	 *
+	 * @return false, if the log is in the binary format
+	 */
+	private boolean build() throws IOException {
+		// taken before the log is read, a log that is modified while it is indexed is indexed again
+		lastModified = file.lastModified();
+		if (isZip(file)) {
+			length = file.length();
+			ZipFile zip = new ZipFile(file);
+			try {
+				List<ZipEntry> entries = InteractionEventCursor.getEntriesInTimeOrder(zip);
+				for (int i = 0; i < entries.size(); i++) {
+					InputStream in = new BufferedInputStream(zip.getInputStream(entries.get(i)));
+					try {
+						if (InteractionEventBinaryDecoder.isBinary(in)) {
+							return false;
+						}
+						index(i, Channels.newChannel(in), 0);
+					} finally {
+						in.close();
+					}
+				}
+			} finally {
+				zip.close();
+			}
+			return true;
+		}
+
+		FileInputStream in = new FileInputStream(file);
+		try {
+			if (InteractionEventBinaryDecoder.isBinary(new BufferedInputStream(in))) {
+				return false;
+			}
+			FileChannel channel = in.getChannel();
+			length = channel.size();
+			indexedEnd = index(0, new FileRangeChannel(channel, 0, length), 0);
+			tail = readTail(channel, indexedEnd);
+		} finally {
+			in.close();
+		}
+		return true;
+	}
+
+	/**
+	 * Indexes records appended to a plain log since it was last indexed.
+	 *
+	 * @return false, if the log was not appended to and needs to be indexed from the start
+	 */
+	private boolean extend() throws IOException {
+		if (file.length() < indexedEnd) {
+			return false;
+		}
+		lastModified = file.lastModified();
+		FileInputStream in = new FileInputStream(file);
+		try {
+			FileChannel channel = in.getChannel();
+			if (!Arrays.equals(tail, readTail(channel, indexedEnd))) {
+				return false;
+			}
+			length = channel.size();
+			indexedEnd = index(0, new FileRangeChannel(channel, indexedEnd, length), indexedEnd);
+			tail = readTail(channel, indexedEnd);
+		} finally {
+			in.close();
+		}
+		return true;
+	}
+
+	private static byte[] readTail(FileChannel channel, long end) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(TAIL_LENGTH, end));
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, end - buffer.capacity() + buffer.position()) == -1) {
+				break;
+			}
+		}
+		return buffer.array();
+	}
+
+	/**
+	 * Adds the records read from <code>channel</code> to the index. Records are appended to the last run if they fall
+	 * into the same hour.
+	 *
+	 * @return the offset after the last record
+	 */
+	private long index(int entry, ReadableByteChannel channel, long offset) throws IOException {
+		InteractionEventLogReader reader = new InteractionEventLogReader(channel);
+		// index the same records that are read, damaged records are reported when the log is read
+		reader.setRecoveryCounters(new LogRecoveryCounters());
+		InteractionEventParser parser = new InteractionEventParser();
+		long start = offset;
+		while (reader.nextRecord()) {
+			long end = offset + reader.getPosition();
+			InteractionEvent event = parser.parse(reader.array(), reader.getRecordOffset(), reader.getRecordLength());
+			if (event != null) {
+				long bucket = event.getDate().getTime() - (event.getDate().getTime() % BUCKET_SIZE);
+				if (size == 0 || runEntry[size - 1] != entry || runBucket[size - 1] != bucket
+						|| runEnd[size - 1] != start) {
+					addRun(entry, bucket, start);
+				}
+				runCount[size - 1]++;
+			}
+			if (size > 0 && runEntry[size - 1] == entry && runEnd[size - 1] == start) {
+				// records that cannot be parsed are kept in the run
+				runEnd[size - 1] = end;
+			}
+			start = end;
+		}
+		return start;
+	}
+
+	private void addRun(int entry, long bucket, long start) {
+		if (size == runEntry.length) {
+			int capacity = size * 2;
+			runEntry = Arrays.copyOf(runEntry, capacity);
+			runBucket = Arrays.copyOf(runBucket, capacity);
+			runStart = Arrays.copyOf(runStart, capacity);
+			runEnd = Arrays.copyOf(runEnd, capacity);
+			runCount = Arrays.copyOf(runCount, capacity);
+		}
+		runEntry[size] = entry;
+		runBucket[size] = bucket;
+		runStart[size] = start;
+		runEnd[size] = start;
+		runCount[size] = 0;
+		size++;
+	}
+
+	/**
+	 * Returns the events with dates from <code>from</code> inclusive to <code>to</code> exclusive in the order of the
+	 * log. Only the runs of the hours that overlap the range are read.
+	 */
+	public List<InteractionEvent> read(long from, long to) throws IOException {
+		LogRecoveryCounters counters = new LogRecoveryCounters();
+		InteractionEventStringPool pool = new InteractionEventStringPool();
+		List<InteractionEvent> events = new ArrayList<InteractionEvent>();
+		if (isZip(file)) {
+			ZipFile zip = new ZipFile(file);
+			try {
+				List<ZipEntry> entries = InteractionEventCursor.getEntriesInTimeOrder(zip);
+				int i = nextRun(0, from, to);
+				while (i < size) {
+					int entry = runEntry[i];
+					InputStream in = zip.getInputStream(entries.get(entry));
+					try {
+						long position = 0;
+						while (i < size && runEntry[i] == entry) {
+							int last = lastRun(i, from, to);
+							skip(in, runStart[i] - position);
+							readRange(new LimitedChannel(Channels.newChannel(in), runEnd[last] - runStart[i]), from,
+									to, events, counters, pool);
+							position = runEnd[last];
+							i = nextRun(last + 1, from, to);
+						}
+					} finally {
+						in.close();
+					}
+				}
+			} finally {
+				zip.close();
+			}
+		} else {
+			FileInputStream in = new FileInputStream(file);
+			try {
+				FileChannel channel = in.getChannel();
+				for (int i = nextRun(0, from, to); i < size; i = nextRun(i + 1, from, to)) {
+					int last = lastRun(i, from, to);
+					readRange(new FileRangeChannel(channel, runStart[i], runEnd[last]), from, to, events, counters,
+							pool);
+					i = last;
+				}
+			} finally {
+				in.close();
+			}
+		}
+		counters.log(file.getPath());
+		return events;
+	}
+
+	private boolean overlaps(int run, long from, long to) {
+		return runBucket[run] + BUCKET_SIZE > from && runBucket[run] < to;
+	}
+
+	private int nextRun(int run, long from, long to) {
+		while (run < size && !overlaps(run, from, to)) {
+			run++;
+		}
+		return run;
+	}
+
+	/**
+	 * Returns the last of the overlapping runs that are contiguous with <code>run</code>.
+	 */
+	private int lastRun(int run, long from, long to) {
+		while (run + 1 < size && runEntry[run + 1] == runEntry[run] && runStart[run + 1] == runEnd[run]
+				&& overlaps(run + 1, from, to)) {
+			run++;
+		}
+		return run;
+	}
+
+	private static void skip(InputStream in, long bytes) throws IOException {
+		while (bytes > 0) {
+			long skipped = in.skip(bytes);
+			if (skipped <= 0) {
+				if (in.read() == -1) {
+					throw new IOException("Unexpected end of log"); //$NON-NLS-1$
+				}
+				skipped = 1;
+			}
+			bytes -= skipped;
+		}
+	}
+
+	private static void readRange(ReadableByteChannel channel, long from, long to, List<InteractionEvent> events,
+			LogRecoveryCounters counters, InteractionEventStringPool pool) throws IOException {
+		InteractionEventLogReader reader = new InteractionEventLogReader(channel);
+		reader.setRecoveryCounters(counters);
+		InteractionEventParser parser = new InteractionEventParser(pool);
+		while (reader.nextRecord()) {
+			InteractionEvent event = parser.parse(reader.array(), reader.getRecordOffset(), reader.getRecordLength());
+			if (event == null) {
+				counters.recordSkipped(reader.getRecordLength());
+			} else {
+				counters.recordRead();
+				if (event.getDate().getTime() >= from && event.getDate().getTime() < to) {
+					events.add(event);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of indexed events.
+	 */
+	public int getEventCount() {
+		int count = 0;
+		for (int i = 0; i < size; i++) {
+			count += runCount[i];
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the number of events in the hours that overlap the range from <code>from</code> to <code>to</code>,
+	 * an upper bound of the number of events in the range.
+	 */
+	public int getEventCount(long from, long to) {
+		int count = 0;
+		for (int i = 0; i < size; i++) {
+			if (overlaps(i, from, to)) {
+				count += runCount[i];
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the number of runs of records in the same hour.
+	 */
+	public int getRunCount() {
+		return size;
+	}
+
+	private static InteractionEventLogIndex load(File file) {
+		File indexFile = getIndexFile(file);
+		if (!indexFile.exists()) {
+			return null;
+		}
+		try {
+			DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)));
+			try {
+				if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+					return null;
+				}
+				InteractionEventLogIndex index = new InteractionEventLogIndex(file);
+				index.length = in.readLong();
+				index.lastModified = in.readLong();
+				index.indexedEnd = in.readLong();
+				index.tail = new byte[in.readInt()];
+				in.readFully(index.tail);
+				int size = in.readInt();
+				for (int i = 0; i < size; i++) {
+					index.addRun(in.readInt(), in.readLong(), in.readLong());
+					index.runEnd[i] = in.readLong();
+					index.runCount[i] = in.readInt();
+				}
+				return index;
+			} finally {
+				in.close();
+			}
+		} catch (IOException e) {
+			// the index is rebuilt
+			return null;
+		}
+	}
+
+	private void save() {
+		File indexFile = getIndexFile(file);
+		try {
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile)));
+			try {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeLong(length);
+				out.writeLong(lastModified);
+				out.writeLong(indexedEnd);
+				out.writeInt(tail.length);
+				out.write(tail);
+				out.writeInt(size);
+				for (int i = 0; i < size; i++) {
+					out.writeInt(runEntry[i]);
+					out.writeLong(runBucket[i]);
+					out.writeLong(runStart[i]);
+					out.writeLong(runEnd[i]);
+					out.writeInt(runCount[i]);
+				}
+			} finally {
+				out.close();
+			}
+		} catch (IOException e) {
+			// the index is kept in memory only, e.g. if the directory of the log is read-only
+			indexFile.delete();
+			StatusHandler.log(new Status(IStatus.WARNING, UiUsageMonitorPlugin.ID_PLUGIN,
+					"Could not write monitor log index", e)); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Reads at most a number of bytes from a stream so that the stream is positioned after the range.
+	 */
+	private static class LimitedChannel implements ReadableByteChannel {
+
+		private final ReadableByteChannel channel;
+
+		private long remaining;
+
+		LimitedChannel(ReadableByteChannel channel, long length) {
+			this.channel = channel;
+			this.remaining = length;
+		}
+
+		public int read(ByteBuffer dst) throws IOException {
+			if (remaining <= 0) {
+				return -1;
+			}
+			int limit = dst.limit();
+			if (dst.remaining() > remaining) {
+				dst.limit(dst.position() + (int) remaining);
+			}
+			try {
+				int read = channel.read(dst);
+				if (read > 0) {
+					remaining -= read;
+				}
+				return read;
+			} finally {
+				dst.limit(limit);
+			}
+		}
+
+		public boolean isOpen() {
+			return channel.isOpen();
+		}
+
+		public void close() {
+			// the stream is closed by the caller
+		}
+
+	}
+
+}
@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.internal.monitor.usage;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes encoded events to the monitor log file according to a {@link LogDurability} mode. Only used from the log
+ * writer thread, or after it has stopped.
+ */
+class InteractionEventLogOutput extends OutputStream {
+
+	static final int BUFFER_SIZE = 64 * 1024;
+
+	private final FileOutputStream out;
+
+	private final LogDurability durability;
+
+	private final long interval;
+
+	private final int maxPendingEvents;
+
+	private final LogDurabilityCounters counters;
+
+	private final byte[] buffer;
+
+	private int count;
+
+	/**
+	 * Time when the oldest event that has not been flushed or synced according to the durability mode was written, 0
+	 * if there is no such event.
+	 */
+	private long pendingSince;
+
+	private int pendingEvents;
+
+	/**
+	 * @param interval
+	 *            the time in milliseconds after which buffered events are flushed or synced
+	 * @param maxPendingEvents
+	 *            the number of events after which buffered events are synced in {@link LogDurability#GROUP_COMMIT}
+	 *            mode
+	 */
+	public InteractionEventLogOutput(FileOutputStream out, LogDurability durability, long interval,
+			int maxPendingEvents, LogDurabilityCounters counters) {
+		this.out = out;
+		this.durability = durability;
+		this.interval = Math.max(1, interval);
+		this.maxPendingEvents = Math.max(1, maxPendingEvents);
+		this.counters = counters;
+		this.buffer = (durability != LogDurability.WRITE_THROUGH) ? new byte[BUFFER_SIZE] : null;
+	}
+
+	public LogDurability getDurability() {
+		return durability;
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		write(new byte[] { (byte) b }, 0, 1);
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		if (buffer == null || len >= buffer.length) {
+			flushBuffer();
+			writeToFile(b, off, len);
+			return;
+		}
+		if (count + len > buffer.length) {
+			flushBuffer();
+		}
+		System.arraycopy(b, off, buffer, count, len);
+		count += len;
+	}
+
+	/**
+	 * Notifies the output that the bytes of <code>events</code> events have been written and applies the durability
+	 * mode.
+	 */
+	public void eventsWritten(int events) throws IOException {
+		counters.eventsWritten(events);
+		if (durability == LogDurability.WRITE_THROUGH) {
+			return;
+		}
+		if (pendingSince == 0) {
+			pendingSince = System.currentTimeMillis();
+		}
+		pendingEvents += events;
+		if (durability == LogDurability.GROUP_COMMIT && pendingEvents >= maxPendingEvents) {
+			sync();
+		}
+	}
+
+	/**
+	 * Returns the time in milliseconds until pending events are due to be flushed or synced, 0 if they are due now, or
+	 * -1 if nothing is pending.
+	 */
+	public long getDelay() {
+		if (pendingSince == 0) {
+			return -1;
+		}
+		return Math.max(0, pendingSince + interval - System.currentTimeMillis());
+	}
+
+	/**
+	 * Flushes or syncs pending events if they are due.
+	 */
+	public void commitIfDue() throws IOException {
+		if (getDelay() == 0) {
+			if (durability == LogDurability.GROUP_COMMIT) {
+				sync();
+			} else {
+				flush();
+			}
+		}
+	}
+
+	/**
+	 * Writes buffered events to the file without forcing it to the storage device.
+	 */
+	@Override
+	public void flush() throws IOException {
+		flushBuffer();
+		if (durability == LogDurability.BUFFERED) {
+			pendingSince = 0;
+			pendingEvents = 0;
+		}
+	}
+
+	/**
+	 * Writes buffered events to the file and forces it to the storage device.
+	 */
+	public void sync() throws IOException {
+		flushBuffer();
+		long start = System.nanoTime();
+		out.getFD().sync();
+		counters.synced(System.nanoTime() - start);
+		pendingSince = 0;
+		pendingEvents = 0;
+	}
+
+	private void flushBuffer() throws IOException {
+		if (count > 0) {
+			writeToFile(buffer, 0, count);
+			count = 0;
+			counters.flushed();
+		}
+	}
+
+	private void writeToFile(byte[] b, int off, int len) throws IOException {
+		out.write(b, off, len);
+		counters.bytesWritten(len);
+	}
+
+}
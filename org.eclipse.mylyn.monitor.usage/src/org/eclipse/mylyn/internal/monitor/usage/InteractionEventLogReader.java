@@ -0,0 +1,262 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.internal.monitor.usage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.mylyn.internal.context.core.InteractionContextExternalizer;
+
+/**
+ * Splits a monitor log in the XML format into event records. Records are framed on the
+ * <code>&lt;/interactionEvent&gt;</code> end tag directly in the bytes read from the channel, so the log is read in
+ * a single pass in time linear in its size. The buffer only grows if a single record exceeds it, memory use does not
+ * depend on the size of the log. Records are exposed as views of the buffer and are valid until the next record is
+ * read.
+ * <p>
+ * Logs that were truncated by a crash contain partial records that run into the next record. When recovery counters
+ * are set, the reader resynchronizes on the last <code>&lt;interactionEvent&gt;</code> start tag of each record and
+ * skips the bytes before it, as well as records without a start tag and bytes after the last end tag.
+ */
+public class InteractionEventLogReader implements Closeable {
+
+	public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+	private static final byte[] END_TAG = ("</" + InteractionContextExternalizer.ELMNT_INTERACTION_HISTORY_OLD //$NON-NLS-1$
+			+ ">").getBytes(StandardCharsets.UTF_8); //$NON-NLS-1$
+
+	private static final byte[] START_TAG = ("<" + InteractionContextExternalizer.ELMNT_INTERACTION_HISTORY_OLD //$NON-NLS-1$
+			+ ">").getBytes(StandardCharsets.UTF_8); //$NON-NLS-1$
+
+	private final ReadableByteChannel channel;
+
+	/**
+	 * Holds the bytes between {@link #position} and {@link ByteBuffer#position()} that have been read but not framed.
+	 */
+	private ByteBuffer buffer;
+
+	/**
+	 * Offset of the first byte in the buffer that does not belong to a record returned so far.
+	 */
+	private int start;
+
+	/**
+	 * Offset in the buffer from which to continue searching for the end tag.
+	 */
+	private int searchFrom;
+
+	private int recordStart;
+
+	private int recordEnd;
+
+	private boolean eof;
+
+	/**
+	 * Number of bytes before the buffer that have been framed.
+	 */
+	private long position;
+
+	private LogRecoveryCounters recoveryCounters;
+
+	public InteractionEventLogReader(ReadableByteChannel channel) {
+		this(channel, DEFAULT_BUFFER_SIZE);
+	}
+
+	public InteractionEventLogReader(ReadableByteChannel channel, int bufferSize) {
+		this.channel = channel;
+		this.buffer = ByteBuffer.allocate(Math.max(END_TAG.length, bufferSize));
+	}
+
+	/**
+	 * Enables resynchronization on damaged records and counts the skipped bytes in <code>counters</code>, or disables
+	 * it if <code>counters</code> is null.
+	 */
+	public void setRecoveryCounters(LogRecoveryCounters counters) {
+		this.recoveryCounters = counters;
+	}
+
+	/**
+	 * Advances to the next record.
+	 *
+	 * @return false, if the end of the channel was reached; bytes after the last end tag are ignored
+	 */
+	public boolean nextRecord() throws IOException {
+		while (true) {
+			int end = findEndTag();
+			if (end != -1) {
+				recordStart = skipWhitespace(start, end);
+				recordEnd = end;
+				start = end;
+				searchFrom = end;
+				if (recoveryCounters == null || resynchronize()) {
+					return true;
+				}
+				continue;
+			}
+			if (eof || !fill()) {
+				if (!eof && recoveryCounters != null) {
+					int trailing = skipWhitespace(start, buffer.position());
+					if (trailing < buffer.position()) {
+						// a record that was not completely written
+						recoveryCounters.recordSkipped(buffer.position() - trailing);
+					}
+				}
+				eof = true;
+				recordStart = recordEnd = start;
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Returns the offset after the end tag of the first record in the unframed bytes, or -1 if there is no complete
+	 * record.
+	 */
+	private int findEndTag() {
+		byte[] bytes = buffer.array();
+		int limit = buffer.position() - END_TAG.length;
+		byte first = END_TAG[0];
+		for (int i = Math.max(searchFrom, start); i <= limit; i++) {
+			if (bytes[i] == first && matchesEndTag(bytes, i)) {
+				return i + END_TAG.length;
+			}
+		}
+		// the end tag may still start in the last bytes
+		searchFrom = Math.max(start, limit + 1);
+		return -1;
+	}
+
+	private static boolean matchesEndTag(byte[] bytes, int offset) {
+		return matches(bytes, offset, END_TAG);
+	}
+
+	private static boolean matches(byte[] bytes, int offset, byte[] tag) {
+		for (int j = 1; j < tag.length; j++) {
+			if (bytes[offset + j] != tag[j]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Moves the start of the current record to its last start tag. Content is escaped when the log is written, so a
+	 * complete record has a single start tag and any bytes before the last one belong to a damaged record.
+	 *
+	 * @return false, if the record has no start tag and is skipped
+	 */
+	private boolean resynchronize() {
+		byte[] bytes = buffer.array();
+		byte first = START_TAG[0];
+		for (int i = recordEnd - END_TAG.length - START_TAG.length; i >= recordStart; i--) {
+			if (bytes[i] == first && matches(bytes, i, START_TAG)) {
+				if (i > recordStart) {
+					recoveryCounters.recordSkipped(i - recordStart);
+					recordStart = i;
+				}
+				return true;
+			}
+		}
+		recoveryCounters.recordSkipped(recordEnd - recordStart);
+		return false;
+	}
+
+	private int skipWhitespace(int from, int to) {
+		byte[] bytes = buffer.array();
+		while (from < to && (bytes[from] == ' ' || bytes[from] == '\r' || bytes[from] == '\n' || bytes[from] == '\t')) {
+			from++;
+		}
+		return from;
+	}
+
+	/**
+	 * Reads more bytes, discarding framed records and growing the buffer if a single record does not fit.
+	 *
+	 * @return false, if the end of the channel was reached
+	 */
+	private boolean fill() throws IOException {
+		if (start > 0) {
+			buffer.flip();
+			buffer.position(start);
+			buffer.compact();
+			position += start;
+			searchFrom -= start;
+			start = 0;
+		}
+		if (!buffer.hasRemaining()) {
+			ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+			buffer.flip();
+			larger.put(buffer);
+			buffer = larger;
+		}
+		int read;
+		do {
+			read = channel.read(buffer);
+		} while (read == 0);
+		return read != -1;
+	}
+
+	/**
+	 * Returns a read-only view of the bytes of the current record, from the first non-whitespace byte through the end
+	 * tag. The view is only valid until the next invocation of {@link #nextRecord()}.
+	 */
+	public ByteBuffer getRecord() {
+		ByteBuffer record = buffer.asReadOnlyBuffer();
+		record.limit(recordEnd);
+		record.position(recordStart);
+		return record.slice();
+	}
+
+	/**
+	 * Decodes the current record as UTF-8.
+	 */
+	public String getRecordString() {
+		return new String(buffer.array(), recordStart, recordEnd - recordStart, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Returns the buffer that holds the current record, valid until the next invocation of {@link #nextRecord()}.
+	 */
+	byte[] array() {
+		return buffer.array();
+	}
+
+	int getRecordOffset() {
+		return recordStart;
+	}
+
+	int getRecordLength() {
+		return recordEnd - recordStart;
+	}
+
+	/**
+	 * Returns the number of bytes that have been framed so far, i.e. the offset after the current record.
+	 */
+	public long getPosition() {
+		return position + start;
+	}
+
+	/**
+	 * Returns the current capacity of the buffer, which only exceeds the initial size if a record did not fit.
+	 */
+	public int getBufferCapacity() {
+		return buffer.capacity();
+	}
+
+	public void close() throws IOException {
+		channel.close();
+	}
+
+}
@@ -13,75 +13,191 @@
 package org.eclipse.mylyn.internal.monitor.usage;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.Reader;
-import java.io.StringReader;
-import java.text.DateFormat;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.EnumMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Locale;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipFile;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
+import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.Status;
-import org.eclipse.mylyn.commons.core.HtmlStreamTokenizer;
-import org.eclipse.mylyn.commons.core.HtmlStreamTokenizer.Token;
 import org.eclipse.mylyn.commons.core.StatusHandler;
-import org.eclipse.mylyn.internal.context.core.InteractionContextExternalizer;
 import org.eclipse.mylyn.monitor.core.AbstractMonitorLog;
 import org.eclipse.mylyn.monitor.core.IInteractionEventListener;
 import org.eclipse.mylyn.monitor.core.InteractionEvent;
-import org.eclipse.mylyn.monitor.core.InteractionEvent.Kind;
 
 /**
- * @author Mik Kersten TODO: use buffered output stream for better performance?
+ * Logs interaction events to the monitor log file. Events are written in batches by a background
+ * {@link InteractionEventWriter} while monitoring is started and queued otherwise.
+ * 
+ * @author Mik Kersten
  */
 public class InteractionEventLogger extends AbstractMonitorLog implements IInteractionEventListener {
 
-	private int eventAccumulartor = 0;
+	public static final long DEFAULT_COMMIT_INTERVAL = 5000;
 
-	private final List<InteractionEvent> queue = new CopyOnWriteArrayList<InteractionEvent>();
+	public static final int DEFAULT_COMMIT_EVENTS = 1000;
+
+	public static final int DEFAULT_QUEUE_CAPACITY = 16 * 1024;
+
+	/**
+	 * Number of queued events written at a time when monitoring starts.
+	 */
+	private static final int REPLAY_BATCH_SIZE = 4096;
+
+	/**
+	 * Determines what happens to events observed while monitoring is stopped once the queue is full.
+	 */
+	public enum OverflowPolicy {
+		/**
+		 * Discards the oldest queued event.
+		 */
+		DROP_OLDEST,
+		/**
+		 * Moves the oldest queued events to a file next to the output file.
+		 */
+		SPILL_TO_DISK
+	}
+
+	private final AtomicInteger eventAccumulartor = new AtomicInteger();
+
+	private volatile InteractionEventQueue queue;
 
 	private final InteractionEventObfuscator handleObfuscator = new InteractionEventObfuscator();
 
-	private static final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.S z", Locale.ENGLISH); //$NON-NLS-1$
+	private final InteractionEventLoggerMetrics metrics = new InteractionEventLoggerMetrics(this);
+
+	/**
+	 * Thins out high frequency events, null if the study does not declare sampling rules.
+	 */
+	private volatile InteractionEventSampler sampler;
+
+	/**
+	 * Held while events pass through the sampler and are handed on, so that a merged event is never logged after a
+	 * newer event that another thread observed.
+	 */
+	private final ReentrantLock samplingLock = new ReentrantLock();
+
+	private volatile InteractionEventWriter writer;
+
+	/**
+	 * Caches the events of archived logs for {@link #getHistoryFromFileInParallel(File)}, null if not cached.
+	 */
+	private volatile InteractionEventArchiveCache archiveCache;
+
+	/**
+	 * Notified of the events written to the output file, see {@link #addLogListener(IInteractionEventListener)}.
+	 */
+	private final List<IInteractionEventListener> logListeners = new CopyOnWriteArrayList<IInteractionEventListener>();
+
+	private int bufferCapacity = InteractionEventWriter.DEFAULT_CAPACITY;
+
+	private int batchSize = InteractionEventWriter.DEFAULT_BATCH_SIZE;
+
+	private long flushInterval = InteractionEventWriter.DEFAULT_FLUSH_INTERVAL;
+
+	private boolean binaryFormat;
+
+	private LogDurability durability = LogDurability.WRITE_THROUGH;
+
+	private long commitInterval = DEFAULT_COMMIT_INTERVAL;
+
+	private int commitEvents = DEFAULT_COMMIT_EVENTS;
+
+	private final EnumMap<LogDurability, LogDurabilityCounters> durabilityCounters = new EnumMap<LogDurability, LogDurabilityCounters>(
+			LogDurability.class);
+
+	/**
+	 * Writes to the output stream while monitoring, null otherwise.
+	 */
+	private InteractionEventLogOutput output;
+
+	/**
+	 * Keeps the dictionary of the current segment while monitoring in the binary format, null otherwise.
+	 */
+	private InteractionEventBinaryEncoder binaryEncoder;
 
 	public InteractionEventLogger(File outputFile) {
 		this.outputFile = outputFile;
+		this.queue = new InteractionEventQueue(DEFAULT_QUEUE_CAPACITY, OverflowPolicy.SPILL_TO_DISK, getSpillFile());
 	}
 
-	public synchronized void interactionObserved(InteractionEvent event) {
+	public void interactionObserved(InteractionEvent event) {
 //		System.err.println("> " + event); //$NON-NLS-1$
 		if (UiUsageMonitorPlugin.getDefault() == null) {
 			StatusHandler.log(new Status(IStatus.WARNING, UiUsageMonitorPlugin.ID_PLUGIN,
 					"Attempted to log event before usage monitor start")); //$NON-NLS-1$
 		}
-		if (UiUsageMonitorPlugin.getDefault().isObfuscationEnabled()) {
-			String obfuscatedHandle = handleObfuscator.obfuscateHandle(event.getStructureKind(),
-					event.getStructureHandle());
-			event = new InteractionEvent(event.getKind(), event.getStructureKind(), obfuscatedHandle,
-					event.getOriginId(), event.getNavigation(), event.getDelta(), event.getInterestContribution());
+		if (event == null) {
+			return;
+		}
+		metrics.eventObserved();
+		InteractionEventSampler currentSampler = sampler;
+		if (currentSampler != null) {
+			List<InteractionEvent> sampled = new ArrayList<InteractionEvent>(2);
+			samplingLock.lock();
+			try {
+				currentSampler.process(event, sampled);
+				for (InteractionEvent sampledEvent : sampled) {
+					obfuscateAndLog(sampledEvent);
+				}
+			} finally {
+				samplingLock.unlock();
+			}
+		} else {
+			obfuscateAndLog(event);
+		}
+	}
+
+	private void obfuscateAndLog(InteractionEvent event) {
+		log(obfuscate(event));
+	}
+
+	private InteractionEvent obfuscate(InteractionEvent event) {
+		if (UiUsageMonitorPlugin.getDefault() != null && UiUsageMonitorPlugin.getDefault().isObfuscationEnabled()) {
+			return handleObfuscator.obfuscate(event);
+		}
+		return event;
+	}
+
+	/**
+	 * Logs events that were read from another log, e.g. during rollover or export. If obfuscation is enabled the
+	 * events are obfuscated in one batch.
+	 */
+	public void interactionsObserved(Collection<InteractionEvent> events) {
+		if (UiUsageMonitorPlugin.getDefault() != null && UiUsageMonitorPlugin.getDefault().isObfuscationEnabled()) {
+			events = handleObfuscator.obfuscate(events);
+		}
+		for (InteractionEvent event : events) {
+			if (event != null) {
+				metrics.eventObserved();
+				log(event);
+			}
 		}
+	}
+
+	private void log(InteractionEvent event) {
 		try {
-			if (started) {
-				String xml = getXmlForEvent(event);
-				if (outputStream != null) {
-					outputStream.write(xml.getBytes());
+			eventAccumulartor.incrementAndGet();
+			InteractionEventWriter currentWriter = writer;
+			if (currentWriter == null || !currentWriter.enqueue(event)) {
+				queue.offer(event);
+				// monitoring may have started after the writer was read, make sure the event is not left behind
+				currentWriter = writer;
+				if (currentWriter != null) {
+					currentWriter.requestReplay();
 				}
-			} else if (event != null) {
-				queue.add(event);
 			}
-			eventAccumulartor++;
 		} catch (Throwable t) {
 			StatusHandler.log(new Status(IStatus.WARNING, UiUsageMonitorPlugin.ID_PLUGIN,
 					"Could not log interaction event", t)); //$NON-NLS-1$
@@ -89,322 +205,596 @@ public class InteractionEventLogger extends AbstractMonitorLog implements IInter
 	}
 
 	@Override
-	public void startMonitoring() {
+	public synchronized void startMonitoring() {
+		if (!started) {
+			convertOutputFile();
+		}
 		super.startMonitoring();
-		for (InteractionEvent queuedEvent : queue) {
-			interactionObserved(queuedEvent);
+		if (writer == null) {
+			if (binaryFormat) {
+				// the header is written with the first batch of events
+				binaryEncoder = new InteractionEventBinaryEncoder();
+				if (outputFile.length() == 0) {
+					binaryEncoder.writeHeader();
+				} else {
+					binaryEncoder.startSegment();
+				}
+			} else {
+				binaryEncoder = null;
+			}
+			output = new InteractionEventLogOutput(outputStream, durability, commitInterval, commitEvents,
+					getDurabilityCounters(durability));
+			for (IInteractionEventListener listener : logListeners) {
+				listener.startMonitoring();
+			}
+			// the writer thread is not running yet, write queued events in large batches directly
+			try {
+				writeQueuedEvents();
+			} catch (IOException e) {
+				StatusHandler.log(new Status(IStatus.WARNING, UiUsageMonitorPlugin.ID_PLUGIN,
+						"Could not log interaction events", e)); //$NON-NLS-1$
+			}
+			InteractionEventWriter newWriter = new InteractionEventWriter(this, bufferCapacity, batchSize,
+					flushInterval);
+			newWriter.start();
+			writer = newWriter;
+			// events queued after the queue was written and before the writer was published are left to its thread
+			newWriter.requestReplay();
 		}
-		queue.clear();
 	}
 
 	@Override
-	public void stopMonitoring() {
+	public synchronized void stopMonitoring() {
+		flushSampler(sampler);
+		InteractionEventWriter stoppedWriter = writer;
+		if (stoppedWriter != null) {
+			// events observed from now on are queued
+			writer = null;
+			stoppedWriter.stop();
+			binaryEncoder = null;
+			syncOutput();
+			output = null;
+			for (IInteractionEventListener listener : logListeners) {
+				listener.stopMonitoring();
+			}
+		}
 		super.stopMonitoring();
+		int observedEvents = eventAccumulartor.getAndSet(0);
 		if (UiUsageMonitorPlugin.getDefault() != null) {
-			UiUsageMonitorPlugin.getDefault().incrementObservedEvents(eventAccumulartor);
+			UiUsageMonitorPlugin.getDefault().incrementObservedEvents(observedEvents);
 		}
-		eventAccumulartor = 0;
 	}
 
-	private String getXmlForEvent(InteractionEvent event) {
-		return writeLegacyEvent(event);
+	/**
+	 * Blocks until all events observed so far have been written to the output file. Events are not forced to the
+	 * storage device.
+	 */
+	public void flush() {
+		flushSampler(sampler);
+		InteractionEventWriter currentWriter = writer;
+		if (currentWriter != null) {
+			currentWriter.flush();
+		}
 	}
 
 	/**
-	 * @return true if successfully cleared
+	 * Invoked by the {@link InteractionEventWriter} thread, never concurrently.
 	 */
-	public synchronized void clearInteractionHistory() throws IOException {
-		this.clearInteractionHistory(true);
+	void writeEvents(List<InteractionEvent> events) throws IOException {
+		long start = System.nanoTime();
+		if (binaryEncoder != null) {
+			for (InteractionEvent event : events) {
+				binaryEncoder.encode(event);
+			}
+			long serialized = System.nanoTime();
+			try {
+				if (output != null) {
+					binaryEncoder.writeTo(output);
+					output.eventsWritten(events.size());
+					metrics.batchWritten(events.size(), binaryEncoder.size(), serialized - start, System.nanoTime()
+							- serialized);
+					fireEventsWritten(events);
+				}
+			} catch (IOException e) {
+				// strings defined in the lost records must not be referenced by later events
+				binaryEncoder.reset();
+				binaryEncoder.startSegment();
+				throw e;
+			}
+			binaryEncoder.reset();
+			return;
+		}
+
+		InteractionEventSerializer serializer = InteractionEventSerializer.getDefault();
+		serializer.reset();
+		for (InteractionEvent event : events) {
+			serializer.serialize(event);
+		}
+		long serialized = System.nanoTime();
+		if (output != null) {
+			serializer.writeTo(output);
+			output.eventsWritten(events.size());
+			metrics.batchWritten(events.size(), serializer.size(), serialized - start, System.nanoTime() - serialized);
+			fireEventsWritten(events);
+		}
 	}
 
-	public synchronized void clearInteractionHistory(boolean startMonitoring) throws IOException {
-		stopMonitoring();
-		outputStream = new FileOutputStream(outputFile, false);
-		outputStream.flush();
-		outputStream.close();
-		outputFile.delete();
-		outputFile.createNewFile();
-		if (startMonitoring) {
-			startMonitoring();
+	private void fireEventsWritten(List<InteractionEvent> events) {
+		for (IInteractionEventListener listener : logListeners) {
+			for (InteractionEvent event : events) {
+				listener.interactionObserved(event);
+			}
 		}
 	}
 
-	public List<InteractionEvent> getHistoryFromFile(File file) {
-		return getHistoryFromFile(file, new NullProgressMonitor());
+	/**
+	 * Writes events that were observed while monitoring was stopped, oldest first. Invoked before the
+	 * {@link InteractionEventWriter} thread is started or by that thread, never concurrently.
+	 */
+	void writeQueuedEvents() throws IOException {
+		InteractionEventQueue currentQueue = queue;
+		currentQueue.replaySpilledEvents(new InteractionEventQueue.BatchWriter() {
+			public void write(List<InteractionEvent> events) throws IOException {
+				writeEvents(events);
+			}
+		}, REPLAY_BATCH_SIZE);
+		List<InteractionEvent> batch = new ArrayList<InteractionEvent>(Math.min(currentQueue.size(),
+				REPLAY_BATCH_SIZE));
+		while (currentQueue.drainTo(batch, REPLAY_BATCH_SIZE) > 0) {
+			writeEvents(batch);
+			batch.clear();
+		}
 	}
 
-	public List<InteractionEvent> getHistoryFromFile(File file, IProgressMonitor monitor) {
+	/**
+	 * Returns the time in milliseconds until buffered events need to be committed according to the durability mode, 0
+	 * if they are due now, or -1 if nothing is buffered. Invoked by the {@link InteractionEventWriter} thread.
+	 */
+	long getCommitDelay() {
+		return (output != null) ? output.getDelay() : -1;
+	}
 
-		List<InteractionEvent> events = new ArrayList<InteractionEvent>();
-		InputStream inputStream = null;
-		long fileLength = 0;
+	/**
+	 * Commits buffered events according to the durability mode. Invoked by the {@link InteractionEventWriter} thread,
+	 * never concurrently.
+	 * 
+	 * @param flush
+	 *            if true, buffered events are written to the file regardless of the durability mode
+	 */
+	void commit(boolean flush) throws IOException {
+		if (output != null) {
+			if (flush) {
+				output.flush();
+			}
+			output.commitIfDue();
+		}
+	}
 
-		ZipFile zip = null;
-		try {
-			// The file may be a zip file...
-			if (file.getName().endsWith(".zip")) { //$NON-NLS-1$
-				zip = new ZipFile(file);
-				if (zip.entries().hasMoreElements()) {
-					ZipEntry entry = zip.entries().nextElement();
-					inputStream = zip.getInputStream(entry);
-					fileLength = entry.getSize();
+	private File getSpillFile() {
+		return (outputFile != null) ? new File(outputFile.getPath() + ".queue") : null; //$NON-NLS-1$
+	}
+
+	/**
+	 * Logs the event that <code>currentSampler</code> is currently merging, if any.
+	 */
+	private void flushSampler(InteractionEventSampler currentSampler) {
+		if (currentSampler != null) {
+			List<InteractionEvent> pending = new ArrayList<InteractionEvent>(1);
+			samplingLock.lock();
+			try {
+				currentSampler.flush(pending);
+				for (InteractionEvent event : pending) {
+					obfuscateAndLog(event);
 				}
-			} else {
-				inputStream = new FileInputStream(file);
-				fileLength = file.length();
+			} finally {
+				samplingLock.unlock();
 			}
+		}
+	}
 
-			//450: the approximate size of an event in XML 
-			int numberOfEventsEstimate = (int) (fileLength / 450);
+	/**
+	 * Returns the time in milliseconds until the event the sampler is merging can be logged, 0 if it can be logged now,
+	 * or -1 if no event is being merged. Invoked by the {@link InteractionEventWriter} thread.
+	 * 
+	 * @see InteractionEventSampler#getExpiryDelay(long)
+	 */
+	long getSampleDelay() {
+		InteractionEventSampler currentSampler = sampler;
+		return (currentSampler != null) ? currentSampler.getExpiryDelay(System.currentTimeMillis()) : -1;
+	}
 
-			monitor.beginTask(Messages.InteractionEventLogger_Reading_History_From_File, numberOfEventsEstimate);
+	/**
+	 * Takes the event the sampler is merging, if no further events can be merged with it. If an event is returned the
+	 * sampling lock is held until {@link #unlockSampling()} is invoked, so that no newer event is logged before it.
+	 * Invoked by the {@link InteractionEventWriter} thread, which must not block on producers.
+	 * 
+	 * @return the obfuscated event, or null if there is none or the sampler is in use
+	 */
+	InteractionEvent takeExpiredSample() {
+		InteractionEventSampler currentSampler = sampler;
+		if (currentSampler == null || !samplingLock.tryLock()) {
+			return null;
+		}
+		List<InteractionEvent> expired = new ArrayList<InteractionEvent>(1);
+		currentSampler.flushExpired(System.currentTimeMillis(), expired);
+		if (expired.isEmpty()) {
+			samplingLock.unlock();
+			return null;
+		}
+		eventAccumulartor.incrementAndGet();
+		return obfuscate(expired.get(0));
+	}
 
-			getHistoryFromStream(inputStream, events, monitor);
+	void unlockSampling() {
+		samplingLock.unlock();
+	}
 
-		} catch (Exception e) {
-			StatusHandler.log(new Status(IStatus.ERROR, UiUsageMonitorPlugin.ID_PLUGIN,
-					"Could not read interaction history", e)); //$NON-NLS-1$
-		} finally {
-			if (inputStream != null) {
-				try {
-					inputStream.close();
-				} catch (IOException e) {
-					StatusHandler.log(new Status(IStatus.ERROR, UiUsageMonitorPlugin.ID_PLUGIN,
-							"unable to close input stream", e)); //$NON-NLS-1$
+	/**
+	 * Sets the rules that are applied to observed events before they are logged, the first matching rule applies. An
+	 * empty list disables sampling. Events read from other logs through {@link #interactionsObserved(Collection)} are
+	 * not sampled.
+	 */
+	public void setSamplingRules(List<SamplingRule> rules) {
+		Assert.isNotNull(rules);
+		InteractionEventSampler oldSampler = sampler;
+		sampler = (rules.isEmpty()) ? null : new InteractionEventSampler(rules);
+		flushSampler(oldSampler);
+	}
+
+	/**
+	 * Returns the sampler that applies the rules set through {@link #setSamplingRules(List)}, null if sampling is
+	 * disabled.
+	 */
+	public InteractionEventSampler getSampler() {
+		return sampler;
+	}
+
+	/**
+	 * Returns the measurements of the runtime cost of this logger.
+	 */
+	public InteractionEventLoggerMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Returns the approximate number of events that have been observed but not yet written.
+	 */
+	public int getQueueDepth() {
+		InteractionEventWriter currentWriter = writer;
+		return queue.size() + ((currentWriter != null) ? currentWriter.size() : 0);
+	}
+
+	public InteractionEventObfuscator getHandleObfuscator() {
+		return handleObfuscator;
+	}
+
+	/**
+	 * Bounds the number of events held in memory while monitoring is stopped. Events queued so far are kept.
+	 */
+	public synchronized void setQueueCapacity(int capacity, OverflowPolicy overflowPolicy) {
+		InteractionEventQueue oldQueue = queue;
+		InteractionEventQueue newQueue = new InteractionEventQueue(capacity, overflowPolicy, getSpillFile());
+		queue = newQueue;
+		InteractionEvent event;
+		while ((event = oldQueue.poll()) != null) {
+			newQueue.offer(event);
+		}
+	}
+
+	/**
+	 * Returns the number of events observed while monitoring was stopped that were discarded because the queue was
+	 * full.
+	 */
+	public long getDroppedEventCount() {
+		return queue.getDroppedCount();
+	}
+
+	/**
+	 * Returns the number of events observed while monitoring was stopped that were moved to disk because the queue was
+	 * full.
+	 */
+	public long getSpilledEventCount() {
+		return queue.getSpilledCount();
+	}
+
+	/**
+	 * Converts an existing output file that is not in the configured format.
+	 */
+	private void convertOutputFile() {
+		if (outputFile == null || !outputFile.exists() || outputFile.length() == 0) {
+			return;
+		}
+		try {
+			if (InteractionEventLogConverter.isBinary(outputFile) != binaryFormat) {
+				File convertedFile = new File(outputFile.getParentFile(), outputFile.getName() + ".converted"); //$NON-NLS-1$
+				InteractionEventLogConverter.convert(outputFile, convertedFile, binaryFormat);
+				if (!outputFile.delete() || !convertedFile.renameTo(outputFile)) {
+					throw new IOException("Could not replace " + outputFile + " with " + convertedFile); //$NON-NLS-1$ //$NON-NLS-2$
 				}
 			}
-			if (zip != null) {
-				try {
-					zip.close();
-				} catch (IOException e) {
-					// ignore
-				}
+		} catch (IOException e) {
+			StatusHandler.log(new Status(IStatus.WARNING, UiUsageMonitorPlugin.ID_PLUGIN,
+					"Could not convert monitor log", e)); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Forces written events to the storage device so that they survive a crash after monitoring has stopped.
+	 */
+	private void syncOutput() {
+		if (output != null) {
+			try {
+				output.sync();
+			} catch (IOException e) {
+				StatusHandler.log(new Status(IStatus.WARNING, UiUsageMonitorPlugin.ID_PLUGIN,
+						"Could not sync monitor log", e)); //$NON-NLS-1$
 			}
 		}
+	}
 
-		monitor.done();
+	/**
+	 * Sets the number of events that can be buffered before observers block. Takes effect on the next start.
+	 */
+	public void setBufferCapacity(int bufferCapacity) {
+		this.bufferCapacity = bufferCapacity;
+	}
 
-		return events;
+	/**
+	 * Sets the number of events after which the writer is woken up. Takes effect on the next start.
+	 */
+	public void setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
 	}
 
 	/**
-	 * @param events
-	 * @param monitor
-	 * @param tag
-	 * @param endl
-	 * @param buf
-	 */
-	private void getHistoryFromStream(InputStream reader, List<InteractionEvent> events, IProgressMonitor monitor)
-			throws IOException {
-		String xml;
-		int index;
-		String buf = ""; //$NON-NLS-1$
-		String tag = "</" + InteractionContextExternalizer.ELMNT_INTERACTION_HISTORY_OLD + ">"; //$NON-NLS-1$ //$NON-NLS-2$
-		String endl = "\r\n"; //$NON-NLS-1$
-		byte[] buffer = new byte[1000];
-		int bytesRead = 0;
-		while ((bytesRead = reader.read(buffer)) != -1) {
-			buf = buf + new String(buffer, 0, bytesRead);
-			while ((index = buf.indexOf(tag)) != -1) {
-				index += tag.length();
-				xml = buf.substring(0, index);
-				InteractionEvent event = readLegacyEvent(xml);
-				if (event != null) {
-					events.add(event);
-				}
+	 * Sets the maximum time in milliseconds an event is buffered before it is written. Takes effect on the next start.
+	 */
+	public void setFlushInterval(long flushInterval) {
+		this.flushInterval = flushInterval;
+	}
 
-				if (index + endl.length() > buf.length()) {
-					buf = ""; //$NON-NLS-1$
-				} else {
-					buf = buf.substring(index + endl.length(), buf.length());
-				}
+	/**
+	 * Sets the cache for the events of archived logs read through {@link #getHistoryFromFileInParallel(File)}, null
+	 * reads archives directly.
+	 */
+	public void setArchiveCache(InteractionEventArchiveCache archiveCache) {
+		this.archiveCache = archiveCache;
+	}
 
-				monitor.worked(1);
-			}
-			buffer = new byte[1000];
-		}
+	public InteractionEventArchiveCache getArchiveCache() {
+		return archiveCache;
+	}
+
+	/**
+	 * Adds a listener that is notified of each event after it was written to the output file, in the order of the
+	 * file and on the thread that writes the log. The listener is notified of the start of monitoring after the output
+	 * file was opened and before events that were queued while monitoring was stopped are written, and of the stop of
+	 * monitoring after all events were written to the file. Unlike listeners of the monitor, log listeners see the
+	 * events as they are logged, that is sampled and obfuscated, and they see events read from other logs through
+	 * {@link #interactionsObserved(Collection)}.
+	 */
+	public void addLogListener(IInteractionEventListener listener) {
+		logListeners.add(listener);
 	}
 
-	private static final String OPEN = "<"; //$NON-NLS-1$
+	public void removeLogListener(IInteractionEventListener listener) {
+		logListeners.remove(listener);
+	}
 
-	private static final String CLOSE = ">"; //$NON-NLS-1$
+	/**
+	 * Selects the compact binary format instead of XML for the output file. An existing output file is converted on
+	 * the next start.
+	 */
+	public void setBinaryFormat(boolean binaryFormat) {
+		this.binaryFormat = binaryFormat;
+	}
 
-	private static final String SLASH = "/"; //$NON-NLS-1$
+	public boolean isBinaryFormat() {
+		return binaryFormat;
+	}
 
-	private static final String ENDL = "\n"; //$NON-NLS-1$
+	/**
+	 * Selects when events are written and forced to the storage device. Takes effect on the next start.
+	 * 
+	 * @param interval
+	 *            the time in milliseconds after which buffered events are written in {@link LogDurability#BUFFERED}
+	 *            mode or synced in {@link LogDurability#GROUP_COMMIT} mode
+	 * @param events
+	 *            the number of events after which buffered events are synced in {@link LogDurability#GROUP_COMMIT}
+	 *            mode
+	 */
+	public void setDurability(LogDurability durability, long interval, int events) {
+		Assert.isNotNull(durability);
+		this.durability = durability;
+		this.commitInterval = interval;
+		this.commitEvents = events;
+	}
 
-	private static final String TAB = "\t"; //$NON-NLS-1$
+	public LogDurability getDurability() {
+		return durability;
+	}
 
-	@Deprecated
-	public String writeLegacyEvent(InteractionEvent e) {
-		try {
-			StringBuffer res = new StringBuffer();
-			String tag = "interactionEvent"; //$NON-NLS-1$
-			res.append(OPEN);
-			res.append(tag);
-			res.append(CLOSE);
-			res.append(ENDL);
-
-			openElement(res, "kind"); //$NON-NLS-1$
-			formatContent(res, e.getKind());
-			closeElement(res, "kind"); //$NON-NLS-1$
-
-			openElement(res, "date"); //$NON-NLS-1$
-			formatContent(res, e.getDate());
-			closeElement(res, "date"); //$NON-NLS-1$
-
-			openElement(res, "endDate"); //$NON-NLS-1$
-			formatContent(res, e.getEndDate());
-			closeElement(res, "endDate"); //$NON-NLS-1$
-
-			openElement(res, "originId"); //$NON-NLS-1$
-			formatContent(res, e.getOriginId());
-			closeElement(res, "originId"); //$NON-NLS-1$
-
-			openElement(res, "structureKind"); //$NON-NLS-1$
-			formatContent(res, e.getStructureKind());
-			closeElement(res, "structureKind"); //$NON-NLS-1$
-
-			openElement(res, "structureHandle"); //$NON-NLS-1$
-			formatContent(res, e.getStructureHandle());
-			closeElement(res, "structureHandle"); //$NON-NLS-1$
-
-			openElement(res, "navigation"); //$NON-NLS-1$
-			formatContent(res, e.getNavigation());
-			closeElement(res, "navigation"); //$NON-NLS-1$
-
-			openElement(res, "delta"); //$NON-NLS-1$
-			formatContent(res, e.getDelta());
-			closeElement(res, "delta"); //$NON-NLS-1$
-
-			openElement(res, "interestContribution"); //$NON-NLS-1$
-			formatContent(res, e.getInterestContribution());
-			closeElement(res, "interestContribution"); //$NON-NLS-1$
-
-			res.append(OPEN);
-			res.append(SLASH);
-			res.append(tag);
-			res.append(CLOSE);
-			res.append(ENDL);
-			return res.toString();
-		} catch (Throwable t) {
-			StatusHandler.log(new Status(IStatus.ERROR, UiUsageMonitorPlugin.ID_PLUGIN, "Could not write event", t)); //$NON-NLS-1$
-			return ""; //$NON-NLS-1$
+	/**
+	 * Returns the I/O counters for the time <code>durability</code> was in effect since this logger was created.
+	 */
+	public LogDurabilityCounters getDurabilityCounters(LogDurability durability) {
+		synchronized (durabilityCounters) {
+			LogDurabilityCounters counters = durabilityCounters.get(durability);
+			if (counters == null) {
+				counters = new LogDurabilityCounters(durability);
+				durabilityCounters.put(durability, counters);
+			}
+			return counters;
 		}
 	}
 
-	private void formatContent(StringBuffer buffer, float interestContribution) {
-		buffer.append(interestContribution);
+	/**
+	 * @return true if successfully cleared
+	 */
+	public synchronized void clearInteractionHistory() throws IOException {
+		this.clearInteractionHistory(true);
 	}
 
-	@SuppressWarnings("deprecation")
-	private void formatContent(StringBuffer buffer, String content) {
-		if (content != null && content.length() > 0) {
-			String xmlContent;
-			xmlContent = org.eclipse.mylyn.internal.commons.core.XmlStringConverter.convertToXmlString(content);
-			xmlContent = xmlContent.replace("\n", "\n\t\t"); //$NON-NLS-1$ //$NON-NLS-2$
-			buffer.append(xmlContent);
+	public synchronized void clearInteractionHistory(boolean startMonitoring) throws IOException {
+		stopMonitoring();
+		outputStream = new FileOutputStream(outputFile, false);
+		outputStream.flush();
+		outputStream.close();
+		outputFile.delete();
+		outputFile.createNewFile();
+		if (startMonitoring) {
+			startMonitoring();
 		}
 	}
 
-	private void formatContent(StringBuffer buffer, Kind kind) {
-		buffer.append(kind.toString());
+	/**
+	 * Reads all events of a monitor log into memory. Consider {@link #getHistory(File)} or
+	 * {@link #visitHistory(File, IInteractionEventVisitor, IProgressMonitor)} for logs of arbitrary size.
+	 */
+	public List<InteractionEvent> getHistoryFromFile(File file) {
+		return getHistoryFromFile(file, new NullProgressMonitor());
+	}
+
+	public List<InteractionEvent> getHistoryFromFile(File file, IProgressMonitor monitor) {
+		final List<InteractionEvent> events = new ArrayList<InteractionEvent>();
+		visitHistory(file, new IInteractionEventVisitor() {
+			public boolean visit(InteractionEvent event) {
+				events.add(event);
+				return true;
+			}
+		}, monitor);
+		return events;
+	}
+
+	/**
+	 * Reads the events of a monitor log with dates from <code>from</code> inclusive to <code>to</code> exclusive. Logs
+	 * in the XML format are read through an {@link InteractionEventLogIndex} that is created or updated as needed,
+	 * so only the parts of the log that cover the range are read.
+	 */
+	public List<InteractionEvent> getHistoryFromFile(File file, Date from, Date to) {
+		if (file.equals(outputFile)) {
+			flush();
+		}
+		final long fromTime = from.getTime();
+		final long toTime = to.getTime();
+		try {
+			InteractionEventLogIndex index = InteractionEventLogIndex.getIndex(file);
+			if (index != null) {
+				return index.read(fromTime, toTime);
+			}
+		} catch (IOException e) {
+			StatusHandler.log(new Status(IStatus.ERROR, UiUsageMonitorPlugin.ID_PLUGIN,
+					"Could not read interaction history", e)); //$NON-NLS-1$
+			return new ArrayList<InteractionEvent>();
+		}
+
+		// binary logs are not indexed
+		final List<InteractionEvent> events = new ArrayList<InteractionEvent>();
+		visitHistory(file, new IInteractionEventVisitor() {
+			public boolean visit(InteractionEvent event) {
+				long time = event.getDate().getTime();
+				if (time >= fromTime && time < toTime) {
+					events.add(event);
+				}
+				return true;
+			}
+		}, new NullProgressMonitor());
+		return events;
 	}
 
-	private void formatContent(StringBuffer buffer, Date date) {
-		buffer.append(dateFormat.format(date));
+	/**
+	 * Reads all events of a monitor log on multiple threads. Unlike {@link #getHistoryFromFile(File)} the events are
+	 * ordered by date. Events of zip archives are read from the archive cache, if one is set.
+	 *
+	 * @see InteractionEventParallelLoader
+	 */
+	public List<InteractionEvent> getHistoryFromFileInParallel(File file) throws IOException {
+		if (file.equals(outputFile)) {
+			flush();
+		}
+		InteractionEventArchiveCache cache = archiveCache;
+		if (cache != null && file.getName().endsWith(".zip")) { //$NON-NLS-1$
+			return cache.load(file);
+		}
+		return new InteractionEventParallelLoader().load(file);
 	}
 
-	private void openElement(StringBuffer buffer, String tag) {
-		buffer.append(TAB);
-		buffer.append(OPEN);
-		buffer.append(tag);
-		buffer.append(CLOSE);
+	/**
+	 * Opens a cursor that streams the events of a monitor log from disk. The caller is responsible for closing the
+	 * cursor if it does not read all events.
+	 */
+	public InteractionEventCursor openHistory(File file) throws IOException {
+		if (file.equals(outputFile)) {
+			// make sure that events still buffered for our own log are visible to the reader
+			flush();
+		}
+		return new InteractionEventCursor(file);
 	}
 
-	private void closeElement(StringBuffer buffer, String tag) {
-		buffer.append(OPEN);
-		buffer.append(SLASH);
-		buffer.append(tag);
-		buffer.append(CLOSE);
-		buffer.append(ENDL);
+	/**
+	 * Returns the events of a monitor log without reading them into memory. Each iteration reads the log from disk
+	 * again; errors are logged and end the iteration.
+	 */
+	public Iterable<InteractionEvent> getHistory(final File file) {
+		return new Iterable<InteractionEvent>() {
+			public Iterator<InteractionEvent> iterator() {
+				try {
+					return openHistory(file);
+				} catch (IOException e) {
+					StatusHandler.log(new Status(IStatus.ERROR, UiUsageMonitorPlugin.ID_PLUGIN,
+							"Could not read interaction history", e)); //$NON-NLS-1$
+					return Collections.<InteractionEvent> emptyList().iterator();
+				}
+			}
+		};
 	}
 
-	public InteractionEvent readLegacyEvent(String xml) {
-		Reader reader = new StringReader(xml);
-		HtmlStreamTokenizer tokenizer = new HtmlStreamTokenizer(reader, null);
-		String kind = ""; //$NON-NLS-1$
-		String startDate = ""; //$NON-NLS-1$
-		String endDate = ""; //$NON-NLS-1$
-		String originId = ""; //$NON-NLS-1$
-		String structureKind = ""; //$NON-NLS-1$
-		String structureHandle = ""; //$NON-NLS-1$
-		String navigation = ""; //$NON-NLS-1$
-		String delta = ""; //$NON-NLS-1$
-		String interest = ""; //$NON-NLS-1$
+	/**
+	 * Passes the events of a monitor log to <code>visitor</code> as they are read from disk. Reading stops when the
+	 * visitor returns false or <code>monitor</code> is canceled.
+	 */
+	public void visitHistory(File file, IInteractionEventVisitor visitor, IProgressMonitor monitor) {
+		InteractionEventCursor cursor = null;
 		try {
-			for (Token token = tokenizer.nextToken(); token.getType() != Token.EOF; token = tokenizer.nextToken()) {
-				if (token.getValue().toString().equals("<kind>")) { //$NON-NLS-1$
-					kind = readStringContent(tokenizer, "</kind>"); //$NON-NLS-1$
-					kind = kind.toLowerCase(Locale.ENGLISH);
-				} else if (token.getValue().toString().equals("<date>")) { //$NON-NLS-1$
-					startDate = readStringContent(tokenizer, "</date>"); //$NON-NLS-1$
-				} else if (token.getValue().toString().equals("<endDate>")) { //$NON-NLS-1$
-					endDate = readStringContent(tokenizer, "</endDate>"); //$NON-NLS-1$
-				} else if (token.getValue().toString().equals("<originId>")) { //$NON-NLS-1$
-					originId = readStringContent(tokenizer, "</originId>"); //$NON-NLS-1$
-				} else if (token.getValue().toString().equals("<structureKind>")) { //$NON-NLS-1$
-					structureKind = readStringContent(tokenizer, "</structureKind>"); //$NON-NLS-1$
-				} else if (token.getValue().toString().equals("<structureHandle>")) { //$NON-NLS-1$
-					structureHandle = readStringContent(tokenizer, "</structureHandle>"); //$NON-NLS-1$
-				} else if (token.getValue().toString().equals("<navigation>")) { //$NON-NLS-1$
-					navigation = readStringContent(tokenizer, "</navigation>"); //$NON-NLS-1$
-				} else if (token.getValue().toString().equals("<delta>")) { //$NON-NLS-1$
-					delta = readStringContent(tokenizer, "</delta>"); //$NON-NLS-1$
-				} else if (token.getValue().toString().equals("<interestContribution>")) { //$NON-NLS-1$
-					interest = readStringContent(tokenizer, "</interestContribution>"); //$NON-NLS-1$
+			cursor = openHistory(file);
+			//40: the approximate size of an event in the binary format, 450: in XML
+			int numberOfEventsEstimate = (int) (cursor.getLength() / (cursor.isBinary() ? 40 : 450));
+			monitor.beginTask(Messages.InteractionEventLogger_Reading_History_From_File, numberOfEventsEstimate);
+			while (cursor.hasNext() && !monitor.isCanceled()) {
+				if (!visitor.visit(cursor.next())) {
+					break;
 				}
+				monitor.worked(1);
 			}
-			float interestFloatVal = 0;
-			try {
-				interestFloatVal = Float.parseFloat(interest);
-			} catch (NumberFormatException nfe) {
-				// ignore for empty interest values
-			}
-			InteractionEvent event = new InteractionEvent(Kind.fromString(kind), structureKind, structureHandle,
-					originId, navigation, delta, interestFloatVal, dateFormat.parse(startDate),
-					dateFormat.parse(endDate));
-			return event;
-
-		} catch (ParseException e) {
-			System.err.println("readevent: " + xml); //$NON-NLS-1$
-			e.printStackTrace();
 		} catch (IOException e) {
-			System.err.println("readevent: " + xml); //$NON-NLS-1$
-			e.printStackTrace();
-		} catch (Exception e) {
-			System.err.println("readevent: " + xml); //$NON-NLS-1$
-			e.printStackTrace();
+			StatusHandler.log(new Status(IStatus.ERROR, UiUsageMonitorPlugin.ID_PLUGIN,
+					"Could not read interaction history", e)); //$NON-NLS-1$
+		} finally {
+			if (cursor != null) {
+				cursor.close();
+			}
+			monitor.done();
 		}
+	}
 
-		return null;
+	/**
+	 * @deprecated use {@link InteractionEventSerializer} to encode events without intermediate strings
+	 */
+	@Deprecated
+	public String writeLegacyEvent(InteractionEvent e) {
+		InteractionEventSerializer serializer = InteractionEventSerializer.getDefault();
+		serializer.reset();
+		serializer.serialize(e);
+		return serializer.toString();
 	}
 
-	@SuppressWarnings("deprecation")
-	private String readStringContent(HtmlStreamTokenizer tokenizer, String endTag) throws IOException, ParseException {
-		StringBuffer content = new StringBuffer();
-		Token token = tokenizer.nextToken();
-		while (!token.getValue().toString().equals(endTag)) {
-			if (content.length() > 0) {
-				content.append(' ');
-			}
-			content.append(token.getValue().toString());
-			token = tokenizer.nextToken();
+	public InteractionEvent readLegacyEvent(String xml) {
+		InteractionEvent event = new InteractionEventParser().parse(xml);
+		if (event == null) {
+			StatusHandler.log(new Status(IStatus.WARNING, UiUsageMonitorPlugin.ID_PLUGIN, "Could not parse event: " //$NON-NLS-1$
+					+ xml));
 		}
-		return org.eclipse.mylyn.internal.commons.core.XmlStringConverter.convertXmlToString(content.toString()).trim();
+		return event;
 	}
 
-	public static DateFormat dateFormat() {
-		return (DateFormat) dateFormat.clone();
-	}
 }
@@ -0,0 +1,209 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.internal.monitor.usage;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Measures the runtime cost of an {@link InteractionEventLogger}. Counters are updated by the observing threads and
+ * the log writer thread and may be read from any thread. Batch write latencies are recorded in a histogram with
+ * power of two buckets: bucket 0 counts writes that took less than 1 microsecond, bucket <code>i</code> writes that
+ * took at least 2<sup>i-1</sup> and less than 2<sup>i</sup> microseconds, the last bucket all longer writes.
+ */
+public class InteractionEventLoggerMetrics {
+
+	public static final int LATENCY_BUCKETS = 24;
+
+	private final InteractionEventLogger logger;
+
+	private final AtomicLong eventsObserved = new AtomicLong();
+
+	private final AtomicLong eventsWritten = new AtomicLong();
+
+	private final AtomicLong bytesWritten = new AtomicLong();
+
+	private final AtomicLong serializationTime = new AtomicLong();
+
+	private final AtomicLong writeTime = new AtomicLong();
+
+	private final AtomicLongArray latencies = new AtomicLongArray(LATENCY_BUCKETS);
+
+	/**
+	 * Dropped events counted by the logger when the metrics were last reset.
+	 */
+	private volatile long droppedBaseline;
+
+	private volatile long startTime = System.currentTimeMillis();
+
+	InteractionEventLoggerMetrics(InteractionEventLogger logger) {
+		this.logger = logger;
+	}
+
+	void eventObserved() {
+		eventsObserved.incrementAndGet();
+	}
+
+	/**
+	 * Records a batch of events that was written to the log.
+	 *
+	 * @param serializationNanos
+	 *            the time it took to encode the events
+	 * @param writeNanos
+	 *            the time it took to hand the encoded events to the output
+	 */
+	void batchWritten(int events, int bytes, long serializationNanos, long writeNanos) {
+		eventsWritten.addAndGet(events);
+		bytesWritten.addAndGet(bytes);
+		serializationTime.addAndGet(serializationNanos);
+		writeTime.addAndGet(writeNanos);
+		latencies.incrementAndGet(getBucket(writeNanos));
+	}
+
+	static int getBucket(long nanos) {
+		long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+		if (micros <= 0) {
+			return 0;
+		}
+		return Math.min(LATENCY_BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+	}
+
+	/**
+	 * Returns the upper bound of the latencies counted by <code>bucket</code> in microseconds, or
+	 * {@link Long#MAX_VALUE} for the last bucket.
+	 */
+	public static long getBucketLimit(int bucket) {
+		return (bucket < LATENCY_BUCKETS - 1) ? 1L << bucket : Long.MAX_VALUE;
+	}
+
+	/**
+	 * Returns the number of events passed to the logger, including events that were merged or discarded by sampling
+	 * rules.
+	 */
+	public long getEventsObserved() {
+		return eventsObserved.get();
+	}
+
+	public long getEventsWritten() {
+		return eventsWritten.get();
+	}
+
+	/**
+	 * Returns the number of events written per second since the metrics were created or last reset.
+	 */
+	public double getEventsPerSecond() {
+		long elapsed = System.currentTimeMillis() - startTime;
+		return (elapsed > 0) ? eventsWritten.get() * 1000d / elapsed : 0;
+	}
+
+	/**
+	 * Returns the number of bytes of encoded events, before buffering by the {@link LogDurability} mode.
+	 */
+	public long getBytesWritten() {
+		return bytesWritten.get();
+	}
+
+	/**
+	 * Returns the total time spent encoding events in microseconds.
+	 */
+	public long getSerializationTime() {
+		return TimeUnit.NANOSECONDS.toMicros(serializationTime.get());
+	}
+
+	/**
+	 * Returns the total time spent writing encoded events in microseconds.
+	 */
+	public long getWriteTime() {
+		return TimeUnit.NANOSECONDS.toMicros(writeTime.get());
+	}
+
+	/**
+	 * Returns a copy of the batch write latency histogram.
+	 */
+	public long[] getWriteLatencyHistogram() {
+		long[] histogram = new long[LATENCY_BUCKETS];
+		for (int i = 0; i < histogram.length; i++) {
+			histogram[i] = latencies.get(i);
+		}
+		return histogram;
+	}
+
+	/**
+	 * Returns the upper bound in microseconds of the bucket that contains the given percentile of batch write
+	 * latencies, e.g. 0.99 for the 99th percentile, or 0 if nothing was written.
+	 */
+	public long getWriteLatencyPercentile(double percentile) {
+		long[] histogram = getWriteLatencyHistogram();
+		long total = 0;
+		for (long count : histogram) {
+			total += count;
+		}
+		if (total == 0) {
+			return 0;
+		}
+		long rank = (long) Math.ceil(Math.max(0, Math.min(1, percentile)) * total);
+		long count = 0;
+		for (int i = 0; i < histogram.length; i++) {
+			count += histogram[i];
+			if (count >= Math.max(1, rank)) {
+				return getBucketLimit(i);
+			}
+		}
+		return getBucketLimit(LATENCY_BUCKETS - 1);
+	}
+
+	/**
+	 * Returns the number of events that were discarded by sampling rules or because the queue of events observed while
+	 * monitoring was stopped was full.
+	 */
+	public long getEventsDropped() {
+		return Math.max(0, getTotalDropped() - droppedBaseline);
+	}
+
+	private long getTotalDropped() {
+		InteractionEventSampler sampler = logger.getSampler();
+		return logger.getDroppedEventCount() + ((sampler != null) ? sampler.getDroppedCount() : 0);
+	}
+
+	/**
+	 * Returns the number of events that have been observed but not yet written.
+	 */
+	public int getQueueDepth() {
+		return logger.getQueueDepth();
+	}
+
+	/**
+	 * Starts a new measurement period. The queue depth is not affected.
+	 */
+	public void reset() {
+		eventsObserved.set(0);
+		eventsWritten.set(0);
+		bytesWritten.set(0);
+		serializationTime.set(0);
+		writeTime.set(0);
+		for (int i = 0; i < LATENCY_BUCKETS; i++) {
+			latencies.set(i, 0);
+		}
+		droppedBaseline = getTotalDropped();
+		startTime = System.currentTimeMillis();
+	}
+
+	@Override
+	public String toString() {
+		return "observed=" + getEventsObserved() + ", written=" + getEventsWritten() + ", bytes=" + getBytesWritten() //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				+ ", serializationTime=" + getSerializationTime() + "us, p50=" + getWriteLatencyPercentile(0.5) //$NON-NLS-1$ //$NON-NLS-2$
+				+ "us, p99=" + getWriteLatencyPercentile(0.99) + "us, dropped=" + getEventsDropped() + ", queueDepth=" //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				+ getQueueDepth();
+	}
+
+}
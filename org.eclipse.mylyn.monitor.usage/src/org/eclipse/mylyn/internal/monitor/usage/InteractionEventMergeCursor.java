@@ -0,0 +1,205 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.internal.monitor.usage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.mylyn.commons.core.StatusHandler;
+import org.eclipse.mylyn.monitor.core.InteractionEvent;
+
+/**
+ * Merges the events of several sources that are each ordered by date into a single sequence ordered by date, e.g. the
+ * cursors of the monitor logs of a user. Only the next event of each source and the events returned for the current
+ * date are held in memory. Events with the same date are returned in the order of the sources, and events that are
+ * equal to an event returned earlier for the same date are skipped. For sources that are ordered this yields the same
+ * sequence as adding all events to an {@link InteractionEventStore} and iterating its sorted view.
+ * <p>
+ * An event that is older than the previous event of its source is returned when it is reached and does not restore
+ * the order, see {@link #isOrdered()}. Sources that implement {@link Closeable} are closed when the last event has
+ * been returned; clients that stop early must invoke {@link #close()}.
+ */
+public class InteractionEventMergeCursor implements Iterator<InteractionEvent>, Closeable {
+
+	private static class Head implements Comparable<Head> {
+
+		private final int index;
+
+		private InteractionEvent event;
+
+		private long date;
+
+		private Head(int index) {
+			this.index = index;
+		}
+
+		public int compareTo(Head other) {
+			if (date != other.date) {
+				return (date < other.date) ? -1 : 1;
+			}
+			return index - other.index;
+		}
+
+	}
+
+	private final List<? extends Iterator<InteractionEvent>> sources;
+
+	private final PriorityQueue<Head> heads;
+
+	/**
+	 * The events returned so far that have the date of the last returned event.
+	 */
+	private final List<InteractionEvent> run = new ArrayList<InteractionEvent>();
+
+	private InteractionEvent nextEvent;
+
+	private int duplicateCount;
+
+	private boolean ordered = true;
+
+	private boolean closed;
+
+	public InteractionEventMergeCursor(List<? extends Iterator<InteractionEvent>> sources) {
+		this.sources = sources;
+		this.heads = new PriorityQueue<Head>(Math.max(sources.size(), 1));
+		for (int i = 0; i < sources.size(); i++) {
+			advance(new Head(i));
+		}
+	}
+
+	private void advance(Head head) {
+		Iterator<InteractionEvent> source = sources.get(head.index);
+		if (source.hasNext()) {
+			InteractionEvent event = source.next();
+			long date = event.getDate().getTime();
+			if (head.event != null && date < head.date) {
+				ordered = false;
+			}
+			head.event = event;
+			head.date = date;
+			heads.add(head);
+		} else {
+			head.event = null;
+		}
+	}
+
+	public boolean hasNext() {
+		while (nextEvent == null && !closed) {
+			Head head = heads.poll();
+			if (head == null) {
+				close();
+				break;
+			}
+			InteractionEvent event = head.event;
+			advance(head);
+			if (!run.isEmpty() && run.get(0).getDate().getTime() != event.getDate().getTime()) {
+				run.clear();
+			}
+			if (isDuplicate(event)) {
+				duplicateCount++;
+			} else {
+				run.add(event);
+				nextEvent = event;
+			}
+		}
+		return nextEvent != null;
+	}
+
+	public InteractionEvent next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		InteractionEvent event = nextEvent;
+		nextEvent = null;
+		return event;
+	}
+
+	private boolean isDuplicate(InteractionEvent event) {
+		for (InteractionEvent previous : run) {
+			if (equals(previous, event)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Compares all fields, like {@link InteractionEventStore} does when it removes duplicates.
+	 */
+	static boolean equals(InteractionEvent e1, InteractionEvent e2) {
+		return e1.getDate().getTime() == e2.getDate().getTime()
+				&& e1.getEndDate().getTime() == e2.getEndDate().getTime() && e1.getKind() == e2.getKind()
+				&& equals(e1.getOriginId(), e2.getOriginId()) && equals(e1.getStructureKind(), e2.getStructureKind())
+				&& equals(e1.getStructureHandle(), e2.getStructureHandle())
+				&& equals(e1.getNavigation(), e2.getNavigation()) && equals(e1.getDelta(), e2.getDelta())
+				&& e1.getInterestContribution() == e2.getInterestContribution();
+	}
+
+	private static boolean equals(String s1, String s2) {
+		return (s1 == null) ? s2 == null : s1.equals(s2);
+	}
+
+	/**
+	 * @throws UnsupportedOperationException
+	 *             always, the sources are read-only
+	 */
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Returns the number of events that were skipped because they are equal to an event returned earlier.
+	 */
+	public int getDuplicateCount() {
+		return duplicateCount;
+	}
+
+	/**
+	 * Returns false, if an event was read that is older than the previous event of its source. The merged events are
+	 * then not ordered by date and clients that require the order have to sort them, e.g. in an
+	 * {@link InteractionEventStore}. Events are read ahead of the returned events, all sources have been checked
+	 * once the last event has been returned.
+	 */
+	public boolean isOrdered() {
+		return ordered;
+	}
+
+	/**
+	 * Closes all sources. Does nothing if the cursor is already closed.
+	 */
+	public void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		heads.clear();
+		run.clear();
+		for (Iterator<InteractionEvent> source : sources) {
+			if (source instanceof Closeable) {
+				try {
+					((Closeable) source).close();
+				} catch (IOException e) {
+					StatusHandler.log(new Status(IStatus.WARNING, UiUsageMonitorPlugin.ID_PLUGIN,
+							"Could not close interaction history", e)); //$NON-NLS-1$
+				}
+			}
+		}
+	}
+
+}
@@ -13,6 +13,13 @@ package org.eclipse.mylyn.internal.monitor.usage;
 
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.core.internal.preferences.Base64;
 import org.eclipse.core.resources.IResource;
@@ -23,9 +30,11 @@ import org.eclipse.core.runtime.Status;
 import org.eclipse.mylyn.commons.core.StatusHandler;
 import org.eclipse.mylyn.context.core.AbstractContextStructureBridge;
 import org.eclipse.mylyn.context.core.ContextCore;
+import org.eclipse.mylyn.monitor.core.InteractionEvent;
 
 /**
- * Provides one way hashing of events for the purpose of ensuring privacy of element handles.
+ * Provides one way hashing of events for the purpose of ensuring privacy of element handles. Obfuscated handles are
+ * cached since the same elements tend to be selected and edited repeatedly.
  * 
  * @author Mik Kersten
  */
@@ -37,55 +46,276 @@ public class InteractionEventObfuscator {
 
 	public static final String ENCRYPTION_ALGORITHM = "SHA"; //$NON-NLS-1$
 
+	public static final int DEFAULT_CACHE_SIZE = 2048;
+
+	/**
+	 * Projects and folders recur in most resource paths, so a small cache of path segments goes a long way.
+	 */
+	public static final int DEFAULT_SEGMENT_CACHE_SIZE = 512;
+
+	/**
+	 * Digests are expensive to look up and not thread-safe, each thread reuses its own.
+	 */
+	private static final ThreadLocal<MessageDigest> digest = new ThreadLocal<MessageDigest>() {
+		@Override
+		protected MessageDigest initialValue() {
+			try {
+				return MessageDigest.getInstance(ENCRYPTION_ALGORITHM);
+			} catch (NoSuchAlgorithmException e) {
+				StatusHandler.log(new Status(IStatus.WARNING, UiUsageMonitorPlugin.ID_PLUGIN, "SHA not available", e)); //$NON-NLS-1$
+				return null;
+			}
+		}
+	};
+
+	private static class HandleKey {
+
+		private final String structureKind;
+
+		private final String structureHandle;
+
+		public HandleKey(String structureKind, String structureHandle) {
+			this.structureKind = structureKind;
+			this.structureHandle = structureHandle;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * ((structureKind == null) ? 0 : structureKind.hashCode()) + structureHandle.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof HandleKey)) {
+				return false;
+			}
+			HandleKey other = (HandleKey) obj;
+			return structureHandle.equals(other.structureHandle)
+					&& (structureKind == null ? other.structureKind == null : structureKind.equals(other.structureKind));
+		}
+
+	}
+
+	/**
+	 * Least recently used obfuscated handles; guarded by itself.
+	 */
+	private final Map<HandleKey, String> cache;
+
+	/**
+	 * Least recently used obfuscated resource path segments; guarded by itself.
+	 */
+	private final Map<String, String> segmentCache;
+
+	private final AtomicLong cacheHits = new AtomicLong();
+
+	private final AtomicLong cacheMisses = new AtomicLong();
+
+	/**
+	 * Total time spent obfuscating handles that were not cached in nanoseconds.
+	 */
+	private final AtomicLong missTime = new AtomicLong();
+
+	public InteractionEventObfuscator() {
+		this(DEFAULT_CACHE_SIZE);
+	}
+
+	/**
+	 * @param cacheSize
+	 *            the maximum number of obfuscated handles to keep, 0 disables caching
+	 */
+	public InteractionEventObfuscator(int cacheSize) {
+		this.cache = createCache(cacheSize);
+		this.segmentCache = createCache((cacheSize > 0) ? DEFAULT_SEGMENT_CACHE_SIZE : 0);
+	}
+
+	private static <K> Map<K, String> createCache(final int size) {
+		return new LinkedHashMap<K, String>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, String> eldest) {
+				return size() > size;
+			}
+		};
+	}
+
 	public String obfuscateHandle(String structureKind, String structureHandle) {
+		return obfuscateHandle(structureKind, structureHandle, digest.get(), new StringBuilder());
+	}
+
+	/**
+	 * Returns a copy of <code>event</code> with an obfuscated structure handle.
+	 */
+	public InteractionEvent obfuscate(InteractionEvent event) {
+		return obfuscate(event, digest.get(), new StringBuilder());
+	}
+
+	/**
+	 * Obfuscates the structure handles of <code>events</code>, e.g. when an archived log is processed. Reuses one
+	 * digest and one buffer for all events.
+	 * 
+	 * @return copies of the events with obfuscated structure handles in the iteration order of <code>events</code>,
+	 *         null elements are skipped
+	 */
+	public List<InteractionEvent> obfuscate(Collection<InteractionEvent> events) {
+		List<InteractionEvent> result = new ArrayList<InteractionEvent>(events.size());
+		MessageDigest md = digest.get();
+		StringBuilder buffer = new StringBuilder(128);
+		for (InteractionEvent event : events) {
+			if (event != null) {
+				result.add(obfuscate(event, md, buffer));
+			}
+		}
+		return result;
+	}
+
+	private InteractionEvent obfuscate(InteractionEvent event, MessageDigest md, StringBuilder buffer) {
+		String structureHandle = event.getStructureHandle();
+		String obfuscatedHandle = obfuscateHandle(event.getStructureKind(), structureHandle, md, buffer);
+		if (obfuscatedHandle == structureHandle) {
+			return event;
+		}
+		return new InteractionEvent(event.getKind(), event.getStructureKind(), obfuscatedHandle, event.getOriginId(),
+				event.getNavigation(), event.getDelta(), event.getInterestContribution(), event.getDate(),
+				event.getEndDate());
+	}
+
+	private String obfuscateHandle(String structureKind, String structureHandle, MessageDigest md,
+			StringBuilder buffer) {
 		if (structureHandle == null || structureHandle.equals("")) { //$NON-NLS-1$
 			return structureHandle;
 		}
-		StringBuilder obfuscated = new StringBuilder();
+		HandleKey key = new HandleKey(structureKind, structureHandle);
+		String obfuscated;
+		synchronized (cache) {
+			obfuscated = cache.get(key);
+		}
+		if (obfuscated != null) {
+			cacheHits.incrementAndGet();
+			return obfuscated;
+		}
+
+		long start = System.nanoTime();
+		buffer.setLength(0);
+		appendObfuscatedHandle(buffer, structureKind, structureHandle, md);
+		obfuscated = buffer.toString();
+		missTime.addAndGet(System.nanoTime() - start);
+		cacheMisses.incrementAndGet();
+		synchronized (cache) {
+			cache.put(key, obfuscated);
+		}
+		return obfuscated;
+	}
+
+	private void appendObfuscatedHandle(StringBuilder obfuscated, String structureKind, String structureHandle,
+			MessageDigest md) {
 		AbstractContextStructureBridge bridge = ContextCore.getStructureBridge(structureKind);
 		Object object = bridge.getObjectForHandle(structureHandle);
 		if (object instanceof IAdaptable) {
 			Object adapter = ((IAdaptable) object).getAdapter(IResource.class);
 			if (adapter instanceof IResource) {
-				obfuscated.append(obfuscateResourcePath(((IResource) adapter).getFullPath()));
+				appendObfuscatedPath(obfuscated, ((IResource) adapter).getFullPath(), md);
 				obfuscated.append(DELIM_PATH);
 			}
 		}
-		obfuscated.append(obfuscateString(structureHandle));
-		return obfuscated.toString();
+		obfuscated.append(obfuscateString(structureHandle, md));
 	}
 
 	/**
 	 * Encrypts the string using SHA, then makes it reasonable to print.
 	 */
 	public String obfuscateString(String string) {
-		String obfuscatedString = null;
-		try {
-			MessageDigest md = MessageDigest.getInstance(ENCRYPTION_ALGORITHM);
-			md.update(string.getBytes());
-			byte[] digest = md.digest();
-			obfuscatedString = new String(Base64.encode(digest)).replace(DELIM_PATH, '=');
-			// obfuscatedString = "" + new String(digest).hashCode();
-		} catch (NoSuchAlgorithmException e) {
-			StatusHandler.log(new Status(IStatus.WARNING, UiUsageMonitorPlugin.ID_PLUGIN, "SHA not available", e)); //$NON-NLS-1$
-			obfuscatedString = LABEL_FAILED_TO_OBFUSCATE;
+		return obfuscateString(string, digest.get());
+	}
+
+	private String obfuscateString(String string, MessageDigest md) {
+		if (md == null) {
+			return LABEL_FAILED_TO_OBFUSCATE;
 		}
-		return obfuscatedString;
+		md.reset();
+		md.update(string.getBytes());
+		return new String(Base64.encode(md.digest())).replace(DELIM_PATH, '=');
 	}
 
 	public String obfuscateResourcePath(IPath path) {
 		if (path == null) {
 			return ""; //$NON-NLS-1$
 		} else {
-			StringBuffer obfuscatedPath = new StringBuffer();
-			for (int i = 0; i < path.segmentCount(); i++) {
-				obfuscatedPath.append(obfuscateString(path.segments()[i]));
-				if (i < path.segmentCount() - 1) {
-					obfuscatedPath.append(DELIM_PATH);
-				}
-			}
+			StringBuilder obfuscatedPath = new StringBuilder();
+			appendObfuscatedPath(obfuscatedPath, path, digest.get());
 			return obfuscatedPath.toString();
 		}
 	}
 
+	private void appendObfuscatedPath(StringBuilder obfuscatedPath, IPath path, MessageDigest md) {
+		if (path == null) {
+			return;
+		}
+		String[] segments = path.segments();
+		for (int i = 0; i < segments.length; i++) {
+			if (i > 0) {
+				obfuscatedPath.append(DELIM_PATH);
+			}
+			obfuscatedPath.append(obfuscateSegment(segments[i], md));
+		}
+	}
+
+	private String obfuscateSegment(String segment, MessageDigest md) {
+		String obfuscated;
+		synchronized (segmentCache) {
+			obfuscated = segmentCache.get(segment);
+		}
+		if (obfuscated == null) {
+			obfuscated = obfuscateString(segment, md);
+			synchronized (segmentCache) {
+				segmentCache.put(segment, obfuscated);
+			}
+		}
+		return obfuscated;
+	}
+
+	/**
+	 * Returns the number of handles that were obfuscated from the cache.
+	 */
+	public long getCacheHits() {
+		return cacheHits.get();
+	}
+
+	/**
+	 * Returns the number of handles that were not cached.
+	 */
+	public long getCacheMisses() {
+		return cacheMisses.get();
+	}
+
+	/**
+	 * Returns the fraction of handles that were obfuscated from the cache, between 0 and 1.
+	 */
+	public double getCacheHitRate() {
+		long hits = cacheHits.get();
+		long total = hits + cacheMisses.get();
+		return (total > 0) ? (double) hits / total : 0;
+	}
+
+	/**
+	 * Returns an estimate of the time saved by the cache in milliseconds, based on the average time it took to
+	 * obfuscate handles that were not cached.
+	 */
+	public long getCacheTimeSaved() {
+		long misses = cacheMisses.get();
+		if (misses == 0) {
+			return 0;
+		}
+		return TimeUnit.NANOSECONDS.toMillis(missTime.get() / misses * cacheHits.get());
+	}
+
+	public void clearCache() {
+		synchronized (cache) {
+			cache.clear();
+		}
+		synchronized (segmentCache) {
+			segmentCache.clear();
+		}
+	}
+
 }
@@ -0,0 +1,453 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.internal.monitor.usage;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.eclipse.mylyn.monitor.core.InteractionEvent;
+
+/**
+ * Loads monitor logs in the XML format on multiple threads. The log is split into byte ranges that end after a
+ * <code>&lt;/interactionEvent&gt;</code> end tag, so every range holds complete records and is parsed independently
+ * on a fork-join pool. The events of each range are sorted by date and the ranges are merged back pairwise, the
+ * result is ordered by date and events with the same date keep their order in the log.
+ * <p>
+ * The entries of zip files are inflated into memory in parallel and each entry is split in turn. Logs in the binary
+ * format cannot be split since strings are encoded relative to earlier records and are read sequentially.
+ * <p>
+ * Damaged records are skipped like {@link InteractionEventCursor} does and a single summary is logged for each load.
+ * The threads of a load share a {@link InteractionEventStringPool}.
+ */
+public class InteractionEventParallelLoader {
+
+	/**
+	 * Logs smaller than this are not split.
+	 */
+	public static final int DEFAULT_MIN_CHUNK_SIZE = 256 * 1024;
+
+	private static final Comparator<InteractionEvent> DATE_COMPARATOR = new Comparator<InteractionEvent>() {
+		public int compare(InteractionEvent o1, InteractionEvent o2) {
+			long date1 = o1.getDate().getTime();
+			long date2 = o2.getDate().getTime();
+			return (date1 < date2) ? -1 : ((date1 == date2) ? 0 : 1);
+		}
+	};
+
+	private final ForkJoinPool pool;
+
+	private final int minChunkSize;
+
+	public InteractionEventParallelLoader() {
+		this(ForkJoinPool.commonPool(), DEFAULT_MIN_CHUNK_SIZE);
+	}
+
+	public InteractionEventParallelLoader(ForkJoinPool pool, int minChunkSize) {
+		this.pool = pool;
+		this.minChunkSize = Math.max(1, minChunkSize);
+	}
+
+	/**
+	 * Returns the events of <code>file</code> ordered by date. If <code>file</code> is a zip file the entries are
+	 * decoded in parallel and all events are merged.
+	 */
+	public List<InteractionEvent> load(File file) throws IOException {
+		LoadContext context = new LoadContext();
+		List<InteractionEvent> events = load(file, context);
+		context.counters.log(file.getPath());
+		return events;
+	}
+
+	private List<InteractionEvent> load(File file, LoadContext context) throws IOException {
+		if (file.getName().endsWith(".zip")) { //$NON-NLS-1$
+			ZipFile zip = new ZipFile(file);
+			try {
+				List<ZipEntry> entries = InteractionEventCursor.getEntriesInTimeOrder(zip);
+				if (entries.isEmpty()) {
+					return new ArrayList<InteractionEvent>();
+				}
+				return invoke(new EntryTask(zip, entries, 0, entries.size(), context));
+			} finally {
+				zip.close();
+			}
+		}
+
+		InputStream in = new BufferedInputStream(new FileInputStream(file));
+		try {
+			if (InteractionEventBinaryDecoder.isBinary(in)) {
+				return readBinary(in, context);
+			}
+		} finally {
+			in.close();
+		}
+
+		FileInputStream fileInputStream = new FileInputStream(file);
+		try {
+			final FileChannel channel = fileInputStream.getChannel();
+			return invoke(createLoadTask(new Source() {
+				public long length() throws IOException {
+					return channel.size();
+				}
+
+				public ReadableByteChannel open(long start, long end) {
+					return new FileRangeChannel(channel, start, end);
+				}
+			}, context));
+		} finally {
+			fileInputStream.close();
+		}
+	}
+
+	/**
+	 * Returns the events of the log in <code>bytes</code> ordered by date.
+	 */
+	public List<InteractionEvent> load(ByteBuffer bytes) throws IOException {
+		LoadContext context = new LoadContext();
+		List<InteractionEvent> events = invoke(new BytesTask(bytes, context));
+		context.counters.log("an in-memory log"); //$NON-NLS-1$
+		return events;
+	}
+
+	private List<InteractionEvent> invoke(ForkJoinTask<List<InteractionEvent>> task) throws IOException {
+		try {
+			return pool.invoke(task);
+		} catch (LoadException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * Invoked on a thread of the pool.
+	 */
+	private List<InteractionEvent> loadBytes(final ByteBuffer bytes, LoadContext context) throws IOException {
+		if (InteractionEventBinaryDecoder.isBinary(new ByteBufferInputStream(bytes.duplicate()))) {
+			return readBinary(new ByteBufferInputStream(bytes.duplicate()), context);
+		}
+		return createLoadTask(new Source() {
+			public long length() {
+				return bytes.remaining();
+			}
+
+			public ReadableByteChannel open(long start, long end) {
+				ByteBuffer range = bytes.duplicate();
+				range.position(bytes.position() + (int) start);
+				range.limit(bytes.position() + (int) end);
+				return new ByteBufferChannel(range);
+			}
+		}, context).invoke();
+	}
+
+	private static List<InteractionEvent> readBinary(InputStream in, LoadContext context) throws IOException {
+		InteractionEventBinaryDecoder decoder = new InteractionEventBinaryDecoder(in);
+		decoder.setStringPool(context.strings);
+		List<InteractionEvent> events = decoder.readAll();
+		Collections.sort(events, DATE_COMPARATOR);
+		return events;
+	}
+
+	private LoadTask createLoadTask(Source source, LoadContext context) throws IOException {
+		List<Long> splitPoints = getSplitPoints(source);
+		return new LoadTask(source, splitPoints, 0, splitPoints.size() - 1, context);
+	}
+
+	/**
+	 * Returns the offsets at which the log is split, including 0 and the length of the log. Each offset except the
+	 * first is either the length or directly follows an end tag.
+	 */
+	private List<Long> getSplitPoints(Source source) throws IOException {
+		long length = source.length();
+		int chunks = (int) Math.max(1, Math.min(length / minChunkSize, pool.getParallelism() * 4L));
+		List<Long> splitPoints = new ArrayList<Long>(chunks + 1);
+		splitPoints.add(0L);
+		for (int i = 1; i < chunks; i++) {
+			long offset = Math.max(length * i / chunks, splitPoints.get(splitPoints.size() - 1));
+			long splitPoint = alignToRecord(source, offset, length);
+			if (splitPoint >= length) {
+				break;
+			}
+			if (splitPoint > splitPoints.get(splitPoints.size() - 1)) {
+				splitPoints.add(splitPoint);
+			}
+		}
+		splitPoints.add(length);
+		return splitPoints;
+	}
+
+	/**
+	 * Returns the offset after the first end tag that starts at or after <code>offset</code>.
+	 */
+	private long alignToRecord(Source source, long offset, long length) throws IOException {
+		InteractionEventLogReader reader = new InteractionEventLogReader(source.open(offset, length), 4096);
+		if (reader.nextRecord()) {
+			return offset + reader.getPosition();
+		}
+		return length;
+	}
+
+	private static List<InteractionEvent> parse(Source source, long start, long end, LoadContext context)
+			throws IOException {
+		InteractionEventLogReader reader = new InteractionEventLogReader(source.open(start, end));
+		reader.setRecoveryCounters(context.counters);
+		InteractionEventParser parser = new InteractionEventParser(context.strings);
+		List<InteractionEvent> events = new ArrayList<InteractionEvent>();
+		while (reader.nextRecord()) {
+			InteractionEvent event = parser.parse(reader.array(), reader.getRecordOffset(), reader.getRecordLength());
+			if (event != null) {
+				context.counters.recordRead();
+				events.add(event);
+			} else {
+				context.counters.recordSkipped(reader.getRecordLength());
+			}
+		}
+		// stable, events with the same date stay in log order
+		Collections.sort(events, DATE_COMPARATOR);
+		return events;
+	}
+
+	/**
+	 * Merges two lists ordered by date, taking events from <code>first</code> if dates are equal.
+	 */
+	static List<InteractionEvent> merge(List<InteractionEvent> first, List<InteractionEvent> second) {
+		if (second.isEmpty()) {
+			return first;
+		}
+		if (first.isEmpty()) {
+			return second;
+		}
+		List<InteractionEvent> events = new ArrayList<InteractionEvent>(first.size() + second.size());
+		int i = 0;
+		int j = 0;
+		while (i < first.size() && j < second.size()) {
+			if (DATE_COMPARATOR.compare(second.get(j), first.get(i)) < 0) {
+				events.add(second.get(j++));
+			} else {
+				events.add(first.get(i++));
+			}
+		}
+		events.addAll(first.subList(i, first.size()));
+		events.addAll(second.subList(j, second.size()));
+		return events;
+	}
+
+	private static ByteBuffer readFully(InputStream in, long size) throws IOException {
+		byte[] bytes = new byte[size > 0 && size < Integer.MAX_VALUE ? (int) size : 64 * 1024];
+		int length = 0;
+		int read;
+		while ((read = in.read(bytes, length, bytes.length - length)) != -1) {
+			length += read;
+			if (length == bytes.length) {
+				int next = in.read();
+				if (next == -1) {
+					break;
+				}
+				byte[] larger = new byte[bytes.length * 2];
+				System.arraycopy(bytes, 0, larger, 0, length);
+				bytes = larger;
+				bytes[length++] = (byte) next;
+			}
+		}
+		return ByteBuffer.wrap(bytes, 0, length);
+	}
+
+	private interface Source {
+
+		public abstract long length() throws IOException;
+
+		public abstract ReadableByteChannel open(long start, long end);
+
+	}
+
+	private static class LoadTask extends RecursiveTask<List<InteractionEvent>> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Source source;
+
+		private final List<Long> splitPoints;
+
+		private final int from;
+
+		private final int to;
+
+		private final LoadContext context;
+
+		LoadTask(Source source, List<Long> splitPoints, int from, int to, LoadContext context) {
+			this.source = source;
+			this.splitPoints = splitPoints;
+			this.from = from;
+			this.to = to;
+			this.context = context;
+		}
+
+		@Override
+		protected List<InteractionEvent> compute() {
+			if (to - from == 1) {
+				try {
+					return parse(source, splitPoints.get(from), splitPoints.get(to), context);
+				} catch (IOException e) {
+					throw new LoadException(e);
+				}
+			}
+			int middle = (from + to) >>> 1;
+			LoadTask second = new LoadTask(source, splitPoints, middle, to, context);
+			second.fork();
+			List<InteractionEvent> first = new LoadTask(source, splitPoints, from, middle, context).compute();
+			return merge(first, second.join());
+		}
+
+	}
+
+	/**
+	 * Inflates and loads a range of the entries of an archive.
+	 */
+	private class EntryTask extends RecursiveTask<List<InteractionEvent>> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final ZipFile zip;
+
+		private final List<ZipEntry> entries;
+
+		private final int from;
+
+		private final int to;
+
+		private final LoadContext context;
+
+		EntryTask(ZipFile zip, List<ZipEntry> entries, int from, int to, LoadContext context) {
+			this.zip = zip;
+			this.entries = entries;
+			this.from = from;
+			this.to = to;
+			this.context = context;
+		}
+
+		@Override
+		protected List<InteractionEvent> compute() {
+			if (to - from == 1) {
+				try {
+					ZipEntry entry = entries.get(from);
+					InputStream in = zip.getInputStream(entry);
+					try {
+						return loadBytes(readFully(in, entry.getSize()), context);
+					} finally {
+						in.close();
+					}
+				} catch (IOException e) {
+					throw new LoadException(e);
+				}
+			}
+			int middle = (from + to) >>> 1;
+			EntryTask second = new EntryTask(zip, entries, middle, to, context);
+			second.fork();
+			List<InteractionEvent> first = new EntryTask(zip, entries, from, middle, context).compute();
+			return merge(first, second.join());
+		}
+
+	}
+
+	private class BytesTask extends RecursiveTask<List<InteractionEvent>> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final ByteBuffer bytes;
+
+		private final LoadContext context;
+
+		BytesTask(ByteBuffer bytes, LoadContext context) {
+			this.bytes = bytes;
+			this.context = context;
+		}
+
+		@Override
+		protected List<InteractionEvent> compute() {
+			try {
+				return loadBytes(bytes, context);
+			} catch (IOException e) {
+				throw new LoadException(e);
+			}
+		}
+
+	}
+
+	/**
+	 * The state shared by the tasks of a load.
+	 */
+	private static class LoadContext {
+
+		final LogRecoveryCounters counters = new LogRecoveryCounters();
+
+		final InteractionEventStringPool strings = new InteractionEventStringPool();
+
+	}
+
+	private static class LoadException extends RuntimeException {
+
+		private static final long serialVersionUID = 1L;
+
+		LoadException(IOException cause) {
+			super(cause);
+		}
+
+		@Override
+		public synchronized IOException getCause() {
+			return (IOException) super.getCause();
+		}
+
+	}
+
+	private static class ByteBufferChannel implements ReadableByteChannel {
+
+		private final ByteBuffer bytes;
+
+		ByteBufferChannel(ByteBuffer bytes) {
+			this.bytes = bytes;
+		}
+
+		public int read(ByteBuffer dst) {
+			if (!bytes.hasRemaining()) {
+				return -1;
+			}
+			int length = Math.min(dst.remaining(), bytes.remaining());
+			ByteBuffer slice = bytes.duplicate();
+			slice.limit(slice.position() + length);
+			dst.put(slice);
+			bytes.position(bytes.position() + length);
+			return length;
+		}
+
+		public boolean isOpen() {
+			return true;
+		}
+
+		public void close() {
+			// nothing to release
+		}
+
+	}
+
+}
@@ -0,0 +1,519 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.internal.monitor.usage;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.Locale;
+
+import org.eclipse.mylyn.commons.core.HtmlStreamTokenizer;
+import org.eclipse.mylyn.commons.core.HtmlStreamTokenizer.Token;
+import org.eclipse.mylyn.internal.context.core.InteractionContextExternalizer;
+import org.eclipse.mylyn.monitor.core.InteractionEvent;
+import org.eclipse.mylyn.monitor.core.InteractionEvent.Kind;
+
+/**
+ * Parses event records of the XML monitor log in a single pass over their UTF-8 bytes. Tags are dispatched on their
+ * first character and only the content of the nine event fields is decoded. Content is normalized like the original
+ * parser based on {@link HtmlStreamTokenizer} did: runs of whitespace are collapsed into a single space, entities are
+ * unescaped in place and the result is trimmed. Records that are not in the form written by the monitor, e.g. with
+ * unknown tags or entities, are handed to the original parser so that the result is always the same. Damaged records
+ * are not reported, callers count them in {@link LogRecoveryCounters}.
+ * <p>
+ * Parsers created with a {@link InteractionEventStringPool} return pooled instances of the kind, origin id, structure
+ * kind and navigation. Recently seen values are cached by their characters, so that a repeated value is neither
+ * decoded into a new string nor looked up in the shared pool.
+ * <p>
+ * Instances reuse their buffers and must not be shared between threads.
+ */
+public class InteractionEventParser {
+
+	private static final int KIND = 0;
+
+	private static final int DATE = 1;
+
+	private static final int END_DATE = 2;
+
+	private static final int ORIGIN_ID = 3;
+
+	private static final int STRUCTURE_KIND = 4;
+
+	private static final int STRUCTURE_HANDLE = 5;
+
+	private static final int NAVIGATION = 6;
+
+	private static final int DELTA = 7;
+
+	private static final int INTEREST = 8;
+
+	private static final int FIELD_COUNT = 9;
+
+	/**
+	 * Marks the record start and end tag which are skipped.
+	 */
+	private static final int RECORD = -1;
+
+	/**
+	 * Marks tags that the fast path does not handle.
+	 */
+	private static final int UNKNOWN = -2;
+
+	private static final byte[][] NAMES = new byte[FIELD_COUNT][];
+
+	private static final byte[] RECORD_NAME = InteractionContextExternalizer.ELMNT_INTERACTION_HISTORY_OLD.getBytes(StandardCharsets.US_ASCII);
+
+	/**
+	 * Fields with few distinct values that are pooled.
+	 */
+	private static final boolean[] POOLED = new boolean[FIELD_COUNT];
+
+	/**
+	 * Must be a power of two.
+	 */
+	private static final int CACHE_SIZE = 256;
+
+	static {
+		String[] names = new String[] { "kind", "date", "endDate", "originId", "structureKind", "structureHandle", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
+				"navigation", "delta", "interestContribution" }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		for (int i = 0; i < FIELD_COUNT; i++) {
+			NAMES[i] = names[i].getBytes(StandardCharsets.US_ASCII);
+		}
+		POOLED[KIND] = true;
+		POOLED[ORIGIN_ID] = true;
+		POOLED[STRUCTURE_KIND] = true;
+		POOLED[NAVIGATION] = true;
+	}
+
+	private final String[] values = new String[FIELD_COUNT];
+
+	private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+			.onMalformedInput(CodingErrorAction.REPLACE)
+			.onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+	private char[] chars = new char[256];
+
+	private final InteractionEventStringPool pool;
+
+	/**
+	 * Pooled strings indexed by the hash of their characters.
+	 */
+	private final String[] cache;
+
+	public InteractionEventParser() {
+		this(null);
+	}
+
+	/**
+	 * @param pool
+	 *            the pool for the low-cardinality fields of the parsed events, or null
+	 */
+	public InteractionEventParser(InteractionEventStringPool pool) {
+		this.pool = pool;
+		this.cache = (pool != null) ? new String[CACHE_SIZE] : null;
+	}
+
+	/**
+	 * Parses a record from a string, e.g. one returned by {@link InteractionEventSerializer#toString()}.
+	 *
+	 * @return the event, or null if the record could not be parsed
+	 */
+	public InteractionEvent parse(String xml) {
+		byte[] bytes = xml.getBytes(StandardCharsets.UTF_8);
+		return parse(bytes, 0, bytes.length);
+	}
+
+	/**
+	 * Parses the record between the position and the limit of <code>record</code>.
+	 *
+	 * @return the event, or null if the record could not be parsed
+	 */
+	public InteractionEvent parse(ByteBuffer record) {
+		if (record.hasArray()) {
+			return parse(record.array(), record.arrayOffset() + record.position(), record.remaining());
+		}
+		byte[] bytes = new byte[record.remaining()];
+		record.duplicate().get(bytes);
+		return parse(bytes, 0, bytes.length);
+	}
+
+	/**
+	 * Parses the UTF-8 encoded record in <code>length</code> bytes of <code>bytes</code> starting at
+	 * <code>offset</code>.
+	 *
+	 * @return the event, or null if the record could not be parsed
+	 */
+	public InteractionEvent parse(byte[] bytes, int offset, int length) {
+		InteractionEvent event = parseFast(bytes, offset, offset + length);
+		if (event == null) {
+			event = parseWithTokenizer(new String(bytes, offset, length, StandardCharsets.UTF_8), pool);
+		}
+		return event;
+	}
+
+	/**
+	 * @return the event, or null if the record needs to be parsed by the original parser
+	 */
+	private InteractionEvent parseFast(byte[] bytes, int offset, int end) {
+		for (int i = 0; i < FIELD_COUNT; i++) {
+			values[i] = ""; //$NON-NLS-1$
+		}
+		int i = offset;
+		while (true) {
+			// text between fields is ignored
+			while (i < end && bytes[i] != '<') {
+				i++;
+			}
+			if (i == end) {
+				break;
+			}
+			int nameStart = i + 1;
+			int nameEnd = nameStart;
+			while (nameEnd < end && bytes[nameEnd] != '>') {
+				nameEnd++;
+			}
+			if (nameEnd == end) {
+				return null;
+			}
+			int field = getField(bytes, nameStart, nameEnd);
+			if (field == UNKNOWN) {
+				return null;
+			}
+			i = nameEnd + 1;
+			if (field == RECORD) {
+				continue;
+			}
+
+			int contentStart = i;
+			while (i < end && bytes[i] != '<') {
+				i++;
+			}
+			if (!isEndTag(bytes, i, end, NAMES[field])) {
+				return null;
+			}
+			String value = decode(bytes, contentStart, i, POOLED[field]);
+			if (value == null) {
+				return null;
+			}
+			values[field] = value;
+			i += NAMES[field].length + 3;
+		}
+
+		float interest = 0;
+		try {
+			interest = Float.parseFloat(values[INTEREST]);
+		} catch (NumberFormatException e) {
+			// ignore for empty interest values
+		}
+		try {
+			return new InteractionEvent(Kind.fromString(values[KIND].toLowerCase(Locale.ENGLISH)),
+					values[STRUCTURE_KIND], values[STRUCTURE_HANDLE], values[ORIGIN_ID], values[NAVIGATION],
+					values[DELTA], interest, TimestampCodec.getDefault().parse(values[DATE]),
+					TimestampCodec.getDefault().parse(values[END_DATE]));
+		} catch (ParseException e) {
+			// the original parser decides whether the record is damaged
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the field of a start tag, {@link #RECORD} for the record start and end tag and stray end tags of fields,
+	 * which are ignored, or {@link #UNKNOWN}.
+	 */
+	private static int getField(byte[] bytes, int start, int end) {
+		if (start == end) {
+			return UNKNOWN;
+		}
+		switch (bytes[start]) {
+		case 'k':
+			return matches(bytes, start, end, NAMES[KIND]) ? KIND : UNKNOWN;
+		case 'd':
+			if (matches(bytes, start, end, NAMES[DATE])) {
+				return DATE;
+			}
+			return matches(bytes, start, end, NAMES[DELTA]) ? DELTA : UNKNOWN;
+		case 'e':
+			return matches(bytes, start, end, NAMES[END_DATE]) ? END_DATE : UNKNOWN;
+		case 'o':
+			return matches(bytes, start, end, NAMES[ORIGIN_ID]) ? ORIGIN_ID : UNKNOWN;
+		case 's':
+			if (matches(bytes, start, end, NAMES[STRUCTURE_KIND])) {
+				return STRUCTURE_KIND;
+			}
+			return matches(bytes, start, end, NAMES[STRUCTURE_HANDLE]) ? STRUCTURE_HANDLE : UNKNOWN;
+		case 'n':
+			return matches(bytes, start, end, NAMES[NAVIGATION]) ? NAVIGATION : UNKNOWN;
+		case 'i':
+			if (matches(bytes, start, end, NAMES[INTEREST])) {
+				return INTEREST;
+			}
+			return matches(bytes, start, end, RECORD_NAME) ? RECORD : UNKNOWN;
+		case '/':
+			if (matches(bytes, start + 1, end, RECORD_NAME)) {
+				return RECORD;
+			}
+			for (byte[] name : NAMES) {
+				if (matches(bytes, start + 1, end, name)) {
+					return RECORD;
+				}
+			}
+			return UNKNOWN;
+		default:
+			return UNKNOWN;
+		}
+	}
+
+	private static boolean matches(byte[] bytes, int start, int end, byte[] name) {
+		if (end - start != name.length) {
+			return false;
+		}
+		for (int i = 0; i < name.length; i++) {
+			if (bytes[start + i] != name[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isEndTag(byte[] bytes, int i, int end, byte[] name) {
+		int tagEnd = i + name.length + 3;
+		return tagEnd <= end && bytes[i + 1] == '/' && matches(bytes, i + 2, tagEnd - 1, name)
+				&& bytes[tagEnd - 1] == '>';
+	}
+
+	/**
+	 * Decodes field content, collapsing whitespace and unescaping entities in place.
+	 *
+	 * @return the content, or null if it contains an entity that is not written by the monitor
+	 */
+	private String decode(byte[] bytes, int start, int end, boolean pooled) {
+		int length = decodeUtf8(bytes, start, end);
+		char[] c = chars;
+		int w = 0;
+		boolean pendingSpace = false;
+		for (int r = 0; r < length; r++) {
+			char ch = c[r];
+			if (Character.isWhitespace(ch)) {
+				pendingSpace = w > 0;
+				continue;
+			}
+			if (pendingSpace) {
+				c[w++] = ' ';
+				pendingSpace = false;
+			}
+			if (ch == '&') {
+				int semicolon = r + 1;
+				while (semicolon < length && c[semicolon] != ';') {
+					semicolon++;
+				}
+				if (semicolon == length) {
+					return null;
+				}
+				char unescaped = unescape(c, r + 1, semicolon);
+				if (unescaped == 0) {
+					return null;
+				}
+				c[w++] = unescaped;
+				r = semicolon;
+			} else {
+				c[w++] = ch;
+			}
+		}
+		// trim like String.trim()
+		int from = 0;
+		while (from < w && c[from] <= ' ') {
+			from++;
+		}
+		while (w > from && c[w - 1] <= ' ') {
+			w--;
+		}
+		if (pooled && pool != null) {
+			return getPooled(c, from, w - from);
+		}
+		return new String(c, from, w - from);
+	}
+
+	private String getPooled(char[] c, int offset, int length) {
+		int hash = 0;
+		for (int i = offset; i < offset + length; i++) {
+			hash = 31 * hash + c[i];
+		}
+		int slot = (hash ^ (hash >>> 16)) & (CACHE_SIZE - 1);
+		String cached = cache[slot];
+		if (cached != null && cached.length() == length) {
+			int i = 0;
+			while (i < length && cached.charAt(i) == c[offset + i]) {
+				i++;
+			}
+			if (i == length) {
+				return cached;
+			}
+		}
+		String value = pool.intern(new String(c, offset, length));
+		cache[slot] = value;
+		return value;
+	}
+
+	/**
+	 * Decodes UTF-8 bytes into {@link #chars}.
+	 *
+	 * @return the number of chars
+	 */
+	private int decodeUtf8(byte[] bytes, int start, int end) {
+		int length = end - start;
+		if (chars.length < length) {
+			chars = new char[Math.max(length, chars.length * 2)];
+		}
+		int i = start;
+		int n = 0;
+		while (i < end && bytes[i] >= 0) {
+			chars[n++] = (char) bytes[i++];
+		}
+		if (i == end) {
+			return n;
+		}
+		// not ASCII, UTF-8 never needs more chars than bytes
+		CharBuffer out = CharBuffer.wrap(chars, n, chars.length - n);
+		decoder.reset();
+		decoder.decode(ByteBuffer.wrap(bytes, i, end - i), out, true);
+		decoder.flush(out);
+		return out.position();
+	}
+
+	/**
+	 * Returns the character for the entities written by the monitor, or 0.
+	 */
+	private static char unescape(char[] c, int start, int end) {
+		switch (end - start) {
+		case 2:
+			if (c[start + 1] == 't') {
+				if (c[start] == 'l') {
+					return '<';
+				} else if (c[start] == 'g') {
+					return '>';
+				}
+			}
+			return 0;
+		case 3:
+			return (c[start] == 'a' && c[start + 1] == 'm' && c[start + 2] == 'p') ? '&' : 0;
+		case 4:
+			if (c[start] == '#' && c[start + 1] == 'x' && c[start + 2] == '0') {
+				switch (c[start + 3]) {
+				case 'D':
+					return '\r';
+				case 'A':
+					return '\n';
+				case '9':
+					return '\t';
+				}
+				return 0;
+			}
+			if (c[start] == 'q' && c[start + 1] == 'u' && c[start + 2] == 'o' && c[start + 3] == 't') {
+				return '"';
+			}
+			if (c[start] == 'a' && c[start + 1] == 'p' && c[start + 2] == 'o' && c[start + 3] == 's') {
+				return '\'';
+			}
+			return 0;
+		default:
+			return 0;
+		}
+	}
+
+	/**
+	 * The original parser that tokenizes the record with {@link HtmlStreamTokenizer}.
+	 *
+	 * @return the event, or null if the record could not be parsed
+	 */
+	public static InteractionEvent parseWithTokenizer(String xml) {
+		return parseWithTokenizer(xml, null);
+	}
+
+	private static InteractionEvent parseWithTokenizer(String xml, InteractionEventStringPool pool) {
+		Reader reader = new StringReader(xml);
+		HtmlStreamTokenizer tokenizer = new HtmlStreamTokenizer(reader, null);
+		String kind = ""; //$NON-NLS-1$
+		String startDate = ""; //$NON-NLS-1$
+		String endDate = ""; //$NON-NLS-1$
+		String originId = ""; //$NON-NLS-1$
+		String structureKind = ""; //$NON-NLS-1$
+		String structureHandle = ""; //$NON-NLS-1$
+		String navigation = ""; //$NON-NLS-1$
+		String delta = ""; //$NON-NLS-1$
+		String interest = ""; //$NON-NLS-1$
+		try {
+			for (Token token = tokenizer.nextToken(); token.getType() != Token.EOF; token = tokenizer.nextToken()) {
+				if (token.getValue().toString().equals("<kind>")) { //$NON-NLS-1$
+					kind = readStringContent(tokenizer, "</kind>"); //$NON-NLS-1$
+					kind = kind.toLowerCase(Locale.ENGLISH);
+				} else if (token.getValue().toString().equals("<date>")) { //$NON-NLS-1$
+					startDate = readStringContent(tokenizer, "</date>"); //$NON-NLS-1$
+				} else if (token.getValue().toString().equals("<endDate>")) { //$NON-NLS-1$
+					endDate = readStringContent(tokenizer, "</endDate>"); //$NON-NLS-1$
+				} else if (token.getValue().toString().equals("<originId>")) { //$NON-NLS-1$
+					originId = readStringContent(tokenizer, "</originId>"); //$NON-NLS-1$
+				} else if (token.getValue().toString().equals("<structureKind>")) { //$NON-NLS-1$
+					structureKind = readStringContent(tokenizer, "</structureKind>"); //$NON-NLS-1$
+				} else if (token.getValue().toString().equals("<structureHandle>")) { //$NON-NLS-1$
+					structureHandle = readStringContent(tokenizer, "</structureHandle>"); //$NON-NLS-1$
+				} else if (token.getValue().toString().equals("<navigation>")) { //$NON-NLS-1$
+					navigation = readStringContent(tokenizer, "</navigation>"); //$NON-NLS-1$
+				} else if (token.getValue().toString().equals("<delta>")) { //$NON-NLS-1$
+					delta = readStringContent(tokenizer, "</delta>"); //$NON-NLS-1$
+				} else if (token.getValue().toString().equals("<interestContribution>")) { //$NON-NLS-1$
+					interest = readStringContent(tokenizer, "</interestContribution>"); //$NON-NLS-1$
+				}
+			}
+			float interestFloatVal = 0;
+			try {
+				interestFloatVal = Float.parseFloat(interest);
+			} catch (NumberFormatException nfe) {
+				// ignore for empty interest values
+			}
+			if (pool != null) {
+				originId = pool.intern(originId);
+				structureKind = pool.intern(structureKind);
+				navigation = pool.intern(navigation);
+			}
+			InteractionEvent event = new InteractionEvent(Kind.fromString(kind), structureKind, structureHandle,
+					originId, navigation, delta, interestFloatVal, TimestampCodec.getDefault().parse(startDate),
+					TimestampCodec.getDefault().parse(endDate));
+			return event;
+
+		} catch (Exception e) {
+			// damaged records are common in logs that were truncated by a crash, callers count and report them once
+		}
+		return null;
+	}
+
+	@SuppressWarnings("deprecation")
+	private static String readStringContent(HtmlStreamTokenizer tokenizer, String endTag) throws IOException,
+			ParseException {
+		StringBuffer content = new StringBuffer();
+		Token token = tokenizer.nextToken();
+		while (!token.getValue().toString().equals(endTag)) {
+			if (content.length() > 0) {
+				content.append(' ');
+			}
+			content.append(token.getValue().toString());
+			token = tokenizer.nextToken();
+		}
+		return org.eclipse.mylyn.internal.commons.core.XmlStringConverter.convertXmlToString(content.toString()).trim();
+	}
+
+}
@@ -0,0 +1,305 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.internal.monitor.usage;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.mylyn.commons.core.StatusHandler;
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventLogger.OverflowPolicy;
+import org.eclipse.mylyn.monitor.core.InteractionEvent;
+
+/**
+ * A bounded lock-free queue that holds events observed while monitoring is stopped. Any number of threads may add
+ * events concurrently without locking; slots are claimed with a compare-and-set on the tail and published through a
+ * per-slot sequence number. When the queue is full the {@link OverflowPolicy} either discards the oldest event or
+ * moves the oldest half of the queue to a spill file, which is the only operation that locks.
+ */
+class InteractionEventQueue {
+
+	private final AtomicReferenceArray<InteractionEvent> events;
+
+	/**
+	 * For each slot the position at which it can be written next, or that position + 1 once it has been written.
+	 */
+	private final AtomicLongArray sequences;
+
+	private final int mask;
+
+	private final AtomicLong head = new AtomicLong();
+
+	private final AtomicLong tail = new AtomicLong();
+
+	private final OverflowPolicy overflowPolicy;
+
+	private final File spillFile;
+
+	private final Object spillLock = new Object();
+
+	private final AtomicLong dropped = new AtomicLong();
+
+	private final AtomicLong spilled = new AtomicLong();
+
+	/**
+	 * Number of events at the start of the spill file that were handed over by a replay that failed; guarded by
+	 * {@link #spillLock}.
+	 */
+	private long replayedCount;
+
+	/**
+	 * @param capacity
+	 *            the maximum number of events kept in memory, rounded up to a power of two
+	 * @param spillFile
+	 *            the file that holds events in excess of the capacity for {@link OverflowPolicy#SPILL_TO_DISK}
+	 */
+	public InteractionEventQueue(int capacity, OverflowPolicy overflowPolicy, File spillFile) {
+		int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+		this.events = new AtomicReferenceArray<InteractionEvent>(size);
+		this.sequences = new AtomicLongArray(size);
+		for (int i = 0; i < size; i++) {
+			sequences.set(i, i);
+		}
+		this.mask = size - 1;
+		this.overflowPolicy = (spillFile != null) ? overflowPolicy : OverflowPolicy.DROP_OLDEST;
+		this.spillFile = spillFile;
+	}
+
+	public int getCapacity() {
+		return mask + 1;
+	}
+
+	public OverflowPolicy getOverflowPolicy() {
+		return overflowPolicy;
+	}
+
+	/**
+	 * Adds <code>event</code>, applying the overflow policy if the queue is full.
+	 */
+	public void offer(InteractionEvent event) {
+		while (!tryOffer(event)) {
+			if (overflowPolicy == OverflowPolicy.SPILL_TO_DISK) {
+				spill();
+			} else if (poll() != null) {
+				dropped.incrementAndGet();
+			}
+		}
+	}
+
+	private boolean tryOffer(InteractionEvent event) {
+		long position = tail.get();
+		while (true) {
+			int index = (int) position & mask;
+			long difference = sequences.get(index) - position;
+			if (difference == 0) {
+				if (tail.compareAndSet(position, position + 1)) {
+					events.set(index, event);
+					sequences.set(index, position + 1);
+					return true;
+				}
+				position = tail.get();
+			} else if (difference < 0) {
+				// the slot still holds the event from the previous round
+				return false;
+			} else {
+				// another producer claimed the slot
+				position = tail.get();
+			}
+		}
+	}
+
+	/**
+	 * Removes the oldest event held in memory.
+	 *
+	 * @return the event or null, if the queue is empty
+	 */
+	public InteractionEvent poll() {
+		long position = head.get();
+		while (true) {
+			int index = (int) position & mask;
+			long difference = sequences.get(index) - (position + 1);
+			if (difference == 0) {
+				if (head.compareAndSet(position, position + 1)) {
+					InteractionEvent event = events.get(index);
+					events.set(index, null);
+					sequences.set(index, position + mask + 1);
+					return event;
+				}
+				position = head.get();
+			} else if (difference < 0) {
+				return null;
+			} else {
+				position = head.get();
+			}
+		}
+	}
+
+	/**
+	 * Removes up to <code>max</code> events held in memory and adds them to <code>target</code>.
+	 *
+	 * @return the number of events removed
+	 */
+	public int drainTo(List<InteractionEvent> target, int max) {
+		int count = 0;
+		InteractionEvent event;
+		while (count < max && (event = poll()) != null) {
+			target.add(event);
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the approximate number of events held in memory.
+	 */
+	public int size() {
+		return (int) Math.max(0, tail.get() - head.get());
+	}
+
+	public boolean isEmpty() {
+		return size() == 0 && !hasSpilledEvents();
+	}
+
+	/**
+	 * Returns the number of events discarded because the queue was full.
+	 */
+	public long getDroppedCount() {
+		return dropped.get();
+	}
+
+	/**
+	 * Returns the number of events moved to the spill file because the queue was full.
+	 */
+	public long getSpilledCount() {
+		return spilled.get();
+	}
+
+	public boolean hasSpilledEvents() {
+		return spillFile != null && spillFile.length() > 0;
+	}
+
+	/**
+	 * Moves the oldest half of the queue to the spill file.
+	 */
+	private void spill() {
+		synchronized (spillLock) {
+			if (size() <= mask) {
+				// another producer made room while we were waiting
+				return;
+			}
+			List<InteractionEvent> batch = new ArrayList<InteractionEvent>(getCapacity() / 2);
+			drainTo(batch, getCapacity() / 2);
+			try {
+				InteractionEventBinaryEncoder encoder = new InteractionEventBinaryEncoder();
+				if (spillFile.length() == 0) {
+					encoder.writeHeader();
+				} else {
+					encoder.startSegment();
+				}
+				for (InteractionEvent event : batch) {
+					encoder.encode(event);
+				}
+				OutputStream out = new FileOutputStream(spillFile, true);
+				try {
+					encoder.writeTo(out);
+				} finally {
+					out.close();
+				}
+				spilled.addAndGet(batch.size());
+			} catch (IOException e) {
+				dropped.addAndGet(batch.size());
+				StatusHandler.log(new Status(IStatus.WARNING, UiUsageMonitorPlugin.ID_PLUGIN,
+						"Could not spill queued interaction events to " + spillFile, e)); //$NON-NLS-1$
+			}
+		}
+	}
+
+	/**
+	 * Decodes the spill file and hands its events to <code>writer</code> in batches of at most
+	 * <code>batchSize</code>, so that the spilled events are never all held in memory. Spilled events are older than
+	 * the events held in memory. The file is deleted once all events have been handed over, or if the rest of the file
+	 * cannot be decoded. If <code>writer</code> fails the file is kept and the events handed over before are skipped
+	 * on the next replay.
+	 */
+	public void replaySpilledEvents(BatchWriter writer, int batchSize) throws IOException {
+		synchronized (spillLock) {
+			if (!hasSpilledEvents()) {
+				return;
+			}
+			InputStream in = new BufferedInputStream(new FileInputStream(spillFile));
+			try {
+				List<InteractionEvent> batch = new ArrayList<InteractionEvent>(batchSize);
+				long position = 0;
+				InteractionEventBinaryDecoder decoder = null;
+				try {
+					decoder = new InteractionEventBinaryDecoder(in);
+				} catch (IOException e) {
+					logReadError(e);
+				}
+				while (decoder != null) {
+					InteractionEvent event;
+					try {
+						event = decoder.next();
+					} catch (IOException e) {
+						logReadError(e);
+						event = null;
+					}
+					if (event == null) {
+						break;
+					}
+					if (position++ < replayedCount) {
+						continue;
+					}
+					batch.add(event);
+					if (batch.size() == batchSize) {
+						writer.write(batch);
+						replayedCount += batch.size();
+						batch.clear();
+					}
+				}
+				if (!batch.isEmpty()) {
+					writer.write(batch);
+				}
+			} finally {
+				in.close();
+			}
+			spillFile.delete();
+			replayedCount = 0;
+		}
+	}
+
+	private void logReadError(IOException e) {
+		StatusHandler.log(new Status(IStatus.WARNING, UiUsageMonitorPlugin.ID_PLUGIN,
+				"Could not read queued interaction events from " + spillFile, e)); //$NON-NLS-1$
+	}
+
+	/**
+	 * Receives the events replayed from the spill file.
+	 */
+	interface BatchWriter {
+
+		public abstract void write(List<InteractionEvent> events) throws IOException;
+
+	}
+
+}
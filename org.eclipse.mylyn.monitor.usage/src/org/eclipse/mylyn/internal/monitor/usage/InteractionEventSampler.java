@@ -0,0 +1,248 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.internal.monitor.usage;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.mylyn.monitor.core.InteractionEvent;
+
+/**
+ * Applies {@link SamplingRule}s to observed events before they are logged. The first rule that matches an event
+ * applies. Consecutive events on the same element are merged into a single event that spans all of them and records
+ * their number in the delta, see {@link #getCount(InteractionEvent)}. Rate limits are enforced per origin id with a
+ * token bucket that is refilled based on the event dates, a merged event consumes a single token.
+ */
+public class InteractionEventSampler {
+
+	/**
+	 * Separates the number of merged events from the original delta.
+	 */
+	public static final String DELTA_COUNT = "count="; //$NON-NLS-1$
+
+	private static final char DELTA_SEPARATOR = ';';
+
+	private static class TokenBucket {
+
+		private final double rate;
+
+		private final int burst;
+
+		private double tokens;
+
+		private long lastRefill;
+
+		public TokenBucket(SamplingRule rule, long time) {
+			this.rate = rule.getMaxEventsPerSecond() / 1000;
+			this.burst = rule.getBurst();
+			this.tokens = burst;
+			this.lastRefill = time;
+		}
+
+		public boolean tryAcquire(long time) {
+			if (time > lastRefill) {
+				tokens = Math.min(burst, tokens + (time - lastRefill) * rate);
+				lastRefill = time;
+			}
+			if (tokens >= 1) {
+				tokens--;
+				return true;
+			}
+			return false;
+		}
+
+	}
+
+	private final List<SamplingRule> rules;
+
+	private final Map<SamplingRule, Map<String, TokenBucket>> buckets = new HashMap<SamplingRule, Map<String, TokenBucket>>();
+
+	/**
+	 * The first of the events that are currently being merged, null if none.
+	 */
+	private InteractionEvent pending;
+
+	private SamplingRule pendingRule;
+
+	private int pendingCount;
+
+	private float pendingInterest;
+
+	private Date pendingLastDate;
+
+	private Date pendingEndDate;
+
+	private long coalescedCount;
+
+	private long droppedCount;
+
+	public InteractionEventSampler(List<SamplingRule> rules) {
+		this.rules = new ArrayList<SamplingRule>(rules);
+	}
+
+	public List<SamplingRule> getRules() {
+		return new ArrayList<SamplingRule>(rules);
+	}
+
+	/**
+	 * Samples <code>event</code> and adds the events that are ready to be logged to <code>result</code>. Merged
+	 * events are held back until an event arrives that can not be merged or {@link #flush(List)} is invoked.
+	 */
+	public synchronized void process(InteractionEvent event, List<InteractionEvent> result) {
+		SamplingRule rule = findRule(event);
+		if (pending != null) {
+			if (rule == pendingRule && canMerge(event)) {
+				pendingCount++;
+				pendingInterest += event.getInterestContribution();
+				pendingLastDate = event.getDate();
+				pendingEndDate = event.getEndDate();
+				coalescedCount++;
+				return;
+			}
+			flush(result);
+		}
+		if (rule == null) {
+			result.add(event);
+			return;
+		}
+		if (rule.isRateLimited() && !getBucket(rule, event).tryAcquire(event.getDate().getTime())) {
+			droppedCount++;
+			return;
+		}
+		if (rule.isCoalescing()) {
+			pending = event;
+			pendingRule = rule;
+			pendingCount = 1;
+			pendingInterest = event.getInterestContribution();
+			pendingLastDate = event.getDate();
+			pendingEndDate = event.getEndDate();
+		} else {
+			result.add(event);
+		}
+	}
+
+	/**
+	 * Adds the event that is currently being merged to <code>result</code>, if any.
+	 */
+	public synchronized void flush(List<InteractionEvent> result) {
+		if (pending == null) {
+			return;
+		}
+		if (pendingCount == 1) {
+			result.add(pending);
+		} else {
+			String delta = pending.getDelta();
+			delta = (delta == null || delta.length() == 0) ? DELTA_COUNT + pendingCount : delta + DELTA_SEPARATOR
+					+ DELTA_COUNT + pendingCount;
+			result.add(new InteractionEvent(pending.getKind(), pending.getStructureKind(),
+					pending.getStructureHandle(), pending.getOriginId(), pending.getNavigation(), delta,
+					pendingInterest, pending.getDate(), pendingEndDate));
+		}
+		pending = null;
+		pendingRule = null;
+		pendingLastDate = null;
+		pendingEndDate = null;
+	}
+
+	/**
+	 * Returns the time in milliseconds until no event observed at <code>time</code> or later can be merged with the
+	 * event that is currently being merged, 0 if that is already the case, or -1 if no event is being merged.
+	 */
+	public synchronized long getExpiryDelay(long time) {
+		if (pending == null) {
+			return -1;
+		}
+		return Math.max(0, pendingLastDate.getTime() + pendingRule.getCoalesceWindow() + 1 - time);
+	}
+
+	/**
+	 * Adds the event that is currently being merged to <code>result</code>, if no event observed at
+	 * <code>time</code> or later can be merged with it, so that it is not held back while no events are observed.
+	 */
+	public synchronized void flushExpired(long time, List<InteractionEvent> result) {
+		if (getExpiryDelay(time) == 0) {
+			flush(result);
+		}
+	}
+
+	private boolean canMerge(InteractionEvent event) {
+		return pending.getKind() == event.getKind() && equals(pending.getStructureKind(), event.getStructureKind())
+				&& equals(pending.getStructureHandle(), event.getStructureHandle())
+				&& equals(pending.getOriginId(), event.getOriginId())
+				&& event.getDate().getTime() - pendingLastDate.getTime() <= pendingRule.getCoalesceWindow();
+	}
+
+	private SamplingRule findRule(InteractionEvent event) {
+		for (SamplingRule rule : rules) {
+			if (rule.matches(event)) {
+				return rule;
+			}
+		}
+		return null;
+	}
+
+	private TokenBucket getBucket(SamplingRule rule, InteractionEvent event) {
+		Map<String, TokenBucket> ruleBuckets = buckets.get(rule);
+		if (ruleBuckets == null) {
+			ruleBuckets = new HashMap<String, TokenBucket>();
+			buckets.put(rule, ruleBuckets);
+		}
+		String originId = (event.getOriginId() != null) ? event.getOriginId() : ""; //$NON-NLS-1$
+		TokenBucket bucket = ruleBuckets.get(originId);
+		if (bucket == null) {
+			bucket = new TokenBucket(rule, event.getDate().getTime());
+			ruleBuckets.put(originId, bucket);
+		}
+		return bucket;
+	}
+
+	private static boolean equals(String s1, String s2) {
+		return (s1 == null) ? s2 == null : s1.equals(s2);
+	}
+
+	/**
+	 * Returns the number of events that were merged into other events.
+	 */
+	public synchronized long getCoalescedCount() {
+		return coalescedCount;
+	}
+
+	/**
+	 * Returns the number of events that were discarded because they exceeded a rate limit.
+	 */
+	public synchronized long getDroppedCount() {
+		return droppedCount;
+	}
+
+	/**
+	 * Returns the number of observed events that <code>event</code> represents, 1 unless it was merged by a sampler.
+	 */
+	public static int getCount(InteractionEvent event) {
+		String delta = event.getDelta();
+		if (delta == null) {
+			return 1;
+		}
+		int index = delta.lastIndexOf(DELTA_COUNT);
+		if (index == -1 || (index > 0 && delta.charAt(index - 1) != DELTA_SEPARATOR)) {
+			return 1;
+		}
+		try {
+			return Math.max(1, Integer.parseInt(delta.substring(index + DELTA_COUNT.length())));
+		} catch (NumberFormatException e) {
+			return 1;
+		}
+	}
+
+}
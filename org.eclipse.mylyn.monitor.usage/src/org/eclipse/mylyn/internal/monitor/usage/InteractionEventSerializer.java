@@ -0,0 +1,334 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.internal.monitor.usage;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.mylyn.commons.core.StatusHandler;
+import org.eclipse.mylyn.monitor.core.InteractionEvent;
+import org.eclipse.mylyn.monitor.core.InteractionEvent.Kind;
+
+/**
+ * Encodes interaction events in the legacy XML format of the monitor log directly into a reusable UTF-8 byte buffer.
+ * The output is identical to what {@link InteractionEventLogger#writeLegacyEvent(InteractionEvent)} used to produce
+ * but no intermediate strings are created for tags, escaped content or timestamps.
+ * <p>
+ * Instances are not thread-safe, use {@link #getDefault()} to obtain an instance confined to the current thread.
+ */
+public class InteractionEventSerializer {
+
+	private static final ThreadLocal<InteractionEventSerializer> instance = new ThreadLocal<InteractionEventSerializer>() {
+		@Override
+		protected InteractionEventSerializer initialValue() {
+			return new InteractionEventSerializer();
+		}
+	};
+
+	private static final byte[] OPEN_EVENT = ascii("<interactionEvent>\n"); //$NON-NLS-1$
+
+	private static final byte[] CLOSE_EVENT = ascii("</interactionEvent>\n"); //$NON-NLS-1$
+
+	private static final byte[][] OPEN_TAGS;
+
+	private static final byte[][] CLOSE_TAGS;
+
+	private static final int TAG_KIND = 0;
+
+	private static final int TAG_DATE = 1;
+
+	private static final int TAG_END_DATE = 2;
+
+	private static final int TAG_ORIGIN_ID = 3;
+
+	private static final int TAG_STRUCTURE_KIND = 4;
+
+	private static final int TAG_STRUCTURE_HANDLE = 5;
+
+	private static final int TAG_NAVIGATION = 6;
+
+	private static final int TAG_DELTA = 7;
+
+	private static final int TAG_INTEREST_CONTRIBUTION = 8;
+
+	static {
+		String[] tags = new String[] { "kind", "date", "endDate", "originId", "structureKind", "structureHandle", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
+				"navigation", "delta", "interestContribution" }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		OPEN_TAGS = new byte[tags.length][];
+		CLOSE_TAGS = new byte[tags.length][];
+		for (int i = 0; i < tags.length; i++) {
+			OPEN_TAGS[i] = ascii("\t<" + tags[i] + ">"); //$NON-NLS-1$ //$NON-NLS-2$
+			CLOSE_TAGS[i] = ascii("</" + tags[i] + ">\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+
+	/**
+	 * The encoded form of each ASCII character, <code>null</code> if the character is written as is.
+	 */
+	private static final byte[][] ESCAPES = new byte[128][];
+
+	static {
+		for (char c = 0; c < ESCAPES.length; c++) {
+			String escaped = escapeLegacy(String.valueOf(c));
+			if (!escaped.equals(String.valueOf(c))) {
+				ESCAPES[c] = escaped.getBytes(StandardCharsets.UTF_8);
+			}
+		}
+	}
+
+	private static final byte[][] KINDS;
+
+	static {
+		Kind[] kinds = Kind.values();
+		KINDS = new byte[kinds.length][];
+		for (Kind kind : kinds) {
+			KINDS[kind.ordinal()] = kind.toString().getBytes(StandardCharsets.UTF_8);
+		}
+	}
+
+	/**
+	 * Returns the serializer confined to the calling thread.
+	 */
+	public static InteractionEventSerializer getDefault() {
+		return instance.get();
+	}
+
+	/**
+	 * Mirrors the escaping previously applied by the logger, only used to build {@link #ESCAPES}.
+	 */
+	@SuppressWarnings("deprecation")
+	private static String escapeLegacy(String content) {
+		String xmlContent = org.eclipse.mylyn.internal.commons.core.XmlStringConverter.convertToXmlString(content);
+		return xmlContent.replace("\n", "\n\t\t"); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	private static byte[] ascii(String s) {
+		return s.getBytes(StandardCharsets.US_ASCII);
+	}
+
+	private byte[] buffer;
+
+	private int count;
+
+	private final TimestampCodec timestampCodec = TimestampCodec.getDefault();
+
+	public InteractionEventSerializer() {
+		this(1024);
+	}
+
+	public InteractionEventSerializer(int initialCapacity) {
+		buffer = new byte[Math.max(64, initialCapacity)];
+	}
+
+	/**
+	 * Discards previously serialized events.
+	 */
+	public void reset() {
+		count = 0;
+	}
+
+	/**
+	 * Returns the number of bytes serialized since the last {@link #reset()}.
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * Writes all serialized bytes to <code>out</code>.
+	 */
+	public void writeTo(OutputStream out) throws IOException {
+		out.write(buffer, 0, count);
+	}
+
+	public byte[] toByteArray() {
+		byte[] result = new byte[count];
+		System.arraycopy(buffer, 0, result, 0, count);
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return new String(buffer, 0, count, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Appends the legacy XML representation of <code>event</code> to the buffer. If the event can not be encoded
+	 * nothing is appended.
+	 *
+	 * @return true, if the event was appended
+	 */
+	public boolean serialize(InteractionEvent event) {
+		int start = count;
+		try {
+			write(OPEN_EVENT);
+
+			open(TAG_KIND);
+			write(KINDS[event.getKind().ordinal()]);
+			close(TAG_KIND);
+
+			open(TAG_DATE);
+			writeDate(event.getDate());
+			close(TAG_DATE);
+
+			open(TAG_END_DATE);
+			writeDate(event.getEndDate());
+			close(TAG_END_DATE);
+
+			open(TAG_ORIGIN_ID);
+			writeContent(event.getOriginId());
+			close(TAG_ORIGIN_ID);
+
+			open(TAG_STRUCTURE_KIND);
+			writeContent(event.getStructureKind());
+			close(TAG_STRUCTURE_KIND);
+
+			open(TAG_STRUCTURE_HANDLE);
+			writeContent(event.getStructureHandle());
+			close(TAG_STRUCTURE_HANDLE);
+
+			open(TAG_NAVIGATION);
+			writeContent(event.getNavigation());
+			close(TAG_NAVIGATION);
+
+			open(TAG_DELTA);
+			writeContent(event.getDelta());
+			close(TAG_DELTA);
+
+			open(TAG_INTEREST_CONTRIBUTION);
+			writeFloat(event.getInterestContribution());
+			close(TAG_INTEREST_CONTRIBUTION);
+
+			write(CLOSE_EVENT);
+			return true;
+		} catch (Throwable t) {
+			count = start;
+			StatusHandler.log(new Status(IStatus.ERROR, UiUsageMonitorPlugin.ID_PLUGIN, "Could not write event", t)); //$NON-NLS-1$
+			return false;
+		}
+	}
+
+	private void open(int tag) {
+		write(OPEN_TAGS[tag]);
+	}
+
+	private void close(int tag) {
+		write(CLOSE_TAGS[tag]);
+	}
+
+	private void writeDate(Date date) {
+		ensureCapacity(timestampCodec.getMaxLength());
+		count = timestampCodec.format(date.getTime(), buffer, count);
+	}
+
+	private void writeFloat(float value) {
+		int intValue = (int) value;
+		if (intValue == value && Math.abs(intValue) < 10000000 && Float.floatToRawIntBits(value) != 0x80000000) {
+			// matches Float.toString() for integral values below 10^7 except -0.0
+			writeInt(intValue);
+			writeByte('.');
+			writeByte('0');
+		} else {
+			writeAscii(Float.toString(value));
+		}
+	}
+
+	private void writeInt(int value) {
+		if (value < 0) {
+			writeByte('-');
+			value = -value;
+		}
+		int digits = 1;
+		for (int v = value; v >= 10; v /= 10) {
+			digits++;
+		}
+		ensureCapacity(digits);
+		for (int i = count + digits - 1; i >= count; i--) {
+			buffer[i] = (byte) ('0' + value % 10);
+			value /= 10;
+		}
+		count += digits;
+	}
+
+	private void writeAscii(String s) {
+		int length = s.length();
+		ensureCapacity(length);
+		for (int i = 0; i < length; i++) {
+			buffer[count++] = (byte) s.charAt(i);
+		}
+	}
+
+	/**
+	 * Escapes and UTF-8 encodes <code>content</code>.
+	 */
+	private void writeContent(String content) {
+		if (content == null) {
+			return;
+		}
+		int length = content.length();
+		// worst case is 3 bytes per char, escapes are handled separately
+		ensureCapacity(length * 3);
+		for (int i = 0; i < length; i++) {
+			char c = content.charAt(i);
+			if (c < 0x80) {
+				byte[] escape = ESCAPES[c];
+				if (escape != null) {
+					write(escape);
+					ensureCapacity((length - i) * 3);
+				} else {
+					buffer[count++] = (byte) c;
+				}
+			} else if (c < 0x800) {
+				buffer[count++] = (byte) (0xc0 | (c >> 6));
+				buffer[count++] = (byte) (0x80 | (c & 0x3f));
+			} else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(content.charAt(i + 1))) {
+				int codePoint = Character.toCodePoint(c, content.charAt(++i));
+				buffer[count++] = (byte) (0xf0 | (codePoint >> 18));
+				buffer[count++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+				buffer[count++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+				buffer[count++] = (byte) (0x80 | (codePoint & 0x3f));
+			} else if (Character.isSurrogate(c)) {
+				// unpaired surrogate, same replacement as String.getBytes()
+				buffer[count++] = '?';
+			} else {
+				buffer[count++] = (byte) (0xe0 | (c >> 12));
+				buffer[count++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+				buffer[count++] = (byte) (0x80 | (c & 0x3f));
+			}
+		}
+	}
+
+	private void writeByte(int b) {
+		ensureCapacity(1);
+		buffer[count++] = (byte) b;
+	}
+
+	private void write(byte[] bytes) {
+		ensureCapacity(bytes.length);
+		System.arraycopy(bytes, 0, buffer, count, bytes.length);
+		count += bytes.length;
+	}
+
+	private void ensureCapacity(int additional) {
+		int required = count + additional;
+		if (required > buffer.length) {
+			byte[] newBuffer = new byte[Math.max(required, buffer.length * 2)];
+			System.arraycopy(buffer, 0, newBuffer, 0, count);
+			buffer = newBuffer;
+		}
+	}
+
+}
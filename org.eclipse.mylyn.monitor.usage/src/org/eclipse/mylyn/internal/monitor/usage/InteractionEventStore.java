@@ -0,0 +1,469 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.internal.monitor.usage;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.SortedSet;
+
+import org.eclipse.mylyn.internal.monitor.core.collection.InteractionEventComparator;
+import org.eclipse.mylyn.monitor.core.InteractionEvent;
+import org.eclipse.mylyn.monitor.core.InteractionEvent.Kind;
+
+/**
+ * Stores events in columns of primitive arrays rather than as objects: dates as <code>long</code> values, the kind as
+ * its ordinal, strings as <code>int</code> codes of a dictionary shared by all string columns and the interest as
+ * <code>float</code> values. A stored event takes 44 bytes plus its distinct strings, compared to well over a hundred
+ * bytes for an {@link InteractionEvent} with its two dates even if its strings are shared.
+ * <p>
+ * Analyses can scan the columns in tight loops and compare codes instead of strings, e.g. by looking up the code of an
+ * origin id with {@link #getCode(String)} once. Events are materialized on demand by {@link #get(int)}, and
+ * {@link #asSortedSet()} returns a read-only view that can take the place of a <code>TreeSet</code> of events.
+ * <p>
+ * Stores are not thread-safe.
+ */
+public class InteractionEventStore {
+
+	private static final int INITIAL_CAPACITY = 256;
+
+	private static final Kind[] KINDS = Kind.values();
+
+	private static final Comparator<InteractionEvent> COMPARATOR = new InteractionEventComparator();
+
+	private final Map<String, Integer> codes = new HashMap<String, Integer>();
+
+	private final List<String> strings = new ArrayList<String>();
+
+	private int size;
+
+	private long[] dates = new long[INITIAL_CAPACITY];
+
+	private long[] endDates = new long[INITIAL_CAPACITY];
+
+	private int[] kinds = new int[INITIAL_CAPACITY];
+
+	private int[] originIds = new int[INITIAL_CAPACITY];
+
+	private int[] structureKinds = new int[INITIAL_CAPACITY];
+
+	private int[] handles = new int[INITIAL_CAPACITY];
+
+	private int[] navigations = new int[INITIAL_CAPACITY];
+
+	private int[] deltas = new int[INITIAL_CAPACITY];
+
+	private float[] interests = new float[INITIAL_CAPACITY];
+
+	private boolean sorted = true;
+
+	public void add(InteractionEvent event) {
+		if (size == dates.length) {
+			grow(size * 2);
+		}
+		dates[size] = event.getDate().getTime();
+		endDates[size] = event.getEndDate().getTime();
+		kinds[size] = (event.getKind() != null) ? event.getKind().ordinal() : -1;
+		originIds[size] = encode(event.getOriginId());
+		structureKinds[size] = encode(event.getStructureKind());
+		handles[size] = encode(event.getStructureHandle());
+		navigations[size] = encode(event.getNavigation());
+		deltas[size] = encode(event.getDelta());
+		interests[size] = event.getInterestContribution();
+		if (size > 0 && dates[size] < dates[size - 1]) {
+			sorted = false;
+		}
+		size++;
+	}
+
+	public void addAll(Iterable<InteractionEvent> events) {
+		for (InteractionEvent event : events) {
+			add(event);
+		}
+	}
+
+	private int encode(String value) {
+		if (value == null) {
+			return -1;
+		}
+		Integer code = codes.get(value);
+		if (code == null) {
+			code = strings.size();
+			strings.add(value);
+			codes.put(value, code);
+		}
+		return code;
+	}
+
+	private void grow(int capacity) {
+		dates = Arrays.copyOf(dates, capacity);
+		endDates = Arrays.copyOf(endDates, capacity);
+		kinds = Arrays.copyOf(kinds, capacity);
+		originIds = Arrays.copyOf(originIds, capacity);
+		structureKinds = Arrays.copyOf(structureKinds, capacity);
+		handles = Arrays.copyOf(handles, capacity);
+		navigations = Arrays.copyOf(navigations, capacity);
+		deltas = Arrays.copyOf(deltas, capacity);
+		interests = Arrays.copyOf(interests, capacity);
+	}
+
+	/**
+	 * Orders the events by date, keeping the order of events with the same date, and removes events that are equal to
+	 * an earlier event, like a <code>TreeSet</code> ordered by {@link InteractionEventComparator} does. Also releases
+	 * unused capacity.
+	 */
+	public void sort() {
+		if (!sorted) {
+			int[] order = new int[size];
+			for (int i = 0; i < size; i++) {
+				order[i] = i;
+			}
+			mergeSort(order, new int[size], 0, size);
+			permute(order);
+			sorted = true;
+		}
+		removeDuplicates();
+		if (dates.length > size) {
+			grow(Math.max(size, 1));
+		}
+	}
+
+	/**
+	 * Stable sort of the indices in <code>order</code> by date.
+	 */
+	private void mergeSort(int[] order, int[] buffer, int from, int to) {
+		if (to - from < 2) {
+			return;
+		}
+		int middle = (from + to) >>> 1;
+		mergeSort(order, buffer, from, middle);
+		mergeSort(order, buffer, middle, to);
+		if (dates[order[middle - 1]] <= dates[order[middle]]) {
+			return;
+		}
+		System.arraycopy(order, from, buffer, from, to - from);
+		int i = from;
+		int j = middle;
+		for (int k = from; k < to; k++) {
+			if (j == to || (i < middle && dates[buffer[i]] <= dates[buffer[j]])) {
+				order[k] = buffer[i++];
+			} else {
+				order[k] = buffer[j++];
+			}
+		}
+	}
+
+	private void permute(int[] order) {
+		long[] newDates = new long[size];
+		long[] newEndDates = new long[size];
+		int[] newKinds = new int[size];
+		int[] newOriginIds = new int[size];
+		int[] newStructureKinds = new int[size];
+		int[] newHandles = new int[size];
+		int[] newNavigations = new int[size];
+		int[] newDeltas = new int[size];
+		float[] newInterests = new float[size];
+		for (int i = 0; i < size; i++) {
+			int j = order[i];
+			newDates[i] = dates[j];
+			newEndDates[i] = endDates[j];
+			newKinds[i] = kinds[j];
+			newOriginIds[i] = originIds[j];
+			newStructureKinds[i] = structureKinds[j];
+			newHandles[i] = handles[j];
+			newNavigations[i] = navigations[j];
+			newDeltas[i] = deltas[j];
+			newInterests[i] = interests[j];
+		}
+		dates = newDates;
+		endDates = newEndDates;
+		kinds = newKinds;
+		originIds = newOriginIds;
+		structureKinds = newStructureKinds;
+		handles = newHandles;
+		navigations = newNavigations;
+		deltas = newDeltas;
+		interests = newInterests;
+	}
+
+	/**
+	 * Removes events that are equal to an earlier event with the same date, requires the events to be sorted.
+	 */
+	private void removeDuplicates() {
+		int kept = 0;
+		int runStart = 0;
+		for (int i = 0; i < size; i++) {
+			if (kept > 0 && dates[kept - 1] != dates[i]) {
+				runStart = kept;
+			}
+			boolean duplicate = false;
+			for (int j = runStart; j < kept && !duplicate; j++) {
+				duplicate = equals(j, i);
+			}
+			if (!duplicate) {
+				if (kept != i) {
+					move(i, kept);
+				}
+				kept++;
+			}
+		}
+		size = kept;
+	}
+
+	private boolean equals(int i, int j) {
+		return dates[i] == dates[j] && endDates[i] == endDates[j] && kinds[i] == kinds[j]
+				&& originIds[i] == originIds[j] && structureKinds[i] == structureKinds[j] && handles[i] == handles[j]
+				&& navigations[i] == navigations[j] && deltas[i] == deltas[j] && interests[i] == interests[j];
+	}
+
+	private void move(int from, int to) {
+		dates[to] = dates[from];
+		endDates[to] = endDates[from];
+		kinds[to] = kinds[from];
+		originIds[to] = originIds[from];
+		structureKinds[to] = structureKinds[from];
+		handles[to] = handles[from];
+		navigations[to] = navigations[from];
+		deltas[to] = deltas[from];
+		interests[to] = interests[from];
+	}
+
+	/**
+	 * Returns the number of events.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Materializes the event at <code>index</code>.
+	 */
+	public InteractionEvent get(int index) {
+		checkIndex(index);
+		return new InteractionEvent(getKind(index), decode(structureKinds[index]), decode(handles[index]),
+				decode(originIds[index]), decode(navigations[index]), decode(deltas[index]), interests[index],
+				new Date(dates[index]), new Date(endDates[index]));
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+
+	public long getDate(int index) {
+		checkIndex(index);
+		return dates[index];
+	}
+
+	public long getEndDate(int index) {
+		checkIndex(index);
+		return endDates[index];
+	}
+
+	public Kind getKind(int index) {
+		checkIndex(index);
+		return (kinds[index] != -1) ? KINDS[kinds[index]] : null;
+	}
+
+	public int getOriginIdCode(int index) {
+		checkIndex(index);
+		return originIds[index];
+	}
+
+	public int getStructureKindCode(int index) {
+		checkIndex(index);
+		return structureKinds[index];
+	}
+
+	public int getStructureHandleCode(int index) {
+		checkIndex(index);
+		return handles[index];
+	}
+
+	public int getNavigationCode(int index) {
+		checkIndex(index);
+		return navigations[index];
+	}
+
+	public int getDeltaCode(int index) {
+		checkIndex(index);
+		return deltas[index];
+	}
+
+	public float getInterestContribution(int index) {
+		checkIndex(index);
+		return interests[index];
+	}
+
+	/**
+	 * Returns the code of <code>value</code>, or -1 if no event has that value. Codes are shared by all string
+	 * columns.
+	 */
+	public int getCode(String value) {
+		Integer code = codes.get(value);
+		return (code != null) ? code : -1;
+	}
+
+	/**
+	 * Returns the string for <code>code</code>, or null for -1.
+	 */
+	public String decode(int code) {
+		return (code != -1) ? strings.get(code) : null;
+	}
+
+	/**
+	 * Returns the number of distinct strings.
+	 */
+	public int getStringCount() {
+		return strings.size();
+	}
+
+	/**
+	 * Returns the index of the first event with a date at or after <code>date</code>, or {@link #size()}. The events
+	 * must be sorted.
+	 */
+	public int indexOf(long date) {
+		int low = 0;
+		int high = size;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (dates[middle] < date) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Sorts the events and returns a read-only view ordered by date. The view materializes events as they are
+	 * iterated, it is not valid once events are added.
+	 */
+	public SortedSet<InteractionEvent> asSortedSet() {
+		sort();
+		return new SortedView(0, size);
+	}
+
+	private boolean matches(int index, InteractionEvent event) {
+		return dates[index] == event.getDate().getTime() && endDates[index] == event.getEndDate().getTime()
+				&& getKind(index) == event.getKind() && matches(originIds[index], event.getOriginId())
+				&& matches(structureKinds[index], event.getStructureKind())
+				&& matches(handles[index], event.getStructureHandle())
+				&& matches(navigations[index], event.getNavigation()) && matches(deltas[index], event.getDelta())
+				&& interests[index] == event.getInterestContribution();
+	}
+
+	private boolean matches(int code, String value) {
+		return (value == null) ? code == -1 : code == getCode(value);
+	}
+
+	private class SortedView extends AbstractSet<InteractionEvent> implements SortedSet<InteractionEvent> {
+
+		private final int from;
+
+		private final int to;
+
+		SortedView(int from, int to) {
+			this.from = from;
+			this.to = Math.max(from, to);
+		}
+
+		@Override
+		public Iterator<InteractionEvent> iterator() {
+			return new Iterator<InteractionEvent>() {
+
+				private int index = from;
+
+				public boolean hasNext() {
+					return index < to;
+				}
+
+				public InteractionEvent next() {
+					if (index >= to) {
+						throw new NoSuchElementException();
+					}
+					return get(index++);
+				}
+
+				public void remove() {
+					throw new UnsupportedOperationException();
+				}
+
+			};
+		}
+
+		@Override
+		public int size() {
+			return to - from;
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			if (!(o instanceof InteractionEvent)) {
+				return false;
+			}
+			InteractionEvent event = (InteractionEvent) o;
+			for (int i = Math.max(from, indexOf(event.getDate().getTime())); i < to
+					&& dates[i] == event.getDate().getTime(); i++) {
+				if (matches(i, event)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		public Comparator<? super InteractionEvent> comparator() {
+			return COMPARATOR;
+		}
+
+		public SortedSet<InteractionEvent> subSet(InteractionEvent fromElement, InteractionEvent toElement) {
+			return new SortedView(bound(fromElement), bound(toElement));
+		}
+
+		public SortedSet<InteractionEvent> headSet(InteractionEvent toElement) {
+			return new SortedView(from, bound(toElement));
+		}
+
+		public SortedSet<InteractionEvent> tailSet(InteractionEvent fromElement) {
+			return new SortedView(bound(fromElement), to);
+		}
+
+		private int bound(InteractionEvent event) {
+			return Math.min(to, Math.max(from, indexOf(event.getDate().getTime())));
+		}
+
+		public InteractionEvent first() {
+			if (from == to) {
+				throw new NoSuchElementException();
+			}
+			return get(from);
+		}
+
+		public InteractionEvent last() {
+			if (from == to) {
+				throw new NoSuchElementException();
+			}
+			return get(to - 1);
+		}
+
+	}
+
+}
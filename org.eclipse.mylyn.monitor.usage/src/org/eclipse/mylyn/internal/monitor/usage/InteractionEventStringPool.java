@@ -0,0 +1,47 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.internal.monitor.usage;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Deduplicates the low-cardinality fields of events loaded from a monitor log, such as the origin id, structure kind
+ * and navigation, so that all events of a load share a single instance of each value. A pool is created for each load
+ * and is released with it, unlike {@link String#intern()} values do not outlive the events. Pools may be shared by the
+ * threads of a parallel load.
+ *
+ * @see InteractionEventParser#InteractionEventParser(InteractionEventStringPool)
+ */
+public class InteractionEventStringPool {
+
+	private final ConcurrentHashMap<String, String> strings = new ConcurrentHashMap<String, String>();
+
+	/**
+	 * Returns the pooled instance of <code>value</code>, adding <code>value</code> if the pool does not contain an
+	 * equal string.
+	 */
+	public String intern(String value) {
+		if (value == null) {
+			return null;
+		}
+		String pooled = strings.putIfAbsent(value, value);
+		return (pooled != null) ? pooled : value;
+	}
+
+	/**
+	 * Returns the number of distinct strings in the pool.
+	 */
+	public int size() {
+		return strings.size();
+	}
+
+}
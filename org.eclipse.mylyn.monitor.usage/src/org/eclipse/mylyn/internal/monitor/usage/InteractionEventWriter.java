@@ -0,0 +1,354 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.internal.monitor.usage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.mylyn.commons.core.StatusHandler;
+import org.eclipse.mylyn.monitor.core.InteractionEvent;
+
+/**
+ * Buffers interaction events in a bounded ring buffer and hands them to the logger in batches from a dedicated
+ * background thread, so that observing an event never performs I/O on the caller's thread. Producers block only
+ * when the buffer is full.
+ *
+ * @see InteractionEventLogger#writeEvents(List)
+ */
+class InteractionEventWriter implements Runnable {
+
+	private static final String THREAD_NAME = "Mylyn Monitor Log Writer"; //$NON-NLS-1$
+
+	public static final int DEFAULT_CAPACITY = 8192;
+
+	public static final int DEFAULT_BATCH_SIZE = 256;
+
+	public static final long DEFAULT_FLUSH_INTERVAL = 1000;
+
+	private final InteractionEventLogger logger;
+
+	private final InteractionEvent[] buffer;
+
+	private final int batchSize;
+
+	private final long flushInterval;
+
+	private final Object lock = new Object();
+
+	/**
+	 * Held while events are removed from the buffer and written, so that a {@link #flush()} or {@link #stop()} that
+	 * drains on the caller's thread cannot write a batch ahead of the batch the writer thread is still writing.
+	 * Acquired before {@link #lock}.
+	 */
+	private final Object drainLock = new Object();
+
+	private int head = 0;
+
+	private int size = 0;
+
+	/**
+	 * Total number of events accepted by {@link #enqueue(InteractionEvent)}; guarded by {@link #lock}.
+	 */
+	private long enqueued = 0;
+
+	/**
+	 * Total number of events passed to the logger; guarded by {@link #lock}.
+	 */
+	private long written = 0;
+
+	/**
+	 * Number of enqueued events that {@link #flush()} callers wait for to become visible in the file; guarded by
+	 * {@link #lock}.
+	 */
+	private long flushRequested = 0;
+
+	/**
+	 * Number of written events that have been flushed to the file; guarded by {@link #lock}.
+	 */
+	private long flushed = 0;
+
+	/**
+	 * Set when events were added to the logger's queue after it had been replayed; guarded by {@link #lock}.
+	 */
+	private boolean replayRequested = false;
+
+	private boolean running = false;
+
+	private Thread thread;
+
+	public InteractionEventWriter(InteractionEventLogger logger, int capacity, int batchSize, long flushInterval) {
+		this.logger = logger;
+		this.buffer = new InteractionEvent[Math.max(1, capacity)];
+		this.batchSize = Math.max(1, Math.min(batchSize, buffer.length));
+		this.flushInterval = Math.max(1, flushInterval);
+	}
+
+	public void start() {
+		synchronized (lock) {
+			if (running) {
+				return;
+			}
+			running = true;
+			thread = new Thread(this, THREAD_NAME);
+			thread.setDaemon(true);
+			thread.start();
+		}
+	}
+
+	/**
+	 * Stops the background thread after all buffered events have been handed to the logger.
+	 */
+	public void stop() {
+		Thread writerThread;
+		synchronized (lock) {
+			if (!running) {
+				return;
+			}
+			running = false;
+			lock.notifyAll();
+			writerThread = thread;
+			thread = null;
+		}
+		if (writerThread != null && writerThread != Thread.currentThread()) {
+			boolean interrupted = false;
+			while (writerThread.isAlive()) {
+				try {
+					writerThread.join();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		// the writer thread drains before it exits, this only catches events that raced with shutdown
+		drain();
+	}
+
+	public boolean isRunning() {
+		synchronized (lock) {
+			return running;
+		}
+	}
+
+	/**
+	 * Returns the number of buffered events that have not been handed to the logger.
+	 */
+	public int size() {
+		synchronized (lock) {
+			return size;
+		}
+	}
+
+	/**
+	 * Adds <code>event</code> to the buffer, waiting for the writer thread to make room if the buffer is full.
+	 *
+	 * @return false, if the writer is not running and the event was not accepted
+	 */
+	public boolean enqueue(InteractionEvent event) {
+		synchronized (lock) {
+			boolean interrupted = false;
+			while (running && size == buffer.length) {
+				try {
+					lock.wait();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+			if (!running) {
+				return false;
+			}
+			buffer[(head + size) % buffer.length] = event;
+			size++;
+			enqueued++;
+			if (size == 1 || size >= batchSize) {
+				lock.notifyAll();
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Asks the writer thread to write events that were added to the logger's queue of events observed while
+	 * monitoring was stopped.
+	 */
+	public void requestReplay() {
+		synchronized (lock) {
+			replayRequested = true;
+			lock.notifyAll();
+		}
+	}
+
+	/**
+	 * Blocks until all events enqueued before this call have been written and flushed to the file.
+	 */
+	public void flush() {
+		synchronized (lock) {
+			long target = enqueued;
+			flushRequested = Math.max(flushRequested, target);
+			lock.notifyAll();
+			boolean interrupted = false;
+			while (running && flushed < target) {
+				try {
+					lock.wait();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		if (!isRunning()) {
+			drain();
+		}
+	}
+
+	public void run() {
+		while (true) {
+			boolean flushRequired;
+			boolean replay;
+			synchronized (lock) {
+				while (running && size == 0 && flushRequested <= flushed && !replayRequested) {
+					// wake up when the logger's durability mode requires buffered events to be committed
+					long delay = logger.getCommitDelay();
+					long sampleDelay = logger.getSampleDelay();
+					if (delay == 0 || sampleDelay == 0) {
+						break;
+					}
+					if (sampleDelay != -1) {
+						// look for a merged event that can be logged at the flush interval
+						delay = (delay == -1) ? flushInterval : Math.min(delay, flushInterval);
+					}
+					try {
+						lock.wait(Math.max(0, delay));
+					} catch (InterruptedException e) {
+						// keep going, the writer only exits when stopped
+					}
+				}
+				// give the batch up to flushInterval to fill up
+				long deadline = System.currentTimeMillis() + flushInterval;
+				while (running && size > 0 && size < batchSize && flushRequested <= flushed) {
+					long remaining = deadline - System.currentTimeMillis();
+					if (remaining <= 0) {
+						break;
+					}
+					try {
+						lock.wait(remaining);
+					} catch (InterruptedException e) {
+						// keep going, the writer only exits when stopped
+					}
+				}
+				if (!running && size == 0) {
+					return;
+				}
+				flushRequired = flushRequested > flushed;
+				replay = replayRequested;
+				replayRequested = false;
+			}
+			if (replay) {
+				try {
+					synchronized (drainLock) {
+						logger.writeQueuedEvents();
+					}
+				} catch (Throwable t) {
+					StatusHandler.log(new Status(IStatus.WARNING, UiUsageMonitorPlugin.ID_PLUGIN,
+							"Could not log interaction events", t)); //$NON-NLS-1$
+				}
+			}
+			drain();
+			writeExpiredSample();
+			long target;
+			synchronized (lock) {
+				target = written;
+			}
+			try {
+				logger.commit(flushRequired);
+			} catch (Throwable t) {
+				StatusHandler.log(new Status(IStatus.WARNING, UiUsageMonitorPlugin.ID_PLUGIN,
+						"Could not flush interaction events", t)); //$NON-NLS-1$
+			}
+			if (flushRequired) {
+				synchronized (lock) {
+					flushed = target;
+					lock.notifyAll();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Writes the event that the sampler of the logger is merging once no further events can be merged with it, so that
+	 * it is not held back while the user is idle. Events buffered before it are older and are written first.
+	 */
+	private void writeExpiredSample() {
+		InteractionEvent event = logger.takeExpiredSample();
+		if (event == null) {
+			return;
+		}
+		try {
+			synchronized (drainLock) {
+				drain();
+				logger.writeEvents(Collections.singletonList(event));
+			}
+		} catch (Throwable t) {
+			StatusHandler.log(new Status(IStatus.WARNING, UiUsageMonitorPlugin.ID_PLUGIN,
+					"Could not log interaction events", t)); //$NON-NLS-1$
+		} finally {
+			logger.unlockSampling();
+		}
+	}
+
+	/**
+	 * Removes up to {@link #batchSize} events at a time from the buffer and writes them until the buffer is empty.
+	 */
+	private void drain() {
+		synchronized (drainLock) {
+			List<InteractionEvent> batch = new ArrayList<InteractionEvent>(batchSize);
+			while (true) {
+				synchronized (lock) {
+					if (size == 0) {
+						return;
+					}
+					int count = Math.min(batchSize, size);
+					for (int i = 0; i < count; i++) {
+						batch.add(buffer[head]);
+						buffer[head] = null;
+						head = (head + 1) % buffer.length;
+					}
+					size -= count;
+					// wake up producers waiting for room
+					lock.notifyAll();
+				}
+				try {
+					logger.writeEvents(batch);
+				} catch (Throwable t) {
+					StatusHandler.log(new Status(IStatus.WARNING, UiUsageMonitorPlugin.ID_PLUGIN,
+							"Could not log interaction events", t)); //$NON-NLS-1$
+				}
+				synchronized (lock) {
+					written += batch.size();
+					lock.notifyAll();
+				}
+				batch.clear();
+			}
+		}
+	}
+
+}
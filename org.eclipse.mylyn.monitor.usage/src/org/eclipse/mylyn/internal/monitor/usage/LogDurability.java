@@ -0,0 +1,61 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.internal.monitor.usage;
+
+/**
+ * Controls when events written by the {@link InteractionEventLogger} reach the operating system and the storage device.
+ * The log is always forced to the storage device when monitoring stops.
+ */
+public enum LogDurability {
+
+	/**
+	 * Every batch of events is written to the file immediately without forcing it to the storage device.
+	 */
+	WRITE_THROUGH("writeThrough"), //$NON-NLS-1$
+
+	/**
+	 * Events are buffered in memory and written to the file when the buffer is full or the flush interval has elapsed.
+	 * Fewest system calls, events buffered in memory are lost on a crash.
+	 */
+	BUFFERED("buffered"), //$NON-NLS-1$
+
+	/**
+	 * Events are buffered in memory and written and forced to the storage device together once the commit interval has
+	 * elapsed or the commit event count has been reached.
+	 */
+	GROUP_COMMIT("groupCommit"); //$NON-NLS-1$
+
+	private final String id;
+
+	private LogDurability(String id) {
+		this.id = id;
+	}
+
+	@Override
+	public String toString() {
+		return id;
+	}
+
+	/**
+	 * Returns the durability for <code>id</code> as used in the study extension point, or null if <code>id</code> is
+	 * not known.
+	 */
+	public static LogDurability fromString(String id) {
+		for (LogDurability durability : values()) {
+			if (durability.id.equalsIgnoreCase(id)) {
+				return durability;
+			}
+		}
+		return null;
+	}
+
+}
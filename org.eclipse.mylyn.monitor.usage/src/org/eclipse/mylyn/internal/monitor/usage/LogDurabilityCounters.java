@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.internal.monitor.usage;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the I/O performed by the monitor log while a {@link LogDurability} mode was in effect. Counters are updated
+ * by the log writer thread and may be read from any thread.
+ */
+public class LogDurabilityCounters {
+
+	private final LogDurability durability;
+
+	private volatile long events;
+
+	private volatile long bytes;
+
+	private volatile long writes;
+
+	private volatile long flushes;
+
+	private volatile long syncs;
+
+	private volatile long syncTime;
+
+	private volatile long maxSyncTime;
+
+	LogDurabilityCounters(LogDurability durability) {
+		this.durability = durability;
+	}
+
+	public LogDurability getDurability() {
+		return durability;
+	}
+
+	/**
+	 * Returns the number of events written.
+	 */
+	public long getEvents() {
+		return events;
+	}
+
+	/**
+	 * Returns the number of bytes written.
+	 */
+	public long getBytes() {
+		return bytes;
+	}
+
+	/**
+	 * Returns the number of writes to the file, each of which is a system call.
+	 */
+	public long getWrites() {
+		return writes;
+	}
+
+	/**
+	 * Returns the number of times buffered events were written to the file.
+	 */
+	public long getFlushes() {
+		return flushes;
+	}
+
+	/**
+	 * Returns the number of times the file was forced to the storage device.
+	 */
+	public long getSyncs() {
+		return syncs;
+	}
+
+	/**
+	 * Returns the total time spent forcing the file to the storage device in milliseconds.
+	 */
+	public long getSyncTime() {
+		return TimeUnit.NANOSECONDS.toMillis(syncTime);
+	}
+
+	/**
+	 * Returns the longest time a single sync took in milliseconds.
+	 */
+	public long getMaxSyncTime() {
+		return TimeUnit.NANOSECONDS.toMillis(maxSyncTime);
+	}
+
+	void eventsWritten(int count) {
+		events += count;
+	}
+
+	void bytesWritten(int count) {
+		writes++;
+		bytes += count;
+	}
+
+	void flushed() {
+		flushes++;
+	}
+
+	void synced(long nanos) {
+		syncs++;
+		syncTime += nanos;
+		if (nanos > maxSyncTime) {
+			maxSyncTime = nanos;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return durability + ": events=" + events + ", bytes=" + bytes + ", writes=" + writes + ", flushes=" + flushes //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+				+ ", syncs=" + syncs + ", syncTime=" + getSyncTime() + "ms"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+
+}
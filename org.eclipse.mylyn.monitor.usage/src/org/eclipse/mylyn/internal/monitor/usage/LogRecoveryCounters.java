@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.internal.monitor.usage;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.mylyn.commons.core.StatusHandler;
+
+/**
+ * Counts the records of a monitor log that were read and those that were skipped because they were damaged, e.g. by a
+ * crash while the log was written. Damaged records are not reported individually, a single summary is logged by
+ * {@link #log(String)} once the log has been read. Counters may be updated from multiple threads.
+ *
+ * @see InteractionEventLogReader#setRecoveryCounters(LogRecoveryCounters)
+ */
+public class LogRecoveryCounters {
+
+	private final AtomicLong records = new AtomicLong();
+
+	private final AtomicLong skippedRecords = new AtomicLong();
+
+	private final AtomicLong skippedBytes = new AtomicLong();
+
+	/**
+	 * Returns the number of records that were parsed.
+	 */
+	public long getRecords() {
+		return records.get();
+	}
+
+	/**
+	 * Returns the number of damaged records that were skipped.
+	 */
+	public long getSkippedRecords() {
+		return skippedRecords.get();
+	}
+
+	/**
+	 * Returns the number of bytes that were skipped, including bytes between records that do not belong to any record.
+	 */
+	public long getSkippedBytes() {
+		return skippedBytes.get();
+	}
+
+	/**
+	 * Returns true, if any bytes were skipped.
+	 */
+	public boolean hasSkipped() {
+		return skippedBytes.get() > 0;
+	}
+
+	void recordRead() {
+		records.incrementAndGet();
+	}
+
+	void recordSkipped(long bytes) {
+		skippedRecords.incrementAndGet();
+		skippedBytes.addAndGet(bytes);
+	}
+
+	/**
+	 * Logs a warning that summarizes the damaged records of <code>source</code>, if any were skipped.
+	 */
+	public void log(String source) {
+		if (hasSkipped()) {
+			StatusHandler.log(new Status(IStatus.WARNING, UiUsageMonitorPlugin.ID_PLUGIN, "Skipped " //$NON-NLS-1$
+					+ getSkippedRecords() + " damaged records (" + getSkippedBytes() + " bytes) while reading " //$NON-NLS-1$ //$NON-NLS-2$
+					+ getRecords() + " records of " + source)); //$NON-NLS-1$
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "records=" + records + ", skippedRecords=" + skippedRecords + ", skippedBytes=" + skippedBytes; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+
+}
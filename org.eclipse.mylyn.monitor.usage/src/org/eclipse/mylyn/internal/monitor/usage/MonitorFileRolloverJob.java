@@ -12,13 +12,10 @@
 package org.eclipse.mylyn.internal.monitor.usage;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.List;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
 
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -40,7 +37,7 @@ import org.eclipse.ui.PlatformUI;
 
 /**
  * Job that performs the rollover of the monitor interaction history log file (modelled after
- * org.eclipse.mylyn.internal.tasks.ui.util.TaskDataExportJob). Overwrites destination if exists!
+ * org.eclipse.mylyn.internal.tasks.ui.util.TaskDataExportJob). Appends to existing monthly archives.
  * 
  * @author Meghan Allen
  */
@@ -55,6 +52,10 @@ public class MonitorFileRolloverJob extends Job implements IJobChangeListener {
 
 	private static final String ZIP_EXTENSION = ".zip"; //$NON-NLS-1$
 
+	private static final String ROLLOVER_EXTENSION = ".rollover"; //$NON-NLS-1$
+
+	private static final String MERGE_EXTENSION = ".merge"; //$NON-NLS-1$
+
 	private List<IUsageCollector> collectors = null;
 
 	private ReportGenerator generator = null;
@@ -73,138 +74,172 @@ public class MonitorFileRolloverJob extends Job implements IJobChangeListener {
 		this.studyParameters = studyParameters;
 	}
 
-	@SuppressWarnings("deprecation")
-	private String getYear(InteractionEvent event) {
-		return "" + (event.getDate().getYear() + 1900); //$NON-NLS-1$
-	}
-
 	public void forceSyncForTesting(boolean forceSync) {
 		this.forceSyncForTesting = forceSync;
 	}
 
-	private String getMonth(int month) {
-		switch (month) {
-		case 0:
-			return "01"; //$NON-NLS-1$
-		case 1:
-			return "02"; //$NON-NLS-1$
-		case 2:
-			return "03"; //$NON-NLS-1$
-		case 3:
-			return "04"; //$NON-NLS-1$
-		case 4:
-			return "05"; //$NON-NLS-1$
-		case 5:
-			return "06"; //$NON-NLS-1$
-		case 6:
-			return "07"; //$NON-NLS-1$
-		case 7:
-			return "08"; //$NON-NLS-1$
-		case 8:
-			return "09"; //$NON-NLS-1$
-		case 9:
-			return "10"; //$NON-NLS-1$
-		case 10:
-			return "11"; //$NON-NLS-1$
-		case 11:
-			return "12"; //$NON-NLS-1$
-		default:
-			return ""; //$NON-NLS-1$
-
-		}
-	}
-
 	public static String getZippedMonitorFileDirPath() {
 		return ResourcesPlugin.getWorkspace().getRoot().getLocation().toString() + File.separatorChar + NAME_DATA_DIR
 				+ File.separatorChar + DIRECTORY_MONITOR_BACKUP;
 	}
 
-	@Override
 	@SuppressWarnings("deprecation")
-	public IStatus run(final IProgressMonitor progressMonitor) {
-
-		progressMonitor.beginTask(JOB_LABEL, IProgressMonitor.UNKNOWN);
-
-		final File monitorFile = UiUsageMonitorPlugin.getDefault().getMonitorLogFile();
-		InteractionEventLogger logger = UiUsageMonitorPlugin.getDefault().getInteractionLogger();
+	private void rollover(InteractionEventLogger logger, File rolloverFile, int nowMonth,
+			IProgressMonitor progressMonitor) throws IOException {
+		logger.clearInteractionHistory(false);
 
-		logger.stopMonitoring();
+		File dir = new File(getZippedMonitorFileDirPath());
+		if (!dir.exists()) {
+			dir.mkdirs();
+		}
 
-		List<InteractionEvent> events = logger.getHistoryFromFile(monitorFile);
+		// archives hold an entry per week, existing archives are appended to
+		InteractionEventArchiveWriter archiveWriter = new InteractionEventArchiveWriter(dir, BACKUP_FILE_SUFFIX
+				+ ZIP_EXTENSION, UiUsageMonitorPlugin.getDefault().getMonitorLogFile().getName());
+		try {
+			// events of the current month are written to the new log before monitoring restarts, so that they
+			// precede the events observed in the meantime, which the logger queues
+			InteractionEventLogConverter.LogWriter currentWriter = new InteractionEventLogConverter.LogWriter(
+					UiUsageMonitorPlugin.getDefault().getMonitorLogFile(), logger.isBinaryFormat());
+			try {
+				InteractionEventCursor cursor = logger.openHistory(rolloverFile);
+				try {
+					while (cursor.hasNext()) {
+						InteractionEvent event = cursor.next();
+						if (event.getDate().getMonth() == nowMonth) {
+							currentWriter.write(event);
+						} else {
+							archiveWriter.write(event);
+						}
+					}
+				} finally {
+					cursor.close();
+				}
+			} finally {
+				currentWriter.close();
+			}
+		} finally {
+			archiveWriter.close();
+		}
 		progressMonitor.worked(1);
+		rolloverFile.delete();
+	}
 
-		int nowMonth = Calendar.getInstance().get(Calendar.MONTH);
-		if (events.size() > 0 && events.get(0).getDate().getMonth() != nowMonth) {
-			int currMonth = events.get(0).getDate().getMonth();
-
-			String fileName = getYear(events.get(0)) + "-" + getMonth(currMonth) + "-" + BACKUP_FILE_SUFFIX; //$NON-NLS-1$ //$NON-NLS-2$
+	/**
+	 * Puts the events of a log that was moved aside by a rollover that did not complete back in front of the events
+	 * of <code>monitorFile</code>. The log that was moved aside is only deleted once its events are in
+	 * <code>monitorFile</code>. Monitoring must be stopped.
+	 */
+	private void restore(InteractionEventLogger logger, File monitorFile, File rolloverFile) throws IOException {
+		if (!monitorFile.exists() || monitorFile.length() == 0) {
+			monitorFile.delete();
+			if (!rolloverFile.renameTo(monitorFile)) {
+				throw new IOException("Could not move " + rolloverFile + " to " + monitorFile); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			return;
+		}
 
-			File dir = new File(getZippedMonitorFileDirPath());
+		// the events logged since the rollover are newer than the events that were moved aside
+		File mergeFile = new File(monitorFile.getPath() + MERGE_EXTENSION);
+		InteractionEventLogConverter.LogWriter writer = new InteractionEventLogConverter.LogWriter(mergeFile,
+				logger.isBinaryFormat());
+		try {
+			try {
+				copy(logger, rolloverFile, writer);
+				copy(logger, monitorFile, writer);
+			} finally {
+				writer.close();
+			}
+		} catch (IOException e) {
+			mergeFile.delete();
+			throw e;
+		}
+		if (!monitorFile.delete()) {
+			mergeFile.delete();
+			throw new IOException("Could not replace " + monitorFile); //$NON-NLS-1$
+		}
+		if (!mergeFile.renameTo(monitorFile)) {
+			throw new IOException("Could not move " + mergeFile + " to " + monitorFile); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		rolloverFile.delete();
+	}
 
-			if (!dir.exists()) {
-				dir.mkdirs();
+	private void copy(InteractionEventLogger logger, File source, InteractionEventLogConverter.LogWriter writer)
+			throws IOException {
+		InteractionEventCursor cursor = logger.openHistory(source);
+		try {
+			while (cursor.hasNext()) {
+				writer.write(cursor.next());
 			}
-			try {
-				File currBackupZipFile = new File(dir, fileName + ZIP_EXTENSION);
-				if (!currBackupZipFile.exists()) {
-					currBackupZipFile.createNewFile();
-				}
-				ZipOutputStream zipFileStream;
+		} finally {
+			cursor.close();
+		}
+	}
 
-				zipFileStream = new ZipOutputStream(new FileOutputStream(currBackupZipFile));
-				zipFileStream.putNextEntry(new ZipEntry(UiUsageMonitorPlugin.getDefault().getMonitorLogFile().getName()));
+	@Override
+	@SuppressWarnings("deprecation")
+	public IStatus run(final IProgressMonitor progressMonitor) {
 
-				for (InteractionEvent event : events) {
-					int monthOfCurrEvent = event.getDate().getMonth();
-					if (monthOfCurrEvent == currMonth) {
-						// put in curr zip
-						String xml = logger.writeLegacyEvent(event);
+		progressMonitor.beginTask(JOB_LABEL, IProgressMonitor.UNKNOWN);
 
-						zipFileStream.write(xml.getBytes());
+		final File monitorFile = UiUsageMonitorPlugin.getDefault().getMonitorLogFile();
+		InteractionEventLogger logger = UiUsageMonitorPlugin.getDefault().getInteractionLogger();
 
-					} else if (monthOfCurrEvent != nowMonth) {
-						// we are finished backing up currMonth, but now need to
-						// start backing up monthOfCurrEvent
-						progressMonitor.worked(1);
-						zipFileStream.closeEntry();
-						zipFileStream.close();
+		logger.stopMonitoring();
 
-						fileName = getYear(event) + "-" + getMonth(monthOfCurrEvent) + "-" + BACKUP_FILE_SUFFIX; //$NON-NLS-1$ //$NON-NLS-2$
-						currBackupZipFile = new File(dir, fileName + ZIP_EXTENSION);
-						if (!currBackupZipFile.exists()) {
+		// a previous rollover failed and could not put the log back, its events are not archived yet
+		File rolloverFile = new File(monitorFile.getPath() + ROLLOVER_EXTENSION);
+		if (rolloverFile.exists()) {
+			try {
+				restore(logger, monitorFile, rolloverFile);
+			} catch (IOException e) {
+				StatusHandler.log(new Status(IStatus.ERROR, UiUsageMonitorPlugin.ID_PLUGIN,
+						studyParameters.getStudyName() + "Mylyn monitor log rollover failed, could not restore " //$NON-NLS-1$
+								+ rolloverFile, e));
+			}
+		}
 
-							currBackupZipFile.createNewFile();
+		InteractionEvent firstEvent = null;
+		for (InteractionEvent event : logger.getHistory(monitorFile)) {
+			firstEvent = event;
+			break;
+		}
+		progressMonitor.worked(1);
 
-						}
-						zipFileStream = new ZipOutputStream(new FileOutputStream(currBackupZipFile));
-						zipFileStream.putNextEntry(new ZipEntry(UiUsageMonitorPlugin.getDefault()
-								.getMonitorLogFile()
-								.getName()));
-						currMonth = monthOfCurrEvent;
-						String xml = logger.writeLegacyEvent(event);
-						zipFileStream.write(xml.getBytes());
-					} else if (monthOfCurrEvent == nowMonth) {
-						// if these events are from the current event, just put
-						// them back in the current log (first clear the log,
-						// since we are putting them all back)
-
-						logger.clearInteractionHistory(false);
-						logger.interactionObserved(event);
+		int nowMonth = Calendar.getInstance().get(Calendar.MONTH);
+		if (firstEvent != null && firstEvent.getDate().getMonth() != nowMonth && !rolloverFile.exists()) {
+			// move the log aside and stream it into the backups, events of the current month are logged again
+			if (!monitorFile.renameTo(rolloverFile)) {
+				StatusHandler.log(new Status(IStatus.ERROR, UiUsageMonitorPlugin.ID_PLUGIN,
+						studyParameters.getStudyName() + "Mylyn monitor log rollover failed, could not move " //$NON-NLS-1$
+								+ monitorFile));
+			} else {
+				try {
+					rollover(logger, rolloverFile, nowMonth, progressMonitor);
+				} catch (IOException e) {
+					StatusHandler.log(new Status(IStatus.ERROR, UiUsageMonitorPlugin.ID_PLUGIN,
+							studyParameters.getStudyName() + "Mylyn monitor log rollover failed", e)); //$NON-NLS-1$
+					// the new log only holds events of the log that was moved aside, which is put back in its place
+					// and rolled over again; events that were archived already are skipped as duplicates by reports
+					try {
+						monitorFile.delete();
+						restore(logger, monitorFile, rolloverFile);
+					} catch (IOException e2) {
+						StatusHandler.log(new Status(IStatus.ERROR, UiUsageMonitorPlugin.ID_PLUGIN,
+								studyParameters.getStudyName() + "Mylyn monitor log rollover failed, could not restore " //$NON-NLS-1$
+										+ rolloverFile, e2));
 					}
 				}
-				zipFileStream.closeEntry();
-				zipFileStream.close();
-			} catch (IOException e) {
-				StatusHandler.log(new Status(IStatus.ERROR, UiUsageMonitorPlugin.ID_PLUGIN,
-						studyParameters.getStudyName() + "Mylyn monitor log rollover failed", e)); //$NON-NLS-1$
 			}
-
 		}
 		progressMonitor.worked(1);
 		logger.startMonitoring();
 
 		generator = new ReportGenerator(UiUsageMonitorPlugin.getDefault().getInteractionLogger(), collectors, this,
 				forceSyncForTesting);
+		// the usage table of the log is maintained as events are logged
+		generator.setUsageStatistics(UiUsageMonitorPlugin.getDefault().getUsageStatistics());
+		UiUsageMonitorPlugin.getDefault().configureReportGenerator(generator);
 
 		progressMonitor.worked(1);
 		final List<File> files = new ArrayList<File>();
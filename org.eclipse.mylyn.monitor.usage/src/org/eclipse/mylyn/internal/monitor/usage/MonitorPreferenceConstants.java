@@ -38,4 +38,16 @@ public class MonitorPreferenceConstants {
 
 	public static final String PREF_MONITORING_ENABLE_SUBMISSION_INITITALLY_ENABLED = "org.eclipse.mylyn.monitor.submission.initially.enabled"; //$NON-NLS-1$
 
+	public static final String PREF_MONITORING_WRITE_BATCH_SIZE = "org.eclipse.mylyn.monitor.write.batch.size"; //$NON-NLS-1$
+
+	public static final String PREF_MONITORING_FLUSH_INTERVAL = "org.eclipse.mylyn.monitor.write.flush.interval"; //$NON-NLS-1$
+
+	public static final String PREF_MONITORING_BINARY_FORMAT = "org.eclipse.mylyn.monitor.write.binary"; //$NON-NLS-1$
+
+	/**
+	 * The number of users whose files are read concurrently when a usage report is generated; 0 for the number of
+	 * processors and 1 to read one user at a time.
+	 */
+	public static final String PREF_REPORT_THREADS = "org.eclipse.mylyn.monitor.report.threads"; //$NON-NLS-1$
+
 }
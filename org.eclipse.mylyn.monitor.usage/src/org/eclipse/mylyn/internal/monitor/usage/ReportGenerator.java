@@ -11,17 +11,24 @@
 
 package org.eclipse.mylyn.internal.monitor.usage;
 
+import java.io.Closeable;
 import java.io.File;
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
-import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 
+import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.NullProgressMonitor;
@@ -32,9 +39,9 @@ import org.eclipse.jface.operation.IRunnableWithProgress;
 import org.eclipse.mylyn.commons.core.StatusHandler;
 import org.eclipse.mylyn.internal.monitor.core.collection.IUsageCollector;
 import org.eclipse.mylyn.internal.monitor.core.collection.IUsageScanner;
-import org.eclipse.mylyn.internal.monitor.core.collection.InteractionEventComparator;
 import org.eclipse.mylyn.internal.monitor.core.collection.InteractionEventSummary;
 import org.eclipse.mylyn.internal.monitor.core.collection.InteractionEventUtil;
+import org.eclipse.mylyn.internal.monitor.usage.collectors.MergeableUsageCollector;
 import org.eclipse.mylyn.monitor.core.InteractionEvent;
 import org.eclipse.ui.PlatformUI;
 import org.eclipse.ui.progress.IProgressService;
@@ -67,6 +74,12 @@ public class ReportGenerator {
 
 	private boolean forceSyncForTesting = false;
 
+	private Executor executor;
+
+	private int maxPendingUsers;
+
+	private IncrementalUsageStatistics usageStatistics;
+
 	public ReportGenerator(InteractionEventLogger logger, IUsageCollector collector, boolean saveAllUserEvents) {
 		this(logger, collector);
 		this.saveAllUserEvents = saveAllUserEvents;
@@ -111,6 +124,39 @@ public class ReportGenerator {
 		this.scanners = scanners;
 	}
 
+	/**
+	 * Reads the files of up to <code>maxPendingUsers</code> users concurrently on <code>executor</code> while the
+	 * events of the previous user are given to the scanners and collectors. Scanners are invoked on the thread of the
+	 * job in the same order as in serial mode. If all collectors are {@link MergeableUsageCollector}s, the events of
+	 * each user are consumed by partial collectors on the executor that are merged in the same order, otherwise the
+	 * collectors are invoked on the thread of the job. Either way the summary is the same as in serial mode. If
+	 * <code>executor</code> is null users are processed one at a time.
+	 * <p>
+	 * If there are no scanners, in serial mode and in parallel mode with mergeable collectors, the files of a user are
+	 * merged as they are read and each event is given to the collectors right away, see
+	 * {@link InteractionEventMergeCursor}. The files are first checked to be ordered by date. Otherwise, or if all user
+	 * events are saved, the events of a user are held in memory until they have been consumed.
+	 * 
+	 * @see UiUsageMonitorPlugin#configureReportGenerator(ReportGenerator)
+	 */
+	public void setExecutor(Executor executor, int maxPendingUsers) {
+		Assert.isLegal(maxPendingUsers > 0);
+		this.executor = executor;
+		this.maxPendingUsers = maxPendingUsers;
+	}
+
+	/**
+	 * Takes the command usage table of the log of <code>usageStatistics</code> from the statistics, if the log is the
+	 * only file of a user and the statistics are available.
+	 * <p>
+	 * The statistics only replace reading the log if there are no scanners or collectors and the events of all users
+	 * are not saved. Scanners and collectors need the events themselves, which the statistics do not keep, so the log is
+	 * still read for them and only the command usage table is taken from the statistics.
+	 */
+	public void setUsageStatistics(IncrementalUsageStatistics usageStatistics) {
+		this.usageStatistics = usageStatistics;
+	}
+
 	// XXX clean up code and methods
 	public void getStatisticsFromInteractionHistory(File source, IJobChangeListener listener) {
 		List<File> sources = new ArrayList<File>();
@@ -202,6 +248,25 @@ public class ReportGenerator {
 		return phase;
 	}
 
+	/**
+	 * The events, the command usage table and the partial collectors of a single user.
+	 */
+	private static class UserReport {
+
+		/**
+		 * Empty if the events were given to the scanners and collectors as they were read.
+		 */
+		private final Map<String, SortedSet<InteractionEvent>> events = new HashMap<String, SortedSet<InteractionEvent>>();
+
+		private final Map<String, InteractionEventSummary> summaries = new HashMap<String, InteractionEventSummary>();
+
+		/**
+		 * The collectors that consumed the events of the user, null if the events have not been consumed.
+		 */
+		private List<MergeableUsageCollector> partials;
+
+	}
+
 	class GenerateStatisticsJob extends Job {
 
 		private final ReportGenerator generator;
@@ -247,32 +312,56 @@ public class ReportGenerator {
 						"Could not generate usage report", t)); //$NON-NLS-1$
 			}
 
+			List<FutureTask<UserReport>> pending = new ArrayList<FutureTask<UserReport>>();
 			try {
 				// There are three processing events per user
 				monitor.beginTask(Messages.ReportGenerator_Mylyn_Usage_Summary_Generation, userIds.size() * 3);
 
-				// Process the files for each user
-				for (Integer aUser : filesPerUser.keySet()) {
-					Map<String, SortedSet<InteractionEvent>> userEvents = new HashMap<String, SortedSet<InteractionEvent>>();
-
-					for (File aFile : filesPerUser.get(aUser)) {
-						String phase = getPhase(aFile);
-
-						// orderedEvents must be a set because the
-						// monitor-log.xml file contains some duplicate
-						// events and we want to be sure that we ignore the
-						// duplicates in the reporting. Sets
-						// cannot contain duplicates, so orderedEvents will only
-						// accept the unique events.
-						SortedSet<InteractionEvent> orderedEvents;
-						if (userEvents.get(phase) == null) {
-							orderedEvents = new TreeSet<InteractionEvent>(new InteractionEventComparator());
-							orderedEvents.addAll(this.generator.logger.getHistoryFromFile(aFile));
-						} else {
-							orderedEvents = userEvents.get(phase);
-							orderedEvents.addAll(this.generator.logger.getHistoryFromFile(aFile));
+				// Process the files for each user, scanners and collectors
+				// see the users in the same order in parallel mode
+				List<Integer> users = new ArrayList<Integer>(filesPerUser.keySet());
+				List<MergeableUsageCollector> mergeableCollectors = (executor != null) ? getMergeableCollectors() : null;
+				final boolean stream = allUserEvents == null;
+				final boolean streamPartials = stream && mergeableCollectors != null
+						&& (this.generator.scanners == null || this.generator.scanners.isEmpty());
+				int submitted = 0;
+				for (Integer aUser : users) {
+					UserReport report;
+					if (executor != null) {
+						// load the next users ahead while the events of this
+						// user are consumed
+						while (submitted < users.size() && pending.size() < maxPendingUsers) {
+							final Integer user = users.get(submitted++);
+							final List<File> files = filesPerUser.get(user);
+							final List<MergeableUsageCollector> partials = newPartials(mergeableCollectors);
+							FutureTask<UserReport> task = new FutureTask<UserReport>(new Callable<UserReport>() {
+								public UserReport call() {
+									if (streamPartials) {
+										UserReport report = streamUser(user, files, null, partials);
+										if (report != null) {
+											report.partials = partials;
+											return report;
+										}
+									}
+									return loadUser(user, files, partials);
+								}
+							});
+							pending.add(task);
+							executor.execute(task);
 						}
-						userEvents.put(phase, orderedEvents);
+						try {
+							report = pending.remove(0).get();
+						} catch (ExecutionException e) {
+							throw e.getCause();
+						}
+					} else if (stream) {
+						report = streamUser(aUser, filesPerUser.get(aUser), this.generator.scanners,
+								this.generator.collectors);
+						if (report == null) {
+							report = loadUser(aUser, filesPerUser.get(aUser), null);
+						}
+					} else {
+						report = loadUser(aUser, filesPerUser.get(aUser), null);
 					}
 					monitor.worked(1);
 
@@ -280,7 +369,7 @@ public class ReportGenerator {
 					// scanner in turn
 					if (this.generator.scanners != null && this.generator.scanners.size() > 0) {
 
-						for (Map.Entry<String, SortedSet<InteractionEvent>> eventsPerPhase : userEvents.entrySet()) {
+						for (Map.Entry<String, SortedSet<InteractionEvent>> eventsPerPhase : report.events.entrySet()) {
 							// String phaseToProcess = eventsPerPhase.getKey();
 							SortedSet<InteractionEvent> events = eventsPerPhase.getValue();
 
@@ -294,28 +383,19 @@ public class ReportGenerator {
 					monitor.worked(1);
 
 					if (allUserEvents != null) {
-						allUserEvents.put(aUser, userEvents);
+						allUserEvents.put(aUser, report.events);
 					}
 
-					// Consume all events
-					for (Map.Entry<String, SortedSet<InteractionEvent>> eventsPerPhase : userEvents.entrySet()) {
-						// String phaseToProcess = eventsPerPhase.getKey();
-						SortedSet<InteractionEvent> events = eventsPerPhase.getValue();
-
-						for (InteractionEvent event : events) {
-
-							if (event.getKind().isUserEvent()) { // TODO:
-								// some
-								// collectors
-								// may want
-								// non-user
-								// events
-								for (IUsageCollector collector : this.generator.collectors) {
-									collector.consumeEvent(event, aUser);
-								}
-							}
-							createUsageTableData(summaryMap, event, aUser);
+					if (report.partials != null) {
+						// the events were consumed by the partials
+						for (int i = 0; i < report.partials.size(); i++) {
+							mergeableCollectors.get(i).merge(report.partials.get(i));
 						}
+					} else {
+						consumeEvents(report, this.generator.collectors, aUser);
+					}
+					if (!report.summaries.isEmpty()) {
+						summaryMap.put(aUser, report.summaries);
 					}
 					monitor.worked(1);
 				}
@@ -354,37 +434,283 @@ public class ReportGenerator {
 			} catch (Throwable t) {
 				StatusHandler.log(new Status(IStatus.ERROR, UiUsageMonitorPlugin.ID_PLUGIN,
 						"Could not generate usage report", t)); //$NON-NLS-1$
+			} finally {
+				for (FutureTask<UserReport> task : pending) {
+					task.cancel(false);
+				}
 			}
 
 			return Status.OK_STATUS;
 		}
 
-		private void createUsageTableData(Map<Integer, Map<String, InteractionEventSummary>> summaryMap,
-				InteractionEvent event, int userId) {
-			Map<String, InteractionEventSummary> usersSummary = summaryMap.get(userId);
-			if (usersSummary == null) {
-				usersSummary = new HashMap<String, InteractionEventSummary>();
-				summaryMap.put(userId, usersSummary);
+		/**
+		 * Merges the files of each phase of a user as they are read and gives each event to the command usage table and
+		 * <code>collectors</code> in turn. The events are not retained. Only touches state that is confined to the
+		 * returned report and <code>collectors</code>.
+		 * <p>
+		 * The merge requires files that are ordered by date, which is checked before any event reaches the collectors
+		 * since they cannot take events back. Scanners must see all events of a user before the collectors see any of
+		 * them, streaming them would read the files a second time.
+		 * 
+		 * @return null, if there are scanners or a file is not ordered by date and the events of the user need to be
+		 *         loaded and sorted instead
+		 */
+		private UserReport streamUser(int userId, List<File> files, List<IUsageScanner> scanners,
+				List<? extends IUsageCollector> collectors) {
+			if (scanners != null && !scanners.isEmpty()) {
+				return null;
+			}
+			UserReport report = new UserReport();
+			boolean usageTableRead = readUsageTable(report, userId, files);
+			if (usageTableRead && collectors.isEmpty()) {
+				return report;
+			}
+			for (File aFile : files) {
+				if (!isOrdered(aFile)) {
+					return null;
+				}
+			}
+
+			Map<String, List<File>> filesPerPhase = new HashMap<String, List<File>>();
+			for (File aFile : files) {
+				String phase = getPhase(aFile);
+				List<File> filesForPhase = filesPerPhase.get(phase);
+				if (filesForPhase == null) {
+					filesForPhase = new ArrayList<File>();
+					filesPerPhase.put(phase, filesForPhase);
+				}
+				filesForPhase.add(aFile);
 			}
 
-			InteractionEventSummary summary = usersSummary.get(getIdentifier(event));
-			if (summary == null) {
-				summary = new InteractionEventSummary(event.getKind().toString(),
-						InteractionEventUtil.getCleanOriginId(event), 0);
-				usersSummary.put(getIdentifier(event), summary);
+			for (List<File> filesForPhase : filesPerPhase.values()) {
+				List<Iterator<InteractionEvent>> histories = new ArrayList<Iterator<InteractionEvent>>();
+				for (File aFile : filesForPhase) {
+					try {
+						histories.add(openHistory(aFile));
+					} catch (IOException e) {
+						StatusHandler.log(new Status(IStatus.ERROR, UiUsageMonitorPlugin.ID_PLUGIN,
+								"Could not read interaction history", e)); //$NON-NLS-1$
+					}
+				}
+				// the monitor-log.xml file contains some duplicate events
+				// that are ignored in the reporting, the merge skips them
+				InteractionEventMergeCursor events = new InteractionEventMergeCursor(histories);
+				try {
+					while (events.hasNext()) {
+						InteractionEvent event = events.next();
+						if (!usageTableRead) {
+							createUsageTableData(report.summaries, event, userId);
+						}
+						if (event.getKind().isUserEvent()) {
+							for (IUsageCollector collector : collectors) {
+								collector.consumeEvent(event, userId);
+							}
+						}
+					}
+					if (!events.isOrdered()) {
+						StatusHandler.log(new Status(IStatus.WARNING, UiUsageMonitorPlugin.ID_PLUGIN,
+								"Interaction history changed order while it was read: " + filesForPhase)); //$NON-NLS-1$
+					}
+				} finally {
+					events.close();
+				}
 			}
-			summary.setUsageCount(summary.getUsageCount() + 1);
-			summary.setInterestContribution(summary.getInterestContribution() + event.getInterestContribution());
-			summary.setDelta(event.getDelta());
-			summary.addUserId(userId);
+			return report;
 		}
 
-		public String getIdentifier(InteractionEvent event) {
-			return event.getKind().toString() + ':' + InteractionEventUtil.getCleanOriginId(event);
+		/**
+		 * Returns true, if the events of <code>file</code> are ordered by date. Archives read from the archive cache are
+		 * ordered by the cache and are not read.
+		 */
+		private boolean isOrdered(File file) {
+			if (this.generator.logger.getArchiveCache() != null && file.getName().endsWith(".zip")) { //$NON-NLS-1$
+				return true;
+			}
+			InteractionEventCursor cursor;
+			try {
+				cursor = this.generator.logger.openHistory(file);
+			} catch (IOException e) {
+				// reported when the file is streamed
+				return true;
+			}
+			try {
+				long previous = Long.MIN_VALUE;
+				while (cursor.hasNext()) {
+					long date = cursor.next().getDate().getTime();
+					if (date < previous) {
+						return false;
+					}
+					previous = date;
+				}
+				return true;
+			} finally {
+				cursor.close();
+			}
+		}
+
+		/**
+		 * Fills the command usage table of <code>report</code> from the usage statistics, if they cover the files.
+		 * 
+		 * @return true, if the table was filled
+		 */
+		private boolean readUsageTable(UserReport report, int userId, List<File> files) {
+			IncrementalUsageStatistics statistics = this.generator.usageStatistics;
+			if (statistics == null || files.size() != 1
+					|| !files.get(0).getAbsoluteFile().equals(statistics.getLog().getAbsoluteFile())) {
+				return false;
+			}
+			Map<String, InteractionEventSummary> usageTable = statistics.getUsageTable();
+			if (usageTable == null) {
+				return false;
+			}
+			for (Map.Entry<String, InteractionEventSummary> entry : usageTable.entrySet()) {
+				entry.getValue().addUserId(userId);
+				report.summaries.put(entry.getKey(), entry.getValue());
+			}
+			return true;
+		}
+
+		/**
+		 * Opens a monitor log for streaming. Archives are decoded from the archive cache of the logger, if it has one,
+		 * which holds the events of a single archive in memory.
+		 */
+		private Iterator<InteractionEvent> openHistory(File file) throws IOException {
+			InteractionEventArchiveCache cache = this.generator.logger.getArchiveCache();
+			if (cache != null && file.getName().endsWith(".zip")) { //$NON-NLS-1$
+				return cache.load(file).iterator();
+			}
+			return this.generator.logger.openHistory(file);
+		}
+
+		/**
+		 * Reads the files of a user, builds the command usage table of the user and feeds the events to
+		 * <code>partials</code>, if not null. Only touches state that is confined to the returned report and may run on
+		 * any thread.
+		 */
+		private UserReport loadUser(int userId, List<File> files, List<MergeableUsageCollector> partials) {
+			Map<String, InteractionEventStore> storesPerPhase = new HashMap<String, InteractionEventStore>();
+			for (File aFile : files) {
+				String phase = getPhase(aFile);
+				InteractionEventStore store = storesPerPhase.get(phase);
+				if (store == null) {
+					store = new InteractionEventStore();
+					storesPerPhase.put(phase, store);
+				}
+				try {
+					// stream the file into the columns of the store rather than holding its events as objects first
+					Iterator<InteractionEvent> history = openHistory(aFile);
+					try {
+						while (history.hasNext()) {
+							store.add(history.next());
+						}
+					} finally {
+						if (history instanceof Closeable) {
+							((Closeable) history).close();
+						}
+					}
+				} catch (IOException e) {
+					StatusHandler.log(new Status(IStatus.ERROR, UiUsageMonitorPlugin.ID_PLUGIN,
+							"Could not read interaction history", e)); //$NON-NLS-1$
+				}
+			}
+
+			// the monitor-log.xml file contains some duplicate events
+			// that are ignored in the reporting, the sorted views of
+			// the stores only contain unique events
+			UserReport report = new UserReport();
+			for (Map.Entry<String, InteractionEventStore> entry : storesPerPhase.entrySet()) {
+				report.events.put(entry.getKey(), entry.getValue().asSortedSet());
+			}
+			if (!readUsageTable(report, userId, files)) {
+				for (SortedSet<InteractionEvent> events : report.events.values()) {
+					for (InteractionEvent event : events) {
+						createUsageTableData(report.summaries, event, userId);
+					}
+				}
+			}
+			if (partials != null) {
+				consumeEvents(report, partials, userId);
+				report.partials = partials;
+			}
+			return report;
+		}
+
+		private void consumeEvents(UserReport report, List<? extends IUsageCollector> collectors, int userId) {
+			for (Map.Entry<String, SortedSet<InteractionEvent>> eventsPerPhase : report.events.entrySet()) {
+				// String phaseToProcess = eventsPerPhase.getKey();
+				SortedSet<InteractionEvent> events = eventsPerPhase.getValue();
+
+				for (InteractionEvent event : events) {
+
+					if (event.getKind().isUserEvent()) { // TODO:
+						// some
+						// collectors
+						// may want
+						// non-user
+						// events
+						for (IUsageCollector collector : collectors) {
+							collector.consumeEvent(event, userId);
+						}
+					}
+				}
+			}
+		}
+
+		/**
+		 * Returns the collectors, if all of them are mergeable, and null otherwise.
+		 */
+		private List<MergeableUsageCollector> getMergeableCollectors() {
+			List<MergeableUsageCollector> mergeableCollectors = new ArrayList<MergeableUsageCollector>();
+			for (IUsageCollector collector : this.generator.collectors) {
+				if (!(collector instanceof MergeableUsageCollector)) {
+					return null;
+				}
+				mergeableCollectors.add((MergeableUsageCollector) collector);
+			}
+			return mergeableCollectors;
+		}
+
+		private List<MergeableUsageCollector> newPartials(List<MergeableUsageCollector> collectors) {
+			if (collectors == null) {
+				return null;
+			}
+			List<MergeableUsageCollector> partials = new ArrayList<MergeableUsageCollector>();
+			for (MergeableUsageCollector collector : collectors) {
+				partials.add(collector.newPartial());
+			}
+			return partials;
+		}
+
+		private void createUsageTableData(Map<String, InteractionEventSummary> usersSummary, InteractionEvent event,
+				int userId) {
+			addToUsageTable(usersSummary, event).addUserId(userId);
 		}
 
 	}
 
+	/**
+	 * Counts <code>event</code> in the row of the command usage table for its kind and origin.
+	 * 
+	 * @return the row
+	 */
+	static InteractionEventSummary addToUsageTable(Map<String, InteractionEventSummary> usageTable,
+			InteractionEvent event) {
+		InteractionEventSummary summary = usageTable.get(getIdentifier(event));
+		if (summary == null) {
+			summary = new InteractionEventSummary(event.getKind().toString(),
+					InteractionEventUtil.getCleanOriginId(event), 0);
+			usageTable.put(getIdentifier(event), summary);
+		}
+		summary.setUsageCount(summary.getUsageCount() + 1);
+		summary.setInterestContribution(summary.getInterestContribution() + event.getInterestContribution());
+		summary.setDelta(event.getDelta());
+		return summary;
+	}
+
+	static String getIdentifier(InteractionEvent event) {
+		return event.getKind().toString() + ':' + InteractionEventUtil.getCleanOriginId(event);
+	}
+
 	public static String formatPercentage(float percentage) {
 		String percentageString = "" + percentage; //$NON-NLS-1$
 		int indexOf2ndDecimal = percentageString.indexOf('.') + 3;
@@ -398,6 +724,10 @@ public class ReportGenerator {
 		return collectors;
 	}
 
+	/**
+	 * Returns the events of each user by phase if all user events are saved. The sets are read-only views of
+	 * {@link InteractionEventStore}s that materialize events as they are iterated.
+	 */
 	public Map<Integer, Map<String, SortedSet<InteractionEvent>>> getAllUsers() {
 		return allUserEvents;
 	}
@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.internal.monitor.usage;
+
+import org.eclipse.mylyn.monitor.core.InteractionEvent;
+import org.eclipse.mylyn.monitor.core.InteractionEvent.Kind;
+
+/**
+ * Declares how events of a kind and origin are thinned out before they are logged. A rule can coalesce consecutive
+ * events on the same element and limit the rate of events with a token bucket.
+ *
+ * @see InteractionEventSampler
+ */
+public class SamplingRule {
+
+	private final Kind kind;
+
+	private final String originIdPrefix;
+
+	private final long coalesceWindow;
+
+	private final double maxEventsPerSecond;
+
+	private final int burst;
+
+	/**
+	 * @param kind
+	 *            the kind of events this rule applies to, or null for all kinds
+	 * @param originIdPrefix
+	 *            the prefix of origin ids this rule applies to, or null for all origins
+	 * @param coalesceWindow
+	 *            consecutive events on the same element that are at most this many milliseconds apart are merged into
+	 *            one event, 0 disables coalescing
+	 * @param maxEventsPerSecond
+	 *            the sustained rate of events that are logged per origin id, 0 disables rate limiting
+	 * @param burst
+	 *            the number of events that may be logged at once before the rate limit applies
+	 */
+	public SamplingRule(Kind kind, String originIdPrefix, long coalesceWindow, double maxEventsPerSecond, int burst) {
+		this.kind = kind;
+		this.originIdPrefix = originIdPrefix;
+		this.coalesceWindow = Math.max(0, coalesceWindow);
+		this.maxEventsPerSecond = Math.max(0, maxEventsPerSecond);
+		this.burst = Math.max(1, burst);
+	}
+
+	public Kind getKind() {
+		return kind;
+	}
+
+	public String getOriginIdPrefix() {
+		return originIdPrefix;
+	}
+
+	public long getCoalesceWindow() {
+		return coalesceWindow;
+	}
+
+	public double getMaxEventsPerSecond() {
+		return maxEventsPerSecond;
+	}
+
+	public int getBurst() {
+		return burst;
+	}
+
+	public boolean isCoalescing() {
+		return coalesceWindow > 0;
+	}
+
+	public boolean isRateLimited() {
+		return maxEventsPerSecond > 0;
+	}
+
+	public boolean matches(InteractionEvent event) {
+		if (kind != null && kind != event.getKind()) {
+			return false;
+		}
+		if (originIdPrefix != null && (event.getOriginId() == null || !event.getOriginId().startsWith(originIdPrefix))) {
+			return false;
+		}
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return "SamplingRule [kind=" + kind + ", originIdPrefix=" + originIdPrefix + ", coalesceWindow=" //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				+ coalesceWindow + ", maxEventsPerSecond=" + maxEventsPerSecond + ", burst=" + burst + "]"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+
+}
@@ -12,9 +12,11 @@
 
 package org.eclipse.mylyn.internal.monitor.usage;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 
 import org.eclipse.mylyn.monitor.usage.AbstractStudyBackgroundPage;
 import org.eclipse.mylyn.monitor.usage.AbstractStudyQuestionnairePage;
@@ -64,6 +66,14 @@ public class StudyParameters {
 
 	private final Collection<String> filteredIds = new HashSet<String>();
 
+	private LogDurability logDurability = LogDurability.WRITE_THROUGH;
+
+	private long logCommitInterval = InteractionEventLogger.DEFAULT_COMMIT_INTERVAL;
+
+	private int logCommitEvents = InteractionEventLogger.DEFAULT_COMMIT_EVENTS;
+
+	private final List<SamplingRule> samplingRules = new ArrayList<SamplingRule>();
+
 	public String getUploadServletUrl() {
 		return uploadServletUrl;
 	}
@@ -289,4 +299,48 @@ public class StudyParameters {
 		return moreInformationUrl;
 	}
 
+	public LogDurability getLogDurability() {
+		return logDurability;
+	}
+
+	public void setLogDurability(LogDurability logDurability) {
+		if (logDurability != null) {
+			this.logDurability = logDurability;
+		}
+	}
+
+	/**
+	 * Returns the time in milliseconds after which buffered events are written or synced, depending on the
+	 * {@link #getLogDurability() durability}.
+	 */
+	public long getLogCommitInterval() {
+		return logCommitInterval;
+	}
+
+	public void setLogCommitInterval(long logCommitInterval) {
+		this.logCommitInterval = logCommitInterval;
+	}
+
+	/**
+	 * Returns the number of events after which buffered events are synced in {@link LogDurability#GROUP_COMMIT} mode.
+	 */
+	public int getLogCommitEvents() {
+		return logCommitEvents;
+	}
+
+	public void setLogCommitEvents(int logCommitEvents) {
+		this.logCommitEvents = logCommitEvents;
+	}
+
+	/**
+	 * Returns the rules that thin out high frequency events in the order they were declared.
+	 */
+	public List<SamplingRule> getSamplingRules() {
+		return Collections.unmodifiableList(samplingRules);
+	}
+
+	public void addSamplingRule(SamplingRule rule) {
+		samplingRules.add(rule);
+	}
+
 }
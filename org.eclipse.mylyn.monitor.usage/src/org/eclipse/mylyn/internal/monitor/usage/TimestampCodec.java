@@ -0,0 +1,413 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.internal.monitor.usage;
+
+import java.nio.charset.StandardCharsets;
+import java.text.DateFormatSymbols;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.zone.ZoneRules;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Formats and parses the timestamps of the monitor log which use the pattern {@value #PATTERN}. Produces the same
+ * text as a {@link SimpleDateFormat} with that pattern and {@link Locale#ENGLISH}, but instances are immutable and may
+ * be shared between threads.
+ * <p>
+ * Timestamps between 1900 and 2038 are handled without allocating formatters; anything else, including unusual zone
+ * names, is delegated to a new {@link SimpleDateFormat}.
+ */
+public final class TimestampCodec {
+
+	public static final String PATTERN = "yyyy-MM-dd HH:mm:ss.S z"; //$NON-NLS-1$
+
+	private static final long MILLIS_PER_DAY = 24 * 60 * 60 * 1000L;
+
+	/**
+	 * 1900-01-01 00:00 GMT, the fast path is not used for earlier timestamps.
+	 */
+	private static final long MIN_FAST_MILLIS = -2208988800000L;
+
+	/**
+	 * 2038-01-01 00:00 GMT, the fast path is not used for this or later timestamps since {@link TimeZone} only applies
+	 * the last rule of a zone from then on.
+	 */
+	private static final long MAX_FAST_MILLIS = 2145916800000L;
+
+	private static final int MIN_FAST_YEAR = 1900;
+
+	private static final int MAX_FAST_YEAR = 2037;
+
+	/**
+	 * The longest possible text without the zone name: a 9 digit year, the fixed width fields, 3 digits for
+	 * milliseconds and the separators.
+	 */
+	private static final int MAX_LENGTH_WITHOUT_ZONE = 9 + 16 + 3 + 1;
+
+	private static final ZoneName UNKNOWN_ZONE = new ZoneName(null, false, false);
+
+	/**
+	 * Zone names that were resolved by searching all known zones; shared by all codecs since the result does not depend
+	 * on the zone of the codec.
+	 */
+	private static final ConcurrentMap<String, ZoneName> resolvedZoneNames = new ConcurrentHashMap<String, ZoneName>();
+
+	private static final TimestampCodec DEFAULT = new TimestampCodec(TimeZone.getDefault());
+
+	/**
+	 * Returns the codec for the default time zone at the time the monitor was loaded.
+	 */
+	public static TimestampCodec getDefault() {
+		return DEFAULT;
+	}
+
+	private final TimeZone timeZone;
+
+	private final ZoneRules rules;
+
+	private final byte[] standardName;
+
+	private final byte[] daylightName;
+
+	private final String[] zoneNames;
+
+	public TimestampCodec(TimeZone timeZone) {
+		this.timeZone = (TimeZone) timeZone.clone();
+		this.rules = timeZone.toZoneId().getRules();
+		this.standardName = timeZone.getDisplayName(false, TimeZone.SHORT, Locale.ENGLISH).getBytes(
+				StandardCharsets.UTF_8);
+		this.daylightName = timeZone.getDisplayName(true, TimeZone.SHORT, Locale.ENGLISH).getBytes(
+				StandardCharsets.UTF_8);
+		this.zoneNames = new String[] { timeZone.getID(),
+				timeZone.getDisplayName(false, TimeZone.LONG, Locale.ENGLISH),
+				timeZone.getDisplayName(false, TimeZone.SHORT, Locale.ENGLISH),
+				timeZone.getDisplayName(true, TimeZone.LONG, Locale.ENGLISH),
+				timeZone.getDisplayName(true, TimeZone.SHORT, Locale.ENGLISH) };
+	}
+
+	public TimeZone getTimeZone() {
+		return (TimeZone) timeZone.clone();
+	}
+
+	/**
+	 * Returns the maximum number of bytes written by {@link #format(long, byte[], int)}.
+	 */
+	public int getMaxLength() {
+		return MAX_LENGTH_WITHOUT_ZONE + Math.max(standardName.length, daylightName.length);
+	}
+
+	public String format(Date date) {
+		return format(date.getTime());
+	}
+
+	public String format(long time) {
+		byte[] buffer = new byte[getMaxLength()];
+		int length = format(time, buffer, 0);
+		return new String(buffer, 0, length, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Writes the UTF-8 encoded text for <code>time</code> to <code>buffer</code> which must have at least
+	 * {@link #getMaxLength()} bytes available after <code>offset</code>.
+	 *
+	 * @return the offset after the last byte written
+	 */
+	public int format(long time, byte[] buffer, int offset) {
+		if (time < MIN_FAST_MILLIS || time >= MAX_FAST_MILLIS) {
+			byte[] text = createFormat().format(new Date(time)).getBytes(StandardCharsets.UTF_8);
+			System.arraycopy(text, 0, buffer, offset, text.length);
+			return offset + text.length;
+		}
+
+		Instant instant = Instant.ofEpochMilli(time);
+		int zoneOffset = rules.getOffset(instant).getTotalSeconds();
+		long local = time + zoneOffset * 1000L;
+		long epochDay = Math.floorDiv(local, MILLIS_PER_DAY);
+		int millisOfDay = (int) Math.floorMod(local, MILLIS_PER_DAY);
+
+		// civil date from days since 1970-01-01, see http://howardhinnant.github.io/date_algorithms.html
+		long z = epochDay + 719468;
+		long era = Math.floorDiv(z, 146097);
+		int dayOfEra = (int) (z - era * 146097);
+		int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+		int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+		int mp = (5 * dayOfYear + 2) / 153;
+		int day = dayOfYear - (153 * mp + 2) / 5 + 1;
+		int month = (mp < 10) ? mp + 3 : mp - 9;
+		int year = (int) (yearOfEra + era * 400) + ((month <= 2) ? 1 : 0);
+
+		offset = writeDigits(buffer, offset, year, 4);
+		buffer[offset++] = '-';
+		offset = writeDigits(buffer, offset, month, 2);
+		buffer[offset++] = '-';
+		offset = writeDigits(buffer, offset, day, 2);
+		buffer[offset++] = ' ';
+		offset = writeDigits(buffer, offset, millisOfDay / 3600000, 2);
+		buffer[offset++] = ':';
+		offset = writeDigits(buffer, offset, millisOfDay / 60000 % 60, 2);
+		buffer[offset++] = ':';
+		offset = writeDigits(buffer, offset, millisOfDay / 1000 % 60, 2);
+		buffer[offset++] = '.';
+		// the S pattern prints milliseconds without padding
+		offset = writeDigits(buffer, offset, millisOfDay % 1000, 1);
+		buffer[offset++] = ' ';
+		byte[] name = rules.isDaylightSavings(instant) ? daylightName : standardName;
+		System.arraycopy(name, 0, buffer, offset, name.length);
+		return offset + name.length;
+	}
+
+	private static int writeDigits(byte[] buffer, int offset, int value, int minDigits) {
+		int digits = 1;
+		for (int v = value; v >= 10; v /= 10) {
+			digits++;
+		}
+		digits = Math.max(digits, minDigits);
+		for (int i = offset + digits - 1; i >= offset; i--) {
+			buffer[i] = (byte) ('0' + value % 10);
+			value /= 10;
+		}
+		return offset + digits;
+	}
+
+	public Date parse(String text) throws ParseException {
+		return new Date(parseMillis(text));
+	}
+
+	public long parseMillis(String text) throws ParseException {
+		Fields fields = new Fields(text);
+		if (fields.parse()) {
+			ZoneName zone = resolveZoneName(fields.zone);
+			if (zone != UNKNOWN_ZONE) {
+				long epochDay = toEpochDay(fields.year, fields.month, fields.day);
+				long local = epochDay * MILLIS_PER_DAY + fields.hour * 3600000L + fields.minute * 60000L
+						+ fields.second * 1000L + fields.millis;
+				return local - zone.getOffset(local, fields) * 1000L;
+			}
+		}
+		return createFormat().parse(text).getTime();
+	}
+
+	private static long toEpochDay(int year, int month, int day) {
+		long y = (month <= 2) ? year - 1 : year;
+		long era = Math.floorDiv(y, 400);
+		int yearOfEra = (int) (y - era * 400);
+		int dayOfYear = (153 * ((month > 2) ? month - 3 : month + 9) + 2) / 5 + day - 1;
+		int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+		return era * 146097 + dayOfEra - 719468;
+	}
+
+	/**
+	 * Resolves zone names in the same order as {@link SimpleDateFormat}: the zone of this codec, the default zone and
+	 * then all known zones.
+	 */
+	private ZoneName resolveZoneName(String name) {
+		ZoneName zone = ZoneName.match(zoneNames, name);
+		if (zone == null && this != DEFAULT) {
+			zone = ZoneName.match(DEFAULT.zoneNames, name);
+		}
+		if (zone == null) {
+			zone = resolvedZoneNames.get(name);
+			if (zone == null) {
+				zone = UNKNOWN_ZONE;
+				for (String[] candidate : ZoneStrings.ENGLISH) {
+					ZoneName match = ZoneName.match(candidate, name);
+					if (match != null) {
+						zone = match;
+						break;
+					}
+				}
+				resolvedZoneNames.putIfAbsent(name, zone);
+			}
+		}
+		return zone;
+	}
+
+	private SimpleDateFormat createFormat() {
+		SimpleDateFormat format = new SimpleDateFormat(PATTERN, Locale.ENGLISH);
+		format.setTimeZone((TimeZone) timeZone.clone());
+		return format;
+	}
+
+	/**
+	 * Defers loading the names of all zones until a name of a zone other than the codec's is parsed.
+	 */
+	private static class ZoneStrings {
+
+		private static final String[][] ENGLISH = DateFormatSymbols.getInstance(Locale.ENGLISH).getZoneStrings();
+
+	}
+
+	private static class ZoneName {
+
+		/**
+		 * Returns the resolution of <code>name</code> if it is one of the standard or daylight names in
+		 * <code>zoneStrings</code>, null otherwise.
+		 */
+		static ZoneName match(String[] zoneStrings, String name) {
+			if (zoneStrings == null) {
+				return null;
+			}
+			for (int i = 1; i <= 4 && i < zoneStrings.length; i++) {
+				if (name.equalsIgnoreCase(zoneStrings[i])) {
+					boolean daylight = i >= 3;
+					boolean sameName = !daylight && i + 2 < zoneStrings.length
+							&& zoneStrings[i].equalsIgnoreCase(zoneStrings[i + 2]);
+					return new ZoneName(TimeZone.getTimeZone(zoneStrings[0]), daylight, sameName);
+				}
+			}
+			return null;
+		}
+
+		private final ZoneRules rules;
+
+		private final int daylightSavings;
+
+		private final boolean useZoneOffset;
+
+		ZoneName(TimeZone zone, boolean daylight, boolean sameName) {
+			this.rules = (zone != null) ? zone.toZoneId().getRules() : null;
+			this.daylightSavings = (zone != null && daylight) ? zone.getDSTSavings() / 1000 : 0;
+			// let the zone decide if the name does not tell whether daylight saving time is in effect
+			this.useZoneOffset = sameName || (daylight && daylightSavings == 0);
+		}
+
+		/**
+		 * Returns the offset in seconds to subtract from the local time <code>local</code>.
+		 */
+		int getOffset(long local, Fields fields) {
+			if (useZoneOffset) {
+				return rules.getOffset(
+						LocalDateTime.of(fields.year, fields.month, fields.day, fields.hour, fields.minute,
+								fields.second)).getTotalSeconds();
+			}
+			int standardOffset = rules.getStandardOffset(Instant.ofEpochMilli(local)).getTotalSeconds();
+			standardOffset = rules.getStandardOffset(Instant.ofEpochMilli(local - standardOffset * 1000L))
+					.getTotalSeconds();
+			return standardOffset + daylightSavings;
+		}
+
+	}
+
+	/**
+	 * Splits the text into fields. Anything that does not look like the output of {@link TimestampCodec#format(long)}
+	 * is rejected and left to {@link SimpleDateFormat}.
+	 */
+	private static class Fields {
+
+		private final String text;
+
+		private int position;
+
+		int year;
+
+		int month;
+
+		int day;
+
+		int hour;
+
+		int minute;
+
+		int second;
+
+		int millis;
+
+		String zone;
+
+		Fields(String text) {
+			this.text = text;
+		}
+
+		boolean parse() {
+			year = number(4, 4);
+			if (!skip('-')) {
+				return false;
+			}
+			month = number(1, 2);
+			if (!skip('-')) {
+				return false;
+			}
+			day = number(1, 2);
+			if (!skip(' ')) {
+				return false;
+			}
+			hour = number(1, 2);
+			if (!skip(':')) {
+				return false;
+			}
+			minute = number(1, 2);
+			if (!skip(':')) {
+				return false;
+			}
+			second = number(1, 2);
+			if (!skip('.')) {
+				return false;
+			}
+			millis = number(1, 3);
+			if (!skip(' ') || position >= text.length()) {
+				return false;
+			}
+			zone = text.substring(position);
+			return year >= MIN_FAST_YEAR && year <= MAX_FAST_YEAR && month >= 1 && month <= 12 && day >= 1
+					&& day <= lengthOfMonth(year, month) && hour >= 0 && hour <= 23 && minute >= 0 && minute <= 59
+					&& second >= 0 && second <= 59 && millis >= 0;
+		}
+
+		private static int lengthOfMonth(int year, int month) {
+			switch (month) {
+			case 2:
+				return ((year % 4 == 0 && year % 100 != 0) || year % 400 == 0) ? 29 : 28;
+			case 4:
+			case 6:
+			case 9:
+			case 11:
+				return 30;
+			default:
+				return 31;
+			}
+		}
+
+		private boolean skip(char c) {
+			if (position < text.length() && text.charAt(position) == c) {
+				position++;
+				return true;
+			}
+			return false;
+		}
+
+		/**
+		 * Returns the value of the next <code>minDigits</code> to <code>maxDigits</code> digits, or -1.
+		 */
+		private int number(int minDigits, int maxDigits) {
+			int value = 0;
+			int digits = 0;
+			while (position < text.length() && digits < maxDigits) {
+				char c = text.charAt(position);
+				if (c < '0' || c > '9') {
+					break;
+				}
+				value = value * 10 + (c - '0');
+				digits++;
+				position++;
+			}
+			return (digits >= minDigits) ? value : -1;
+		}
+
+	}
+
+}
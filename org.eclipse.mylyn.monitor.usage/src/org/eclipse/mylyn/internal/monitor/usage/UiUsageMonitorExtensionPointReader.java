@@ -11,6 +11,8 @@
 
 package org.eclipse.mylyn.internal.monitor.usage;
 
+import java.util.Locale;
+
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IConfigurationElement;
 import org.eclipse.core.runtime.IExtension;
@@ -20,6 +22,7 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.mylyn.commons.core.StatusHandler;
+import org.eclipse.mylyn.monitor.core.InteractionEvent.Kind;
 import org.eclipse.mylyn.monitor.usage.AbstractStudyBackgroundPage;
 import org.eclipse.mylyn.monitor.usage.AbstractStudyQuestionnairePage;
 
@@ -70,10 +73,28 @@ class UiUsageMonitorExtensionPointReader {
 
 	public static final String ELEMENT_MONITORS_BROWSER_URL = "browserUrlFilter"; //$NON-NLS-1$
 
+	public static final String ELEMENT_MONITORS_LOG_DURABILITY = "logDurability"; //$NON-NLS-1$
+
+	public static final String ELEMENT_MONITORS_LOG_COMMIT_INTERVAL = "logCommitInterval"; //$NON-NLS-1$
+
+	public static final String ELEMENT_MONITORS_LOG_COMMIT_EVENTS = "logCommitEvents"; //$NON-NLS-1$
+
 	public static final String ELEMENT_FILTER = "filter"; //$NON-NLS-1$
 
 	public static final String ELEMENT_FILTER_ID_PREFIX = "idPrefix"; //$NON-NLS-1$
 
+	public static final String ELEMENT_SAMPLING = "sampling"; //$NON-NLS-1$
+
+	public static final String ELEMENT_SAMPLING_KIND = "kind"; //$NON-NLS-1$
+
+	public static final String ELEMENT_SAMPLING_ORIGIN_ID_PREFIX = "originIdPrefix"; //$NON-NLS-1$
+
+	public static final String ELEMENT_SAMPLING_COALESCE_WINDOW = "coalesceWindow"; //$NON-NLS-1$
+
+	public static final String ELEMENT_SAMPLING_MAX_EVENTS_PER_SECOND = "maxEventsPerSecond"; //$NON-NLS-1$
+
+	public static final String ELEMENT_SAMPLING_BURST = "burst"; //$NON-NLS-1$
+
 	private boolean extensionsRead = false;
 
 	private StudyParameters studyParameters;
@@ -107,6 +128,8 @@ class UiUsageMonitorExtensionPointReader {
 								readMonitors(element);
 							} else if (element.getName().compareTo(ELEMENT_FILTER) == 0) {
 								readFilter(element);
+							} else if (element.getName().compareTo(ELEMENT_SAMPLING) == 0) {
+								readSampling(element);
 							}
 						}
 						studyParameters.setCustomizingPlugin(extension.getContributor().getName());
@@ -187,6 +210,38 @@ class UiUsageMonitorExtensionPointReader {
 
 	}
 
+	private void readSampling(IConfigurationElement element) {
+		Kind kind = null;
+		String kindString = element.getAttribute(ELEMENT_SAMPLING_KIND);
+		if (kindString != null) {
+			kind = Kind.fromString(kindString.toLowerCase(Locale.ENGLISH));
+			if (kind == null) {
+				StatusHandler.log(new Status(IStatus.WARNING, UiUsageMonitorPlugin.ID_PLUGIN,
+						"Unknown event kind in sampling rule: " + kindString)); //$NON-NLS-1$
+				return;
+			}
+		}
+		try {
+			long window = 0;
+			if (element.getAttribute(ELEMENT_SAMPLING_COALESCE_WINDOW) != null) {
+				window = Long.parseLong(element.getAttribute(ELEMENT_SAMPLING_COALESCE_WINDOW));
+			}
+			double rate = 0;
+			if (element.getAttribute(ELEMENT_SAMPLING_MAX_EVENTS_PER_SECOND) != null) {
+				rate = Double.parseDouble(element.getAttribute(ELEMENT_SAMPLING_MAX_EVENTS_PER_SECOND));
+			}
+			int burst = 1;
+			if (element.getAttribute(ELEMENT_SAMPLING_BURST) != null) {
+				burst = Integer.parseInt(element.getAttribute(ELEMENT_SAMPLING_BURST));
+			}
+			studyParameters.addSamplingRule(new SamplingRule(kind,
+					element.getAttribute(ELEMENT_SAMPLING_ORIGIN_ID_PREFIX), window, rate, burst));
+		} catch (NumberFormatException e) {
+			StatusHandler.log(new Status(IStatus.WARNING, UiUsageMonitorPlugin.ID_PLUGIN,
+					"Invalid sampling rule", e)); //$NON-NLS-1$
+		}
+	}
+
 	private void readMonitors(IConfigurationElement element) throws CoreException {
 		// TODO: This should parse a list of filters but right now it takes
 		// the
@@ -194,5 +249,28 @@ class UiUsageMonitorExtensionPointReader {
 		// ArrayList<String> urlList = new ArrayList<String>();
 		String urlList = element.getAttribute(ELEMENT_MONITORS_BROWSER_URL);
 		studyParameters.setAcceptedUrlList(urlList);
+
+		String durability = element.getAttribute(ELEMENT_MONITORS_LOG_DURABILITY);
+		if (durability != null) {
+			LogDurability logDurability = LogDurability.fromString(durability);
+			if (logDurability == null) {
+				StatusHandler.log(new Status(IStatus.WARNING, UiUsageMonitorPlugin.ID_PLUGIN,
+						"Unknown log durability: " + durability)); //$NON-NLS-1$
+			}
+			studyParameters.setLogDurability(logDurability);
+		}
+		try {
+			if (element.getAttribute(ELEMENT_MONITORS_LOG_COMMIT_INTERVAL) != null) {
+				studyParameters.setLogCommitInterval(Long.parseLong(element.getAttribute(
+						ELEMENT_MONITORS_LOG_COMMIT_INTERVAL)));
+			}
+			if (element.getAttribute(ELEMENT_MONITORS_LOG_COMMIT_EVENTS) != null) {
+				studyParameters.setLogCommitEvents(Integer.parseInt(element.getAttribute(
+						ELEMENT_MONITORS_LOG_COMMIT_EVENTS)));
+			}
+		} catch (NumberFormatException e) {
+			StatusHandler.log(new Status(IStatus.WARNING, UiUsageMonitorPlugin.ID_PLUGIN,
+					"Invalid log commit setting", e)); //$NON-NLS-1$
+		}
 	}
 }
\ No newline at end of file
@@ -16,6 +16,10 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.IStatus;
@@ -76,10 +80,18 @@ public class UiUsageMonitorPlugin extends AbstractUIPlugin {
 
 	public static final String MONITOR_LOG_NAME = "monitor-log"; //$NON-NLS-1$
 
+	private static final String ARCHIVE_CACHE_DIR = "archive-cache"; //$NON-NLS-1$
+
+	private static final String USAGE_STATISTICS_FILE = "usage-statistics"; //$NON-NLS-1$
+
+	private static final String REPORT_THREAD_NAME = "Mylyn Usage Report"; //$NON-NLS-1$
+
 	public static final String ID_PLUGIN = "org.eclipse.mylyn.monitor.usage"; //$NON-NLS-1$
 
 	private InteractionEventLogger interactionLogger;
 
+	private IncrementalUsageStatistics usageStatistics;
+
 	private PreferenceChangeMonitor preferenceMonitor;
 
 	private PerspectiveChangeMonitor perspectiveMonitor;
@@ -112,6 +124,10 @@ public class UiUsageMonitorPlugin extends AbstractUIPlugin {
 
 	private boolean isSubmissionWizardOpen;
 
+	private ExecutorService reportExecutor;
+
+	private int reportThreads;
+
 	public static class UiUsageMonitorStartup implements IStartup {
 
 		public void earlyStartup() {
@@ -126,6 +142,11 @@ public class UiUsageMonitorPlugin extends AbstractUIPlugin {
 
 	private void initDefaultPrefs() {
 		getPreferenceStore().setDefault(MonitorPreferenceConstants.PREF_MONITORING_OBFUSCATE, true);
+		getPreferenceStore().setDefault(MonitorPreferenceConstants.PREF_MONITORING_WRITE_BATCH_SIZE,
+				InteractionEventWriter.DEFAULT_BATCH_SIZE);
+		getPreferenceStore().setDefault(MonitorPreferenceConstants.PREF_MONITORING_FLUSH_INTERVAL,
+				InteractionEventWriter.DEFAULT_FLUSH_INTERVAL);
+		getPreferenceStore().setDefault(MonitorPreferenceConstants.PREF_REPORT_THREADS, 0);
 
 		if (!getPreferenceStore().contains(MonitorPreferenceConstants.PREF_MONITORING_INITIALLY_ENABLED)) {
 			getPreferenceStore().setValue(MonitorPreferenceConstants.PREF_MONITORING_INITIALLY_ENABLED, true);
@@ -185,6 +206,20 @@ public class UiUsageMonitorPlugin extends AbstractUIPlugin {
 					}
 
 					interactionLogger = new InteractionEventLogger(getMonitorLogFile());
+					interactionLogger.setBatchSize(getPreferenceStore().getInt(
+							MonitorPreferenceConstants.PREF_MONITORING_WRITE_BATCH_SIZE));
+					interactionLogger.setFlushInterval(getPreferenceStore().getLong(
+							MonitorPreferenceConstants.PREF_MONITORING_FLUSH_INTERVAL));
+					interactionLogger.setBinaryFormat(getPreferenceStore().getBoolean(
+							MonitorPreferenceConstants.PREF_MONITORING_BINARY_FORMAT));
+					interactionLogger.setDurability(studyParameters.getLogDurability(),
+							studyParameters.getLogCommitInterval(), studyParameters.getLogCommitEvents());
+					interactionLogger.setSamplingRules(studyParameters.getSamplingRules());
+					interactionLogger.setArchiveCache(new InteractionEventArchiveCache(getStateLocation().append(
+							ARCHIVE_CACHE_DIR).toFile(), InteractionEventArchiveCache.DEFAULT_MAX_SIZE));
+					usageStatistics = new IncrementalUsageStatistics(getMonitorLogFile(), getStateLocation().append(
+							USAGE_STATISTICS_FILE).toFile());
+					interactionLogger.addLogListener(usageStatistics);
 					perspectiveMonitor = new PerspectiveChangeMonitor();
 					activityMonitor = new ActivityChangeMonitor();
 					windowMonitor = new WindowChangeMonitor();
@@ -318,6 +353,12 @@ public class UiUsageMonitorPlugin extends AbstractUIPlugin {
 	@Override
 	public void stop(BundleContext context) throws Exception {
 		stopMonitoring();
+		synchronized (this) {
+			if (reportExecutor != null) {
+				reportExecutor.shutdown();
+				reportExecutor = null;
+			}
+		}
 		super.stop(context);
 		plugin = null;
 	}
@@ -423,6 +464,48 @@ public class UiUsageMonitorPlugin extends AbstractUIPlugin {
 		return interactionLogger;
 	}
 
+	/**
+	 * Returns the command usage table of the monitor log that is maintained as events are logged.
+	 */
+	public IncrementalUsageStatistics getUsageStatistics() {
+		return usageStatistics;
+	}
+
+	/**
+	 * Lets <code>generator</code> read the files of several users concurrently on a shared pool, unless a single
+	 * report thread is configured.
+	 * 
+	 * @see MonitorPreferenceConstants#PREF_REPORT_THREADS
+	 * @see ReportGenerator#setExecutor(Executor, int)
+	 */
+	public void configureReportGenerator(ReportGenerator generator) {
+		int threads = getPreferenceStore().getInt(MonitorPreferenceConstants.PREF_REPORT_THREADS);
+		if (threads <= 0) {
+			threads = Runtime.getRuntime().availableProcessors();
+		}
+		if (threads > 1) {
+			// each pending user holds its events in memory, do not read further ahead than the threads can
+			generator.setExecutor(getReportExecutor(threads), threads);
+		}
+	}
+
+	private synchronized Executor getReportExecutor(int threads) {
+		if (reportExecutor == null || reportThreads != threads) {
+			if (reportExecutor != null) {
+				reportExecutor.shutdown();
+			}
+			reportExecutor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+				public Thread newThread(Runnable r) {
+					Thread thread = new Thread(r, REPORT_THREAD_NAME);
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+			reportThreads = threads;
+		}
+		return reportExecutor;
+	}
+
 	public StudyParameters getStudyParameters() {
 		return studyParameters;
 	}
@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.internal.monitor.usage.collectors;
+
+import org.eclipse.mylyn.internal.monitor.core.collection.IUsageCollector;
+
+/**
+ * A collector whose aggregates can be computed in parts, e.g. for each user on a separate thread, and combined
+ * afterwards. A partial is created with {@link #newPartial()}, consumes a share of the events and is then merged into
+ * the collector that it was created from. Merging the partials of consecutive shares in order yields the same
+ * aggregates as consuming all events with a single collector, provided that the shares hold disjoint sets of users.
+ * Shares that split the events of a user by time are supported, but state that is carried from one event of a user
+ * to the next, such as the active perspective or task, starts out unknown in the later partial.
+ * <p>
+ * Partials are confined to the thread that feeds them events, {@link #merge(MergeableUsageCollector)} must not run
+ * concurrently with other methods of either collector.
+ *
+ * @see org.eclipse.mylyn.internal.monitor.usage.ReportGenerator#setExecutor(java.util.concurrent.Executor, int)
+ */
+public interface MergeableUsageCollector extends IUsageCollector {
+
+	/**
+	 * Returns an empty collector with the same configuration as this collector.
+	 */
+	public abstract MergeableUsageCollector newPartial();
+
+	/**
+	 * Adds the aggregates of <code>partial</code>, which must have been created by {@link #newPartial()} of this
+	 * collector and whose events follow the events consumed by this collector so far. <code>partial</code> must not be
+	 * used afterwards.
+	 */
+	public abstract void merge(MergeableUsageCollector partial);
+
+}
@@ -25,7 +25,6 @@ import java.util.Map;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.mylyn.commons.core.StatusHandler;
-import org.eclipse.mylyn.internal.monitor.core.collection.IUsageCollector;
 import org.eclipse.mylyn.internal.monitor.core.collection.PercentUsageComparator;
 import org.eclipse.mylyn.internal.monitor.ui.PerspectiveChangeMonitor;
 import org.eclipse.mylyn.internal.monitor.usage.UiUsageMonitorPlugin;
@@ -36,7 +35,7 @@ import org.eclipse.osgi.util.NLS;
  * @author Mik Kersten
  * @author Leah Findlater TODO: put unclassified events in dummy perspective
  */
-public class PerspectiveUsageCollector implements IUsageCollector {
+public class PerspectiveUsageCollector implements MergeableUsageCollector {
 
 	private final Map<String, Integer> perspectiveUsage = new HashMap<String, Integer>();
 
@@ -65,6 +64,36 @@ public class PerspectiveUsageCollector implements IUsageCollector {
 		perspectiveUsage.put(currentPerspective, perspectiveUsage.get(currentPerspective) + 1);
 	}
 
+	public MergeableUsageCollector newPartial() {
+		return new PerspectiveUsageCollector();
+	}
+
+	public void merge(MergeableUsageCollector partial) {
+		PerspectiveUsageCollector other = (PerspectiveUsageCollector) partial;
+		// events that the partial consumed before its first perspective activation
+		// belong to the perspective that is active at the end of this collector
+		if (perspectiveUsage.containsKey(currentPerspective)) {
+			perspectiveUsage.put(currentPerspective, perspectiveUsage.get(currentPerspective)
+					+ other.numUnassociatedEvents);
+		} else {
+			numUnassociatedEvents += other.numUnassociatedEvents;
+		}
+		for (Map.Entry<String, Integer> entry : other.perspectiveUsage.entrySet()) {
+			Integer usage = perspectiveUsage.get(entry.getKey());
+			if (usage == null) {
+				perspectiveUsage.put(entry.getKey(), entry.getValue());
+			} else {
+				// the first activation in the partial counted 1 that this
+				// collector already counted
+				perspectiveUsage.put(entry.getKey(), usage + entry.getValue() - 1);
+			}
+		}
+		if (!other.perspectiveUsage.isEmpty()) {
+			currentPerspective = other.currentPerspective;
+		}
+		numEvents += other.numEvents;
+	}
+
 	public List<String> getReport() {
 		return getReport(true);
 	}
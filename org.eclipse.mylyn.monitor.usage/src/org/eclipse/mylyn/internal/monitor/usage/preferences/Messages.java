@@ -16,24 +16,38 @@ import org.eclipse.osgi.util.NLS;
 public class Messages extends NLS {
 	private static final String BUNDLE_NAME = "org.eclipse.mylyn.internal.monitor.usage.preferences.messages"; //$NON-NLS-1$
 
+	public static String UsageDataPreferencePage_Bytes_Written;
+
 	public static String UsageDataPreferencePage_Days;
 
+	public static String UsageDataPreferencePage_Dropped_Events;
+
 	public static String UsageDataPreferencePage_Enable_Logging_To;
 
 	public static String UsageDataPreferencePage_Enable_Submission_Every;
 
+	public static String UsageDataPreferencePage_Events_Observed;
+
 	public static String UsageDataPreferencePage_Events_Since_Upload;
 
 	public static String UsageDataPreferencePage_If_Enabled_Mylyn_Monitors;
 
 	public static String UsageDataPreferencePage_Learn_More;
 
+	public static String UsageDataPreferencePage_Median_X_99th_Percentile_Y;
+
 	public static String UsageDataPreferencePage_Message_Digest_One_Way_Hash;
 
 	public static String UsageDataPreferencePage_Monitoring;
 
+	public static String UsageDataPreferencePage_Monitoring_Overhead;
+
 	public static String UsageDataPreferencePage_Obfuscate_Elements_Using;
 
+	public static String UsageDataPreferencePage_Queue_Depth;
+
+	public static String UsageDataPreferencePage_Serialization_Time;
+
 	public static String UsageDataPreferencePage_Total_Events;
 
 	public static String UsageDataPreferencePage_Unable_To_Open_X;
@@ -43,6 +57,12 @@ public class Messages extends NLS {
 	public static String UsageDataPreferencePage_Url_Not_Found;
 
 	public static String UsageDataPreferencePage_Usage_Feedback;
+
+	public static String UsageDataPreferencePage_Write_Latency;
+
+	public static String UsageDataPreferencePage_X_Microseconds;
+
+	public static String UsageDataPreferencePage_X_Written_Y_Per_Second;
 	static {
 		// initialize resource bundle
 		NLS.initializeMessages(BUNDLE_NAME, Messages.class);
@@ -24,6 +24,8 @@ import org.eclipse.jface.layout.GridLayoutFactory;
 import org.eclipse.jface.preference.PreferencePage;
 import org.eclipse.jface.resource.JFaceResources;
 import org.eclipse.mylyn.commons.ui.compatibility.CommonColors;
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventLogger;
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventLoggerMetrics;
 import org.eclipse.mylyn.internal.monitor.usage.InteractionEventObfuscator;
 import org.eclipse.mylyn.internal.monitor.usage.MonitorPreferenceConstants;
 import org.eclipse.mylyn.internal.monitor.usage.StudyParameters;
@@ -115,6 +117,7 @@ public class UsageDataPreferencePage extends PreferencePage implements IWorkbenc
 
 		createLogFileSection(container);
 		createUsageSection(container);
+		createOverheadSection(container);
 		updateEnablement();
 
 		Dialog.applyDialogFont(container);
@@ -286,6 +289,38 @@ public class UsageDataPreferencePage extends PreferencePage implements IWorkbenc
 
 	}
 
+	private void createOverheadSection(Composite parent) {
+		InteractionEventLogger logger = UiUsageMonitorPlugin.getDefault().getInteractionLogger();
+		if (logger == null) {
+			return;
+		}
+		InteractionEventLoggerMetrics metrics = logger.getMetrics();
+
+		Group group = new Group(parent, SWT.SHADOW_ETCHED_IN);
+		group.setText(Messages.UsageDataPreferencePage_Monitoring_Overhead);
+		group.setLayout(new GridLayout(2, false));
+		group.setLayoutData(new GridData(GridData.FILL_HORIZONTAL));
+
+		createMetric(group, Messages.UsageDataPreferencePage_Events_Observed, NLS.bind(
+				Messages.UsageDataPreferencePage_X_Written_Y_Per_Second, new Object[] { metrics.getEventsObserved(),
+						metrics.getEventsWritten(), String.format("%.1f", metrics.getEventsPerSecond()) })); //$NON-NLS-1$
+		createMetric(group, Messages.UsageDataPreferencePage_Bytes_Written, "" + metrics.getBytesWritten()); //$NON-NLS-1$
+		createMetric(group, Messages.UsageDataPreferencePage_Serialization_Time, NLS.bind(
+				Messages.UsageDataPreferencePage_X_Microseconds, metrics.getSerializationTime()));
+		createMetric(group, Messages.UsageDataPreferencePage_Write_Latency, NLS.bind(
+				Messages.UsageDataPreferencePage_Median_X_99th_Percentile_Y, metrics.getWriteLatencyPercentile(0.5),
+				metrics.getWriteLatencyPercentile(0.99)));
+		createMetric(group, Messages.UsageDataPreferencePage_Dropped_Events, "" + metrics.getEventsDropped()); //$NON-NLS-1$
+		createMetric(group, Messages.UsageDataPreferencePage_Queue_Depth, "" + metrics.getQueueDepth()); //$NON-NLS-1$
+	}
+
+	private void createMetric(Composite parent, String name, String value) {
+		Label label = new Label(parent, SWT.NULL);
+		label.setText(name);
+		Label valueLabel = new Label(parent, SWT.NULL);
+		valueLabel.setText(value);
+	}
+
 	@Override
 	public void performDefaults() {
 		super.performDefaults();
@@ -169,6 +169,9 @@ public class UsageDataOverviewPage extends WizardPage {
 	private void displayUsageData(IProgressMonitor monitor) {
 		List<IUsageCollector> collectors = new ArrayList<IUsageCollector>();
 		reportGenerator = new ReportGenerator(UiUsageMonitorPlugin.getDefault().getInteractionLogger(), collectors);
+		UiUsageMonitorPlugin.getDefault().configureReportGenerator(reportGenerator);
+		// the usage table of the log is maintained as events are logged
+		reportGenerator.setUsageStatistics(UiUsageMonitorPlugin.getDefault().getUsageStatistics());
 		List<File> files = new ArrayList<File>();
 		File monitorFile = UiUsageMonitorPlugin.getDefault().getMonitorLogFile();
 		files.add(monitorFile);
@@ -22,6 +22,7 @@ import java.util.List;
 
 import org.eclipse.jface.layout.GridDataFactory;
 import org.eclipse.jface.wizard.WizardPage;
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventLogIndex;
 import org.eclipse.mylyn.internal.monitor.usage.MonitorFileRolloverJob;
 import org.eclipse.mylyn.internal.monitor.usage.StudyParameters;
 import org.eclipse.mylyn.internal.monitor.usage.UiUsageMonitorPlugin;
@@ -88,6 +89,7 @@ public class UsageFileSelectionWizardPage extends WizardPage {
 				}
 				for (File file : files) {
 					if (file.getName().contains(MonitorFileRolloverJob.BACKUP_FILE_SUFFIX)
+							&& !file.getName().endsWith(InteractionEventLogIndex.INDEX_EXTENSION)
 							&& !fileContents.contains(file.getName())) {
 						backupFiles.add(file);
 					}
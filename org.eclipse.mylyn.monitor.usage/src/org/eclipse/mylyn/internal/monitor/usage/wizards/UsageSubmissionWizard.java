@@ -59,6 +59,8 @@ public class UsageSubmissionWizard extends Wizard implements INewWizard {
 
 	public static final String STATS = "usage"; //$NON-NLS-1$
 
+	private static final int PROCESS_BATCH_SIZE = 1000;
+
 	private boolean displayBackgroundPage = false;
 
 	private boolean displayFileSelectionPage = false;
@@ -357,18 +359,22 @@ public class UsageSubmissionWizard extends Wizard implements INewWizard {
 		}
 		InteractionEventLogger logger = new InteractionEventLogger(processedFile);
 		logger.startMonitoring();
-		List<InteractionEvent> eventList = logger.getHistoryFromFile(monitorFile);
-
 		Collection<String> filteredIds = studyParameters.getFilteredIds();
 
-		if (eventList.size() > 0) {
-			for (InteractionEvent event : eventList) {
-
-				if (shouldIncludeEvent(event, filteredIds)) {
-					logger.interactionObserved(event);
+		// stream the events and log them in batches so that the heap use does not depend on the size of the log
+		List<InteractionEvent> includedEvents = new ArrayList<InteractionEvent>(PROCESS_BATCH_SIZE);
+		for (InteractionEvent event : logger.getHistory(monitorFile)) {
+			if (shouldIncludeEvent(event, filteredIds)) {
+				includedEvents.add(event);
+				if (includedEvents.size() == PROCESS_BATCH_SIZE) {
+					logger.interactionsObserved(includedEvents);
+					includedEvents.clear();
 				}
 			}
 		}
+		if (includedEvents.size() > 0) {
+			logger.interactionsObserved(includedEvents);
+		}
 		logger.stopMonitoring();
 		return processedFile;
 	}
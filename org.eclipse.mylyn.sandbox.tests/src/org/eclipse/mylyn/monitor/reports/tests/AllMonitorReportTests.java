@@ -26,6 +26,7 @@ public class AllMonitorReportTests {
 		// TODO: Add tests as they are developed
 		suite.addTestSuite(DataOverviewCollectorTest.class);
 		suite.addTestSuite(ContextParsingTest.class);
+		suite.addTestSuite(FocusedUiCollectorMergeTest.class);
 		// $JUnit-END$
 
 		return suite;
@@ -0,0 +1,200 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.monitor.reports.tests;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.eclipse.mylyn.context.ui.AbstractFocusViewAction;
+import org.eclipse.mylyn.internal.monitor.reports.collectors.FocusedUiUsageAnalysisCollector;
+import org.eclipse.mylyn.internal.monitor.reports.collectors.FocusedUiViewUsageCollector;
+import org.eclipse.mylyn.internal.monitor.usage.collectors.MergeableUsageCollector;
+import org.eclipse.mylyn.internal.tasks.ui.actions.TaskActivateAction;
+import org.eclipse.mylyn.internal.tasks.ui.actions.TaskDeactivateAction;
+import org.eclipse.mylyn.monitor.core.InteractionEvent;
+import org.eclipse.mylyn.monitor.core.InteractionEvent.Kind;
+
+public class FocusedUiCollectorMergeTest extends TestCase {
+
+	private static final String EXPLORER = "org.eclipse.jdt.ui.PackageExplorer";
+
+	private static final String EDITOR = "org.eclipse.jdt.ui.CompilationUnitEditor";
+
+	private final List<InteractionEvent> events = new ArrayList<InteractionEvent>();
+
+	private final List<Integer> userIds = new ArrayList<Integer>();
+
+	private final List<Integer> userStarts = new ArrayList<Integer>();
+
+	private final List<File> directories = new ArrayList<File>();
+
+	private long time = 1267401600000L;
+
+	@Override
+	protected void setUp() throws Exception {
+		for (int user = 1; user <= 3; user++) {
+			userStarts.add(events.size());
+			addSession(user, 6000);
+			add(user, command(TaskActivateAction.ID));
+			add(user, new InteractionEvent(Kind.PREFERENCE, "null", "null", AbstractFocusViewAction.PREF_ID_PREFIX
+					+ EXPLORER, "null", "true", 1f, new Date(time), new Date(time)));
+			addSession(user, 12000 + user);
+			add(user, new InteractionEvent(Kind.PREFERENCE, "null", "null", AbstractFocusViewAction.PREF_ID_PREFIX
+					+ EXPLORER, "null", "false", 1f, new Date(time), new Date(time)));
+			add(user, command(TaskDeactivateAction.ID));
+			addSession(user, 500);
+		}
+		userStarts.add(events.size());
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		for (File directory : directories) {
+			File[] files = directory.listFiles();
+			if (files != null) {
+				for (File file : files) {
+					file.delete();
+				}
+			}
+			directory.delete();
+		}
+	}
+
+	public void testMergeUsageAnalysis() throws Exception {
+		FocusedUiUsageAnalysisCollector serial = new FocusedUiUsageAnalysisCollector();
+		consume(serial, 0, events.size());
+
+		FocusedUiUsageAnalysisCollector merged = new FocusedUiUsageAnalysisCollector();
+		mergeByUser(merged);
+
+		for (int user = 1; user <= 3; user++) {
+			assertTrue(serial.acceptUser(user));
+			assertEquals(serial.getNumBaselineEdits(user), merged.getNumBaselineEdits(user));
+			assertEquals(serial.getNumMylynSelections(user), merged.getNumMylynSelections(user));
+			assertEquals(serial.getMylynRatio(user), merged.getMylynRatio(user));
+			assertEquals(serial.getStartDate(user), merged.getStartDate(user));
+			assertEquals(serial.getEndDate(user), merged.getEndDate(user));
+		}
+		assertEquals(serial.getReport(), merged.getReport());
+		assertEquals(exportAsCSVFile(serial), exportAsCSVFile(merged));
+	}
+
+	public void testMergeViewUsage() {
+		FocusedUiViewUsageCollector serial = new FocusedUiViewUsageCollector();
+		consume(serial, 0, events.size());
+
+		FocusedUiViewUsageCollector merged = new FocusedUiViewUsageCollector();
+		mergeByUser(merged);
+
+		assertEquals(serial.getPlainTextReport(), merged.getPlainTextReport());
+		assertEquals(serial.getFilteredViewSelections(), merged.getFilteredViewSelections());
+		for (int user = 1; user <= 3; user++) {
+			assertEquals(serial.getFilteredSelections(user, EXPLORER), merged.getFilteredSelections(user, EXPLORER));
+		}
+	}
+
+	public void testManyInterleavedUsers() {
+		events.clear();
+		userIds.clear();
+		for (int i = 0; i < 4000; i++) {
+			time += 1000;
+			Date date = new Date(time);
+			// user ids that are not contiguous
+			int user = 1000 + (i % 40) * 37;
+			add(user, new InteractionEvent(Kind.EDIT, "java", "A.java", EDITOR, "null", "edit", 1f, date, date));
+		}
+		FocusedUiUsageAnalysisCollector serial = new FocusedUiUsageAnalysisCollector();
+		consume(serial, 0, events.size());
+
+		FocusedUiUsageAnalysisCollector merged = new FocusedUiUsageAnalysisCollector();
+		for (int start = 0; start < events.size(); start += 1500) {
+			MergeableUsageCollector partial = merged.newPartial();
+			consume(partial, start, Math.min(start + 1500, events.size()));
+			merged.merge(partial);
+		}
+
+		for (int i = 0; i < 40; i++) {
+			int user = 1000 + i * 37;
+			assertEquals(100, serial.getNumBaselineEdits(user));
+			assertEquals(100, merged.getNumBaselineEdits(user));
+			assertEquals(serial.getStartDate(user), merged.getStartDate(user));
+			assertEquals(serial.getEndDate(user), merged.getEndDate(user));
+		}
+		assertEquals(0, serial.getNumBaselineEdits(1001));
+		assertFalse(serial.acceptUser(1001));
+	}
+
+	private void mergeByUser(MergeableUsageCollector collector) {
+		for (int i = 0; i < userStarts.size() - 1; i++) {
+			MergeableUsageCollector partial = collector.newPartial();
+			consume(partial, userStarts.get(i), userStarts.get(i + 1));
+			collector.merge(partial);
+		}
+	}
+
+	private void consume(MergeableUsageCollector collector, int start, int end) {
+		for (int i = start; i < end; i++) {
+			collector.consumeEvent(events.get(i), userIds.get(i));
+		}
+	}
+
+	private String exportAsCSVFile(FocusedUiUsageAnalysisCollector collector) throws Exception {
+		File directory = File.createTempFile("mylyn-usage", "");
+		directory.delete();
+		directory.mkdirs();
+		directories.add(directory);
+		collector.exportAsCSVFile(directory.getPath());
+		File file = new File(directory, "mylyn-usage.csv");
+		byte[] content = new byte[(int) file.length()];
+		FileInputStream in = new FileInputStream(file);
+		try {
+			int offset = 0;
+			while (offset < content.length) {
+				offset += in.read(content, offset, content.length - offset);
+			}
+		} finally {
+			in.close();
+		}
+		return new String(content, "UTF-8");
+	}
+
+	/**
+	 * Adds selections in the explorer and edits, with a break after every thousand events.
+	 */
+	private void addSession(int user, int count) {
+		for (int i = 0; i < count; i++) {
+			time += (i % 1000 == 999) ? 10 * 60 * 1000 : 1000;
+			Date date = new Date(time);
+			if (i % 3 == 0) {
+				add(user, new InteractionEvent(Kind.EDIT, "java", "A.java", EDITOR, "null", "edit", 1f, date, date));
+			} else {
+				add(user, new InteractionEvent(Kind.SELECTION, "java", "A.java", EXPLORER, "null", "select", 1f, date,
+						date));
+			}
+		}
+	}
+
+	private InteractionEvent command(String id) {
+		return new InteractionEvent(Kind.COMMAND, "null", "null", id, "null", "", 1f, new Date(time), new Date(time));
+	}
+
+	private void add(int user, InteractionEvent event) {
+		events.add(event);
+		userIds.add(user);
+	}
+
+}
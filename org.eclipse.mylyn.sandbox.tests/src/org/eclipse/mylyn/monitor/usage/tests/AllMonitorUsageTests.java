@@ -23,6 +23,27 @@ public class AllMonitorUsageTests {
 		TestSuite suite = new TestSuite("Test for org.eclipse.mylyn.monitor.ui.usage.tests");
 		suite.addTestSuite(DefaultPreferenceConfigTest.class);
 		suite.addTestSuite(InteractionEventLoggerTest.class);
+		suite.addTestSuite(InteractionEventSerializerTest.class);
+		suite.addTestSuite(InteractionEventBinaryFormatTest.class);
+		suite.addTestSuite(InteractionEventLogDurabilityTest.class);
+		suite.addTestSuite(InteractionEventQueueTest.class);
+		suite.addTestSuite(InteractionEventObfuscatorTest.class);
+		suite.addTestSuite(TimestampCodecTest.class);
+		suite.addTestSuite(InteractionEventSamplerTest.class);
+		suite.addTestSuite(InteractionEventLoggerMetricsTest.class);
+		suite.addTestSuite(InteractionEventLogReaderTest.class);
+		suite.addTestSuite(InteractionEventParserTest.class);
+		suite.addTestSuite(InteractionEventCursorTest.class);
+		suite.addTestSuite(InteractionEventParallelLoaderTest.class);
+		suite.addTestSuite(InteractionEventArchiveWriterTest.class);
+		suite.addTestSuite(InteractionEventLogIndexTest.class);
+		suite.addTestSuite(InteractionEventLogRecoveryTest.class);
+		suite.addTestSuite(InteractionEventStoreTest.class);
+		suite.addTestSuite(InteractionEventMergeCursorTest.class);
+		suite.addTestSuite(InteractionEventArchiveCacheTest.class);
+		suite.addTestSuite(ReportGeneratorTest.class);
+		suite.addTestSuite(PerspectiveUsageCollectorTest.class);
+		suite.addTestSuite(IncrementalUsageStatisticsTest.class);
 		return suite;
 	}
 
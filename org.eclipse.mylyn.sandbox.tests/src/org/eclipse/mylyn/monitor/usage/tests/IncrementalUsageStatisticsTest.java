@@ -0,0 +1,216 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.monitor.usage.tests;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.mylyn.internal.monitor.core.collection.IUsageCollector;
+import org.eclipse.mylyn.internal.monitor.core.collection.InteractionEventSummary;
+import org.eclipse.mylyn.internal.monitor.usage.IncrementalUsageStatistics;
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventLogger;
+import org.eclipse.mylyn.internal.monitor.usage.ReportGenerator;
+import org.eclipse.mylyn.internal.monitor.usage.collectors.PerspectiveUsageCollector;
+import org.eclipse.mylyn.monitor.core.InteractionEvent;
+import org.eclipse.mylyn.monitor.core.InteractionEvent.Kind;
+
+public class IncrementalUsageStatisticsTest extends TestCase {
+
+	private File file;
+
+	private File checkpointFile;
+
+	private long time = 1267401600000L;
+
+	/**
+	 * The number of distinct events logged by kind and origin.
+	 */
+	private final Map<String, Integer> expected = new HashMap<String, Integer>();
+
+	@Override
+	protected void setUp() throws Exception {
+		file = File.createTempFile("monitor-log", ".xml");
+		checkpointFile = File.createTempFile("usage-statistics", "");
+		checkpointFile.delete();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		file.delete();
+		checkpointFile.delete();
+	}
+
+	public void testLiveEvents() throws Exception {
+		IncrementalUsageStatistics statistics = new IncrementalUsageStatistics(file, checkpointFile);
+		InteractionEventLogger logger = createLogger(statistics, false);
+		assertNull(statistics.getUsageTable());
+		logger.startMonitoring();
+		try {
+			log(logger, 300);
+			logger.flush();
+			assertEquals(toString(expected), toString(statistics.getUsageTable().values()));
+			assertEquals(0, statistics.getReplayCount());
+		} finally {
+			logger.stopMonitoring();
+		}
+		assertNull(statistics.getUsageTable());
+		assertTrue(checkpointFile.exists());
+	}
+
+	public void testReplayAfterRestart() throws Exception {
+		assertReplayAfterRestart(false);
+	}
+
+	public void testReplayAfterRestartBinary() throws Exception {
+		assertReplayAfterRestart(true);
+	}
+
+	private void assertReplayAfterRestart(boolean binary) throws Exception {
+		InteractionEventLogger logger = createLogger(new IncrementalUsageStatistics(file, checkpointFile), binary);
+		logger.startMonitoring();
+		log(logger, 100);
+		logger.stopMonitoring();
+
+		// events logged while the statistics are not listening
+		logger = createLogger(null, binary);
+		logger.startMonitoring();
+		log(logger, 50);
+		logger.stopMonitoring();
+
+		IncrementalUsageStatistics statistics = new IncrementalUsageStatistics(file, checkpointFile);
+		logger = createLogger(statistics, binary);
+		logger.startMonitoring();
+		try {
+			assertEquals(toString(expected), toString(statistics.getUsageTable().values()));
+			// including the events that were logged twice
+			assertEquals(55, statistics.getReplayCount());
+
+			log(logger, 30);
+			logger.flush();
+			assertEquals(toString(expected), toString(statistics.getUsageTable().values()));
+			assertEquals(55, statistics.getReplayCount());
+		} finally {
+			logger.stopMonitoring();
+		}
+	}
+
+	public void testRewrittenLog() throws Exception {
+		IncrementalUsageStatistics statistics = new IncrementalUsageStatistics(file, checkpointFile);
+		InteractionEventLogger logger = createLogger(statistics, false);
+		logger.startMonitoring();
+		log(logger, 100);
+		logger.stopMonitoring();
+
+		logger.clearInteractionHistory(false);
+		expected.clear();
+		// queued until monitoring starts
+		log(logger, 20);
+		logger.startMonitoring();
+		try {
+			assertEquals(toString(expected), toString(statistics.getUsageTable().values()));
+			assertEquals(0, statistics.getReplayCount());
+		} finally {
+			logger.stopMonitoring();
+		}
+	}
+
+	public void testReportGenerator() throws Exception {
+		IncrementalUsageStatistics statistics = new IncrementalUsageStatistics(file, checkpointFile);
+		InteractionEventLogger logger = createLogger(statistics, false);
+		logger.startMonitoring();
+		try {
+			log(logger, 200);
+			logger.flush();
+			List<String> expected = getReport(null);
+			assertEquals(expected, getReport(statistics));
+
+			PerspectiveUsageCollector collector = new PerspectiveUsageCollector();
+			ReportGenerator generator = new ReportGenerator(logger, collector);
+			generator.setUsageStatistics(statistics);
+			generator.getStatisticsFromInteractionHistories(Collections.singletonList(file),
+					new NullProgressMonitor());
+			assertEquals(expected, toString(generator.getLastParsedSummary().getSingleSummaries()));
+			PerspectiveUsageCollector expectedCollector = new PerspectiveUsageCollector();
+			new ReportGenerator(logger, expectedCollector).getStatisticsFromInteractionHistories(
+					Collections.singletonList(file), new NullProgressMonitor());
+			assertEquals(expectedCollector.getPlainTextReport(), collector.getPlainTextReport());
+		} finally {
+			logger.stopMonitoring();
+		}
+	}
+
+	private InteractionEventLogger createLogger(IncrementalUsageStatistics statistics, boolean binary) {
+		InteractionEventLogger logger = new InteractionEventLogger(file);
+		logger.setBinaryFormat(binary);
+		if (statistics != null) {
+			logger.addLogListener(statistics);
+		}
+		return logger;
+	}
+
+	/**
+	 * Logs events with a few kinds and origins, every tenth event is logged twice.
+	 */
+	private void log(InteractionEventLogger logger, int count) {
+		List<InteractionEvent> events = new ArrayList<InteractionEvent>();
+		for (int i = 0; i < count; i++) {
+			time += 1000;
+			Date date = new Date(time);
+			Kind kind = (i % 3 == 0) ? Kind.COMMAND : Kind.SELECTION;
+			InteractionEvent event = new InteractionEvent(kind, "java", "handle" + i, "origin" + (i % 7), "null",
+					"delta" + i, 1f, date, date);
+			events.add(event);
+			if (i % 10 == 0) {
+				events.add(event);
+			}
+			String key = kind + ":" + event.getOriginId();
+			expected.put(key, (expected.containsKey(key)) ? expected.get(key) + 1 : 1);
+		}
+		logger.interactionsObserved(events);
+	}
+
+	private List<String> getReport(IncrementalUsageStatistics statistics) {
+		ReportGenerator generator = new ReportGenerator(new InteractionEventLogger(null),
+				new ArrayList<IUsageCollector>());
+		generator.setUsageStatistics(statistics);
+		generator.getStatisticsFromInteractionHistories(Collections.singletonList(file), new NullProgressMonitor());
+		return toString(generator.getLastParsedSummary().getSingleSummaries());
+	}
+
+	private static List<String> toString(Map<String, Integer> counts) {
+		List<String> result = new ArrayList<String>();
+		for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+			result.add(entry.getKey() + ":" + entry.getValue());
+		}
+		Collections.sort(result);
+		return result;
+	}
+
+	private static List<String> toString(Collection<InteractionEventSummary> summaries) {
+		List<String> result = new ArrayList<String>();
+		for (InteractionEventSummary summary : summaries) {
+			result.add(summary.getType() + ":" + summary.getName() + ":" + summary.getUsageCount());
+		}
+		Collections.sort(result);
+		return result;
+	}
+
+}
@@ -0,0 +1,240 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.monitor.usage.tests;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import junit.framework.TestCase;
+
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventArchiveCache;
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventLogger;
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventParallelLoader;
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventSerializer;
+import org.eclipse.mylyn.monitor.core.InteractionEvent;
+import org.eclipse.mylyn.monitor.core.InteractionEvent.Kind;
+
+public class InteractionEventArchiveCacheTest extends TestCase {
+
+	private ForkJoinPool pool;
+
+	private File directory;
+
+	private final List<File> files = new ArrayList<File>();
+
+	@Override
+	protected void setUp() throws Exception {
+		pool = new ForkJoinPool(4);
+		directory = File.createTempFile("archive-cache", "");
+		directory.delete();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		pool.shutdown();
+		for (File file : files) {
+			file.delete();
+		}
+		File[] entries = directory.listFiles();
+		if (entries != null) {
+			for (File file : entries) {
+				file.delete();
+			}
+		}
+		directory.delete();
+	}
+
+	public void testLoad() throws Exception {
+		// spans several segments
+		List<InteractionEvent> events = createEvents(40000, "a");
+		File archive = createArchive(events);
+		InteractionEventArchiveCache cache = createCache(Long.MAX_VALUE);
+
+		assertEvents(events, cache.load(archive));
+		assertEquals(0, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+		assertTrue(cache.getSize() > 0);
+
+		assertEvents(events, cache.load(archive));
+		assertEquals(1, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+
+		assertEvents(events, createCache(Long.MAX_VALUE).load(archive));
+	}
+
+	public void testArchiveChanged() throws Exception {
+		File archive = createArchive(createEvents(10, "a"));
+		InteractionEventArchiveCache cache = createCache(Long.MAX_VALUE);
+		cache.load(archive);
+
+		List<InteractionEvent> events = createEvents(20, "b");
+		writeArchive(archive, events);
+		archive.setLastModified(archive.lastModified() + 2000);
+		assertEvents(events, cache.load(archive));
+		assertEquals(2, cache.getMissCount());
+
+		assertEvents(events, cache.load(archive));
+		assertEquals(1, cache.getHitCount());
+	}
+
+	public void testDamagedEntry() throws Exception {
+		List<InteractionEvent> events = createEvents(100, "a");
+		File archive = createArchive(events);
+		InteractionEventArchiveCache cache = createCache(Long.MAX_VALUE);
+		cache.load(archive);
+
+		File[] entries = directory.listFiles();
+		assertEquals(1, entries.length);
+		RandomAccessFile file = new RandomAccessFile(entries[0], "rw");
+		try {
+			file.setLength(file.length() - 10);
+		} finally {
+			file.close();
+		}
+		assertEvents(events, cache.load(archive));
+		assertEquals(2, cache.getMissCount());
+		assertEvents(events, cache.load(archive));
+		assertEquals(1, cache.getHitCount());
+	}
+
+	public void testDamagedSegmentOffset() throws Exception {
+		List<InteractionEvent> events = createEvents(100, "a");
+		File archive = createArchive(events);
+		InteractionEventArchiveCache cache = createCache(Long.MAX_VALUE);
+		cache.load(archive);
+
+		File[] entries = directory.listFiles();
+		assertEquals(1, entries.length);
+		RandomAccessFile file = new RandomAccessFile(entries[0], "rw");
+		try {
+			// the offset of the first segment follows the path, size, modification time and counts
+			file.seek(36 + archive.getAbsolutePath().getBytes("UTF-8").length);
+			file.writeInt(Integer.MAX_VALUE);
+		} finally {
+			file.close();
+		}
+		assertEvents(events, cache.load(archive));
+		assertEquals(2, cache.getMissCount());
+		assertEvents(events, cache.load(archive));
+		assertEquals(1, cache.getHitCount());
+	}
+
+	public void testEviction() throws Exception {
+		File first = createArchive(createEvents(1000, "a"));
+		File second = createArchive(createEvents(1000, "b"));
+		File third = createArchive(createEvents(1000, "c"));
+
+		InteractionEventArchiveCache cache = createCache(Long.MAX_VALUE);
+		cache.load(first);
+		long entrySize = cache.getSize();
+		cache.clear();
+		assertEquals(0, cache.getSize());
+
+		// fits two entries
+		cache = createCache(entrySize * 2 + entrySize / 2);
+		cache.load(first);
+		cache.load(second);
+		File[] entries = directory.listFiles();
+		for (File entry : entries) {
+			entry.setLastModified(entry.lastModified() - 60000);
+		}
+		// touches the entry of the first archive
+		cache.load(first);
+		assertEquals(1, cache.getHitCount());
+
+		cache.load(third);
+		assertEquals(2, directory.listFiles().length);
+		assertTrue(cache.getSize() <= entrySize * 2 + entrySize / 2);
+		cache.load(first);
+		assertEquals(2, cache.getHitCount());
+		cache.load(second);
+		assertEquals(2, cache.getHitCount());
+	}
+
+	public void testEntryExceedsLimit() throws Exception {
+		List<InteractionEvent> events = createEvents(100, "a");
+		File archive = createArchive(events);
+		InteractionEventArchiveCache cache = createCache(10);
+		assertEvents(events, cache.load(archive));
+		assertEquals(0, cache.getSize());
+	}
+
+	public void testLogger() throws Exception {
+		List<InteractionEvent> events = createEvents(100, "a");
+		File archive = createArchive(events);
+		InteractionEventLogger logger = new InteractionEventLogger(null);
+		logger.setArchiveCache(createCache(Long.MAX_VALUE));
+		assertEvents(events, logger.getHistoryFromFileInParallel(archive));
+		assertEvents(events, logger.getHistoryFromFileInParallel(archive));
+		assertEquals(1, logger.getArchiveCache().getHitCount());
+	}
+
+	private InteractionEventArchiveCache createCache(long maxSize) {
+		return new InteractionEventArchiveCache(directory, maxSize, new InteractionEventParallelLoader(pool, 1000),
+				pool);
+	}
+
+	private void assertEvents(List<InteractionEvent> expected, List<InteractionEvent> actual) {
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			InteractionEvent event = expected.get(i);
+			InteractionEvent other = actual.get(i);
+			assertEquals(event.getKind(), other.getKind());
+			assertEquals(event.getOriginId(), other.getOriginId());
+			assertEquals(event.getStructureHandle(), other.getStructureHandle());
+			assertEquals(event.getDelta(), other.getDelta());
+			assertEquals(event.getDate(), other.getDate());
+			assertEquals(event.getEndDate(), other.getEndDate());
+			assertEquals(event.getInterestContribution(), other.getInterestContribution());
+		}
+	}
+
+	private File createArchive(List<InteractionEvent> events) throws Exception {
+		File file = File.createTempFile("monitor-log", ".zip");
+		files.add(file);
+		writeArchive(file, events);
+		return file;
+	}
+
+	private void writeArchive(File file, List<InteractionEvent> events) throws Exception {
+		ZipOutputStream out = new ZipOutputStream(new FileOutputStream(file));
+		try {
+			out.putNextEntry(new ZipEntry("monitor-log.xml"));
+			InteractionEventSerializer serializer = new InteractionEventSerializer();
+			for (InteractionEvent event : events) {
+				serializer.serialize(event);
+			}
+			serializer.writeTo(out);
+		} finally {
+			out.close();
+		}
+	}
+
+	private static List<InteractionEvent> createEvents(int count, String prefix) {
+		List<InteractionEvent> events = new ArrayList<InteractionEvent>(count);
+		for (int i = 0; i < count; i++) {
+			Date date = new Date(1267401600000L + i * 1000L);
+			events.add(new InteractionEvent(Kind.values()[i % Kind.values().length], "java", prefix + "handle" + i,
+					"origin" + (i % 7), "navigation", prefix + "delta" + i, i / 10f, date, new Date(date.getTime()
+							+ i)));
+		}
+		return events;
+	}
+
+}
@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.monitor.usage.tests;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.ZipFile;
+
+import junit.framework.TestCase;
+
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventArchiveWriter;
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventLogger;
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventParallelLoader;
+import org.eclipse.mylyn.monitor.core.InteractionEvent;
+import org.eclipse.mylyn.monitor.core.InteractionEvent.Kind;
+
+public class InteractionEventArchiveWriterTest extends TestCase {
+
+	private File directory;
+
+	@Override
+	protected void setUp() throws Exception {
+		directory = File.createTempFile("monitor", "");
+		directory.delete();
+		directory.mkdirs();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		for (File file : directory.listFiles()) {
+			file.delete();
+		}
+		directory.delete();
+	}
+
+	public void testEntryPerWeek() throws Exception {
+		// four weeks of March 2010, starting on a Monday
+		List<InteractionEvent> events = createEvents(2010, Calendar.MARCH, 1, 28);
+		write(events);
+
+		File archive = new File(directory, "2010-03-monitor-log.zip");
+		assertTrue(archive.exists());
+		ZipFile zip = new ZipFile(archive);
+		try {
+			// a week may span two entries depending on the first day of the week of the locale
+			assertTrue(zip.size() >= 4);
+			assertTrue(zip.size() <= 5);
+		} finally {
+			zip.close();
+		}
+		assertEvents(events, archive);
+	}
+
+	public void testAppend() throws Exception {
+		List<InteractionEvent> events = createEvents(2010, Calendar.MARCH, 1, 10);
+		write(events);
+		List<InteractionEvent> moreEvents = createEvents(2010, Calendar.MARCH, 15, 10);
+		write(moreEvents);
+		events.addAll(moreEvents);
+		assertEvents(events, new File(directory, "2010-03-monitor-log.zip"));
+	}
+
+	public void testAppendSameWeek() throws Exception {
+		List<InteractionEvent> events = createEvents(2010, Calendar.MARCH, 10, 1);
+		write(events);
+		List<InteractionEvent> moreEvents = createEvents(2010, Calendar.MARCH, 11, 1);
+		write(moreEvents);
+		events.addAll(moreEvents);
+		File archive = new File(directory, "2010-03-monitor-log.zip");
+		ZipFile zip = new ZipFile(archive);
+		try {
+			assertEquals(2, zip.size());
+		} finally {
+			zip.close();
+		}
+		assertEvents(events, archive);
+	}
+
+	public void testArchivePerMonth() throws Exception {
+		List<InteractionEvent> events = createEvents(2010, Calendar.MARCH, 25, 14);
+		write(events);
+		assertTrue(new File(directory, "2010-03-monitor-log.zip").exists());
+		assertTrue(new File(directory, "2010-04-monitor-log.zip").exists());
+	}
+
+	private void assertEvents(List<InteractionEvent> expected, File archive) throws Exception {
+		List<InteractionEvent> events = new InteractionEventLogger(null).getHistoryFromFile(archive);
+		assertDeltas(expected, events);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			assertDeltas(expected, new InteractionEventParallelLoader(pool, 100).load(archive));
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	private void assertDeltas(List<InteractionEvent> expected, List<InteractionEvent> events) {
+		assertEquals(expected.size(), events.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).getDelta(), events.get(i).getDelta());
+		}
+	}
+
+	private void write(List<InteractionEvent> events) throws Exception {
+		InteractionEventArchiveWriter writer = new InteractionEventArchiveWriter(directory, "monitor-log.zip",
+				"monitor-log.xml");
+		try {
+			for (InteractionEvent event : events) {
+				writer.write(event);
+			}
+		} finally {
+			writer.close();
+		}
+	}
+
+	private List<InteractionEvent> createEvents(int year, int month, int day, int days) {
+		Calendar calendar = Calendar.getInstance();
+		calendar.clear();
+		calendar.set(year, month, day, 12, 0);
+		List<InteractionEvent> events = new ArrayList<InteractionEvent>();
+		for (int i = 0; i < days; i++) {
+			for (int j = 0; j < 10; j++) {
+				String delta = calendar.get(Calendar.DAY_OF_YEAR) + "-" + j;
+				events.add(new InteractionEvent(Kind.COMMAND, null, "handle", "origin", null, delta, 1f,
+						calendar.getTime(), calendar.getTime()));
+			}
+			calendar.add(Calendar.DAY_OF_MONTH, 1);
+		}
+		return events;
+	}
+
+}
@@ -0,0 +1,214 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.monitor.usage.tests;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventBinaryDecoder;
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventBinaryEncoder;
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventLogConverter;
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventLogger;
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventSerializer;
+import org.eclipse.mylyn.monitor.core.InteractionEvent;
+
+public class InteractionEventBinaryFormatTest extends TestCase {
+
+	private final List<File> files = new ArrayList<File>();
+
+	@Override
+	protected void tearDown() throws Exception {
+		for (File file : files) {
+			file.delete();
+		}
+	}
+
+	public void testRoundTrip() throws Exception {
+		List<InteractionEvent> events = createEvents(1000);
+		InteractionEventBinaryEncoder encoder = new InteractionEventBinaryEncoder();
+		encoder.writeHeader();
+		for (InteractionEvent event : events) {
+			assertTrue(encoder.encode(event));
+		}
+		List<InteractionEvent> result = decode(toByteArray(encoder));
+		assertEvents(events, result);
+
+		// most of the XML format is tag names and repeated strings
+		InteractionEventSerializer serializer = new InteractionEventSerializer();
+		for (InteractionEvent event : events) {
+			serializer.serialize(event);
+		}
+		assertTrue("Expected binary format to be less than a quarter of " + serializer.size() + " bytes: "
+				+ encoder.size(), encoder.size() * 4 < serializer.size());
+	}
+
+	public void testSegments() throws Exception {
+		List<InteractionEvent> events = createEvents(20);
+		InteractionEventBinaryEncoder encoder = new InteractionEventBinaryEncoder();
+		encoder.writeHeader();
+		for (InteractionEvent event : events.subList(0, 10)) {
+			encoder.encode(event);
+		}
+		// a new session appends to the file with a fresh dictionary
+		encoder = new InteractionEventBinaryEncoder();
+		encoder.startSegment();
+		for (InteractionEvent event : events.subList(10, 20)) {
+			encoder.encode(event);
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		out.write(encodeWithHeader(events.subList(0, 10)));
+		encoder.writeTo(out);
+		assertEvents(events, decode(out.toByteArray()));
+	}
+
+	public void testTruncatedRecord() throws Exception {
+		List<InteractionEvent> events = createEvents(10);
+		byte[] bytes = encodeWithHeader(events);
+		List<InteractionEvent> result = decode(Arrays.copyOf(bytes, bytes.length - 3));
+		assertEvents(events.subList(0, 9), result);
+	}
+
+	public void testInvalidEvent() throws Exception {
+		InteractionEventBinaryEncoder encoder = new InteractionEventBinaryEncoder();
+		encoder.writeHeader();
+		assertFalse(encoder.encode(new InteractionEvent(null, "kind", "handle", "origin")));
+		assertTrue(encoder.encode(createEvents(1).get(0)));
+		assertEquals(1, decode(toByteArray(encoder)).size());
+	}
+
+	public void testConvert() throws Exception {
+		List<InteractionEvent> events = createEvents(100);
+		File xmlFile = createTempFile(".xml");
+		InteractionEventLogConverter.write(events, xmlFile, false);
+		assertFalse(InteractionEventLogConverter.isBinary(xmlFile));
+
+		File binaryFile = createTempFile(".bin");
+		InteractionEventLogConverter.convertToBinary(xmlFile, binaryFile);
+		assertTrue(InteractionEventLogConverter.isBinary(binaryFile));
+		assertTrue(binaryFile.length() < xmlFile.length() / 5);
+
+		File convertedFile = createTempFile(".xml");
+		InteractionEventLogConverter.convertToXml(binaryFile, convertedFile);
+		assertFalse(InteractionEventLogConverter.isBinary(convertedFile));
+
+		InteractionEventLogger logger = new InteractionEventLogger(null);
+		assertEvents(logger.getHistoryFromFile(xmlFile), logger.getHistoryFromFile(binaryFile));
+		assertEvents(logger.getHistoryFromFile(xmlFile), logger.getHistoryFromFile(convertedFile));
+	}
+
+	public void testLoggerBinaryFormat() throws Exception {
+		File file = createTempFile(".xml");
+		List<InteractionEvent> events = createEvents(50);
+		InteractionEventLogger logger = new InteractionEventLogger(file);
+		logger.setBinaryFormat(true);
+		for (int session = 0; session < 2; session++) {
+			logger.startMonitoring();
+			for (InteractionEvent event : events.subList(session * 25, session * 25 + 25)) {
+				logger.interactionObserved(event);
+			}
+			logger.stopMonitoring();
+		}
+		assertTrue(InteractionEventLogConverter.isBinary(file));
+		assertEvents(events, logger.getHistoryFromFile(file));
+	}
+
+	public void testLoggerConvertsExistingFile() throws Exception {
+		File file = createTempFile(".xml");
+		List<InteractionEvent> events = createEvents(20);
+		InteractionEventLogConverter.write(events.subList(0, 10), file, false);
+
+		InteractionEventLogger logger = new InteractionEventLogger(file);
+		logger.setBinaryFormat(true);
+		logger.startMonitoring();
+		for (InteractionEvent event : events.subList(10, 20)) {
+			logger.interactionObserved(event);
+		}
+		logger.stopMonitoring();
+		assertTrue(InteractionEventLogConverter.isBinary(file));
+		assertEvents(events, logger.getHistoryFromFile(file));
+
+		logger.setBinaryFormat(false);
+		logger.startMonitoring();
+		logger.stopMonitoring();
+		assertFalse(InteractionEventLogConverter.isBinary(file));
+		assertEvents(events, logger.getHistoryFromFile(file));
+	}
+
+	private byte[] encodeWithHeader(List<InteractionEvent> events) throws IOException {
+		InteractionEventBinaryEncoder encoder = new InteractionEventBinaryEncoder();
+		encoder.writeHeader();
+		for (InteractionEvent event : events) {
+			encoder.encode(event);
+		}
+		return toByteArray(encoder);
+	}
+
+	private byte[] toByteArray(InteractionEventBinaryEncoder encoder) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		encoder.writeTo(out);
+		return out.toByteArray();
+	}
+
+	private List<InteractionEvent> decode(byte[] bytes) throws IOException {
+		ByteArrayInputStream in = new ByteArrayInputStream(bytes);
+		assertTrue(InteractionEventBinaryDecoder.isBinary(in));
+		return new InteractionEventBinaryDecoder(in).readAll();
+	}
+
+	private File createTempFile(String suffix) throws IOException {
+		File file = File.createTempFile("monitor-log", suffix);
+		file.deleteOnExit();
+		files.add(file);
+		new FileOutputStream(file).close();
+		return file;
+	}
+
+	private List<InteractionEvent> createEvents(int count) {
+		List<InteractionEvent> events = new ArrayList<InteractionEvent>();
+		InteractionEvent.Kind[] kinds = InteractionEvent.Kind.values();
+		long time = 1234567890123L;
+		for (int i = 0; i < count; i++) {
+			time += (i % 5 == 0) ? -1500 : 2345;
+			events.add(new InteractionEvent(kinds[i % kinds.length], "java", "=Project/src<pkg{Type" + i
+					+ ".java", "org.eclipse.jdt.ui.PackageExplorer", "navigation" + (i % 3), "delta", i % 4 - 1.5f,
+					new Date(time), new Date(time + i * 10)));
+		}
+		return events;
+	}
+
+	private void assertEvents(List<InteractionEvent> expected, List<InteractionEvent> actual) {
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			InteractionEvent e = expected.get(i);
+			InteractionEvent a = actual.get(i);
+			assertEquals(e.getKind(), a.getKind());
+			assertEquals(e.getDate(), a.getDate());
+			assertEquals(e.getEndDate(), a.getEndDate());
+			assertEquals(e.getOriginId(), a.getOriginId());
+			assertEquals(e.getStructureKind(), a.getStructureKind());
+			assertEquals(e.getStructureHandle(), a.getStructureHandle());
+			assertEquals(e.getNavigation(), a.getNavigation());
+			assertEquals(e.getDelta(), a.getDelta());
+			assertEquals(e.getInterestContribution(), a.getInterestContribution(), 0f);
+		}
+	}
+
+}
@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.monitor.usage.tests;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.mylyn.internal.monitor.usage.IInteractionEventVisitor;
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventCursor;
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventLogConverter;
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventLogger;
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventSerializer;
+import org.eclipse.mylyn.monitor.core.InteractionEvent;
+
+public class InteractionEventCursorTest extends TestCase {
+
+	private static final int EVENT_COUNT = 500;
+
+	private final InteractionEventLogger logger = new InteractionEventLogger(null);
+
+	private File file;
+
+	@Override
+	protected void setUp() throws Exception {
+		file = File.createTempFile("monitor-log", ".xml");
+		file.deleteOnExit();
+		InteractionEventSerializer serializer = new InteractionEventSerializer();
+		for (int i = 0; i < EVENT_COUNT; i++) {
+			serializer.serialize(InteractionEvent.makeCommand("org.eclipse.ui.edit.copy", "delta" + i));
+		}
+		FileOutputStream out = new FileOutputStream(file);
+		try {
+			serializer.writeTo(out);
+		} finally {
+			out.close();
+		}
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		file.delete();
+	}
+
+	public void testCursor() throws Exception {
+		InteractionEventCursor cursor = logger.openHistory(file);
+		assertFalse(cursor.isBinary());
+		assertEquals(file.length(), cursor.getLength());
+		assertEvents(cursor);
+		assertEquals(EVENT_COUNT, cursor.getCount());
+		try {
+			cursor.next();
+			fail("Expected NoSuchElementException");
+		} catch (NoSuchElementException e) {
+			// expected
+		}
+	}
+
+	public void testBinary() throws Exception {
+		File binaryFile = File.createTempFile("monitor-log", ".bin");
+		binaryFile.deleteOnExit();
+		try {
+			InteractionEventLogConverter.convertToBinary(file, binaryFile);
+			InteractionEventCursor cursor = logger.openHistory(binaryFile);
+			assertTrue(cursor.isBinary());
+			assertEvents(cursor);
+		} finally {
+			binaryFile.delete();
+		}
+	}
+
+	public void testZip() throws Exception {
+		File zipFile = File.createTempFile("monitor-log", ".zip");
+		zipFile.deleteOnExit();
+		try {
+			ZipOutputStream out = new ZipOutputStream(new FileOutputStream(zipFile));
+			try {
+				out.putNextEntry(new ZipEntry(file.getName()));
+				InteractionEventSerializer serializer = new InteractionEventSerializer();
+				for (InteractionEvent event : logger.getHistory(file)) {
+					serializer.serialize(event);
+				}
+				serializer.writeTo(out);
+				out.closeEntry();
+			} finally {
+				out.close();
+			}
+			assertEvents(logger.getHistory(zipFile).iterator());
+		} finally {
+			zipFile.delete();
+		}
+	}
+
+	public void testIterableRereadsFile() throws Exception {
+		Iterable<InteractionEvent> history = logger.getHistory(file);
+		assertEvents(history.iterator());
+		assertEvents(history.iterator());
+	}
+
+	public void testVisitor() throws Exception {
+		final List<InteractionEvent> events = new ArrayList<InteractionEvent>();
+		logger.visitHistory(file, new IInteractionEventVisitor() {
+			public boolean visit(InteractionEvent event) {
+				events.add(event);
+				return events.size() < 10;
+			}
+		}, new NullProgressMonitor());
+		assertEquals(10, events.size());
+		assertEquals("delta9", events.get(9).getDelta());
+	}
+
+	public void testCloseEarly() throws Exception {
+		InteractionEventCursor cursor = logger.openHistory(file);
+		assertEquals("delta0", cursor.next().getDelta());
+		cursor.close();
+		assertFalse(cursor.hasNext());
+		// the file is no longer open
+		assertTrue(file.delete());
+	}
+
+	public void testRemoveUnsupported() throws Exception {
+		InteractionEventCursor cursor = logger.openHistory(file);
+		try {
+			cursor.next();
+			cursor.remove();
+			fail("Expected UnsupportedOperationException");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		} finally {
+			cursor.close();
+		}
+	}
+
+	public void testStringsPooled() throws Exception {
+		List<InteractionEvent> events = logger.getHistoryFromFile(file);
+		assertEquals(EVENT_COUNT, events.size());
+		for (InteractionEvent event : events) {
+			assertSame(events.get(0).getOriginId(), event.getOriginId());
+			assertSame(events.get(0).getStructureKind(), event.getStructureKind());
+		}
+		assertNotSame(events.get(0).getDelta(), events.get(1).getDelta());
+	}
+
+	public void testMissingFile() throws Exception {
+		assertFalse(logger.getHistory(new File(file.getPath() + ".missing")).iterator().hasNext());
+	}
+
+	private void assertEvents(Iterator<InteractionEvent> events) {
+		for (int i = 0; i < EVENT_COUNT; i++) {
+			assertTrue(events.hasNext());
+			assertEquals("delta" + i, events.next().getDelta());
+		}
+		assertFalse(events.hasNext());
+	}
+
+}
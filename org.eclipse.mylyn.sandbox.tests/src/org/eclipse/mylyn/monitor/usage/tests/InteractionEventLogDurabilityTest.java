@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.monitor.usage.tests;
+
+import java.io.File;
+
+import junit.framework.TestCase;
+
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventLogger;
+import org.eclipse.mylyn.internal.monitor.usage.LogDurability;
+import org.eclipse.mylyn.internal.monitor.usage.LogDurabilityCounters;
+import org.eclipse.mylyn.monitor.core.InteractionEvent;
+
+public class InteractionEventLogDurabilityTest extends TestCase {
+
+	private static final long TIMEOUT = 10000;
+
+	private File file;
+
+	private InteractionEventLogger logger;
+
+	@Override
+	protected void setUp() throws Exception {
+		file = File.createTempFile("monitor-log", ".xml");
+		file.deleteOnExit();
+		logger = new InteractionEventLogger(file);
+		logger.setBatchSize(10);
+		logger.setFlushInterval(1);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		logger.stopMonitoring();
+		file.delete();
+	}
+
+	public void testWriteThrough() throws Exception {
+		logger.startMonitoring();
+		observe(50);
+		logger.flush();
+		assertTrue(file.length() > 0);
+		logger.stopMonitoring();
+
+		LogDurabilityCounters counters = logger.getDurabilityCounters(LogDurability.WRITE_THROUGH);
+		assertEquals(50, counters.getEvents());
+		assertEquals(file.length(), counters.getBytes());
+		assertEquals(0, counters.getFlushes());
+		// the log is synced when monitoring stops
+		assertEquals(1, counters.getSyncs());
+	}
+
+	public void testBuffered() throws Exception {
+		logger.setDurability(LogDurability.BUFFERED, 60 * 1000, 1);
+		logger.startMonitoring();
+		observe(50);
+		LogDurabilityCounters counters = logger.getDurabilityCounters(LogDurability.BUFFERED);
+		waitForEvents(counters, 50);
+		assertEquals(0, file.length());
+
+		// reading the log makes buffered events visible
+		assertEquals(50, logger.getHistoryFromFile(file).size());
+		assertEquals(1, counters.getWrites());
+		assertEquals(0, counters.getSyncs());
+		logger.stopMonitoring();
+		assertEquals(1, counters.getSyncs());
+		assertEquals(file.length(), counters.getBytes());
+	}
+
+	public void testBufferedPeriodicFlush() throws Exception {
+		logger.setDurability(LogDurability.BUFFERED, 10, 1);
+		logger.startMonitoring();
+		observe(5);
+		long deadline = System.currentTimeMillis() + TIMEOUT;
+		while (file.length() == 0 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertTrue("Expected buffered events to be flushed", file.length() > 0);
+		assertEquals(0, logger.getDurabilityCounters(LogDurability.BUFFERED).getSyncs());
+	}
+
+	public void testGroupCommitEvents() throws Exception {
+		logger.setDurability(LogDurability.GROUP_COMMIT, 60 * 1000, 20);
+		logger.startMonitoring();
+		observe(100);
+		LogDurabilityCounters counters = logger.getDurabilityCounters(LogDurability.GROUP_COMMIT);
+		waitForEvents(counters, 100);
+		assertTrue(counters.getSyncs() >= 1);
+		assertTrue(counters.getSyncs() <= 5);
+	}
+
+	public void testGroupCommitInterval() throws Exception {
+		logger.setDurability(LogDurability.GROUP_COMMIT, 10, 1000);
+		logger.startMonitoring();
+		observe(5);
+		LogDurabilityCounters counters = logger.getDurabilityCounters(LogDurability.GROUP_COMMIT);
+		long deadline = System.currentTimeMillis() + TIMEOUT;
+		while (counters.getSyncs() == 0 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertEquals(1, counters.getSyncs());
+		assertEquals(file.length(), counters.getBytes());
+	}
+
+	public void testCountersPerMode() throws Exception {
+		logger.startMonitoring();
+		observe(10);
+		logger.stopMonitoring();
+
+		logger.setDurability(LogDurability.GROUP_COMMIT, 60 * 1000, 1000);
+		logger.startMonitoring();
+		observe(20);
+		logger.stopMonitoring();
+
+		assertEquals(10, logger.getDurabilityCounters(LogDurability.WRITE_THROUGH).getEvents());
+		assertEquals(20, logger.getDurabilityCounters(LogDurability.GROUP_COMMIT).getEvents());
+		assertEquals(0, logger.getDurabilityCounters(LogDurability.BUFFERED).getEvents());
+		assertEquals(30, logger.getHistoryFromFile(file).size());
+	}
+
+	public void testFromString() {
+		assertEquals(LogDurability.GROUP_COMMIT, LogDurability.fromString("groupCommit"));
+		assertEquals(LogDurability.BUFFERED, LogDurability.fromString(LogDurability.BUFFERED.toString()));
+		assertNull(LogDurability.fromString("unknown"));
+	}
+
+	private void observe(int count) {
+		for (int i = 0; i < count; i++) {
+			logger.interactionObserved(InteractionEvent.makeCommand("org.eclipse.ui.edit.copy", "delta" + i));
+		}
+	}
+
+	private void waitForEvents(LogDurabilityCounters counters, int count) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + TIMEOUT;
+		while (counters.getEvents() < count && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertEquals(count, counters.getEvents());
+	}
+
+}
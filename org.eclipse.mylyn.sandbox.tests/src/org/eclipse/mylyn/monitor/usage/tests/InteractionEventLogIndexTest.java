@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.monitor.usage.tests;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventArchiveWriter;
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventLogConverter;
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventLogIndex;
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventLogger;
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventSerializer;
+import org.eclipse.mylyn.monitor.core.InteractionEvent;
+import org.eclipse.mylyn.monitor.core.InteractionEvent.Kind;
+
+public class InteractionEventLogIndexTest extends TestCase {
+
+	private static final long HOUR = InteractionEventLogIndex.BUCKET_SIZE;
+
+	// 2010-03-01 00:00 UTC
+	private static final long START = 1267401600000L;
+
+	private final Random random = new Random(42);
+
+	private File directory;
+
+	private File file;
+
+	private int eventCount;
+
+	@Override
+	protected void setUp() throws Exception {
+		directory = File.createTempFile("monitor", "");
+		directory.delete();
+		directory.mkdirs();
+		file = new File(directory, "monitor-log.xml");
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		for (File file : directory.listFiles()) {
+			file.delete();
+		}
+		directory.delete();
+	}
+
+	public void testRead() throws Exception {
+		List<InteractionEvent> events = createEvents(START, 48);
+		append(events);
+		InteractionEventLogIndex index = InteractionEventLogIndex.getIndex(file);
+		assertTrue(InteractionEventLogIndex.getIndexFile(file).exists());
+		assertEquals(events.size(), index.getEventCount());
+		// one run per hour and some out of order events
+		assertTrue(index.getRunCount() >= 48);
+		assertTrue(index.getRunCount() < 48 * 2);
+		assertRange(events, START, START + HOUR);
+		assertRange(events, START + 90 * 60 * 1000, START + 5 * HOUR + 1);
+		assertRange(events, START + 47 * HOUR, START + 49 * HOUR);
+		assertRange(events, START - HOUR, START + 100 * HOUR);
+		assertRange(events, START + 100 * HOUR, START + 101 * HOUR);
+	}
+
+	public void testExtend() throws Exception {
+		List<InteractionEvent> events = createEvents(START, 10);
+		append(events);
+		assertEquals(events.size(), InteractionEventLogIndex.getIndex(file).getEventCount());
+
+		List<InteractionEvent> moreEvents = createEvents(START + 10 * HOUR, 10);
+		append(moreEvents);
+		events.addAll(moreEvents);
+		assertEquals(events.size(), InteractionEventLogIndex.getIndex(file).getEventCount());
+		assertRange(events, START + 5 * HOUR, START + 15 * HOUR);
+	}
+
+	public void testRewritten() throws Exception {
+		append(createEvents(START, 10));
+		assertNotNull(InteractionEventLogIndex.getIndex(file));
+
+		// a larger log with different content, e.g. after a rollover
+		file.delete();
+		List<InteractionEvent> events = createEvents(START + 100 * HOUR, 20);
+		append(events);
+		assertEquals(events.size(), InteractionEventLogIndex.getIndex(file).getEventCount());
+		assertRange(events, START, START + 200 * HOUR);
+	}
+
+	public void testInvalidIndexFile() throws Exception {
+		List<InteractionEvent> events = createEvents(START, 10);
+		append(events);
+		FileOutputStream out = new FileOutputStream(InteractionEventLogIndex.getIndexFile(file));
+		out.write(new byte[] { 1, 2, 3 });
+		out.close();
+		assertEquals(events.size(), InteractionEventLogIndex.getIndex(file).getEventCount());
+	}
+
+	public void testArchive() throws Exception {
+		// archives are per month in the local time zone, stay clear of February
+		long start = START + 48 * HOUR;
+		List<InteractionEvent> events = createEvents(start, 24 * 20);
+		InteractionEventArchiveWriter writer = new InteractionEventArchiveWriter(directory, "monitor-log.zip",
+				"monitor-log.xml");
+		try {
+			for (InteractionEvent event : events) {
+				writer.write(event);
+			}
+		} finally {
+			writer.close();
+		}
+		file = new File(directory, "2010-03-monitor-log.zip");
+		assertEquals(events.size(), InteractionEventLogIndex.getIndex(file).getEventCount());
+		assertRange(events, start + 24 * 9 * HOUR, start + 24 * 10 * HOUR);
+		assertRange(events, start + 24 * 5 * HOUR + 1, start + 24 * 15 * HOUR - 1);
+	}
+
+	public void testBinary() throws Exception {
+		List<InteractionEvent> events = createEvents(START, 10);
+		InteractionEventLogConverter.write(events, file, true);
+		assertNull(InteractionEventLogIndex.getIndex(file));
+		List<InteractionEvent> result = new InteractionEventLogger(null).getHistoryFromFile(file, new Date(START + HOUR),
+				new Date(START + 2 * HOUR));
+		assertDeltas(filter(events, START + HOUR, START + 2 * HOUR), result);
+	}
+
+	private void assertRange(List<InteractionEvent> events, long from, long to) throws Exception {
+		List<InteractionEvent> expected = filter(events, from, to);
+		assertDeltas(expected, InteractionEventLogIndex.getIndex(file).read(from, to));
+		assertDeltas(expected, new InteractionEventLogger(null).getHistoryFromFile(file, new Date(from), new Date(to)));
+	}
+
+	private void assertDeltas(List<InteractionEvent> expected, List<InteractionEvent> events) {
+		assertEquals(expected.size(), events.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).getDelta(), events.get(i).getDelta());
+		}
+	}
+
+	private List<InteractionEvent> filter(List<InteractionEvent> events, long from, long to) {
+		List<InteractionEvent> result = new ArrayList<InteractionEvent>();
+		for (InteractionEvent event : events) {
+			if (event.getDate().getTime() >= from && event.getDate().getTime() < to) {
+				result.add(event);
+			}
+		}
+		return result;
+	}
+
+	private void append(List<InteractionEvent> events) throws Exception {
+		InteractionEventSerializer serializer = new InteractionEventSerializer();
+		for (InteractionEvent event : events) {
+			serializer.serialize(event);
+		}
+		FileOutputStream out = new FileOutputStream(file, true);
+		try {
+			serializer.writeTo(out);
+		} finally {
+			out.close();
+		}
+		// make sure that the modification is detected on file systems with a coarse resolution
+		file.setLastModified(file.lastModified() + 2000);
+	}
+
+	/**
+	 * Creates events every 5 minutes, some of them are a few minutes out of order.
+	 */
+	private List<InteractionEvent> createEvents(long start, int hours) {
+		List<InteractionEvent> events = new ArrayList<InteractionEvent>();
+		for (long time = start; time < start + hours * HOUR; time += 5 * 60 * 1000) {
+			Date date = new Date(random.nextInt(10) == 0 ? time - 7 * 60 * 1000 : time);
+			events.add(new InteractionEvent(Kind.SELECTION, "java", "handle", "origin", null, "" + eventCount++, 1f,
+					date, date));
+		}
+		return events;
+	}
+
+}
@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.monitor.usage.tests;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventLogReader;
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventLogger;
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventSerializer;
+import org.eclipse.mylyn.monitor.core.InteractionEvent;
+
+public class InteractionEventLogReaderTest extends TestCase {
+
+	private static final String RECORD = "<interactionEvent><kind>command</kind></interactionEvent>";
+
+	public void testFrameRecords() throws Exception {
+		List<String> records = readRecords(RECORD + "\r\n" + RECORD.replace("command", "edit") + "\r\n", 1024);
+		assertEquals(2, records.size());
+		assertEquals(RECORD, records.get(0));
+		assertEquals(RECORD.replace("command", "edit"), records.get(1));
+	}
+
+	public void testTrailingPartialRecordIgnored() throws Exception {
+		List<String> records = readRecords(RECORD + "\r\n<interactionEvent><kind>com", 1024);
+		assertEquals(1, records.size());
+	}
+
+	public void testRecordsSpanReads() throws Exception {
+		StringBuilder log = new StringBuilder();
+		for (int i = 0; i < 100; i++) {
+			log.append(RECORD.replace("command", "command" + i)).append("\r\n");
+		}
+		// the buffer is smaller than a record, the end tag is split across reads at every offset
+		for (int bufferSize = 19; bufferSize < 80; bufferSize++) {
+			List<String> records = readRecords(log.toString(), bufferSize);
+			assertEquals(100, records.size());
+			for (int i = 0; i < 100; i++) {
+				assertEquals(RECORD.replace("command", "command" + i), records.get(i));
+			}
+		}
+	}
+
+	public void testUtf8() throws Exception {
+		String record = RECORD.replace("command", "é中😀");
+		List<String> records = readRecords(record + record, 20);
+		assertEquals(2, records.size());
+		assertEquals(record, records.get(0));
+		assertEquals(record, records.get(1));
+	}
+
+	public void testConstantMemory() throws Exception {
+		final byte[] record = (RECORD + "\r\n").getBytes(StandardCharsets.UTF_8);
+		final int count = 200000;
+		InputStream in = new InputStream() {
+			private int position;
+
+			@Override
+			public int read() throws IOException {
+				if (position == record.length * count) {
+					return -1;
+				}
+				return record[position++ % record.length];
+			}
+
+			@Override
+			public int read(byte[] b, int off, int len) throws IOException {
+				int remaining = record.length * count - position;
+				if (remaining == 0) {
+					return -1;
+				}
+				len = Math.min(len, remaining);
+				for (int i = 0; i < len; i++) {
+					b[off + i] = record[position++ % record.length];
+				}
+				return len;
+			}
+		};
+		InteractionEventLogReader reader = new InteractionEventLogReader(Channels.newChannel(in), 4096);
+		int records = 0;
+		while (reader.nextRecord()) {
+			ByteBuffer bytes = reader.getRecord();
+			assertEquals(RECORD.length(), bytes.remaining());
+			records++;
+		}
+		assertEquals(count, records);
+		assertEquals(4096, reader.getBufferCapacity());
+		// the line break after the last record is not framed
+		assertEquals(record.length * count - 2, reader.getPosition());
+	}
+
+	public void testGetHistoryFromFile() throws Exception {
+		File file = File.createTempFile("monitor-log", ".xml");
+		file.deleteOnExit();
+		try {
+			InteractionEventSerializer serializer = new InteractionEventSerializer();
+			for (int i = 0; i < 1000; i++) {
+				serializer.serialize(InteractionEvent.makeCommand("org.eclipse.ui.edit.copy", "é" + i));
+			}
+			FileOutputStream out = new FileOutputStream(file);
+			try {
+				serializer.writeTo(out);
+			} finally {
+				out.close();
+			}
+			List<InteractionEvent> events = new InteractionEventLogger(null).getHistoryFromFile(file);
+			assertEquals(1000, events.size());
+			for (int i = 0; i < 1000; i++) {
+				assertEquals("é" + i, events.get(i).getDelta());
+			}
+		} finally {
+			file.delete();
+		}
+	}
+
+	private List<String> readRecords(String log, int bufferSize) throws IOException {
+		InteractionEventLogReader reader = new InteractionEventLogReader(Channels.newChannel(new ByteArrayInputStream(
+				log.getBytes(StandardCharsets.UTF_8))), bufferSize);
+		List<String> records = new ArrayList<String>();
+		try {
+			while (reader.nextRecord()) {
+				records.add(reader.getRecordString());
+			}
+		} finally {
+			reader.close();
+		}
+		return records;
+	}
+
+}
@@ -0,0 +1,174 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.monitor.usage.tests;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import junit.framework.TestCase;
+
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventCursor;
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventLogger;
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventParallelLoader;
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventSerializer;
+import org.eclipse.mylyn.internal.monitor.usage.LogRecoveryCounters;
+import org.eclipse.mylyn.monitor.core.InteractionEvent;
+import org.eclipse.mylyn.monitor.core.InteractionEvent.Kind;
+
+public class InteractionEventLogRecoveryTest extends TestCase {
+
+	private final ByteArrayOutputStream log = new ByteArrayOutputStream();
+
+	private final List<String> expectedDeltas = new ArrayList<String>();
+
+	private File file;
+
+	private int eventCount;
+
+	@Override
+	protected void setUp() throws Exception {
+		file = File.createTempFile("monitor-log", ".xml");
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		file.delete();
+	}
+
+	public void testUndamaged() throws Exception {
+		writeEvents(3);
+		LogRecoveryCounters counters = assertEvents();
+		assertEquals(3, counters.getRecords());
+		assertFalse(counters.hasSkipped());
+	}
+
+	public void testTruncatedRecord() throws Exception {
+		writeEvents(2);
+		byte[] truncated = writeTruncatedEvent();
+		writeEvents(2);
+		LogRecoveryCounters counters = assertEvents();
+		assertEquals(4, counters.getRecords());
+		assertEquals(1, counters.getSkippedRecords());
+		assertEquals(truncated.length, counters.getSkippedBytes());
+	}
+
+	public void testTruncatedLastRecord() throws Exception {
+		writeEvents(2);
+		byte[] truncated = writeTruncatedEvent();
+		LogRecoveryCounters counters = assertEvents();
+		assertEquals(2, counters.getRecords());
+		assertEquals(1, counters.getSkippedRecords());
+		assertEquals(truncated.length, counters.getSkippedBytes());
+	}
+
+	public void testGarbageBetweenRecords() throws Exception {
+		writeEvents(1);
+		// e.g. blocks that were allocated but not written before a crash
+		byte[] garbage = new byte[100];
+		log.write(garbage);
+		writeEvents(1);
+		LogRecoveryCounters counters = assertEvents();
+		assertEquals(2, counters.getRecords());
+		assertEquals(1, counters.getSkippedRecords());
+		assertEquals(garbage.length, counters.getSkippedBytes());
+	}
+
+	public void testUnparsableRecord() throws Exception {
+		writeEvents(1);
+		byte[] record = "<interactionEvent><kind>edit</kind><date>yesterday</date></interactionEvent>".getBytes(StandardCharsets.UTF_8);
+		log.write(record);
+		writeEvents(1);
+		LogRecoveryCounters counters = assertEvents();
+		assertEquals(2, counters.getRecords());
+		assertEquals(1, counters.getSkippedRecords());
+		assertEquals(record.length, counters.getSkippedBytes());
+	}
+
+	public void testManyDamagedRecords() throws Exception {
+		for (int i = 0; i < 1000; i++) {
+			writeEvents(1);
+			writeTruncatedEvent();
+		}
+		LogRecoveryCounters counters = assertEvents();
+		assertEquals(1000, counters.getRecords());
+		assertEquals(1000, counters.getSkippedRecords());
+	}
+
+	private LogRecoveryCounters assertEvents() throws Exception {
+		FileOutputStream out = new FileOutputStream(file);
+		try {
+			log.writeTo(out);
+		} finally {
+			out.close();
+		}
+
+		InteractionEventCursor cursor = new InteractionEventLogger(null).openHistory(file);
+		List<InteractionEvent> events = new ArrayList<InteractionEvent>();
+		while (cursor.hasNext()) {
+			events.add(cursor.next());
+		}
+		assertDeltas(events);
+
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			InteractionEventParallelLoader loader = new InteractionEventParallelLoader(pool, 1000);
+			assertDeltas(loader.load(file));
+			assertDeltas(loader.load(ByteBuffer.wrap(log.toByteArray())));
+		} finally {
+			pool.shutdown();
+		}
+		return cursor.getRecoveryCounters();
+	}
+
+	private void assertDeltas(List<InteractionEvent> events) {
+		assertEquals(expectedDeltas.size(), events.size());
+		for (int i = 0; i < events.size(); i++) {
+			assertEquals(expectedDeltas.get(i), events.get(i).getDelta());
+		}
+	}
+
+	private void writeEvents(int count) throws Exception {
+		InteractionEventSerializer serializer = new InteractionEventSerializer();
+		for (int i = 0; i < count; i++) {
+			InteractionEvent event = createEvent();
+			expectedDeltas.add(event.getDelta());
+			serializer.serialize(event);
+		}
+		serializer.writeTo(log);
+	}
+
+	/**
+	 * Writes the first half of a record, like a crash while the log was written would.
+	 */
+	private byte[] writeTruncatedEvent() throws Exception {
+		InteractionEventSerializer serializer = new InteractionEventSerializer();
+		serializer.serialize(createEvent());
+		byte[] record = serializer.toString().trim().getBytes(StandardCharsets.UTF_8);
+		byte[] truncated = new byte[record.length / 2];
+		System.arraycopy(record, 0, truncated, 0, truncated.length);
+		log.write(truncated);
+		return truncated;
+	}
+
+	private InteractionEvent createEvent() {
+		Date date = new Date(1267401600000L + eventCount * 1000L);
+		return new InteractionEvent(Kind.EDIT, "java", "handle", "origin", null, "delta" + eventCount++, 1f, date, date);
+	}
+
+}
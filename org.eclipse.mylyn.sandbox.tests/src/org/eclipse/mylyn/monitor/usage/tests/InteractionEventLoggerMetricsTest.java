@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.monitor.usage.tests;
+
+import java.io.File;
+
+import junit.framework.TestCase;
+
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventLogger;
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventLogger.OverflowPolicy;
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventLoggerMetrics;
+import org.eclipse.mylyn.monitor.core.InteractionEvent;
+
+public class InteractionEventLoggerMetricsTest extends TestCase {
+
+	private File file;
+
+	private InteractionEventLogger logger;
+
+	@Override
+	protected void setUp() throws Exception {
+		file = File.createTempFile("monitor-log", ".xml");
+		file.deleteOnExit();
+		logger = new InteractionEventLogger(file);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		logger.stopMonitoring();
+		file.delete();
+		new File(file.getPath() + ".queue").delete();
+	}
+
+	public void testEventsWritten() throws Exception {
+		InteractionEventLoggerMetrics metrics = logger.getMetrics();
+		logger.startMonitoring();
+		observe(1000);
+		logger.flush();
+		assertEquals(1000, metrics.getEventsObserved());
+		assertEquals(1000, metrics.getEventsWritten());
+		assertEquals(file.length(), metrics.getBytesWritten());
+		assertEquals(0, metrics.getQueueDepth());
+		assertEquals(0, metrics.getEventsDropped());
+		assertTrue(metrics.getSerializationTime() >= 0);
+
+		long batches = 0;
+		for (long count : metrics.getWriteLatencyHistogram()) {
+			batches += count;
+		}
+		assertTrue(batches > 0);
+		assertTrue(metrics.getWriteLatencyPercentile(0.99) >= metrics.getWriteLatencyPercentile(0.5));
+	}
+
+	public void testQueueDepthAndDropped() throws Exception {
+		InteractionEventLoggerMetrics metrics = logger.getMetrics();
+		logger.setQueueCapacity(64, OverflowPolicy.DROP_OLDEST);
+		observe(100);
+		assertEquals(100, metrics.getEventsObserved());
+		assertEquals(64, metrics.getQueueDepth());
+		assertEquals(36, metrics.getEventsDropped());
+
+		logger.startMonitoring();
+		assertEquals(64, metrics.getEventsWritten());
+		assertEquals(0, metrics.getQueueDepth());
+	}
+
+	public void testReset() throws Exception {
+		InteractionEventLoggerMetrics metrics = logger.getMetrics();
+		logger.setQueueCapacity(2, OverflowPolicy.DROP_OLDEST);
+		observe(10);
+		assertEquals(8, metrics.getEventsDropped());
+		metrics.reset();
+		assertEquals(0, metrics.getEventsObserved());
+		assertEquals(0, metrics.getEventsDropped());
+		assertEquals(0, metrics.getWriteLatencyPercentile(0.5));
+		assertEquals(2, metrics.getQueueDepth());
+	}
+
+	public void testLatencyBuckets() {
+		assertEquals(1, InteractionEventLoggerMetrics.getBucketLimit(0));
+		assertEquals(1024, InteractionEventLoggerMetrics.getBucketLimit(10));
+		assertEquals(Long.MAX_VALUE,
+				InteractionEventLoggerMetrics.getBucketLimit(InteractionEventLoggerMetrics.LATENCY_BUCKETS - 1));
+	}
+
+	private void observe(int count) {
+		for (int i = 0; i < count; i++) {
+			logger.interactionObserved(InteractionEvent.makeCommand("org.eclipse.ui.edit.copy", String.valueOf(i)));
+		}
+	}
+
+}
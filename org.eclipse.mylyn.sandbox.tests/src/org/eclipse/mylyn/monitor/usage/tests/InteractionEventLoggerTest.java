@@ -16,7 +16,6 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
-import java.text.DateFormat;
 import java.util.Calendar;
 import java.util.Random;
 
@@ -28,6 +27,8 @@ import org.eclipse.jface.dialogs.ProgressMonitorDialog;
 import org.eclipse.jface.operation.IRunnableWithProgress;
 import org.eclipse.mylyn.commons.sdk.util.CommonTestUtil;
 import org.eclipse.mylyn.internal.monitor.usage.InteractionEventLogger;
+import org.eclipse.mylyn.internal.monitor.usage.TimestampCodec;
+import org.eclipse.mylyn.monitor.core.InteractionEvent;
 import org.eclipse.swt.widgets.Display;
 
 /**
@@ -37,7 +38,7 @@ public class InteractionEventLoggerTest extends TestCase {
 
 	private final Calendar c = Calendar.getInstance();
 
-	private final DateFormat dateFormat = InteractionEventLogger.dateFormat();
+	private final TimestampCodec timestampCodec = TimestampCodec.getDefault();
 
 	private final Random random = new Random();
 
@@ -112,9 +113,46 @@ public class InteractionEventLoggerTest extends TestCase {
 		runWith(CommonTestUtil.getFile(this, "testdata/usage-parsing.zip"));
 	}
 
+	public void testWriteBatched() throws Exception {
+		File file = File.createTempFile("interaction_history_temp", ".xml");
+		file.deleteOnExit();
+		InteractionEventLogger logger = new InteractionEventLogger(file);
+		logger.setBatchSize(7);
+		logger.setFlushInterval(60 * 1000);
+		logger.startMonitoring();
+		try {
+			for (int i = 0; i < 1000; i++) {
+				logger.interactionObserved(new InteractionEvent(InteractionEvent.Kind.SELECTION, "kind", "handle" + i,
+						"origin"));
+			}
+			// reading the logger's own file waits for buffered events
+			assertEquals(1000, logger.getHistoryFromFile(file).size());
+		} finally {
+			logger.stopMonitoring();
+		}
+		assertEquals(1000, logger.getHistoryFromFile(file).size());
+		file.delete();
+	}
+
+	public void testStopWritesQueuedEvents() throws Exception {
+		File file = File.createTempFile("interaction_history_temp", ".xml");
+		file.deleteOnExit();
+		InteractionEventLogger logger = new InteractionEventLogger(file);
+		logger.setFlushInterval(60 * 1000);
+		for (int i = 0; i < 10; i++) {
+			logger.interactionObserved(new InteractionEvent(InteractionEvent.Kind.SELECTION, "kind", "handle" + i,
+					"origin"));
+		}
+		logger.startMonitoring();
+		logger.interactionObserved(new InteractionEvent(InteractionEvent.Kind.EDIT, "kind", "handle", "origin"));
+		logger.stopMonitoring();
+		assertEquals(11, logger.getHistoryFromFile(file).size());
+		file.delete();
+	}
+
 	private void writeRandomDate(BufferedWriter out) throws IOException {
 		c.setTimeInMillis(random.nextLong());
-		out.write(dateFormat.format(c.getTime()));
+		out.write(timestampCodec.format(c.getTime()));
 	}
 
 	private void writeRandomString(BufferedWriter out) throws IOException {
@@ -0,0 +1,205 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.monitor.usage.tests;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import junit.framework.TestCase;
+
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventMergeCursor;
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventStore;
+import org.eclipse.mylyn.monitor.core.InteractionEvent;
+import org.eclipse.mylyn.monitor.core.InteractionEvent.Kind;
+
+public class InteractionEventMergeCursorTest extends TestCase {
+
+	public void testMerge() {
+		List<InteractionEvent> first = new ArrayList<InteractionEvent>();
+		List<InteractionEvent> second = new ArrayList<InteractionEvent>();
+		for (int i = 0; i < 100; i++) {
+			if (i % 3 == 0) {
+				second.add(event(i, "delta" + i));
+			} else {
+				first.add(event(i, "delta" + i));
+			}
+		}
+		InteractionEventMergeCursor cursor = merge(first, second);
+		for (int i = 0; i < 100; i++) {
+			assertTrue(cursor.hasNext());
+			assertEquals("delta" + i, cursor.next().getDelta());
+		}
+		assertFalse(cursor.hasNext());
+		try {
+			cursor.next();
+			fail("Expected NoSuchElementException");
+		} catch (NoSuchElementException e) {
+			// expected
+		}
+		assertEquals(0, cursor.getDuplicateCount());
+	}
+
+	public void testSameDateInSourceOrder() {
+		List<InteractionEvent> first = new ArrayList<InteractionEvent>();
+		first.add(event(1, "a"));
+		first.add(event(2, "b"));
+		first.add(event(2, "c"));
+		List<InteractionEvent> second = new ArrayList<InteractionEvent>();
+		second.add(event(2, "d"));
+		second.add(event(2, "e"));
+		second.add(event(3, "f"));
+		assertEquals("abcdef", toString(merge(first, second)));
+		assertEquals("adebcf", toString(merge(second, first)));
+	}
+
+	public void testDuplicates() {
+		List<InteractionEvent> first = new ArrayList<InteractionEvent>();
+		first.add(event(1, "a"));
+		first.add(event(2, "b"));
+		first.add(event(2, "c"));
+		first.add(event(2, "b"));
+		// the log repeats the last events of the archive
+		List<InteractionEvent> second = new ArrayList<InteractionEvent>();
+		second.add(event(2, "c"));
+		second.add(event(2, "b"));
+		second.add(new InteractionEvent(Kind.EDIT, "java", "handle", "origin", "null", "b", 1f, new Date(2),
+				new Date(2)));
+		second.add(event(3, "b"));
+		InteractionEventMergeCursor cursor = merge(first, second);
+		assertEquals("abcbb", toString(cursor));
+		assertEquals(3, cursor.getDuplicateCount());
+	}
+
+	public void testUnorderedSource() {
+		List<InteractionEvent> first = new ArrayList<InteractionEvent>();
+		first.add(event(1, "a"));
+		first.add(event(3, "c"));
+		List<InteractionEvent> second = new ArrayList<InteractionEvent>();
+		second.add(event(2, "b"));
+		second.add(event(4, "d"));
+		InteractionEventMergeCursor cursor = merge(first, second);
+		assertEquals("abcd", toString(cursor));
+		assertTrue(cursor.isOrdered());
+
+		// the clock was set back
+		second.add(event(0, "e"));
+		cursor = merge(first, second);
+		assertEquals("abcde", toString(cursor));
+		assertFalse(cursor.isOrdered());
+	}
+
+	public void testMatchesStore() {
+		List<List<InteractionEvent>> sources = new ArrayList<List<InteractionEvent>>();
+		InteractionEventStore store = new InteractionEventStore();
+		for (int source = 0; source < 5; source++) {
+			List<InteractionEvent> events = new ArrayList<InteractionEvent>();
+			for (int i = source * 50; i < source * 50 + 200; i++) {
+				// few distinct dates and overlapping sources
+				events.add(event(i / 4, "delta" + (i % 6)));
+			}
+			store.addAll(events);
+			sources.add(events);
+		}
+		List<Iterator<InteractionEvent>> iterators = new ArrayList<Iterator<InteractionEvent>>();
+		for (List<InteractionEvent> events : sources) {
+			iterators.add(events.iterator());
+		}
+		InteractionEventMergeCursor cursor = new InteractionEventMergeCursor(iterators);
+		Iterator<InteractionEvent> expected = store.asSortedSet().iterator();
+		while (expected.hasNext()) {
+			InteractionEvent event = expected.next();
+			assertTrue(cursor.hasNext());
+			InteractionEvent merged = cursor.next();
+			assertEquals(event.getDate(), merged.getDate());
+			assertEquals(event.getDelta(), merged.getDelta());
+		}
+		assertFalse(cursor.hasNext());
+	}
+
+	public void testClose() {
+		List<InteractionEvent> events = new ArrayList<InteractionEvent>();
+		events.add(event(1, "a"));
+		events.add(event(2, "b"));
+		CloseableIterator first = new CloseableIterator(events);
+		CloseableIterator second = new CloseableIterator(new ArrayList<InteractionEvent>());
+		List<Iterator<InteractionEvent>> iterators = new ArrayList<Iterator<InteractionEvent>>();
+		iterators.add(first);
+		iterators.add(second);
+		InteractionEventMergeCursor cursor = new InteractionEventMergeCursor(iterators);
+		assertEquals("a", cursor.next().getDelta());
+		cursor.close();
+		assertEquals(1, first.closeCount);
+		assertEquals(1, second.closeCount);
+		assertFalse(cursor.hasNext());
+		cursor.close();
+		assertEquals(1, first.closeCount);
+
+		first = new CloseableIterator(events);
+		iterators.set(0, first);
+		cursor = new InteractionEventMergeCursor(iterators);
+		assertEquals("ab", toString(cursor));
+		assertEquals(1, first.closeCount);
+	}
+
+	private InteractionEventMergeCursor merge(List<InteractionEvent> first, List<InteractionEvent> second) {
+		List<Iterator<InteractionEvent>> iterators = new ArrayList<Iterator<InteractionEvent>>();
+		iterators.add(first.iterator());
+		iterators.add(second.iterator());
+		return new InteractionEventMergeCursor(iterators);
+	}
+
+	private static String toString(Iterator<InteractionEvent> events) {
+		StringBuilder sb = new StringBuilder();
+		while (events.hasNext()) {
+			sb.append(events.next().getDelta());
+		}
+		return sb.toString();
+	}
+
+	private static InteractionEvent event(long time, String delta) {
+		return new InteractionEvent(Kind.SELECTION, "java", "handle", "origin", "null", delta, 1f, new Date(time),
+				new Date(time));
+	}
+
+	private static class CloseableIterator implements Iterator<InteractionEvent>, Closeable {
+
+		private final Iterator<InteractionEvent> iterator;
+
+		private int closeCount;
+
+		private CloseableIterator(List<InteractionEvent> events) {
+			this.iterator = events.iterator();
+		}
+
+		public boolean hasNext() {
+			return iterator.hasNext();
+		}
+
+		public InteractionEvent next() {
+			return iterator.next();
+		}
+
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+		public void close() {
+			closeCount++;
+		}
+
+	}
+
+}
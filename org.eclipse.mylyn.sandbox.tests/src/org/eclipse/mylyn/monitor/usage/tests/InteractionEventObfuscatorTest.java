@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.monitor.usage.tests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.Path;
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventObfuscator;
+import org.eclipse.mylyn.monitor.core.InteractionEvent;
+
+public class InteractionEventObfuscatorTest extends TestCase {
+
+	private static final String KIND = "unknown-kind";
+
+	public void testObfuscateString() {
+		InteractionEventObfuscator obfuscator = new InteractionEventObfuscator();
+		String obfuscated = obfuscator.obfuscateString("handle");
+		assertEquals(obfuscated, obfuscator.obfuscateString("handle"));
+		assertFalse(obfuscated.equals(obfuscator.obfuscateString("other")));
+		assertEquals(-1, obfuscated.indexOf('/'));
+	}
+
+	public void testObfuscateHandleCached() {
+		InteractionEventObfuscator obfuscator = new InteractionEventObfuscator();
+		String obfuscated = obfuscator.obfuscateHandle(KIND, "handle");
+		assertEquals(obfuscator.obfuscateString("handle"), obfuscated);
+		assertEquals(0, obfuscator.getCacheHits());
+		assertEquals(1, obfuscator.getCacheMisses());
+
+		assertEquals(obfuscated, obfuscator.obfuscateHandle(KIND, "handle"));
+		assertEquals(obfuscated, obfuscator.obfuscateHandle(KIND, "handle"));
+		assertEquals(2, obfuscator.getCacheHits());
+		assertEquals(1, obfuscator.getCacheMisses());
+		assertEquals(2 / 3d, obfuscator.getCacheHitRate(), 0.0001);
+		assertTrue(obfuscator.getCacheTimeSaved() >= 0);
+
+		// the structure kind is part of the key
+		obfuscator.obfuscateHandle("other-kind", "handle");
+		assertEquals(2, obfuscator.getCacheMisses());
+	}
+
+	public void testObfuscateEmptyHandle() {
+		InteractionEventObfuscator obfuscator = new InteractionEventObfuscator();
+		assertNull(obfuscator.obfuscateHandle(KIND, null));
+		assertEquals("", obfuscator.obfuscateHandle(KIND, ""));
+		assertEquals(0, obfuscator.getCacheMisses());
+	}
+
+	public void testCacheEvictsLeastRecentlyUsed() {
+		InteractionEventObfuscator obfuscator = new InteractionEventObfuscator(2);
+		obfuscator.obfuscateHandle(KIND, "a");
+		obfuscator.obfuscateHandle(KIND, "b");
+		obfuscator.obfuscateHandle(KIND, "a");
+		obfuscator.obfuscateHandle(KIND, "c");
+		assertEquals(3, obfuscator.getCacheMisses());
+
+		// b was evicted, a was used more recently
+		obfuscator.obfuscateHandle(KIND, "a");
+		assertEquals(3, obfuscator.getCacheMisses());
+		obfuscator.obfuscateHandle(KIND, "b");
+		assertEquals(4, obfuscator.getCacheMisses());
+	}
+
+	public void testCacheDisabled() {
+		InteractionEventObfuscator obfuscator = new InteractionEventObfuscator(0);
+		String obfuscated = obfuscator.obfuscateHandle(KIND, "handle");
+		assertEquals(obfuscated, obfuscator.obfuscateHandle(KIND, "handle"));
+		assertEquals(0, obfuscator.getCacheHits());
+		assertEquals(0, obfuscator.getCacheHitRate(), 0);
+	}
+
+	public void testObfuscateResourcePath() {
+		InteractionEventObfuscator obfuscator = new InteractionEventObfuscator();
+		String expected = obfuscator.obfuscateString("project") + "/" + obfuscator.obfuscateString("src") + "/"
+				+ obfuscator.obfuscateString("File.java");
+		assertEquals(expected, obfuscator.obfuscateResourcePath(new Path("/project/src/File.java")));
+		// served from the segment cache
+		assertEquals(expected, obfuscator.obfuscateResourcePath(new Path("/project/src/File.java")));
+		assertEquals("", obfuscator.obfuscateResourcePath(null));
+	}
+
+	public void testObfuscateBatch() {
+		InteractionEventObfuscator obfuscator = new InteractionEventObfuscator();
+		Date date = new Date(1234567890000L);
+		Date endDate = new Date(1234567899000L);
+		InteractionEvent first = new InteractionEvent(InteractionEvent.Kind.SELECTION, KIND, "a", "origin", "nav",
+				"delta", 2f, date, endDate);
+		InteractionEvent second = new InteractionEvent(InteractionEvent.Kind.EDIT, KIND, "b", "origin", "nav",
+				"delta", 1f, date, endDate);
+		InteractionEvent noHandle = new InteractionEvent(InteractionEvent.Kind.COMMAND, KIND, "", "origin", "nav",
+				"delta", 1f, date, endDate);
+
+		List<InteractionEvent> result = obfuscator.obfuscate(Arrays.asList(first, null, second, noHandle, first));
+		assertEquals(4, result.size());
+		assertEquals(obfuscator.obfuscateHandle(KIND, "a"), result.get(0).getStructureHandle());
+		assertEquals(obfuscator.obfuscateHandle(KIND, "b"), result.get(1).getStructureHandle());
+		assertSame(noHandle, result.get(2));
+		assertEquals(result.get(0).getStructureHandle(), result.get(3).getStructureHandle());
+		for (InteractionEvent event : result) {
+			assertEquals(date, event.getDate());
+			assertEquals(endDate, event.getEndDate());
+			assertEquals("origin", event.getOriginId());
+		}
+		assertEquals(InteractionEvent.Kind.EDIT, result.get(1).getKind());
+		assertEquals(1f, result.get(1).getInterestContribution());
+	}
+
+	public void testConcurrentUse() throws Exception {
+		final InteractionEventObfuscator obfuscator = new InteractionEventObfuscator(16);
+		final InteractionEventObfuscator reference = new InteractionEventObfuscator(0);
+		final List<Throwable> failures = new ArrayList<Throwable>();
+		List<Thread> threads = new ArrayList<Thread>();
+		for (int t = 0; t < 4; t++) {
+			Thread thread = new Thread() {
+				@Override
+				public void run() {
+					try {
+						for (int i = 0; i < 5000; i++) {
+							String handle = "handle" + (i % 32);
+							assertEquals(reference.obfuscateString(handle), obfuscator.obfuscateHandle(KIND, handle));
+						}
+					} catch (Throwable e) {
+						synchronized (failures) {
+							failures.add(e);
+						}
+					}
+				}
+			};
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertEquals(failures.toString(), 0, failures.size());
+		assertEquals(20000, obfuscator.getCacheHits() + obfuscator.getCacheMisses());
+	}
+
+}
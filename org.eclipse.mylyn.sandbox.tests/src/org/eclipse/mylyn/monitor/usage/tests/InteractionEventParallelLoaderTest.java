@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.monitor.usage.tests;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import junit.framework.TestCase;
+
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventLogConverter;
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventParallelLoader;
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventSerializer;
+import org.eclipse.mylyn.monitor.core.InteractionEvent;
+import org.eclipse.mylyn.monitor.core.InteractionEvent.Kind;
+
+public class InteractionEventParallelLoaderTest extends TestCase {
+
+	private static final int EVENT_COUNT = 2000;
+
+	private ForkJoinPool pool;
+
+	private List<InteractionEvent> events;
+
+	private List<InteractionEvent> expected;
+
+	private final List<File> files = new ArrayList<File>();
+
+	@Override
+	protected void setUp() throws Exception {
+		pool = new ForkJoinPool(4);
+		Random random = new Random(42);
+		events = new ArrayList<InteractionEvent>();
+		for (int i = 0; i < EVENT_COUNT; i++) {
+			// few distinct dates, many events share a date
+			Date date = new Date(1234567890000L + random.nextInt(100) * 1000L);
+			events.add(new InteractionEvent(Kind.SELECTION, "java", "handle" + i, "origin", null, "é" + i, 1f, date,
+					date));
+		}
+		expected = new ArrayList<InteractionEvent>(events);
+		Collections.sort(expected, new Comparator<InteractionEvent>() {
+			public int compare(InteractionEvent o1, InteractionEvent o2) {
+				return o1.getDate().compareTo(o2.getDate());
+			}
+		});
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		pool.shutdown();
+		for (File file : files) {
+			file.delete();
+		}
+	}
+
+	public void testLoad() throws Exception {
+		File file = createFile(".xml");
+		writeXml(new FileOutputStream(file));
+		// split into many small chunks
+		for (int minChunkSize : new int[] { 1, 100, 1000, 10000, Integer.MAX_VALUE }) {
+			assertEvents(new InteractionEventParallelLoader(pool, minChunkSize).load(file));
+		}
+	}
+
+	public void testLoadZip() throws Exception {
+		File file = createFile(".zip");
+		ZipOutputStream out = new ZipOutputStream(new FileOutputStream(file));
+		out.putNextEntry(new ZipEntry("monitor-log.xml"));
+		writeXml(out);
+		assertEvents(new InteractionEventParallelLoader(pool, 100).load(file));
+	}
+
+	public void testLoadBinary() throws Exception {
+		File file = createFile(".bin");
+		InteractionEventLogConverter.write(events, file, true);
+		assertEvents(new InteractionEventParallelLoader(pool, 100).load(file));
+	}
+
+	public void testLoadEmpty() throws Exception {
+		File file = createFile(".xml");
+		assertEquals(0, new InteractionEventParallelLoader(pool, 1).load(file).size());
+	}
+
+	private void assertEvents(List<InteractionEvent> actual) {
+		assertEquals(EVENT_COUNT, actual.size());
+		for (int i = 0; i < EVENT_COUNT; i++) {
+			assertEquals(expected.get(i).getDelta(), actual.get(i).getDelta());
+			assertEquals(expected.get(i).getDate(), actual.get(i).getDate());
+		}
+	}
+
+	private File createFile(String suffix) throws Exception {
+		File file = File.createTempFile("monitor-log", suffix);
+		file.deleteOnExit();
+		files.add(file);
+		return file;
+	}
+
+	private void writeXml(OutputStream out) throws Exception {
+		try {
+			InteractionEventSerializer serializer = new InteractionEventSerializer();
+			for (InteractionEvent event : events) {
+				serializer.serialize(event);
+			}
+			serializer.writeTo(out);
+		} finally {
+			out.close();
+		}
+	}
+
+}
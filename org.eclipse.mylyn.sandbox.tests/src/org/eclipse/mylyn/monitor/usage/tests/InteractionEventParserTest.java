@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.monitor.usage.tests;
+
+import java.util.Date;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventParser;
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventSerializer;
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventStringPool;
+import org.eclipse.mylyn.internal.monitor.usage.TimestampCodec;
+import org.eclipse.mylyn.monitor.core.InteractionEvent;
+import org.eclipse.mylyn.monitor.core.InteractionEvent.Kind;
+
+/**
+ * Verifies that {@link InteractionEventParser} parses records exactly like the original parser.
+ */
+public class InteractionEventParserTest extends TestCase {
+
+	private static final String DATE = TimestampCodec.getDefault().format(1234567890123L);
+
+	private final InteractionEventParser parser = new InteractionEventParser();
+
+	public void testSerializedEvents() {
+		Random random = new Random(42);
+		String alphabet = "ab <>&\"'\r\n\t  é中😀;#x";
+		InteractionEventSerializer serializer = new InteractionEventSerializer();
+		for (int i = 0; i < 2000; i++) {
+			InteractionEvent event = new InteractionEvent(Kind.values()[i % Kind.values().length], randomString(
+					random, alphabet), randomString(random, alphabet), randomString(random, alphabet), randomString(
+					random, alphabet), randomString(random, alphabet), random.nextFloat(), new Date(
+					random.nextInt() & 0xFFFFFFFFL), new Date(random.nextInt() & 0xFFFFFFFFL));
+			serializer.reset();
+			serializer.serialize(event);
+			assertParity(serializer.toString());
+		}
+	}
+
+	public void testWhitespaceNormalization() {
+		assertParity(record("<originId>  a   b \t\r\n c  </originId>"));
+		assertParity(record("<originId>&#x09;a &#x0A; b&#x0D;</originId>"));
+		assertParity(record("<originId> &amp;lt; &lt;a&gt; </originId>"));
+		assertParity(record("<originId>\n\t\t</originId>"));
+		assertParity(record("<originId></originId>"));
+		assertEquals("a b c", parser.parse(record("<originId>  a   b \t\r\n c  </originId>")).getOriginId());
+		assertEquals("a \n b", parser.parse(record("<originId>&#x09;a &#x0A; b&#x0D;</originId>")).getOriginId());
+	}
+
+	public void testIrregularRecords() {
+		// missing and repeated fields, unusual order
+		assertParity("<interactionEvent><endDate>" + DATE + "</endDate><date>" + DATE + "</date></interactionEvent>");
+		assertParity(record("<delta>first</delta><delta>second</delta>"));
+		assertParity(record("<interestContribution>not a number</interestContribution>"));
+		assertParity(record("<kind>SELECTION</kind>"));
+		assertParity(record("<kind>unknown</kind>"));
+		// handed to the original parser
+		assertParity(record("<originId>a &unknown; b</originId>"));
+		assertParity(record("<unknown>a</unknown>"));
+		assertParity(record("<originId>a &amp b</originId>"));
+		// stray end tags and text between fields are ignored
+		assertParity(record("</delta> text <delta>a</delta>"));
+	}
+
+	public void testInvalidDates() {
+		assertNull(parser.parse("<interactionEvent><kind>edit</kind></interactionEvent>"));
+		assertNull(parser.parse(record("").replace(DATE, "invalid")));
+	}
+
+	public void testStringPool() {
+		InteractionEventStringPool pool = new InteractionEventStringPool();
+		InteractionEventParser pooledParser = new InteractionEventParser(pool);
+		String xml = record("<originId>org.eclipse.ui.edit.copy</originId><navigation>null</navigation>");
+		InteractionEvent first = pooledParser.parse(xml);
+		InteractionEvent second = pooledParser.parse(xml);
+		assertSame(first.getOriginId(), second.getOriginId());
+		assertSame(first.getNavigation(), second.getNavigation());
+		// shared with other parsers of the same load
+		assertSame(first.getOriginId(), new InteractionEventParser(pool).parse(xml).getOriginId());
+		// records handed to the original parser
+		InteractionEvent irregular = pooledParser.parse(xml.replace("<navigation>", "<unknown></unknown><navigation>"));
+		assertSame(first.getOriginId(), irregular.getOriginId());
+
+		assertNotSame(parser.parse(xml).getOriginId(), parser.parse(xml).getOriginId());
+	}
+
+	private void assertParity(String xml) {
+		InteractionEvent expected = InteractionEventParser.parseWithTokenizer(xml);
+		InteractionEvent actual = parser.parse(xml);
+		if (expected == null) {
+			assertNull(xml, actual);
+			return;
+		}
+		assertNotNull(xml, actual);
+		assertEquals(xml, expected.getKind(), actual.getKind());
+		assertEquals(xml, expected.getStructureKind(), actual.getStructureKind());
+		assertEquals(xml, expected.getStructureHandle(), actual.getStructureHandle());
+		assertEquals(xml, expected.getOriginId(), actual.getOriginId());
+		assertEquals(xml, expected.getNavigation(), actual.getNavigation());
+		assertEquals(xml, expected.getDelta(), actual.getDelta());
+		assertEquals(xml, expected.getInterestContribution(), actual.getInterestContribution());
+		assertEquals(xml, expected.getDate(), actual.getDate());
+		assertEquals(xml, expected.getEndDate(), actual.getEndDate());
+	}
+
+	private static String record(String fields) {
+		return "<interactionEvent>\n\t<kind>edit</kind>\n\t<date>" + DATE + "</date>\n\t<endDate>" + DATE
+				+ "</endDate>\n\t" + fields + "\n</interactionEvent>";
+	}
+
+	private static String randomString(Random random, String alphabet) {
+		int length = random.nextInt(12);
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < length; i++) {
+			sb.appendCodePoint(alphabet.codePointAt(alphabet.offsetByCodePoints(0,
+					random.nextInt(alphabet.codePointCount(0, alphabet.length())))));
+		}
+		return sb.toString();
+	}
+
+}
@@ -0,0 +1,152 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.monitor.usage.tests;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventLogger;
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventLogger.OverflowPolicy;
+import org.eclipse.mylyn.monitor.core.InteractionEvent;
+
+/**
+ * Tests the queue that holds events observed while monitoring is stopped.
+ */
+public class InteractionEventQueueTest extends TestCase {
+
+	private File file;
+
+	private InteractionEventLogger logger;
+
+	@Override
+	protected void setUp() throws Exception {
+		file = File.createTempFile("monitor-log", ".xml");
+		file.deleteOnExit();
+		logger = new InteractionEventLogger(file);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		logger.stopMonitoring();
+		file.delete();
+		new File(file.getPath() + ".queue").delete();
+	}
+
+	public void testQueuedEventsWrittenOnStart() throws Exception {
+		observe(logger, 0, 100000);
+		assertEquals(0, logger.getDroppedEventCount());
+		logger.startMonitoring();
+		assertEvents(0, 100000, logger.getHistoryFromFile(file));
+		assertFalse(new File(file.getPath() + ".queue").exists());
+	}
+
+	public void testQueueingIsLinear() throws Exception {
+		List<InteractionEvent> events = new ArrayList<InteractionEvent>();
+		for (int i = 0; i < 100000; i++) {
+			events.add(InteractionEvent.makeCommand("org.eclipse.ui.edit.copy", String.valueOf(i)));
+		}
+		long small = Long.MAX_VALUE;
+		long large = Long.MAX_VALUE;
+		for (int i = 0; i < 5; i++) {
+			small = Math.min(small, timeQueueing(events.subList(0, 10000)));
+			large = Math.min(large, timeQueueing(events));
+		}
+		// copying the queue for every event would take about 100 times as long
+		assertTrue("Queueing 100k events took " + large + "ns, 10k events took " + small + "ns",
+				large < 40 * Math.max(small, 1000 * 1000));
+	}
+
+	public void testDropOldest() throws Exception {
+		logger.setQueueCapacity(1024, OverflowPolicy.DROP_OLDEST);
+		observe(logger, 0, 5000);
+		assertEquals(5000 - 1024, logger.getDroppedEventCount());
+		logger.startMonitoring();
+		assertEvents(5000 - 1024, 5000, logger.getHistoryFromFile(file));
+	}
+
+	public void testSpillToDisk() throws Exception {
+		logger.setQueueCapacity(1024, OverflowPolicy.SPILL_TO_DISK);
+		observe(logger, 0, 5000);
+		assertEquals(0, logger.getDroppedEventCount());
+		assertTrue(logger.getSpilledEventCount() > 0);
+		logger.startMonitoring();
+		assertEvents(0, 5000, logger.getHistoryFromFile(file));
+		assertFalse(new File(file.getPath() + ".queue").exists());
+	}
+
+	public void testConcurrentProducers() throws Exception {
+		logger.setQueueCapacity(1024, OverflowPolicy.SPILL_TO_DISK);
+		List<Thread> threads = new ArrayList<Thread>();
+		for (int t = 0; t < 4; t++) {
+			final int offset = t * 25000;
+			Thread thread = new Thread() {
+				@Override
+				public void run() {
+					observe(logger, offset, offset + 25000);
+				}
+			};
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		logger.startMonitoring();
+		List<InteractionEvent> events = logger.getHistoryFromFile(file);
+		assertEquals(100000, events.size());
+		Set<String> deltas = new HashSet<String>();
+		for (InteractionEvent event : events) {
+			deltas.add(event.getDelta());
+		}
+		assertEquals(100000, deltas.size());
+	}
+
+	public void testEventsObservedAfterStop() throws Exception {
+		logger.startMonitoring();
+		observe(logger, 0, 10);
+		logger.stopMonitoring();
+		observe(logger, 10, 20);
+		logger.startMonitoring();
+		assertEvents(0, 20, logger.getHistoryFromFile(file));
+	}
+
+	private long timeQueueing(List<InteractionEvent> events) {
+		InteractionEventLogger queueingLogger = new InteractionEventLogger(null);
+		queueingLogger.setQueueCapacity(events.size(), OverflowPolicy.DROP_OLDEST);
+		long start = System.nanoTime();
+		for (InteractionEvent event : events) {
+			queueingLogger.interactionObserved(event);
+		}
+		long time = System.nanoTime() - start;
+		assertEquals(0, queueingLogger.getDroppedEventCount());
+		return time;
+	}
+
+	private static void observe(InteractionEventLogger logger, int from, int to) {
+		for (int i = from; i < to; i++) {
+			logger.interactionObserved(InteractionEvent.makeCommand("org.eclipse.ui.edit.copy", String.valueOf(i)));
+		}
+	}
+
+	private void assertEvents(int from, int to, List<InteractionEvent> events) {
+		assertEquals(to - from, events.size());
+		for (int i = from; i < to; i++) {
+			assertEquals(String.valueOf(i), events.get(i - from).getDelta());
+		}
+	}
+
+}
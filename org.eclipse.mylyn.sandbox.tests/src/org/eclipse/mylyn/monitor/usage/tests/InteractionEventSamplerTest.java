@@ -0,0 +1,196 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.monitor.usage.tests;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventLogger;
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventSampler;
+import org.eclipse.mylyn.internal.monitor.usage.SamplingRule;
+import org.eclipse.mylyn.monitor.core.InteractionEvent;
+import org.eclipse.mylyn.monitor.core.InteractionEvent.Kind;
+
+public class InteractionEventSamplerTest extends TestCase {
+
+	private static final String ORIGIN = "org.eclipse.ui.views.ContentOutline";
+
+	public void testCoalesceSelections() {
+		InteractionEventSampler sampler = createSampler(new SamplingRule(Kind.SELECTION, null, 100, 0, 1));
+		List<InteractionEvent> result = new ArrayList<InteractionEvent>();
+		for (int i = 0; i < 5; i++) {
+			sampler.process(event(Kind.SELECTION, "a", ORIGIN, i * 50), result);
+		}
+		assertEquals(0, result.size());
+		sampler.process(event(Kind.SELECTION, "b", ORIGIN, 250), result);
+		assertEquals(1, result.size());
+		InteractionEvent merged = result.get(0);
+		assertEquals("a", merged.getStructureHandle());
+		assertEquals(5, InteractionEventSampler.getCount(merged));
+		assertEquals(0, merged.getDate().getTime());
+		assertEquals(200, merged.getEndDate().getTime());
+		assertEquals("delta;count=5", merged.getDelta());
+		assertEquals(4, sampler.getCoalescedCount());
+
+		sampler.flush(result);
+		assertEquals(2, result.size());
+		assertEquals(1, InteractionEventSampler.getCount(result.get(1)));
+		assertEquals("delta", result.get(1).getDelta());
+	}
+
+	public void testCoalesceWindow() {
+		InteractionEventSampler sampler = createSampler(new SamplingRule(Kind.SELECTION, null, 100, 0, 1));
+		List<InteractionEvent> result = new ArrayList<InteractionEvent>();
+		sampler.process(event(Kind.SELECTION, "a", ORIGIN, 0), result);
+		sampler.process(event(Kind.SELECTION, "a", ORIGIN, 100), result);
+		sampler.process(event(Kind.SELECTION, "a", ORIGIN, 201), result);
+		sampler.flush(result);
+		assertEquals(2, result.size());
+		assertEquals(2, InteractionEventSampler.getCount(result.get(0)));
+		assertEquals(1, InteractionEventSampler.getCount(result.get(1)));
+	}
+
+	public void testFlushExpired() {
+		InteractionEventSampler sampler = createSampler(new SamplingRule(Kind.SELECTION, null, 100, 0, 1));
+		List<InteractionEvent> result = new ArrayList<InteractionEvent>();
+		assertEquals(-1, sampler.getExpiryDelay(0));
+		sampler.process(event(Kind.SELECTION, "a", ORIGIN, 0), result);
+		sampler.process(event(Kind.SELECTION, "a", ORIGIN, 50), result);
+		assertEquals(101, sampler.getExpiryDelay(50));
+		sampler.flushExpired(150, result);
+		assertEquals(0, result.size());
+		assertEquals(0, sampler.getExpiryDelay(151));
+		sampler.flushExpired(151, result);
+		assertEquals(1, result.size());
+		assertEquals(2, InteractionEventSampler.getCount(result.get(0)));
+		assertEquals(-1, sampler.getExpiryDelay(151));
+	}
+
+	public void testOtherKindsNotSampled() {
+		InteractionEventSampler sampler = createSampler(new SamplingRule(Kind.SELECTION, null, 100, 0, 1));
+		List<InteractionEvent> result = new ArrayList<InteractionEvent>();
+		sampler.process(event(Kind.SELECTION, "a", ORIGIN, 0), result);
+		sampler.process(event(Kind.EDIT, "a", ORIGIN, 10), result);
+		sampler.process(event(Kind.EDIT, "a", ORIGIN, 20), result);
+		sampler.process(event(Kind.SELECTION, "a", ORIGIN, 30), result);
+		sampler.flush(result);
+		assertEquals(4, result.size());
+		assertEquals(0, sampler.getCoalescedCount());
+	}
+
+	public void testRateLimit() {
+		InteractionEventSampler sampler = createSampler(new SamplingRule(Kind.PREFERENCE, null, 0, 2, 3));
+		List<InteractionEvent> result = new ArrayList<InteractionEvent>();
+		for (int i = 0; i < 10; i++) {
+			sampler.process(event(Kind.PREFERENCE, "pref" + i, ORIGIN, i), result);
+		}
+		// the burst is used up, the rate refills a token every 500 ms
+		assertEquals(3, result.size());
+		assertEquals(7, sampler.getDroppedCount());
+		sampler.process(event(Kind.PREFERENCE, "pref", ORIGIN, 400), result);
+		assertEquals(3, result.size());
+		sampler.process(event(Kind.PREFERENCE, "pref", ORIGIN, 600), result);
+		assertEquals(4, result.size());
+
+		// origins have separate buckets
+		sampler.process(event(Kind.PREFERENCE, "pref", "other", 600), result);
+		assertEquals(5, result.size());
+	}
+
+	public void testFirstMatchingRuleApplies() {
+		InteractionEventSampler sampler = createSampler(new SamplingRule(null, "org.eclipse.jdt", 0, 0, 1),
+				new SamplingRule(null, "org.eclipse", 0, 1, 1));
+		List<InteractionEvent> result = new ArrayList<InteractionEvent>();
+		for (int i = 0; i < 5; i++) {
+			sampler.process(event(Kind.SELECTION, "a" + i, "org.eclipse.jdt.ui.PackageExplorer", i), result);
+			sampler.process(event(Kind.SELECTION, "a" + i, "org.eclipse.ui.views.ContentOutline", i), result);
+			sampler.process(event(Kind.SELECTION, "a" + i, "com.example", i), result);
+		}
+		assertEquals(11, result.size());
+	}
+
+	public void testGetCount() {
+		assertEquals(1, InteractionEventSampler.getCount(event(Kind.SELECTION, "a", ORIGIN, 0)));
+		assertEquals(3, InteractionEventSampler.getCount(new InteractionEvent(Kind.SELECTION, "kind", "a", ORIGIN,
+				null, "count=3", 1f, new Date(0), new Date(0))));
+		assertEquals(1, InteractionEventSampler.getCount(new InteractionEvent(Kind.SELECTION, "kind", "a", ORIGIN,
+				null, "discount=3", 1f, new Date(0), new Date(0))));
+	}
+
+	public void testLoggerSampling() throws Exception {
+		File file = File.createTempFile("monitor-log", ".xml");
+		file.deleteOnExit();
+		InteractionEventLogger logger = new InteractionEventLogger(file);
+		try {
+			logger.setSamplingRules(Collections.singletonList(new SamplingRule(Kind.SELECTION, null, 1000, 0, 1)));
+			logger.startMonitoring();
+			long now = System.currentTimeMillis();
+			for (int i = 0; i < 100; i++) {
+				logger.interactionObserved(event(Kind.SELECTION, "a", ORIGIN, now + i));
+			}
+			logger.interactionObserved(event(Kind.EDIT, "a", ORIGIN, now + 100));
+			logger.stopMonitoring();
+			List<InteractionEvent> events = logger.getHistoryFromFile(file);
+			assertEquals(2, events.size());
+			assertEquals(100, InteractionEventSampler.getCount(events.get(0)));
+			assertEquals(99, logger.getSampler().getCoalescedCount());
+		} finally {
+			logger.stopMonitoring();
+			file.delete();
+		}
+	}
+
+	public void testLoggerWritesExpiredSample() throws Exception {
+		File file = File.createTempFile("monitor-log", ".xml");
+		file.deleteOnExit();
+		InteractionEventLogger logger = new InteractionEventLogger(file);
+		try {
+			logger.setSamplingRules(Collections.singletonList(new SamplingRule(Kind.SELECTION, null, 1000, 0, 1)));
+			logger.startMonitoring();
+			long now = System.currentTimeMillis();
+			logger.interactionObserved(event(Kind.SELECTION, "a", ORIGIN, now - 2000));
+			logger.interactionObserved(event(Kind.SELECTION, "a", ORIGIN, now - 1500));
+			// the writer logs the merged selection without waiting for a further event
+			long deadline = System.currentTimeMillis() + 5000;
+			while (logger.getSampler().getExpiryDelay(now) != -1 && System.currentTimeMillis() < deadline) {
+				Thread.sleep(10);
+			}
+			assertEquals(-1, logger.getSampler().getExpiryDelay(now));
+			logger.interactionObserved(event(Kind.EDIT, "a", ORIGIN, now));
+			logger.stopMonitoring();
+			List<InteractionEvent> events = logger.getHistoryFromFile(file);
+			assertEquals(2, events.size());
+			assertEquals(Kind.SELECTION, events.get(0).getKind());
+			assertEquals(2, InteractionEventSampler.getCount(events.get(0)));
+			assertEquals(Kind.EDIT, events.get(1).getKind());
+		} finally {
+			logger.stopMonitoring();
+			file.delete();
+		}
+	}
+
+	private static InteractionEventSampler createSampler(SamplingRule... rules) {
+		List<SamplingRule> list = new ArrayList<SamplingRule>();
+		Collections.addAll(list, rules);
+		return new InteractionEventSampler(list);
+	}
+
+	private static InteractionEvent event(Kind kind, String handle, String originId, long time) {
+		return new InteractionEvent(kind, "kind", handle, originId, null, "delta", 1f, new Date(time), new Date(time));
+	}
+
+}
@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.monitor.usage.tests;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventLogger;
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventSerializer;
+import org.eclipse.mylyn.monitor.core.InteractionEvent;
+
+public class InteractionEventSerializerTest extends TestCase {
+
+	private static final String[] STRINGS = new String[] { null, "", "a<b>&\"'\r\n\tz",
+			"h\u00e9llo \u4e2d \ud83d\ude00", "=Project/src<org.eclipse{Type.java[Type~method~I",
+			"org.eclipse.ui.navigator.ProjectExplorer" };
+
+	private static final float[] FLOATS = new float[] { 0f, -0f, 1f, -1f, 2.5f, 1e7f, 9999999f, -9999999f, 1e-5f,
+			123456.78f, Float.NaN };
+
+	private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.S z", Locale.ENGLISH);
+
+	private final Random random = new Random(42);
+
+	private InteractionEventSerializer serializer;
+
+	@Override
+	protected void setUp() throws Exception {
+		serializer = new InteractionEventSerializer(16);
+	}
+
+	public void testMatchesLegacyFormat() throws Exception {
+		for (int i = 0; i < 10000; i++) {
+			InteractionEvent event = createRandomEvent();
+			serializer.reset();
+			assertTrue(serializer.serialize(event));
+			byte[] expected = writeLegacy(event).getBytes(StandardCharsets.UTF_8);
+			if (!Arrays.equals(expected, serializer.toByteArray())) {
+				assertEquals(writeLegacy(event), serializer.toString());
+			}
+		}
+	}
+
+	public void testSerializeMultiple() throws Exception {
+		InteractionEvent first = createRandomEvent();
+		InteractionEvent second = createRandomEvent();
+		serializer.reset();
+		serializer.serialize(first);
+		serializer.serialize(second);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		serializer.writeTo(out);
+		assertEquals(writeLegacy(first) + writeLegacy(second), new String(out.toByteArray(), StandardCharsets.UTF_8));
+		assertEquals(out.size(), serializer.size());
+	}
+
+	public void testSerializeInvalidEvent() throws Exception {
+		serializer.reset();
+		serializer.serialize(createRandomEvent());
+		int size = serializer.size();
+		assertFalse(serializer.serialize(new InteractionEvent(null, "kind", "handle", "origin")));
+		assertEquals(size, serializer.size());
+	}
+
+	@SuppressWarnings("deprecation")
+	public void testWriteLegacyEvent() throws Exception {
+		InteractionEvent event = createRandomEvent();
+		assertEquals(writeLegacy(event), new InteractionEventLogger(null).writeLegacyEvent(event));
+	}
+
+	public void testRoundTrip() throws Exception {
+		InteractionEvent event = new InteractionEvent(InteractionEvent.Kind.EDIT, "java", "/Project/src/Type.java",
+				"org.eclipse.jdt.ui.CompilationUnitEditor", "navigation", "delta", 2.5f);
+		serializer.reset();
+		serializer.serialize(event);
+		InteractionEvent result = new InteractionEventLogger(null).readLegacyEvent(serializer.toString());
+		assertEquals(event.getKind(), result.getKind());
+		assertEquals(event.getStructureHandle(), result.getStructureHandle());
+		assertEquals(event.getOriginId(), result.getOriginId());
+		assertEquals(event.getInterestContribution(), result.getInterestContribution());
+	}
+
+	private InteractionEvent createRandomEvent() {
+		InteractionEvent.Kind[] kinds = InteractionEvent.Kind.values();
+		long time = (random.nextBoolean()) ? random.nextLong() % 4000000000000L : System.currentTimeMillis()
+				+ random.nextInt(100000000);
+		return new InteractionEvent(kinds[random.nextInt(kinds.length)], randomString(), randomString(),
+				randomString(), randomString(), randomString(), FLOATS[random.nextInt(FLOATS.length)], new Date(time),
+				new Date(time + random.nextInt(5000)));
+	}
+
+	private String randomString() {
+		return STRINGS[random.nextInt(STRINGS.length)];
+	}
+
+	/**
+	 * The encoding used by the logger before InteractionEventSerializer was introduced.
+	 */
+	private String writeLegacy(InteractionEvent event) {
+		StringBuffer sb = new StringBuffer();
+		sb.append("<interactionEvent>\n");
+		sb.append("\t<kind>").append(event.getKind().toString()).append("</kind>\n");
+		sb.append("\t<date>").append(dateFormat.format(event.getDate())).append("</date>\n");
+		sb.append("\t<endDate>").append(dateFormat.format(event.getEndDate())).append("</endDate>\n");
+		appendElement(sb, "originId", event.getOriginId());
+		appendElement(sb, "structureKind", event.getStructureKind());
+		appendElement(sb, "structureHandle", event.getStructureHandle());
+		appendElement(sb, "navigation", event.getNavigation());
+		appendElement(sb, "delta", event.getDelta());
+		sb.append("\t<interestContribution>")
+				.append(event.getInterestContribution())
+				.append("</interestContribution>\n");
+		sb.append("</interactionEvent>\n");
+		return sb.toString();
+	}
+
+	@SuppressWarnings("deprecation")
+	private void appendElement(StringBuffer sb, String tag, String content) {
+		sb.append("\t<").append(tag).append(">");
+		if (content != null && content.length() > 0) {
+			sb.append(org.eclipse.mylyn.internal.commons.core.XmlStringConverter.convertToXmlString(content).replace(
+					"\n", "\n\t\t"));
+		}
+		sb.append("</").append(tag).append(">\n");
+	}
+
+}
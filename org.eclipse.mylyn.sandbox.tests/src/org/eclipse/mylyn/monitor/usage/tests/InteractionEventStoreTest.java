@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.monitor.usage.tests;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.SortedSet;
+
+import junit.framework.TestCase;
+
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventStore;
+import org.eclipse.mylyn.monitor.core.InteractionEvent;
+import org.eclipse.mylyn.monitor.core.InteractionEvent.Kind;
+
+public class InteractionEventStoreTest extends TestCase {
+
+	private final InteractionEventStore store = new InteractionEventStore();
+
+	public void testAddAndGet() {
+		InteractionEvent event = new InteractionEvent(Kind.EDIT, "java", "handle", "origin", "navigation", "delta", 0.5f,
+				new Date(1000), new Date(2000));
+		store.add(event);
+		store.add(new InteractionEvent(null, null, null, null, null, null, 0f, new Date(3000), new Date(3000)));
+		assertEquals(2, store.size());
+
+		InteractionEvent stored = store.get(0);
+		assertEquals(Kind.EDIT, stored.getKind());
+		assertEquals("java", stored.getStructureKind());
+		assertEquals("handle", stored.getStructureHandle());
+		assertEquals("origin", stored.getOriginId());
+		assertEquals("navigation", stored.getNavigation());
+		assertEquals("delta", stored.getDelta());
+		assertEquals(0.5f, stored.getInterestContribution());
+		assertEquals(new Date(1000), stored.getDate());
+		assertEquals(new Date(2000), stored.getEndDate());
+
+		InteractionEvent empty = store.get(1);
+		assertNull(empty.getKind());
+		assertNull(empty.getOriginId());
+		assertEquals(-1, store.getOriginIdCode(1));
+
+		try {
+			store.get(2);
+			fail("Expected IndexOutOfBoundsException");
+		} catch (IndexOutOfBoundsException e) {
+			// expected
+		}
+	}
+
+	public void testCodes() {
+		for (int i = 0; i < 1000; i++) {
+			store.add(event(i, "origin" + (i % 3), "delta" + i));
+		}
+		assertEquals(1000, store.size());
+		// three origin ids, a structure kind, a handle, a navigation and the deltas
+		assertEquals(3 + 3 + 1000, store.getStringCount());
+
+		int code = store.getCode("origin1");
+		assertEquals("origin1", store.decode(code));
+		assertEquals(-1, store.getCode("unknown"));
+		int count = 0;
+		for (int i = 0; i < store.size(); i++) {
+			if (store.getOriginIdCode(i) == code) {
+				count++;
+			}
+		}
+		assertEquals(333, count);
+	}
+
+	public void testSortRemovesDuplicates() {
+		store.add(event(3, "a", "x"));
+		store.add(event(1, "a", "first"));
+		store.add(event(2, "a", "x"));
+		store.add(event(1, "a", "second"));
+		store.add(event(1, "a", "first"));
+		store.add(event(3, "a", "x"));
+		store.sort();
+		assertDeltas(store.asSortedSet(), "first", "second", "x", "x");
+		assertEquals(4, store.size());
+		assertEquals(1, store.getDate(0));
+		assertEquals(3, store.getDate(3));
+	}
+
+	public void testLargeSort() {
+		List<InteractionEvent> events = new ArrayList<InteractionEvent>();
+		for (int i = 0; i < 10000; i++) {
+			events.add(event((i * 7919) % 10000, "origin", "delta" + i));
+		}
+		store.addAll(events);
+		SortedSet<InteractionEvent> set = store.asSortedSet();
+		assertEquals(10000, set.size());
+		long last = -1;
+		for (InteractionEvent event : set) {
+			assertTrue(event.getDate().getTime() > last);
+			last = event.getDate().getTime();
+		}
+	}
+
+	public void testSortedSetView() {
+		for (int i = 0; i < 10; i++) {
+			store.add(event(i * 10, "origin", "delta" + i));
+		}
+		SortedSet<InteractionEvent> set = store.asSortedSet();
+		assertEquals(10, set.size());
+		assertEquals("delta0", set.first().getDelta());
+		assertEquals("delta9", set.last().getDelta());
+		assertTrue(set.contains(event(50, "origin", "delta5")));
+		assertFalse(set.contains(event(50, "origin", "other")));
+		assertFalse(set.contains(event(55, "origin", "delta5")));
+
+		assertDeltas(set.subSet(event(20, "", ""), event(50, "", "")), "delta2", "delta3", "delta4");
+		assertDeltas(set.headSet(event(15, "", "")), "delta0", "delta1");
+		assertDeltas(set.tailSet(event(85, "", "")), "delta9");
+		assertDeltas(set.tailSet(event(50, "", "")).headSet(event(70, "", "")), "delta5", "delta6");
+		assertTrue(set.headSet(event(0, "", "")).isEmpty());
+		try {
+			set.headSet(event(0, "", "")).first();
+			fail("Expected NoSuchElementException");
+		} catch (NoSuchElementException e) {
+			// expected
+		}
+
+		Iterator<InteractionEvent> it = set.iterator();
+		it.next();
+		try {
+			it.remove();
+			fail("Expected UnsupportedOperationException");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+	}
+
+	private void assertDeltas(SortedSet<InteractionEvent> events, String... deltas) {
+		assertEquals(deltas.length, events.size());
+		int i = 0;
+		for (InteractionEvent event : events) {
+			assertEquals(deltas[i++], event.getDelta());
+		}
+	}
+
+	private static InteractionEvent event(long time, String originId, String delta) {
+		return new InteractionEvent(Kind.SELECTION, "java", "handle", originId, "null", delta, 1f, new Date(time),
+				new Date(time));
+	}
+
+}
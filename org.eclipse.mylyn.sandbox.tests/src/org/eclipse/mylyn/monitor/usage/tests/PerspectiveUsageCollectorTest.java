@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.monitor.usage.tests;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.eclipse.mylyn.internal.monitor.ui.PerspectiveChangeMonitor;
+import org.eclipse.mylyn.internal.monitor.usage.collectors.MergeableUsageCollector;
+import org.eclipse.mylyn.internal.monitor.usage.collectors.PerspectiveUsageCollector;
+import org.eclipse.mylyn.monitor.core.InteractionEvent;
+import org.eclipse.mylyn.monitor.core.InteractionEvent.Kind;
+
+public class PerspectiveUsageCollectorTest extends TestCase {
+
+	private final List<InteractionEvent> events = new ArrayList<InteractionEvent>();
+
+	private final List<Integer> userIds = new ArrayList<Integer>();
+
+	@Override
+	protected void setUp() throws Exception {
+		for (int user = 0; user < 3; user++) {
+			for (int i = 0; i < 100; i++) {
+				if (i % 17 == 5) {
+					add(user, new InteractionEvent(Kind.PREFERENCE, "null", "null", "perspective" + (i % 3), "null",
+							PerspectiveChangeMonitor.PERSPECTIVE_ACTIVATED, 1f, new Date(i), new Date(i)));
+				} else {
+					add(user, new InteractionEvent(Kind.SELECTION, "java", "handle" + i, "view", "null", "delta", 1f,
+							new Date(i), new Date(i)));
+				}
+			}
+		}
+	}
+
+	public void testMergeByUser() {
+		assertMerged(new int[] { 0, 100, 200, 300 });
+	}
+
+	public void testMergeByTime() {
+		// the perspective that is active at the end of a share carries over
+		assertMerged(new int[] { 0, 3, 5, 6, 50, 51, 160, 300 });
+	}
+
+	public void testMergeEmpty() {
+		assertMerged(new int[] { 0, 0, 150, 150, 300 });
+	}
+
+	private void assertMerged(int[] shares) {
+		PerspectiveUsageCollector serial = new PerspectiveUsageCollector();
+		consume(serial, 0, events.size());
+
+		PerspectiveUsageCollector merged = new PerspectiveUsageCollector();
+		for (int i = 0; i < shares.length - 1; i++) {
+			MergeableUsageCollector partial = merged.newPartial();
+			consume(partial, shares[i], shares[i + 1]);
+			merged.merge(partial);
+		}
+		assertEquals(serial.getPlainTextReport(), merged.getPlainTextReport());
+	}
+
+	private void consume(MergeableUsageCollector collector, int start, int end) {
+		for (int i = start; i < end; i++) {
+			collector.consumeEvent(events.get(i), userIds.get(i));
+		}
+	}
+
+	private void add(int user, InteractionEvent event) {
+		events.add(event);
+		userIds.add(user);
+	}
+
+}
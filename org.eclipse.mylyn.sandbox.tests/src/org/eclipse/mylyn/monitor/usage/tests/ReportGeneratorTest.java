@@ -0,0 +1,243 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.monitor.usage.tests;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.mylyn.internal.monitor.core.collection.IUsageCollector;
+import org.eclipse.mylyn.internal.monitor.core.collection.IUsageScanner;
+import org.eclipse.mylyn.internal.monitor.core.collection.InteractionEventSummary;
+import org.eclipse.mylyn.internal.monitor.ui.PerspectiveChangeMonitor;
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventLogConverter;
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventLogger;
+import org.eclipse.mylyn.internal.monitor.usage.ReportGenerator;
+import org.eclipse.mylyn.internal.monitor.usage.UsageStatisticsSummary;
+import org.eclipse.mylyn.internal.monitor.usage.collectors.MergeableUsageCollector;
+import org.eclipse.mylyn.internal.monitor.usage.collectors.PerspectiveUsageCollector;
+import org.eclipse.mylyn.monitor.core.InteractionEvent;
+import org.eclipse.mylyn.monitor.core.InteractionEvent.Kind;
+
+public class ReportGeneratorTest extends TestCase {
+
+	private static final int USER_COUNT = 12;
+
+	private final List<File> files = new ArrayList<File>();
+
+	private ExecutorService executor;
+
+	@Override
+	protected void setUp() throws Exception {
+		executor = Executors.newFixedThreadPool(4);
+		for (int user = 0; user < USER_COUNT; user++) {
+			// overlapping files, the second repeats the last events of the first
+			files.add(createFile(user, 0, 200));
+			files.add(createFile(user, 150, 300));
+		}
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		executor.shutdown();
+		for (File file : files) {
+			file.delete();
+		}
+	}
+
+	public void testParallelMatchesSerial() throws Exception {
+		RecordingCollector serialCollector = new RecordingCollector();
+		UsageStatisticsSummary serial = generate(serialCollector, null);
+		assertEquals(USER_COUNT * 300, serialCollector.events.size());
+
+		for (int maxPendingUsers : new int[] { 1, 3, USER_COUNT * 2 }) {
+			RecordingCollector parallelCollector = new RecordingCollector();
+			ReportGenerator generator = new ReportGenerator(new InteractionEventLogger(null), parallelCollector);
+			generator.setExecutor(executor, maxPendingUsers);
+			generator.getStatisticsFromInteractionHistories(files, new NullProgressMonitor());
+			UsageStatisticsSummary parallel = generator.getLastParsedSummary();
+
+			assertEquals(serialCollector.events, parallelCollector.events);
+			assertEquals(toString(serial.getSingleSummaries()), toString(parallel.getSingleSummaries()));
+			assertEquals(1, parallel.getCollectors().size());
+		}
+	}
+
+	public void testParallelMergeableCollectors() throws Exception {
+		PerspectiveUsageCollector serialCollector = new PerspectiveUsageCollector();
+		UsageStatisticsSummary serial = generate(serialCollector, null);
+
+		final int[] merges = new int[1];
+		PerspectiveUsageCollector parallelCollector = new PerspectiveUsageCollector() {
+			@Override
+			public void merge(MergeableUsageCollector partial) {
+				super.merge(partial);
+				merges[0]++;
+			}
+		};
+		UsageStatisticsSummary parallel = generate(parallelCollector, executor);
+		assertEquals(USER_COUNT, merges[0]);
+		assertEquals(serialCollector.getPlainTextReport(), parallelCollector.getPlainTextReport());
+		assertEquals(toString(serial.getSingleSummaries()), toString(parallel.getSingleSummaries()));
+	}
+
+	public void testStreamingMatchesSavedEvents() throws Exception {
+		RecordingCollector streamingCollector = new RecordingCollector();
+		ReportGenerator streaming = new ReportGenerator(new InteractionEventLogger(null), streamingCollector);
+		streaming.getStatisticsFromInteractionHistories(files, new NullProgressMonitor());
+		assertNull(streaming.getAllUsers());
+
+		RecordingCollector savingCollector = new RecordingCollector();
+		ReportGenerator saving = new ReportGenerator(new InteractionEventLogger(null), savingCollector, true);
+		saving.getStatisticsFromInteractionHistories(files, new NullProgressMonitor());
+		assertEquals(USER_COUNT, saving.getAllUsers().size());
+
+		assertEquals(USER_COUNT * 300, streamingCollector.events.size());
+		assertEquals(savingCollector.events, streamingCollector.events);
+		assertEquals(toString(saving.getLastParsedSummary().getSingleSummaries()),
+				toString(streaming.getLastParsedSummary().getSingleSummaries()));
+	}
+
+	public void testUnorderedLog() throws Exception {
+		File file = File.createTempFile("study-1-usage-" + USER_COUNT + "-", ".xml");
+		files.add(file);
+		List<InteractionEvent> events = new ArrayList<InteractionEvent>();
+		for (int i = 100; i > 0; i--) {
+			Date date = new Date(1267401600000L + i * 1000L);
+			events.add(new InteractionEvent(Kind.SELECTION, "java", "handle" + i, "origin", "null", "delta" + i, 1f,
+					date, date));
+		}
+		InteractionEventLogConverter.write(events, file, false);
+
+		RecordingCollector streamingCollector = new RecordingCollector();
+		generate(streamingCollector, null);
+		RecordingCollector savingCollector = new RecordingCollector();
+		ReportGenerator saving = new ReportGenerator(new InteractionEventLogger(null), savingCollector, true);
+		saving.getStatisticsFromInteractionHistories(files, new NullProgressMonitor());
+		// the events of the unordered log are sorted like the saved events
+		assertEquals(USER_COUNT * 300 + 100, streamingCollector.events.size());
+		assertEquals(savingCollector.events, streamingCollector.events);
+	}
+
+	public void testScannersBeforeCollectors() throws Exception {
+		final List<String> log = new ArrayList<String>();
+		IUsageScanner scanner = new IUsageScanner() {
+			public void scanEvent(InteractionEvent event, int userId) {
+				log.add("scan:" + userId);
+			}
+
+			public boolean accept() {
+				return true;
+			}
+		};
+		IUsageCollector collector = new RecordingCollector() {
+			@Override
+			public void consumeEvent(InteractionEvent event, int userId) {
+				log.add("consume:" + userId);
+			}
+		};
+		ReportGenerator generator = new ReportGenerator(new InteractionEventLogger(null), collector);
+		generator.setScanners(Collections.singletonList(scanner));
+		generator.getStatisticsFromInteractionHistories(files, new NullProgressMonitor());
+
+		assertEquals(USER_COUNT * 300 * 2, log.size());
+		// each user is scanned completely before the collectors see its first event
+		for (int i = 0; i < log.size(); i += 600) {
+			for (int j = 0; j < 300; j++) {
+				assertTrue(log.get(i + j).startsWith("scan:"));
+				assertTrue(log.get(i + 300 + j).startsWith("consume:"));
+			}
+		}
+	}
+
+	public void testUnreadableFile() throws Exception {
+		File missing = File.createTempFile("study-1-usage-99-", ".xml");
+		missing.delete();
+		files.add(missing);
+
+		RecordingCollector serialCollector = new RecordingCollector();
+		UsageStatisticsSummary serial = generate(serialCollector, null);
+		RecordingCollector parallelCollector = new RecordingCollector();
+		UsageStatisticsSummary parallel = generate(parallelCollector, executor);
+		assertEquals(serialCollector.events, parallelCollector.events);
+		assertEquals(toString(serial.getSingleSummaries()), toString(parallel.getSingleSummaries()));
+	}
+
+	private UsageStatisticsSummary generate(IUsageCollector collector, ExecutorService executor) {
+		ReportGenerator generator = new ReportGenerator(new InteractionEventLogger(null), collector);
+		if (executor != null) {
+			generator.setExecutor(executor, 4);
+		}
+		generator.getStatisticsFromInteractionHistories(files, new NullProgressMonitor());
+		return generator.getLastParsedSummary();
+	}
+
+	private static List<String> toString(List<InteractionEventSummary> summaries) {
+		List<String> result = new ArrayList<String>();
+		for (InteractionEventSummary summary : summaries) {
+			result.add(summary.getName() + ":" + summary.getUsageCount() + ":" + summary.getInterestContribution()
+					+ ":" + new ArrayList<Integer>(summary.getUserIds()));
+		}
+		Collections.sort(result);
+		return result;
+	}
+
+	private File createFile(int user, int start, int end) throws Exception {
+		File file = File.createTempFile("study-1-usage-" + user + "-", ".xml");
+		List<InteractionEvent> events = new ArrayList<InteractionEvent>();
+		for (int i = start; i < end; i++) {
+			Date date = new Date(1267401600000L + i * 1000L);
+			if (i % 5 == 0) {
+				events.add(new InteractionEvent(Kind.PREFERENCE, "null", "null", "perspective" + (i % 3), "null",
+						PerspectiveChangeMonitor.PERSPECTIVE_ACTIVATED, user, date, date));
+			} else {
+				events.add(new InteractionEvent(Kind.SELECTION, "java", "handle" + i, "origin" + (i % 7), "null",
+						"delta" + i, user, date, date));
+			}
+		}
+		InteractionEventLogConverter.write(events, file, false);
+		return file;
+	}
+
+	private static class RecordingCollector implements IUsageCollector {
+
+		private final List<String> events = new ArrayList<String>();
+
+		public void consumeEvent(InteractionEvent event, int userId) {
+			events.add(userId + ":" + event.getDelta());
+		}
+
+		public String getReportTitle() {
+			return "Recording";
+		}
+
+		public List<String> getReport() {
+			return events;
+		}
+
+		public void exportAsCSVFile(String directory) {
+		}
+
+		public List<String> getPlainTextReport() {
+			return events;
+		}
+
+	}
+
+}
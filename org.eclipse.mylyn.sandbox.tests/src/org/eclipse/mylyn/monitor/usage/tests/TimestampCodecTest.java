@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.monitor.usage.tests;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+
+import junit.framework.TestCase;
+
+import org.eclipse.mylyn.internal.monitor.usage.TimestampCodec;
+
+public class TimestampCodecTest extends TestCase {
+
+	private static final String[] ZONES = new String[] { "America/Los_Angeles", "America/New_York", "Europe/Berlin",
+			"Europe/London", "Asia/Kolkata", "Australia/Sydney", "Pacific/Chatham", "UTC" };
+
+	private final Random random = new Random(7);
+
+	public void testFormatMatchesSimpleDateFormat() {
+		for (String id : ZONES) {
+			TimeZone timeZone = TimeZone.getTimeZone(id);
+			TimestampCodec codec = new TimestampCodec(timeZone);
+			SimpleDateFormat format = createFormat(timeZone);
+			for (int i = 0; i < 2000; i++) {
+				long time = randomTime();
+				assertEquals(id, format.format(new Date(time)), codec.format(time));
+			}
+		}
+	}
+
+	public void testFormatOutsideFastRange() {
+		TimeZone timeZone = TimeZone.getTimeZone("Europe/Berlin");
+		TimestampCodec codec = new TimestampCodec(timeZone);
+		SimpleDateFormat format = createFormat(timeZone);
+		for (long time : new long[] { Long.MIN_VALUE / 2, -3000000000000L, 5000000000000L, Long.MAX_VALUE / 2 }) {
+			assertEquals(format.format(new Date(time)), codec.format(time));
+		}
+	}
+
+	public void testParseRoundTrip() throws Exception {
+		for (String id : ZONES) {
+			TimestampCodec codec = new TimestampCodec(TimeZone.getTimeZone(id));
+			for (int i = 0; i < 2000; i++) {
+				long time = randomTime();
+				assertEquals(id, time, codec.parseMillis(codec.format(time)));
+			}
+		}
+	}
+
+	public void testParseOtherZones() throws Exception {
+		TimeZone timeZone = TimeZone.getTimeZone("Europe/Berlin");
+		TimestampCodec codec = new TimestampCodec(timeZone);
+		for (String zone : new String[] { "PST", "PDT", "EST", "CEST", "IST", "GMT", "UTC", "JST", "GMT+05:30" }) {
+			for (String date : new String[] { "2009-01-15 10:00:00.5", "2009-07-15 23:59:59.999" }) {
+				String text = date + " " + zone;
+				assertEquals(text, createFormat(timeZone).parse(text), codec.parse(text));
+			}
+		}
+	}
+
+	public void testParseInvalid() {
+		TimestampCodec codec = TimestampCodec.getDefault();
+		try {
+			codec.parse("2009-01-15");
+			fail("Expected ParseException");
+		} catch (ParseException e) {
+			// expected
+		}
+	}
+
+	public void testConcurrentUse() throws Exception {
+		final TimestampCodec codec = new TimestampCodec(TimeZone.getTimeZone("America/Los_Angeles"));
+		final List<Throwable> failures = new ArrayList<Throwable>();
+		List<Thread> threads = new ArrayList<Thread>();
+		for (int t = 0; t < 4; t++) {
+			final long seed = t;
+			Thread thread = new Thread() {
+				@Override
+				public void run() {
+					SimpleDateFormat format = createFormat(TimeZone.getTimeZone("America/Los_Angeles"));
+					Random threadRandom = new Random(seed);
+					try {
+						for (int i = 0; i < 10000; i++) {
+							long time = 1000000000000L + (long) (threadRandom.nextDouble() * 1000000000000L);
+							String text = codec.format(time);
+							assertEquals(format.format(new Date(time)), text);
+							assertEquals(time, codec.parseMillis(text));
+						}
+					} catch (Throwable e) {
+						synchronized (failures) {
+							failures.add(e);
+						}
+					}
+				}
+			};
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertEquals(failures.toString(), 0, failures.size());
+	}
+
+	private long randomTime() {
+		// 1970 to 2033
+		return (long) (random.nextDouble() * 2000000000000L);
+	}
+
+	private SimpleDateFormat createFormat(TimeZone timeZone) {
+		SimpleDateFormat format = new SimpleDateFormat(TimestampCodec.PATTERN, Locale.ENGLISH);
+		format.setTimeZone(timeZone);
+		return format;
+	}
+
+}
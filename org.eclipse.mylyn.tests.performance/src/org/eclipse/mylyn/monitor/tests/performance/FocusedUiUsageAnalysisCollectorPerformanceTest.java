@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.monitor.tests.performance;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.eclipse.mylyn.internal.monitor.reports.collectors.FocusedUiUsageAnalysisCollector;
+import org.eclipse.mylyn.internal.tasks.ui.actions.TaskActivateAction;
+import org.eclipse.mylyn.internal.tasks.ui.actions.TaskDeactivateAction;
+import org.eclipse.mylyn.monitor.core.InteractionEvent;
+import org.eclipse.mylyn.monitor.core.InteractionEvent.Kind;
+import org.eclipse.mylyn.tests.performance.PerformanceConstants;
+import org.eclipse.test.performance.PerformanceTestCase;
+
+/**
+ * Measures consuming a synthetic stream of a million events with {@link FocusedUiUsageAnalysisCollector}. The stream
+ * is made of the same events consumed for several groups of users, so that the events do not dominate the heap.
+ */
+public class FocusedUiUsageAnalysisCollectorPerformanceTest extends PerformanceTestCase {
+
+	private static final int EVENT_COUNT = 1000000;
+
+	private static final int GROUP_COUNT = 10;
+
+	private static final int USERS_PER_GROUP = 20;
+
+	/**
+	 * The number of consecutive events of a user.
+	 */
+	private static final int RUN_LENGTH = 500;
+
+	private static final String EXPLORER = "org.eclipse.jdt.ui.PackageExplorer";
+
+	private static final String EDITOR = "org.eclipse.jdt.ui.CompilationUnitEditor";
+
+	private final List<InteractionEvent> events = new ArrayList<InteractionEvent>();
+
+	private int[] users;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		int groupEventCount = EVENT_COUNT / GROUP_COUNT;
+		users = new int[groupEventCount];
+		long time = 1267401600000L;
+		for (int i = 0; i < groupEventCount; i++) {
+			users[i] = (i / RUN_LENGTH) % USERS_PER_GROUP;
+			time += (i % 1000 == 999) ? 10 * 60 * 1000 : 1000;
+			Date date = new Date(time);
+			// each user activates and deactivates a task in every run
+			int position = i % RUN_LENGTH;
+			if (position == RUN_LENGTH / 4) {
+				events.add(command(TaskActivateAction.ID, date));
+			} else if (position == RUN_LENGTH * 3 / 4) {
+				events.add(command(TaskDeactivateAction.ID, date));
+			} else if (i % 3 == 0) {
+				events.add(new InteractionEvent(Kind.EDIT, "java", "A.java", EDITOR, "null", "edit", 1f, date, date));
+			} else {
+				events.add(new InteractionEvent(Kind.SELECTION, "java", "A.java", EXPLORER, "null", "select", 1f,
+						date, date));
+			}
+		}
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		events.clear();
+		super.tearDown();
+	}
+
+	public void testConsume() {
+		for (int i = 0; i < PerformanceConstants.REPEAT; i++) {
+			FocusedUiUsageAnalysisCollector collector = new FocusedUiUsageAnalysisCollector();
+			startMeasuring();
+			consume(collector);
+			stopMeasuring();
+			assertTrue(collector.getNumBaselineEdits(0) > 0);
+		}
+
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private void consume(FocusedUiUsageAnalysisCollector collector) {
+		for (int group = 0; group < GROUP_COUNT; group++) {
+			int firstUser = group * USERS_PER_GROUP;
+			for (int i = 0; i < users.length; i++) {
+				collector.consumeEvent(events.get(i), firstUser + users[i]);
+			}
+		}
+	}
+
+	private static InteractionEvent command(String id, Date date) {
+		return new InteractionEvent(Kind.COMMAND, "null", "null", id, "null", "", 1f, date, date);
+	}
+
+}
@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.monitor.tests.performance;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventLogConverter;
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventParallelLoader;
+import org.eclipse.mylyn.monitor.core.InteractionEvent;
+import org.eclipse.mylyn.tests.performance.PerformanceConstants;
+import org.eclipse.test.performance.PerformanceTestCase;
+
+/**
+ * Measures loading a large monitor log with {@link InteractionEventParallelLoader} on a single thread and on all cores,
+ * the ratio of the two measurements is the speedup on the cores of the machine. Each load is checked against a load
+ * on a single thread.
+ */
+public class InteractionEventParallelLoaderPerformanceTest extends PerformanceTestCase {
+
+	private static final int EVENT_COUNT = 500000;
+
+	private File file;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		file = File.createTempFile("monitor-log", ".xml");
+		file.deleteOnExit();
+		InteractionEventLogConverter.write(InteractionEventSerializerPerformanceTest.createEvents(EVENT_COUNT), file,
+				false);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		file.delete();
+		super.tearDown();
+	}
+
+	public void testLoad() throws Exception {
+		List<InteractionEvent> expected = loadSerially();
+		assertEquals(EVENT_COUNT, expected.size());
+		InteractionEventParallelLoader loader = new InteractionEventParallelLoader();
+		for (int i = 0; i < PerformanceConstants.REPEAT; i++) {
+			startMeasuring();
+			List<InteractionEvent> events = loader.load(file);
+			stopMeasuring();
+			assertEvents(expected, events);
+		}
+
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	public void testLoadSingleThread() throws Exception {
+		measureLoad(1);
+	}
+
+	public void testLoadAllCores() throws Exception {
+		measureLoad(Runtime.getRuntime().availableProcessors());
+	}
+
+	private void measureLoad(int parallelism) throws Exception {
+		List<InteractionEvent> expected = loadSerially();
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			InteractionEventParallelLoader loader = new InteractionEventParallelLoader(pool,
+					InteractionEventParallelLoader.DEFAULT_MIN_CHUNK_SIZE);
+			for (int i = 0; i < PerformanceConstants.REPEAT; i++) {
+				startMeasuring();
+				List<InteractionEvent> events = loader.load(file);
+				stopMeasuring();
+				assertEvents(expected, events);
+			}
+		} finally {
+			pool.shutdown();
+		}
+
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private List<InteractionEvent> loadSerially() throws Exception {
+		ForkJoinPool pool = new ForkJoinPool(1);
+		try {
+			return new InteractionEventParallelLoader(pool, InteractionEventParallelLoader.DEFAULT_MIN_CHUNK_SIZE)
+					.load(file);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	private static void assertEvents(List<InteractionEvent> expected, List<InteractionEvent> actual) {
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).getStructureHandle(), actual.get(i).getStructureHandle());
+			assertEquals(expected.get(i).getDelta(), actual.get(i).getDelta());
+			assertEquals(expected.get(i).getDate(), actual.get(i).getDate());
+		}
+	}
+
+}
@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.monitor.tests.performance;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventParser;
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventSerializer;
+import org.eclipse.mylyn.monitor.core.InteractionEvent;
+import org.eclipse.mylyn.tests.performance.PerformanceConstants;
+import org.eclipse.test.performance.PerformanceTestCase;
+
+/**
+ * Compares {@link InteractionEventParser} with the original parser based on HtmlStreamTokenizer.
+ */
+public class InteractionEventParserPerformanceTest extends PerformanceTestCase {
+
+	private static final int EVENT_COUNT = 20000;
+
+	private List<String> records;
+
+	private List<byte[]> encodedRecords;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		records = new ArrayList<String>(EVENT_COUNT);
+		encodedRecords = new ArrayList<byte[]>(EVENT_COUNT);
+		InteractionEventSerializer serializer = new InteractionEventSerializer();
+		for (InteractionEvent event : InteractionEventSerializerPerformanceTest.createEvents(EVENT_COUNT)) {
+			serializer.reset();
+			serializer.serialize(event);
+			records.add(serializer.toString());
+			encodedRecords.add(serializer.toByteArray());
+		}
+	}
+
+	public void testParse() {
+		InteractionEventParser parser = new InteractionEventParser();
+		for (int i = 0; i < PerformanceConstants.REPEAT; i++) {
+			startMeasuring();
+			for (byte[] record : encodedRecords) {
+				assertNotNull(parser.parse(record, 0, record.length));
+			}
+			stopMeasuring();
+		}
+
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	public void testParseWithTokenizer() {
+		for (int i = 0; i < PerformanceConstants.REPEAT; i++) {
+			startMeasuring();
+			for (String record : records) {
+				assertNotNull(InteractionEventParser.parseWithTokenizer(record));
+			}
+			stopMeasuring();
+		}
+
+		commitMeasurements();
+		assertPerformance();
+	}
+
+}
@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.monitor.tests.performance;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+import org.eclipse.mylyn.internal.commons.core.XmlStringConverter;
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventSerializer;
+import org.eclipse.mylyn.monitor.core.InteractionEvent;
+import org.eclipse.mylyn.tests.performance.PerformanceConstants;
+import org.eclipse.test.performance.PerformanceTestCase;
+
+/**
+ * Compares {@link InteractionEventSerializer} with the StringBuffer based encoding the logger used before. The meter
+ * records the heap used by each measurement besides the time, so the pair of tests also shows the allocations per
+ * event of both encodings.
+ */
+public class InteractionEventSerializerPerformanceTest extends PerformanceTestCase {
+
+	private static final int EVENT_COUNT = 20000;
+
+	private static final String[] TAGS = new String[] { "originId", "structureKind", "structureHandle", "navigation",
+			"delta" };
+
+	private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.S z", Locale.ENGLISH);
+
+	private List<InteractionEvent> events;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		events = createEvents(EVENT_COUNT);
+	}
+
+	public void testSerialize() {
+		InteractionEventSerializer serializer = new InteractionEventSerializer();
+		for (int i = 0; i < PerformanceConstants.REPEAT; i++) {
+			startMeasuring();
+			serializer.reset();
+			for (InteractionEvent event : events) {
+				serializer.serialize(event);
+			}
+			stopMeasuring();
+			assertTrue(serializer.size() > 0);
+		}
+
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	public void testSerializeLegacy() {
+		for (int i = 0; i < PerformanceConstants.REPEAT; i++) {
+			startMeasuring();
+			int size = 0;
+			for (InteractionEvent event : events) {
+				size += serializeLegacy(event).length;
+			}
+			stopMeasuring();
+			assertTrue(size > 0);
+		}
+
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	/**
+	 * The encoding used by the logger before InteractionEventSerializer was introduced.
+	 */
+	private byte[] serializeLegacy(InteractionEvent event) {
+		StringBuffer sb = new StringBuffer();
+		sb.append("<interactionEvent>\n");
+		sb.append("\t<kind>").append(event.getKind().toString()).append("</kind>\n");
+		sb.append("\t<date>").append(dateFormat.format(event.getDate())).append("</date>\n");
+		sb.append("\t<endDate>").append(dateFormat.format(event.getEndDate())).append("</endDate>\n");
+		String[] values = new String[] { event.getOriginId(), event.getStructureKind(), event.getStructureHandle(),
+				event.getNavigation(), event.getDelta() };
+		for (int i = 0; i < TAGS.length; i++) {
+			sb.append("\t<").append(TAGS[i]).append(">");
+			if (values[i] != null && values[i].length() > 0) {
+				sb.append(XmlStringConverter.convertToXmlString(values[i]).replace("\n", "\n\t\t"));
+			}
+			sb.append("</").append(TAGS[i]).append(">\n");
+		}
+		sb.append("\t<interestContribution>").append(event.getInterestContribution()).append(
+				"</interestContribution>\n");
+		sb.append("</interactionEvent>\n");
+		return sb.toString().getBytes();
+	}
+
+	static List<InteractionEvent> createEvents(int count) {
+		InteractionEvent.Kind[] kinds = InteractionEvent.Kind.values();
+		List<InteractionEvent> events = new ArrayList<InteractionEvent>(count);
+		long time = System.currentTimeMillis();
+		for (int i = 0; i < count; i++) {
+			time += i % 7 * 150;
+			Date date = new Date(time);
+			String handle = "=Project/src<org.eclipse{Type" + (i % 100) + ".java";
+			events.add(new InteractionEvent(kinds[i % kinds.length], "java", handle,
+					"org.eclipse.jdt.ui.CompilationUnitEditor", "null", "null", 1f, date, date));
+		}
+		return events;
+	}
+
+}
@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.monitor.tests.performance;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventCursor;
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventLogConverter;
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventLogReader;
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventLogger;
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventParser;
+import org.eclipse.mylyn.internal.monitor.usage.InteractionEventStringPool;
+import org.eclipse.mylyn.monitor.core.InteractionEvent;
+import org.eclipse.mylyn.tests.performance.PerformanceConstants;
+import org.eclipse.test.performance.PerformanceTestCase;
+
+/**
+ * Measures loading a large log with a {@link InteractionEventStringPool} and compares the strings retained by the
+ * events with and without the pool.
+ */
+public class InteractionEventStringPoolPerformanceTest extends PerformanceTestCase {
+
+	private static final int EVENT_COUNT = 500000;
+
+	private File file;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		file = File.createTempFile("monitor-log", ".xml");
+		file.deleteOnExit();
+		InteractionEventLogConverter.write(InteractionEventSerializerPerformanceTest.createEvents(EVENT_COUNT), file,
+				false);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		file.delete();
+		super.tearDown();
+	}
+
+	public void testLoadPooled() throws Exception {
+		InteractionEventLogger logger = new InteractionEventLogger(file);
+		for (int i = 0; i < PerformanceConstants.REPEAT; i++) {
+			startMeasuring();
+			List<InteractionEvent> events = load(logger.openHistory(file));
+			stopMeasuring();
+			assertEquals(EVENT_COUNT, events.size());
+		}
+
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	/**
+	 * Counts the field strings the events retain instead of sampling the heap, which depends on the garbage collector.
+	 */
+	public void testDistinctStrings() throws Exception {
+		List<InteractionEvent> events = loadUnpooled();
+		assertEquals(EVENT_COUNT, events.size());
+		int unpooled = countInstances(events);
+
+		events = load(new InteractionEventLogger(file).openHistory(file));
+		assertEquals(EVENT_COUNT, events.size());
+		int pooled = countInstances(events);
+
+		// the pooled events share a single instance per distinct value
+		assertEquals(countValues(events), pooled);
+		assertTrue(pooled < unpooled);
+	}
+
+	private static List<InteractionEvent> load(InteractionEventCursor cursor) {
+		List<InteractionEvent> events = new ArrayList<InteractionEvent>(EVENT_COUNT);
+		try {
+			while (cursor.hasNext()) {
+				events.add(cursor.next());
+			}
+		} finally {
+			cursor.close();
+		}
+		return events;
+	}
+
+	/**
+	 * Parses the log without a pool, only the retained strings of these events are compared.
+	 */
+	private List<InteractionEvent> loadUnpooled() throws Exception {
+		List<InteractionEvent> events = new ArrayList<InteractionEvent>(EVENT_COUNT);
+		InteractionEventParser parser = new InteractionEventParser();
+		InteractionEventLogReader reader = new InteractionEventLogReader(new FileInputStream(file).getChannel());
+		try {
+			while (reader.nextRecord()) {
+				events.add(parser.parse(reader.getRecord()));
+			}
+		} finally {
+			reader.close();
+		}
+		return events;
+	}
+
+	private static int countInstances(List<InteractionEvent> events) {
+		Map<String, Boolean> instances = new IdentityHashMap<String, Boolean>();
+		for (InteractionEvent event : events) {
+			for (String value : getPooledFields(event)) {
+				instances.put(value, Boolean.TRUE);
+			}
+		}
+		return instances.size();
+	}
+
+	private static int countValues(List<InteractionEvent> events) {
+		Set<String> values = new HashSet<String>();
+		for (InteractionEvent event : events) {
+			Collections.addAll(values, getPooledFields(event));
+		}
+		return values.size();
+	}
+
+	private static String[] getPooledFields(InteractionEvent event) {
+		return new String[] { event.getOriginId(), event.getStructureKind(), event.getNavigation() };
+	}
+
+}
@@ -0,0 +1,33 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.tests.performance;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+import org.eclipse.mylyn.monitor.tests.performance.FocusedUiUsageAnalysisCollectorPerformanceTest;
+import org.eclipse.mylyn.monitor.tests.performance.InteractionEventParallelLoaderPerformanceTest;
+import org.eclipse.mylyn.monitor.tests.performance.InteractionEventParserPerformanceTest;
+import org.eclipse.mylyn.monitor.tests.performance.InteractionEventSerializerPerformanceTest;
+import org.eclipse.mylyn.monitor.tests.performance.InteractionEventStringPoolPerformanceTest;
+
+public class AllMonitorPerformanceTests {
+	public static Test suite() {
+		TestSuite suite = new TestSuite("Test for org.eclipse.mylyn.monitor.tests.performance");
+		suite.addTestSuite(InteractionEventSerializerPerformanceTest.class);
+		suite.addTestSuite(InteractionEventParserPerformanceTest.class);
+		suite.addTestSuite(InteractionEventParallelLoaderPerformanceTest.class);
+		suite.addTestSuite(InteractionEventStringPoolPerformanceTest.class);
+		suite.addTestSuite(FocusedUiUsageAnalysisCollectorPerformanceTest.class);
+		return suite;
+	}
+}
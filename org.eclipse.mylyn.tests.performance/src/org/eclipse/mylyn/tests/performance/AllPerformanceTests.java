@@ -23,6 +23,7 @@ public class AllPerformanceTests {
 		TestSuite suite = new TestSuite("Performance tests for org.eclipse.mylyn.tests.performance");
 		suite.addTest(AllTasksPerformanceTests.suite());
 		suite.addTest(AllResourcesPerformanceTests.suite());
+		suite.addTest(AllMonitorPerformanceTests.suite());
 		return suite;
 	}
 